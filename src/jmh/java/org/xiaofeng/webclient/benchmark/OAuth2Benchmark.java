@@ -0,0 +1,91 @@
+package org.xiaofeng.webclient.benchmark;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.oauth2.OAuth2Config;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OAuth2Benchmark class
+ * <p>
+ * Measures the cost of the authenticated mode against the in-process stub server: the same small
+ * GET without OAuth2 and with a bearer token served from the cache, the token being fetched once
+ * from the POST /token endpoint of the stub server during the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OAuth2Benchmark {
+    private StubServer server;
+
+    private Injector plainInjector;
+
+    private Injector authenticatedInjector;
+
+    private WebClientService plain;
+
+    private WebClientService authenticated;
+
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new StubServer();
+        url = server.baseUrl() + "/small";
+        plainInjector = Guice.createInjector(new WebClientModule(WebClientConfig.builder()
+                .retryPolicy(RetryPolicy.none())
+                .build()));
+        authenticatedInjector = Guice.createInjector(new WebClientModule(WebClientConfig.builder()
+                .retryPolicy(RetryPolicy.none())
+                .oauth2(OAuth2Config.builder()
+                        .tokenUri(server.baseUrl() + "/token")
+                        .clientId("benchmark")
+                        .clientSecret("secret")
+                        .build())
+                .build()));
+        plain = plainInjector.getInstance(WebClientService.class);
+        authenticated = authenticatedInjector.getInstance(WebClientService.class);
+        // Fetches the token, so that the iterations measure the cached path
+        authenticated.invokeApi(url, HttpMethod.GET).block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        plainInjector.getInstance(ConnectionProvider.class).disposeLater().block();
+        authenticatedInjector.getInstance(ConnectionProvider.class).disposeLater().block();
+        server.close();
+    }
+
+    @Benchmark
+    public String invokeApi() {
+        return plain.invokeApi(url, HttpMethod.GET).block();
+    }
+
+    @Benchmark
+    public String invokeApiAuthenticated() {
+        return authenticated.invokeApi(url, HttpMethod.GET).block();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String invokeApiAuthenticatedConcurrent() {
+        return authenticated.invokeApi(url, HttpMethod.GET).block();
+    }
+}
@@ -0,0 +1,89 @@
+package org.xiaofeng.webclient.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * StubServer class
+ * <p>
+ * In-process HTTP server answering the benchmark requests on a random local port.
+ * GET /small and GET /large return a fixed JSON body, POST /echo returns the request body.
+ * POST /token is a stub OAuth2 token endpoint granting any client a one hour token, used by OAuth2Benchmark.
+ * Serves HTTP/1.1 and HTTP/2 over cleartext, with or without prior knowledge.
+ */
+public class StubServer implements AutoCloseable {
+    /**
+     * Size of the body of GET /small.
+     */
+    public static final int SMALL_BODY_SIZE = 128;
+
+    /**
+     * Size of the body of GET /large.
+     */
+    public static final int LARGE_BODY_SIZE = 128 * 1024;
+
+    private final DisposableServer server;
+
+    /**
+     * Starts the server.
+     */
+    public StubServer() {
+        ByteBuf small = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(json(SMALL_BODY_SIZE)));
+        ByteBuf large = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(json(LARGE_BODY_SIZE)));
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .route(routes -> routes
+                        .get("/small", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .send(Mono.just(small.duplicate())))
+                        .get("/large", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .send(Mono.just(large.duplicate())))
+                        .post("/echo", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .send(request.receive().retain()))
+                        .post("/token", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(request.receive().then(Mono.just(
+                                        "{\"access_token\":\"stub-token\",\"token_type\":\"Bearer\",\"expires_in\":3600}")))))
+                .bindNow();
+    }
+
+    /**
+     * Gets the base URL of the server.
+     *
+     * @return The URL, e.g. http://127.0.0.1:54321
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    /**
+     * Creates a JSON document of the given size.
+     *
+     * @param size The size in bytes.
+     * @return The encoded document.
+     */
+    public static byte[] json(int size) {
+        String prefix = "{\"data\":\"";
+        String suffix = "\"}";
+        char[] padding = new char[Math.max(0, size - prefix.length() - suffix.length())];
+        Arrays.fill(padding, 'x');
+        return (prefix + new String(padding) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
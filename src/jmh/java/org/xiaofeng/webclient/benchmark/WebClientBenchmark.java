@@ -0,0 +1,148 @@
+package org.xiaofeng.webclient.benchmark;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.xiaofeng.webclient.config.ConnectionPoolConfig;
+import org.xiaofeng.webclient.config.Http2Config;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.service.EndpointTemplate;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import org.xiaofeng.webclient.type.HttpProtocol;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebClientBenchmark class
+ * <p>
+ * Measures the throughput and the latency of the service against the in-process stub server,
+ * for small and large bodies, several pool sizes and HTTP/1.1 versus HTTP/2 over cleartext.
+ * Over H2C the pool size is the max concurrent streams of the single connection.
+ * The prepared benchmarks send the same requests as their invokeApi counterparts through an
+ * EndpointTemplate, to compare the per-call cost of building the request.
+ * Run with ./gradlew jmh; the GC profiler reports the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WebClientBenchmark {
+    @Param({"small", "large"})
+    private String payload;
+
+    @Param({"16", "500"})
+    private int maxConnections;
+
+    @Param({"HTTP11", "H2C"})
+    private HttpProtocol protocol;
+
+    private StubServer server;
+
+    private Injector injector;
+
+    private WebClientService service;
+
+    private String getUrl;
+
+    private String echoUrl;
+
+    private String body;
+
+    private EndpointTemplate getTemplate;
+
+    private EndpointTemplate echoTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new StubServer();
+        WebClientConfig config = WebClientConfig.builder()
+                .connectionPool(ConnectionPoolConfig.builder()
+                        .maxConnections(maxConnections)
+                        .build())
+                .protocol(protocol)
+                .http2(Http2Config.builder()
+                        .maxConcurrentStreams(maxConnections)
+                        .maxConnections(1)
+                        .build())
+                .retryPolicy(RetryPolicy.none())
+                .build();
+        injector = Guice.createInjector(new WebClientModule(config));
+        service = injector.getInstance(WebClientService.class);
+
+        getUrl = server.baseUrl() + "/" + payload;
+        echoUrl = server.baseUrl() + "/echo";
+        int size = "large".equals(payload) ? StubServer.LARGE_BODY_SIZE : StubServer.SMALL_BODY_SIZE;
+        body = new String(StubServer.json(size), StandardCharsets.UTF_8);
+
+        HttpHeaders defaults = new HttpHeaders();
+        defaults.setAccept(List.of(MediaType.APPLICATION_JSON));
+        getTemplate = service.prepare(HttpMethod.GET, server.baseUrl() + "/{payload}", defaults);
+        echoTemplate = service.prepare(HttpMethod.POST, echoUrl, defaults);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        server.close();
+    }
+
+    @Benchmark
+    public String invokeApi() {
+        return service.invokeApi(getUrl, HttpMethod.GET).block();
+    }
+
+    @Benchmark
+    public String invokeApiAsync() {
+        return service.invokeApiAsync(getUrl, HttpMethod.GET).join();
+    }
+
+    @Benchmark
+    public String invokeApiHeaders() {
+        return service.invokeApi(getUrl, HttpMethod.GET,
+                headers -> headers.setAccept(List.of(MediaType.APPLICATION_JSON))).block();
+    }
+
+    @Benchmark
+    public String invokePrepared() {
+        return getTemplate.invoke(payload).block();
+    }
+
+    @Benchmark
+    public String postString() {
+        return service.invokeApi(echoUrl, HttpMethod.POST, body).block();
+    }
+
+    @Benchmark
+    public String postBodyInserter() {
+        return service.invokeApi(echoUrl, HttpMethod.POST, BodyInserters.fromValue(body)).block();
+    }
+
+    @Benchmark
+    public String postPrepared() {
+        return echoTemplate.invokeWithBody(body).block();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String invokeApiConcurrent() {
+        return service.invokeApi(getUrl, HttpMethod.GET).block();
+    }
+}
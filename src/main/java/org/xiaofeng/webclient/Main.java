@@ -1,14 +1,183 @@
 package org.xiaofeng.webclient;
 
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.xiaofeng.webclient.config.ConnectionPoolConfig;
+import org.xiaofeng.webclient.config.Http2Config;
+import org.xiaofeng.webclient.config.TimeoutConfig;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.loadbalancer.ServiceRegistry;
+import org.xiaofeng.webclient.loadtest.EchoServer;
+import org.xiaofeng.webclient.loadtest.LoadGenerator;
+import org.xiaofeng.webclient.loadtest.LoadGeneratorConfig;
+import org.xiaofeng.webclient.loadtest.LoadReport;
+import org.xiaofeng.webclient.loadtest.Scenario;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import org.xiaofeng.webclient.type.HttpProtocol;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Main class
+ * <p>
+ * Open-model load generator. Sends the requests of a scenario at a fixed rate and prints the
+ * throughput and the latency percentiles, corrected for coordinated omission. Without --url it
+ * starts a local echo server and targets it.
  */
 public class Main {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: Main [options]",
+            "  --url <base url>         target, default a local echo server",
+            "  --scenario <file>        JSON scenario, default GET {baseUrl}/small",
+            "  --rate <req/s>           target rate, default 1000",
+            "  --duration <seconds>     measured run, default 30",
+            "  --warmup <seconds>       unmeasured warmup, default 5",
+            "  --connections <n>        max pool connections or H2C streams, default 500",
+            "  --pending <n>            max pending connection acquires, default 1000",
+            "  --timeout <millis>       response timeout, default 10000",
+            "  --protocol <protocol>    HTTP11, H2 or H2C, default HTTP11",
+            "  --max-in-flight <n>      requests in flight before dropping, default 10000");
+
     /**
      * Main function
      *
      * @param args String[]
      */
     public static void main(String[] args) {
+        Map<String, String> options;
+        WebClientConfig config;
+        LoadGeneratorConfig loadConfig;
+        try {
+            options = parse(args);
+            if (options.containsKey("help")) {
+                System.out.println(USAGE);
+                return;
+            }
+            config = webClientConfig(options);
+            loadConfig = LoadGeneratorConfig.builder()
+                    .rate(doubleOption(options, "rate", "1000"))
+                    .duration(Duration.ofSeconds(longOption(options, "duration", "30")))
+                    .warmup(Duration.ofSeconds(longOption(options, "warmup", "5")))
+                    .maxInFlight(intOption(options, "max-in-flight", "10000"))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        EchoServer server = options.containsKey("url") ? null : new EchoServer();
+        Injector injector = Guice.createInjector(new WebClientModule(config));
+        int status = 0;
+        try {
+            String baseUrl = server != null ? server.baseUrl() : options.get("url");
+            Scenario scenario = options.containsKey("scenario")
+                    ? Scenario.load(Path.of(options.get("scenario")), baseUrl)
+                    : Scenario.single(HttpMethod.GET, baseUrl + "/small");
+            LoadReport report = new LoadGenerator(loadConfig)
+                    .run(injector.getInstance(WebClientService.class), scenario);
+            report.print(System.out);
+        } catch (IOException e) {
+            System.err.println("Cannot read the scenario: " + e.getMessage());
+            status = 1;
+        } finally {
+            // The health checks of the load balancer use the pool, so they are stopped first
+            injector.getInstance(ServiceRegistry.class).close();
+            injector.getInstance(ConnectionProvider.class).disposeLater().block();
+            if (server != null) {
+                server.close();
+            }
+        }
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    private static WebClientConfig webClientConfig(Map<String, String> options) {
+        int connections = intOption(options, "connections", "500");
+        return WebClientConfig.builder()
+                .connectionPool(ConnectionPoolConfig.builder()
+                        .maxConnections(connections)
+                        .pendingAcquireMaxCount(intOption(options, "pending", "1000"))
+                        .build())
+                .protocol(protocolOption(options))
+                .http2(Http2Config.builder()
+                        .maxConcurrentStreams(connections)
+                        .maxConnections(1)
+                        .build())
+                .timeouts(TimeoutConfig.builder()
+                        .responseTimeout(Duration.ofMillis(longOption(options, "timeout", "10000")))
+                        .build())
+                .retryPolicy(RetryPolicy.none())
+                .build();
+    }
+
+    private static HttpProtocol protocolOption(Map<String, String> options) {
+        String value = options.getOrDefault("protocol", "HTTP11");
+        try {
+            return HttpProtocol.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value of --protocol: " + value);
+        }
+    }
+
+    private static int intOption(Map<String, String> options, String name, String defaultValue) {
+        String value = options.getOrDefault(name, defaultValue);
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of --" + name + ": " + value);
+        }
+        // Counts of connections and requests, the pool rejects zero only when first used
+        if (parsed < 1) {
+            throw new IllegalArgumentException("--" + name + " must be positive: " + value);
+        }
+        return parsed;
+    }
+
+    private static long longOption(Map<String, String> options, String name, String defaultValue) {
+        String value = options.getOrDefault(name, defaultValue);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of --" + name + ": " + value);
+        }
+    }
+
+    private static double doubleOption(Map<String, String> options, String name, String defaultValue) {
+        String value = options.getOrDefault(name, defaultValue);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of --" + name + ": " + value);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if ("help".equals(name)) {
+                options.put(name, "");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value of --" + name);
+            }
+        }
+        return options;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package org.xiaofeng.webclient.async;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * AsyncConfig class
+ * <p>
+ * Settings of the CompletableFuture API. The futures are completed on the completion executor, so
+ * the callbacks chained on them never run on the Netty event loop unless the same-thread mode is
+ * chosen.
+ */
+public class AsyncConfig {
+    private final Executor completionExecutor;
+
+    private AsyncConfig(Builder builder) {
+        this.completionExecutor = builder.completionExecutor;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return AsyncConfig
+     */
+    public static AsyncConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Executor getCompletionExecutor() {
+        return completionExecutor;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private Executor completionExecutor = ForkJoinPool.commonPool();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the executor completing the futures, the common ForkJoinPool by default.
+         *
+         * @param completionExecutor Executor
+         * @return Builder
+         */
+        public Builder completionExecutor(Executor completionExecutor) {
+            this.completionExecutor = completionExecutor;
+            return this;
+        }
+
+        /**
+         * Completes the futures on the thread receiving the response, usually a Netty event loop.
+         * Saves a thread hop; the chained callbacks must then be short and never block.
+         *
+         * @return Builder
+         */
+        public Builder sameThread() {
+            this.completionExecutor = FutureAdapter.SAME_THREAD;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return AsyncConfig
+         */
+        public AsyncConfig build() {
+            return new AsyncConfig(this);
+        }
+    }
+}
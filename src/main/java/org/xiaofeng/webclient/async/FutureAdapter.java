@@ -0,0 +1,112 @@
+package org.xiaofeng.webclient.async;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * FutureAdapter class
+ * <p>
+ * Bridges a Mono to a CompletableFuture. The future is completed through the completion executor,
+ * and cancelling it, or completing it exceptionally as orTimeout does, disposes the subscription
+ * so that the exchange, its retries and its connection are released.
+ */
+public class FutureAdapter {
+    /**
+     * Executor running the completion on the thread delivering the result.
+     */
+    public static final Executor SAME_THREAD = Runnable::run;
+
+    private final Executor completionExecutor;
+
+    /**
+     * Constructor
+     *
+     * @param config AsyncConfig
+     */
+    public FutureAdapter(AsyncConfig config) {
+        this.completionExecutor = config.getCompletionExecutor() != null
+                ? config.getCompletionExecutor()
+                : SAME_THREAD;
+    }
+
+    /**
+     * Subscribes to a Mono and exposes its result as a cancellable future.
+     * An empty Mono completes the future with null.
+     *
+     * @param mono     The Mono to subscribe to.
+     * @param executor The completion executor of the call, null for the configured one.
+     * @param <T>      The type of the result.
+     * @return A CompletableFuture of the result.
+     */
+    public <T> CompletableFuture<T> toFuture(Mono<T> mono, Executor executor) {
+        Executor completion = executor != null ? executor : completionExecutor;
+        CancellableFuture<T> future = new CancellableFuture<>();
+        Disposable subscription = mono
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .subscribe(value -> complete(completion, () -> future.complete(value.orElse(null))),
+                        error -> complete(completion, () -> future.completeExceptionally(error)));
+        future.setSubscription(subscription);
+        return future;
+    }
+
+    private static void complete(Executor executor, Runnable completion) {
+        if (executor == SAME_THREAD) {
+            completion.run();
+            return;
+        }
+        try {
+            executor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            // The executor is shutting down; completing inline beats never completing
+            completion.run();
+        }
+    }
+
+    /**
+     * CancellableFuture class
+     * <p>
+     * Disposes the subscription when completed by anything else than the response.
+     * The stages chained on it are plain futures; cancelling one does not cancel this one.
+     */
+    private static final class CancellableFuture<T> extends CompletableFuture<T> {
+        private volatile Disposable subscription;
+
+        private void setSubscription(Disposable subscription) {
+            this.subscription = subscription;
+            if (isCompletedExceptionally()) {
+                subscription.dispose();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                dispose();
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable ex) {
+            boolean completed = super.completeExceptionally(ex);
+            if (completed) {
+                dispose();
+            }
+            return completed;
+        }
+
+        private void dispose() {
+            Disposable current = subscription;
+            if (current != null) {
+                current.dispose();
+            }
+        }
+    }
+}
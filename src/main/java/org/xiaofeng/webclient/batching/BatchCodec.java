@@ -0,0 +1,43 @@
+package org.xiaofeng.webclient.batching;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * BatchCodec interface
+ * <p>
+ * Turns the items of a batch into the body of one bulk request, and the bulk response back into
+ * one result per item, in the order of the items.
+ *
+ * @param <I> The type of the submitted items.
+ * @param <O> The type of the item results.
+ */
+public interface BatchCodec<I, O> {
+    /**
+     * Encodes a batch.
+     *
+     * @param items The items of the batch, in submission order.
+     * @return The request body, a BodyInserter or a value encoded with the configured codecs.
+     */
+    Object encode(List<I> items);
+
+    /**
+     * Splits the bulk response.
+     *
+     * @param responseBody The body of the bulk response, null when empty.
+     * @param items        The items of the batch, in submission order.
+     * @return One result per item, in the same order.
+     */
+    List<BatchItemResult<O>> decode(String responseBody, List<I> items);
+
+    /**
+     * Sets the headers of the bulk request. JSON by default.
+     *
+     * @param headers The headers of the request.
+     */
+    default void headers(HttpHeaders headers) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,57 @@
+package org.xiaofeng.webclient.batching;
+
+/**
+ * BatchItemResult class
+ * <p>
+ * Outcome of one item of a batch, as split out of the bulk response by the codec.
+ *
+ * @param <O> The type of the item result.
+ */
+public class BatchItemResult<O> {
+    private final O value;
+    private final Throwable error;
+
+    private BatchItemResult(O value, Throwable error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * Creates a successful result.
+     *
+     * @param value The result of the item, null for none.
+     * @param <O>   The type of the item result.
+     * @return BatchItemResult
+     */
+    public static <O> BatchItemResult<O> success(O value) {
+        return new BatchItemResult<>(value, null);
+    }
+
+    /**
+     * Creates a failed result.
+     *
+     * @param error The error of the item.
+     * @param <O>   The type of the item result.
+     * @return BatchItemResult
+     */
+    public static <O> BatchItemResult<O> failure(Throwable error) {
+        return new BatchItemResult<>(null, error);
+    }
+
+    public O getValue() {
+        return value;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchItemResult{" + (isSuccess() ? "value=" + value : "error=" + error) + '}';
+    }
+}
@@ -0,0 +1,131 @@
+package org.xiaofeng.webclient.batching;
+
+import java.time.Duration;
+
+/**
+ * BatchingConfig class
+ * <p>
+ * Settings of a micro-batcher. Items submitted to the same endpoint are sent together once the
+ * batch is full or the oldest item has waited the max delay. A bounded number of batches are in
+ * flight per endpoint; items beyond the queue size are rejected instead of piling up.
+ */
+public class BatchingConfig {
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final int maxQueueSize;
+    private final int maxConcurrentBatches;
+
+    private BatchingConfig(Builder builder) {
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxDelay = builder.maxDelay;
+        this.maxQueueSize = builder.maxQueueSize;
+        this.maxConcurrentBatches = builder.maxConcurrentBatches;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return BatchingConfig
+     */
+    public static BatchingConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public int getMaxConcurrentBatches() {
+        return maxConcurrentBatches;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private int maxBatchSize = 100;
+        private Duration maxDelay = Duration.ofMillis(5);
+        private int maxQueueSize = 10_000;
+        private int maxConcurrentBatches = 4;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the largest number of items sent in one request.
+         *
+         * @param maxBatchSize max batch size
+         * @return Builder
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets how long the first item of a batch waits for more items.
+         *
+         * @param maxDelay batching window
+         * @return Builder
+         */
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Sets the largest number of items waiting to be sent, over all the endpoints.
+         *
+         * @param maxQueueSize max queued items
+         * @return Builder
+         */
+        public Builder maxQueueSize(int maxQueueSize) {
+            this.maxQueueSize = maxQueueSize;
+            return this;
+        }
+
+        /**
+         * Sets the largest number of batches in flight to the same endpoint.
+         *
+         * @param maxConcurrentBatches max concurrent batches per endpoint
+         * @return Builder
+         */
+        public Builder maxConcurrentBatches(int maxConcurrentBatches) {
+            this.maxConcurrentBatches = maxConcurrentBatches;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return BatchingConfig
+         * @throws IllegalArgumentException If a size is not positive or the delay is negative.
+         */
+        public BatchingConfig build() {
+            if (maxBatchSize <= 0 || maxQueueSize <= 0 || maxConcurrentBatches <= 0) {
+                throw new IllegalArgumentException("Batch sizes and limits must be positive");
+            }
+            if (maxDelay == null || maxDelay.isNegative()) {
+                throw new IllegalArgumentException("Max delay must not be negative");
+            }
+            return new BatchingConfig(this);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package org.xiaofeng.webclient.batching;
+
+import org.xiaofeng.webclient.async.FutureAdapter;
+import org.xiaofeng.webclient.common.BatchQueueFullException;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MicroBatcher class
+ * <p>
+ * Collects the items submitted one by one and sends them to their endpoint as bulk POST requests.
+ * An endpoint batch is sealed when it reaches the max size or when its first item has waited the
+ * max delay, and at most the configured number of batches are in flight per endpoint; sealed batches
+ * wait their turn. Each caller gets the result of its own item: a failed bulk request fails every
+ * item of the batch, and the codec may fail single items. Once the queue is full, new items are
+ * rejected with BatchQueueFullException rather than buffered without bound. A caller cancelling
+ * before its batch is sent drops its item from the batch.
+ *
+ * @param <I> The type of the submitted items.
+ * @param <O> The type of the item results.
+ */
+public class MicroBatcher<I, O> implements AutoCloseable {
+    private final WebClientService service;
+
+    private final BatchCodec<I, O> codec;
+
+    private final BatchingConfig config;
+
+    private final FutureAdapter futures;
+
+    private final Executor completionExecutor;
+
+    private final Map<String, EndpointQueue> queues = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param service            WebClientService sending the bulk requests
+     * @param codec              BatchCodec
+     * @param config             BatchingConfig
+     * @param futures            FutureAdapter of the async submissions
+     * @param completionExecutor completion executor of the async submissions, null for the configured one
+     */
+    public MicroBatcher(WebClientService service,
+                        BatchCodec<I, O> codec,
+                        BatchingConfig config,
+                        FutureAdapter futures,
+                        Executor completionExecutor) {
+        this.service = service;
+        this.codec = codec;
+        this.config = config;
+        this.futures = futures;
+        this.completionExecutor = completionExecutor;
+    }
+
+    /**
+     * Submits an item. Nothing is queued until the Mono is subscribed.
+     *
+     * @param uri  The URI of the bulk endpoint.
+     * @param item The item.
+     * @return A Mono of the result of the item.
+     */
+    public Mono<O> submit(String uri, I item) {
+        return Mono.create(sink -> {
+            if (closed) {
+                sink.error(new IllegalStateException("Micro-batcher is closed"));
+                return;
+            }
+            if (queued.incrementAndGet() > config.getMaxQueueSize()) {
+                queued.decrementAndGet();
+                sink.error(new BatchQueueFullException(
+                        "Batch queue full: " + config.getMaxQueueSize() + " items waiting"));
+                return;
+            }
+            Pending<I, O> pending = new Pending<>(item, sink);
+            sink.onCancel(pending::cancel);
+            queues.computeIfAbsent(uri, EndpointQueue::new).add(pending);
+        });
+    }
+
+    /**
+     * Submits an item and exposes its result as a future, completed on the completion executor.
+     *
+     * @param uri  The URI of the bulk endpoint.
+     * @param item The item.
+     * @return A CompletableFuture of the result of the item.
+     */
+    public CompletableFuture<O> submitAsync(String uri, I item) {
+        return futures.toFuture(submit(uri, item), completionExecutor);
+    }
+
+    /**
+     * Gets the number of items waiting to be sent.
+     *
+     * @return The queued items.
+     */
+    public int getQueuedItems() {
+        return queued.get();
+    }
+
+    /**
+     * Seals the open batches without waiting for their delay.
+     */
+    public void flush() {
+        queues.values().forEach(EndpointQueue::flush);
+    }
+
+    /**
+     * Rejects new items and sends the open batches.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+    }
+
+    /**
+     * EndpointQueue class
+     * <p>
+     * Open batch, sealed batches and in-flight count of one endpoint, guarded by the queue monitor.
+     * Requests are sent outside of the monitor.
+     */
+    private final class EndpointQueue {
+        private final String uri;
+
+        private final Deque<List<Pending<I, O>>> sealed = new ArrayDeque<>();
+
+        private List<Pending<I, O>> open = new ArrayList<>();
+
+        private int inFlight;
+
+        private Disposable timer;
+
+        private EndpointQueue(String uri) {
+            this.uri = uri;
+        }
+
+        private void add(Pending<I, O> pending) {
+            List<List<Pending<I, O>>> batches;
+            synchronized (this) {
+                open.add(pending);
+                if (open.size() >= config.getMaxBatchSize() || config.getMaxDelay().isZero()) {
+                    seal();
+                } else if (open.size() == 1) {
+                    List<Pending<I, O>> batch = open;
+                    timer = Mono.delay(config.getMaxDelay()).subscribe(tick -> expire(batch));
+                }
+                batches = takeSendable();
+            }
+            send(batches);
+        }
+
+        private void flush() {
+            List<List<Pending<I, O>>> batches;
+            synchronized (this) {
+                if (!open.isEmpty()) {
+                    seal();
+                }
+                batches = takeSendable();
+            }
+            send(batches);
+        }
+
+        /**
+         * Seals the batch of a timer, unless it was already sealed by size or by a flush: a timer
+         * firing while its batch is being sealed must not cut the next batch short.
+         */
+        private void expire(List<Pending<I, O>> batch) {
+            List<List<Pending<I, O>>> batches;
+            synchronized (this) {
+                if (open != batch) {
+                    return;
+                }
+                seal();
+                batches = takeSendable();
+            }
+            send(batches);
+        }
+
+        private void seal() {
+            if (timer != null) {
+                timer.dispose();
+                timer = null;
+            }
+            sealed.add(open);
+            open = new ArrayList<>(Math.min(config.getMaxBatchSize(), 64));
+        }
+
+        private List<List<Pending<I, O>>> takeSendable() {
+            if (sealed.isEmpty() || inFlight >= config.getMaxConcurrentBatches()) {
+                return List.of();
+            }
+            List<List<Pending<I, O>>> batches = new ArrayList<>(2);
+            while (inFlight < config.getMaxConcurrentBatches() && !sealed.isEmpty()) {
+                inFlight++;
+                batches.add(sealed.poll());
+            }
+            return batches;
+        }
+
+        private void onBatchDone() {
+            List<List<Pending<I, O>>> batches;
+            synchronized (this) {
+                inFlight--;
+                batches = takeSendable();
+            }
+            send(batches);
+        }
+
+        private void send(List<List<Pending<I, O>>> batches) {
+            for (List<Pending<I, O>> batch : batches) {
+                sendBatch(batch);
+            }
+        }
+
+        private void sendBatch(List<Pending<I, O>> batch) {
+            queued.addAndGet(-batch.size());
+            List<Pending<I, O>> live = new ArrayList<>(batch.size());
+            List<I> items = new ArrayList<>(batch.size());
+            for (Pending<I, O> pending : batch) {
+                if (!pending.cancelled) {
+                    live.add(pending);
+                    items.add(pending.item);
+                }
+            }
+            if (live.isEmpty()) {
+                onBatchDone();
+                return;
+            }
+
+            Object body;
+            try {
+                body = codec.encode(items);
+            } catch (RuntimeException e) {
+                fail(live, e);
+                onBatchDone();
+                return;
+            }
+            service.invokeApi(uri, HttpMethod.POST, body, codec::headers, String.class)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .doFinally(signal -> onBatchDone())
+                    .subscribe(response -> split(live, items, response.orElse(null)),
+                            error -> fail(live, error));
+        }
+
+        private void split(List<Pending<I, O>> live, List<I> items, String response) {
+            List<BatchItemResult<O>> results;
+            try {
+                results = codec.decode(response, items);
+            } catch (RuntimeException e) {
+                fail(live, e);
+                return;
+            }
+            if (results == null || results.size() != live.size()) {
+                fail(live, new IllegalStateException("Codec returned "
+                        + (results == null ? 0 : results.size()) + " results for " + live.size() + " items"));
+                return;
+            }
+            for (int i = 0; i < live.size(); i++) {
+                live.get(i).complete(results.get(i));
+            }
+        }
+
+        private void fail(List<Pending<I, O>> live, Throwable error) {
+            for (Pending<I, O> pending : live) {
+                pending.sink.error(error);
+            }
+        }
+    }
+
+    /**
+     * Pending class
+     * <p>
+     * Item waiting for its batch, with the sink of its caller.
+     */
+    private static final class Pending<I, O> {
+        private final I item;
+
+        private final MonoSink<O> sink;
+
+        private volatile boolean cancelled;
+
+        private Pending(I item, MonoSink<O> sink) {
+            this.item = item;
+            this.sink = sink;
+        }
+
+        private void cancel() {
+            cancelled = true;
+        }
+
+        private void complete(BatchItemResult<O> result) {
+            if (result == null) {
+                sink.error(new IllegalStateException("Codec returned no result for the item"));
+            } else if (!result.isSuccess()) {
+                sink.error(result.getError());
+            } else {
+                sink.success(result.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.xiaofeng.webclient.blocking;
+
+/**
+ * BlockingConfig class
+ * <p>
+ * Settings of the executor running the thread-per-request work of the blocking facade. On Java 21
+ * and later every task gets its own virtual thread; on Java 17 the tasks share a bounded pool of
+ * platform threads and a bounded queue.
+ */
+public class BlockingConfig {
+    private final boolean virtualThreads;
+    private final int maxPlatformThreads;
+    private final int maxQueuedTasks;
+    private final String threadNamePrefix;
+
+    private BlockingConfig(Builder builder) {
+        this.virtualThreads = builder.virtualThreads;
+        this.maxPlatformThreads = builder.maxPlatformThreads;
+        this.maxQueuedTasks = builder.maxQueuedTasks;
+        this.threadNamePrefix = builder.threadNamePrefix;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return BlockingConfig
+     */
+    public static BlockingConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getMaxPlatformThreads() {
+        return maxPlatformThreads;
+    }
+
+    public int getMaxQueuedTasks() {
+        return maxQueuedTasks;
+    }
+
+    public String getThreadNamePrefix() {
+        return threadNamePrefix;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private boolean virtualThreads = true;
+        private int maxPlatformThreads = 200;
+        private int maxQueuedTasks = 10_000;
+        private String threadNamePrefix = "webclient-blocking";
+
+        private Builder() {
+        }
+
+        /**
+         * Sets whether virtual threads are used when the runtime supports them.
+         *
+         * @param virtualThreads true to use virtual threads on Java 21 and later
+         * @return Builder
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Sets the size of the platform thread pool used without virtual threads.
+         * Tasks beyond it wait in the bounded queue instead of starting new threads.
+         *
+         * @param maxPlatformThreads max platform threads
+         * @return Builder
+         */
+        public Builder maxPlatformThreads(int maxPlatformThreads) {
+            if (maxPlatformThreads < 1) {
+                throw new IllegalArgumentException("maxPlatformThreads must be positive");
+            }
+            this.maxPlatformThreads = maxPlatformThreads;
+            return this;
+        }
+
+        /**
+         * Sets the tasks that may wait for a platform thread. Tasks beyond it are rejected with
+         * RejectedExecutionException instead of queueing without bound.
+         *
+         * @param maxQueuedTasks max queued tasks
+         * @return Builder
+         */
+        public Builder maxQueuedTasks(int maxQueuedTasks) {
+            if (maxQueuedTasks < 1) {
+                throw new IllegalArgumentException("maxQueuedTasks must be positive");
+            }
+            this.maxQueuedTasks = maxQueuedTasks;
+            return this;
+        }
+
+        /**
+         * Sets the name prefix of the threads.
+         *
+         * @param threadNamePrefix thread name prefix
+         * @return Builder
+         */
+        public Builder threadNamePrefix(String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return BlockingConfig
+         */
+        public BlockingConfig build() {
+            return new BlockingConfig(this);
+        }
+    }
+}
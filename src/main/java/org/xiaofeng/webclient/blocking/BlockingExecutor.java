@@ -0,0 +1,96 @@
+package org.xiaofeng.webclient.blocking;
+
+import io.netty.util.concurrent.FastThreadLocalThread;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BlockingExecutor class
+ * <p>
+ * Runs the thread-per-request work that may block on the client. Each task gets a virtual thread on
+ * Java 21 and later, so tens of thousands of calls can wait at once without as many platform
+ * threads. On Java 17 the tasks share a bounded pool of platform threads and a bounded queue beyond
+ * it; a task submitted while the queue is full is rejected with RejectedExecutionException.
+ */
+public class BlockingExecutor implements Executor, AutoCloseable {
+    private final ExecutorService executor;
+
+    private final boolean virtual;
+
+    /**
+     * Constructor
+     *
+     * @param config BlockingConfig
+     */
+    public BlockingExecutor(BlockingConfig config) {
+        this.virtual = config.isVirtualThreads() && VirtualThreads.isSupported();
+        this.executor = virtual
+                ? VirtualThreads.newExecutor(config)
+                : newPlatformPool(config);
+    }
+
+    /**
+     * Creates the pool of platform threads. Tasks beyond the threads wait in a bounded queue and are
+     * rejected with RejectedExecutionException once it is full.
+     *
+     * @param config BlockingConfig
+     * @return ExecutorService
+     */
+    static ExecutorService newPlatformPool(BlockingConfig config) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, config.getThreadNamePrefix() + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(config.getMaxPlatformThreads(),
+                config.getMaxPlatformThreads(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(config.getMaxQueuedTasks()),
+                factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Checks whether the tasks run on virtual threads.
+     *
+     * @return true on Java 21 and later unless disabled.
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * Stops accepting tasks; the running ones are left to complete.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Checks whether a thread must never block: the Netty event loops and the Reactor non-blocking
+     * schedulers. Blocking them stalls every connection they serve, and waiting there on a response
+     * they would have to read deadlocks.
+     *
+     * @param thread the thread
+     * @return true when the thread must not block.
+     */
+    public static boolean isNonBlocking(Thread thread) {
+        return !VirtualThreads.isVirtual(thread)
+                && (Schedulers.isNonBlockingThread(thread) || thread instanceof FastThreadLocalThread);
+    }
+}
@@ -0,0 +1,90 @@
+package org.xiaofeng.webclient.blocking;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.xiaofeng.webclient.config.RequestOptions;
+import org.xiaofeng.webclient.type.HttpMethod;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * BlockingWebClientService interface
+ * <p>
+ * Synchronous API over the WebClientService for thread-per-request code. The calls block the
+ * calling thread and throw IllegalStateException on a Netty event loop or a Reactor non-blocking
+ * thread instead of parking it.
+ */
+public interface BlockingWebClientService {
+    BlockingWebClientService withOptions(RequestOptions options);
+
+    BlockingWebClientService forService(String name);
+
+    //------------------String method--------------------------
+    String invokeApi(String uri,
+                     HttpMethod httpMethod,
+                     String request,
+                     Consumer<HttpHeaders> headers);
+
+    String invokeApi(String uri,
+                     HttpMethod httpMethod,
+                     BodyInserter<?, ? super ClientHttpRequest> bodyInserter,
+                     Consumer<HttpHeaders> headers);
+
+    String invokeApi(String uri,
+                     HttpMethod httpMethod,
+                     String request);
+
+    String invokeApi(String uri,
+                     HttpMethod httpMethod,
+                     BodyInserter<?, ? super ClientHttpRequest> bodyInserter);
+
+    String invokeApi(String uri,
+                     HttpMethod httpMethod,
+                     Consumer<HttpHeaders> headers);
+
+    String invokeApi(String uri,
+                     HttpMethod httpMethod);
+
+    //------------------Typed method--------------------------
+    <T> T invokeApi(String uri,
+                    HttpMethod httpMethod,
+                    Object request,
+                    Consumer<HttpHeaders> headers,
+                    Class<T> responseType);
+
+    <T> T invokeApi(String uri,
+                    HttpMethod httpMethod,
+                    Object request,
+                    Consumer<HttpHeaders> headers,
+                    ParameterizedTypeReference<T> responseType);
+
+    <T> T invokeApi(String uri,
+                    HttpMethod httpMethod,
+                    Consumer<HttpHeaders> headers,
+                    Class<T> responseType);
+
+    <T> T invokeApi(String uri,
+                    HttpMethod httpMethod,
+                    Consumer<HttpHeaders> headers,
+                    ParameterizedTypeReference<T> responseType);
+
+    //------------------Binary method--------------------------
+    byte[] invokeApiForBytes(String uri,
+                             HttpMethod httpMethod,
+                             Consumer<HttpHeaders> headers);
+
+    Path downloadTo(String uri,
+                    HttpMethod httpMethod,
+                    Consumer<HttpHeaders> headers,
+                    Path target);
+
+    //------------------Executor method--------------------------
+    <T> CompletableFuture<T> submit(Function<BlockingWebClientService, T> call);
+
+    BlockingExecutor executor();
+}
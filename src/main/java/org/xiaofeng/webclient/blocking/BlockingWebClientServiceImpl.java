@@ -0,0 +1,192 @@
+package org.xiaofeng.webclient.blocking;
+
+import com.google.inject.Inject;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.xiaofeng.webclient.config.RequestOptions;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * BlockingWebClientServiceImpl class
+ * <p>
+ * Waits on the reactive calls from the calling thread. A virtual thread is unmounted from its
+ * carrier while it waits, so only the event loops are refused.
+ */
+public class BlockingWebClientServiceImpl implements BlockingWebClientService {
+    private final WebClientService service;
+
+    private final BlockingExecutor executor;
+
+    /**
+     * Constructor
+     *
+     * @param service  WebClientService
+     * @param executor BlockingExecutor
+     */
+    @Inject
+    public BlockingWebClientServiceImpl(WebClientService service, BlockingExecutor executor) {
+        this.service = service;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a facade over a service with per-call options.
+     *
+     * @param options RequestOptions
+     * @return BlockingWebClientService
+     */
+    @Override
+    public BlockingWebClientService withOptions(RequestOptions options) {
+        return new BlockingWebClientServiceImpl(service.withOptions(options), executor);
+    }
+
+    /**
+     * Creates a facade calling a load balanced logical service with relative URIs.
+     *
+     * @param name The name of the service.
+     * @return BlockingWebClientService
+     */
+    @Override
+    public BlockingWebClientService forService(String name) {
+        return new BlockingWebClientServiceImpl(service.forService(name), executor);
+    }
+
+    /**
+     * Blocks until the response, refusing the threads that must not block.
+     *
+     * @param mono The call.
+     * @param <T>  The type of the result.
+     * @return The result, or null when the response is empty.
+     */
+    private <T> T await(Mono<T> mono) {
+        Thread thread = Thread.currentThread();
+        if (BlockingExecutor.isNonBlocking(thread)) {
+            throw new IllegalStateException("Blocking call on the non-blocking thread " + thread.getName()
+                    + "; use WebClientService or BlockingWebClientService.submit instead");
+        }
+        return mono.block();
+    }
+
+    //------------------String method--------------------------
+    @Override
+    public String invokeApi(String uri,
+                            HttpMethod httpMethod,
+                            String request,
+                            Consumer<HttpHeaders> headers) {
+        return await(service.invokeApi(uri, httpMethod, request, headers));
+    }
+
+    @Override
+    public String invokeApi(String uri,
+                            HttpMethod httpMethod,
+                            BodyInserter<?, ? super ClientHttpRequest> bodyInserter,
+                            Consumer<HttpHeaders> headers) {
+        return await(service.invokeApi(uri, httpMethod, bodyInserter, headers));
+    }
+
+    @Override
+    public String invokeApi(String uri,
+                            HttpMethod httpMethod,
+                            String request) {
+        return await(service.invokeApi(uri, httpMethod, request));
+    }
+
+    @Override
+    public String invokeApi(String uri,
+                            HttpMethod httpMethod,
+                            BodyInserter<?, ? super ClientHttpRequest> bodyInserter) {
+        return await(service.invokeApi(uri, httpMethod, bodyInserter));
+    }
+
+    @Override
+    public String invokeApi(String uri,
+                            HttpMethod httpMethod,
+                            Consumer<HttpHeaders> headers) {
+        return await(service.invokeApi(uri, httpMethod, headers));
+    }
+
+    @Override
+    public String invokeApi(String uri,
+                            HttpMethod httpMethod) {
+        return await(service.invokeApi(uri, httpMethod));
+    }
+
+    //------------------Typed method--------------------------
+    @Override
+    public <T> T invokeApi(String uri,
+                           HttpMethod httpMethod,
+                           Object request,
+                           Consumer<HttpHeaders> headers,
+                           Class<T> responseType) {
+        return await(service.invokeApi(uri, httpMethod, request, headers, responseType));
+    }
+
+    @Override
+    public <T> T invokeApi(String uri,
+                           HttpMethod httpMethod,
+                           Object request,
+                           Consumer<HttpHeaders> headers,
+                           ParameterizedTypeReference<T> responseType) {
+        return await(service.invokeApi(uri, httpMethod, request, headers, responseType));
+    }
+
+    @Override
+    public <T> T invokeApi(String uri,
+                           HttpMethod httpMethod,
+                           Consumer<HttpHeaders> headers,
+                           Class<T> responseType) {
+        return await(service.invokeApi(uri, httpMethod, headers, responseType));
+    }
+
+    @Override
+    public <T> T invokeApi(String uri,
+                           HttpMethod httpMethod,
+                           Consumer<HttpHeaders> headers,
+                           ParameterizedTypeReference<T> responseType) {
+        return await(service.invokeApi(uri, httpMethod, headers, responseType));
+    }
+
+    //------------------Binary method--------------------------
+    @Override
+    public byte[] invokeApiForBytes(String uri,
+                                    HttpMethod httpMethod,
+                                    Consumer<HttpHeaders> headers) {
+        return await(service.invokeApiForBytes(uri, httpMethod, headers));
+    }
+
+    @Override
+    public Path downloadTo(String uri,
+                           HttpMethod httpMethod,
+                           Consumer<HttpHeaders> headers,
+                           Path target) {
+        return await(service.downloadTo(uri, httpMethod, headers, target));
+    }
+
+    //------------------Executor method--------------------------
+    /**
+     * Runs blocking work on the executor, on its own virtual thread on Java 21 and later.
+     * Safe to call from an event loop, which is not parked.
+     *
+     * @param call The work, given this facade.
+     * @param <T>  The type of the result.
+     * @return A CompletableFuture of the result.
+     */
+    @Override
+    public <T> CompletableFuture<T> submit(Function<BlockingWebClientService, T> call) {
+        return CompletableFuture.supplyAsync(() -> call.apply(this), executor);
+    }
+
+    @Override
+    public BlockingExecutor executor() {
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package org.xiaofeng.webclient.blocking;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * VirtualThreads class
+ * <p>
+ * Java 17 variant, without virtual threads: the executor is the bounded platform thread pool. The
+ * jar carries a Java 21 variant under META-INF/versions/21 that the runtime picks instead when it
+ * supports them.
+ */
+final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    static boolean isVirtual(Thread thread) {
+        return false;
+    }
+
+    static ExecutorService newExecutor(BlockingConfig config) {
+        return BlockingExecutor.newPlatformPool(config);
+    }
+}
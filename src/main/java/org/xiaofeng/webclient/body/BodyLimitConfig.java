@@ -0,0 +1,133 @@
+package org.xiaofeng.webclient.body;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * BodyLimitConfig class
+ * <p>
+ * Memory limits of the response bodies. A buffered body is limited per host, or per call through
+ * the request options; the codecs are set to the largest configured limit, which also bounds a
+ * single element of a streamed body. Error bodies are captured up to their own, smaller limit and
+ * the rest is discarded unread.
+ */
+public class BodyLimitConfig {
+    private final int maxInMemorySize;
+    private final Map<String, Integer> hostMaxInMemorySize;
+    private final int maxErrorBodySize;
+
+    private BodyLimitConfig(Builder builder) {
+        this.maxInMemorySize = builder.maxInMemorySize;
+        this.hostMaxInMemorySize = Collections.unmodifiableMap(new HashMap<>(builder.hostMaxInMemorySize));
+        this.maxErrorBodySize = builder.maxErrorBodySize;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return BodyLimitConfig
+     */
+    public static BodyLimitConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxInMemorySize() {
+        return maxInMemorySize;
+    }
+
+    public Map<String, Integer> getHostMaxInMemorySize() {
+        return hostMaxInMemorySize;
+    }
+
+    public int getMaxErrorBodySize() {
+        return maxErrorBodySize;
+    }
+
+    /**
+     * Gets the limit of the buffered bodies of a host.
+     *
+     * @param host host name
+     * @return The limit in bytes.
+     */
+    public int getMaxInMemorySize(String host) {
+        return hostMaxInMemorySize.getOrDefault(host, maxInMemorySize);
+    }
+
+    /**
+     * Gets the limit given to the codecs, the largest of the configured limits.
+     *
+     * @return The limit in bytes.
+     */
+    public int getCodecMaxInMemorySize() {
+        int max = maxInMemorySize;
+        for (int limit : hostMaxInMemorySize.values()) {
+            max = Math.max(max, limit);
+        }
+        return max;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private int maxInMemorySize = 256 * 1024;
+        private final Map<String, Integer> hostMaxInMemorySize = new HashMap<>();
+        private int maxErrorBodySize = 8 * 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the largest body buffered in memory.
+         *
+         * @param maxInMemorySize limit in bytes
+         * @return Builder
+         */
+        public Builder maxInMemorySize(int maxInMemorySize) {
+            this.maxInMemorySize = maxInMemorySize;
+            return this;
+        }
+
+        /**
+         * Sets the largest body of a host buffered in memory.
+         *
+         * @param host            host name
+         * @param maxInMemorySize limit in bytes
+         * @return Builder
+         */
+        public Builder hostMaxInMemorySize(String host, int maxInMemorySize) {
+            this.hostMaxInMemorySize.put(host, maxInMemorySize);
+            return this;
+        }
+
+        /**
+         * Sets how much of a 4xx or 5xx body is kept in the exception.
+         *
+         * @param maxErrorBodySize limit in bytes
+         * @return Builder
+         */
+        public Builder maxErrorBodySize(int maxErrorBodySize) {
+            this.maxErrorBodySize = maxErrorBodySize;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return BodyLimitConfig
+         */
+        public BodyLimitConfig build() {
+            return new BodyLimitConfig(this);
+        }
+    }
+}
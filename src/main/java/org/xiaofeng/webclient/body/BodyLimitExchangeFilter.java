@@ -0,0 +1,65 @@
+package org.xiaofeng.webclient.body;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * BodyLimitExchangeFilter class
+ * <p>
+ * Fails the response body with DataBufferLimitException as soon as it grows past the limit of the
+ * call, or else of its host, instead of letting it be buffered whole. The bytes are counted after
+ * decompression. A call may lift the limit with a negative value, as the streaming methods do.
+ */
+public class BodyLimitExchangeFilter implements ExchangeFilterFunction {
+    /**
+     * Request attribute holding the limit of the call in bytes, negative for none.
+     */
+    public static final String MAX_IN_MEMORY_ATTRIBUTE = BodyLimitExchangeFilter.class.getName() + ".maxInMemorySize";
+
+    private final BodyLimitConfig config;
+
+    /**
+     * Constructor
+     *
+     * @param config BodyLimitConfig
+     */
+    public BodyLimitExchangeFilter(BodyLimitConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        int limit = request.attribute(MAX_IN_MEMORY_ATTRIBUTE)
+                .map(value -> (Integer) value)
+                .orElseGet(() -> config.getMaxInMemorySize(request.url().getHost()));
+        if (limit < 0) {
+            return next.exchange(request);
+        }
+        return next.exchange(request)
+                .map(response -> response.mutate()
+                        .body(body -> limit(body, limit))
+                        .build());
+    }
+
+    private static Flux<DataBuffer> limit(Flux<DataBuffer> body, int limit) {
+        return Flux.defer(() -> {
+            long[] total = new long[1];
+            return body.handle((buffer, sink) -> {
+                total[0] += buffer.readableByteCount();
+                if (total[0] > limit) {
+                    DataBufferUtils.release(buffer);
+                    sink.error(new DataBufferLimitException("Exceeded limit on max bytes to buffer : " + limit));
+                } else {
+                    sink.next(buffer);
+                }
+            });
+        });
+    }
+}
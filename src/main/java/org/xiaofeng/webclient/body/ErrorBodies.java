@@ -0,0 +1,74 @@
+package org.xiaofeng.webclient.body;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ErrorBodies class
+ * <p>
+ * Captures the start of an error body. Reading stops at the limit and the rest of the body is
+ * cancelled, never buffered.
+ */
+public final class ErrorBodies {
+    private static final String TRUNCATION_MARK = "...";
+
+    private ErrorBodies() {
+    }
+
+    /**
+     * Captured class
+     * <p>
+     * The captured text and whether the body went on past it.
+     */
+    public static final class Captured {
+        private final String body;
+        private final boolean truncated;
+
+        private Captured(String body, boolean truncated) {
+            this.body = body;
+            this.truncated = truncated;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    /**
+     * Reads an error body up to a limit, decoded with the charset of its content type.
+     *
+     * @param response The response.
+     * @param limit    The bytes kept.
+     * @return A Mono of the captured body, empty text when the response has no body.
+     */
+    public static Mono<Captured> capture(ClientResponse response, int limit) {
+        Charset charset = response.headers().contentType()
+                .map(MediaType::getCharset)
+                .orElse(StandardCharsets.UTF_8);
+        // One byte past the limit tells a cut body from one of exactly the limit
+        return DataBufferUtils.join(DataBufferUtils.takeUntilByteCount(
+                        response.bodyToFlux(DataBuffer.class), (long) limit + 1))
+                .map(buffer -> {
+                    try {
+                        int size = buffer.readableByteCount();
+                        if (size <= limit) {
+                            return new Captured(buffer.toString(charset), false);
+                        }
+                        return new Captured(buffer.toString(buffer.readPosition(), limit, charset) + TRUNCATION_MARK, true);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .defaultIfEmpty(new Captured("", false));
+    }
+}
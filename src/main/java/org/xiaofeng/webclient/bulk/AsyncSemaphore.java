@@ -0,0 +1,107 @@
+package org.xiaofeng.webclient.bulk;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncSemaphore class
+ * <p>
+ * Semaphore whose acquisition completes asynchronously instead of blocking the caller.
+ * Waiters are served in FIFO order, a waiter that is cancelled gives up its place.
+ */
+class AsyncSemaphore {
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+
+    private int permits;
+
+    /**
+     * Constructor
+     *
+     * @param permits The number of permits.
+     */
+    AsyncSemaphore(int permits) {
+        this.permits = permits;
+    }
+
+    /**
+     * Acquires a permit, completing once one is available.
+     *
+     * @return A Mono completing with true when the permit is granted.
+     */
+    Mono<Boolean> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = null;
+            synchronized (this) {
+                if (permits > 0) {
+                    permits--;
+                } else {
+                    waiter = new Waiter(sink);
+                    waiters.add(waiter);
+                }
+            }
+            if (waiter == null) {
+                sink.success(Boolean.TRUE);
+                return;
+            }
+            Waiter registered = waiter;
+            sink.onCancel(() -> {
+                if (registered.cancel()) {
+                    synchronized (this) {
+                        waiters.remove(registered);
+                    }
+                } else {
+                    // Granted as the waiter was cancelled, the permit was never delivered
+                    release();
+                }
+            });
+        });
+    }
+
+    /**
+     * Releases a permit, handing it to the oldest waiter if any.
+     */
+    void release() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                next = waiters.poll();
+                if (next == null) {
+                    permits++;
+                    return;
+                }
+            }
+            if (next.grant()) {
+                return;
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final MonoSink<Boolean> sink;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Waiter(MonoSink<Boolean> sink) {
+            this.sink = sink;
+        }
+
+        private boolean grant() {
+            if (state.compareAndSet(WAITING, GRANTED)) {
+                sink.success(Boolean.TRUE);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+    }
+}
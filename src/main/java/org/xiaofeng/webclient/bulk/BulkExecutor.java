@@ -0,0 +1,102 @@
+package org.xiaofeng.webclient.bulk;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * BulkExecutor class
+ * <p>
+ * Runs the requests of a bulk invocation with a global and a per-host concurrency limit.
+ * Each host has its own semaphore, acquired before the global one, so a request waiting for a
+ * slow host holds no global slot and the other hosts keep running. The input is read ahead up to
+ * the max queued requests. Each result carries its input index and the failure of one request
+ * never fails the others.
+ */
+public class BulkExecutor {
+    private final BulkOptions options;
+
+    private final Function<BulkRequest, Mono<String>> invoker;
+
+    private final UnaryOperator<String> resolver;
+
+    /**
+     * Constructor
+     *
+     * @param options BulkOptions
+     * @param invoker Executes a single request.
+     */
+    public BulkExecutor(BulkOptions options, Function<BulkRequest, Mono<String>> invoker) {
+        this(options, invoker, UnaryOperator.identity());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param options  BulkOptions
+     * @param invoker  Executes a single request.
+     * @param resolver Resolves the relative URIs of the requests, so that their host is known.
+     */
+    public BulkExecutor(BulkOptions options,
+                        Function<BulkRequest, Mono<String>> invoker,
+                        UnaryOperator<String> resolver) {
+        this.options = options;
+        this.invoker = invoker;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Executes the requests, emitting each result as soon as it completes.
+     *
+     * @param requests The requests to execute.
+     * @return A Flux of the results in completion order.
+     */
+    public Flux<BulkResult> execute(Flux<BulkRequest> requests) {
+        return execute(requests, options.getMaxQueued());
+    }
+
+    /**
+     * Executes the requests, emitting each result as soon as it completes.
+     *
+     * @param requests  The requests to execute.
+     * @param maxQueued The number of requests read ahead, running or waiting for their host.
+     * @return A Flux of the results in completion order.
+     */
+    public Flux<BulkResult> execute(Flux<BulkRequest> requests, int maxQueued) {
+        return Flux.defer(() -> {
+            AsyncSemaphore global = new AsyncSemaphore(options.getMaxConcurrency());
+            Map<String, AsyncSemaphore> hosts = new ConcurrentHashMap<>();
+            AtomicBoolean cancelled = new AtomicBoolean();
+            return requests
+                    .index()
+                    .flatMap(indexed -> {
+                        AsyncSemaphore host = hosts.computeIfAbsent(BulkRequest.host(resolver.apply(indexed.getT2().getUri())),
+                                key -> new AsyncSemaphore(options.getMaxConcurrencyPerHost()));
+                        return execute(indexed.getT1(), indexed.getT2(), host, global, cancelled);
+                    }, Math.max(maxQueued, 1))
+                    // Set before the waiting requests are cancelled one by one, so that the permits
+                    // released meanwhile do not start them
+                    .doOnCancel(() -> cancelled.set(true));
+        });
+    }
+
+    private Mono<BulkResult> execute(long index,
+                                     BulkRequest request,
+                                     AsyncSemaphore host,
+                                     AsyncSemaphore global,
+                                     AtomicBoolean cancelled) {
+        return Mono.usingWhen(host.acquire(),
+                        hostPermit -> Mono.usingWhen(global.acquire(),
+                                permit -> Mono.defer(() -> cancelled.get() ? Mono.<String>never() : invoker.apply(request))
+                                        .map(body -> BulkResult.success(index, request, body))
+                                        .switchIfEmpty(Mono.fromSupplier(() -> BulkResult.success(index, request, null))),
+                                permit -> Mono.fromRunnable(global::release)),
+                        hostPermit -> Mono.fromRunnable(host::release))
+                .onErrorResume(error -> Mono.just(BulkResult.failure(index, request, error)));
+    }
+}
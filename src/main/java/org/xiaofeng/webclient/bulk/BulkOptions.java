@@ -0,0 +1,111 @@
+package org.xiaofeng.webclient.bulk;
+
+/**
+ * BulkOptions class
+ * <p>
+ * Concurrency limits of a bulk invocation. Requests waiting for a busy host count against the
+ * max queued requests of a stream; once that many are waiting or running, the input is not read
+ * further until one completes.
+ */
+public class BulkOptions {
+    private final int maxConcurrency;
+    private final int maxConcurrencyPerHost;
+    private final int maxQueued;
+
+    private BulkOptions(Builder builder) {
+        this.maxConcurrency = builder.maxConcurrency;
+        this.maxConcurrencyPerHost = builder.maxConcurrencyPerHost;
+        this.maxQueued = builder.maxQueued;
+    }
+
+    /**
+     * Creates options with the default limits.
+     *
+     * @return BulkOptions
+     */
+    public static BulkOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getMaxConcurrencyPerHost() {
+        return maxConcurrencyPerHost;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private int maxConcurrency = 64;
+        private int maxConcurrencyPerHost = 16;
+        private int maxQueued = 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of requests in flight for the whole invocation.
+         *
+         * @param maxConcurrency max concurrency
+         * @return Builder
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests in flight to the same host.
+         *
+         * @param maxConcurrencyPerHost max concurrency per host
+         * @return Builder
+         */
+        public Builder maxConcurrencyPerHost(int maxConcurrencyPerHost) {
+            this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests of a stream read ahead, running or waiting for their host.
+         *
+         * @param maxQueued max queued requests, at least the max concurrency
+         * @return Builder
+         */
+        public Builder maxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return BulkOptions
+         * @throws IllegalArgumentException If a limit is not positive or the queue is below the max concurrency.
+         */
+        public BulkOptions build() {
+            if (maxConcurrency <= 0 || maxConcurrencyPerHost <= 0) {
+                throw new IllegalArgumentException("Concurrency limits must be positive");
+            }
+            if (maxQueued < maxConcurrency) {
+                throw new IllegalArgumentException("Max queued must be at least the max concurrency");
+            }
+            return new BulkOptions(this);
+        }
+    }
+}
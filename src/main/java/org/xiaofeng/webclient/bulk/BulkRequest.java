@@ -0,0 +1,116 @@
+package org.xiaofeng.webclient.bulk;
+
+import org.springframework.http.HttpHeaders;
+import org.xiaofeng.webclient.type.HttpMethod;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * BulkRequest class
+ * <p>
+ * Describes one request of a bulk invocation.
+ */
+public class BulkRequest {
+    private static final Consumer<HttpHeaders> NO_HEADERS = headers -> {
+    };
+
+    private final String uri;
+    private final HttpMethod httpMethod;
+    private final String body;
+    private final Consumer<HttpHeaders> headers;
+
+    /**
+     * Constructor
+     *
+     * @param uri        The URI of the request.
+     * @param httpMethod The HTTP method of the request.
+     * @param body       The request body, null for a request without body.
+     * @param headers    A consumer to set additional HTTP headers, may be null.
+     */
+    public BulkRequest(String uri, HttpMethod httpMethod, String body, Consumer<HttpHeaders> headers) {
+        this.uri = uri;
+        this.httpMethod = httpMethod;
+        this.body = body;
+        this.headers = headers != null ? headers : NO_HEADERS;
+    }
+
+    /**
+     * Creates a request without body.
+     *
+     * @param uri        The URI of the request.
+     * @param httpMethod The HTTP method of the request (e.g., GET, DELETE).
+     * @return BulkRequest
+     */
+    public static BulkRequest of(String uri, HttpMethod httpMethod) {
+        return new BulkRequest(uri, httpMethod, null, null);
+    }
+
+    /**
+     * Creates a request with a body.
+     *
+     * @param uri        The URI of the request.
+     * @param httpMethod The HTTP method of the request (e.g., POST, PUT).
+     * @param body       The request body.
+     * @return BulkRequest
+     */
+    public static BulkRequest of(String uri, HttpMethod httpMethod, String body) {
+        return new BulkRequest(uri, httpMethod, body, null);
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public HttpMethod getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Consumer<HttpHeaders> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the host the request is sent to, used for the per-host concurrency limit.
+     *
+     * @return The scheme, host and port, or the URI when it cannot be parsed.
+     */
+    String host() {
+        return host(uri);
+    }
+
+    /**
+     * Gets the host of a URI, used for the per-host concurrency limit. The default port of the
+     * scheme is made explicit, so that http://api and http://api:80 share their limit.
+     *
+     * @param uri The URI of the request.
+     * @return The scheme, host and port, or the URI when it cannot be parsed.
+     */
+    static String host(String uri) {
+        try {
+            URI parsed = URI.create(uri);
+            if (parsed.getHost() == null || parsed.getScheme() == null) {
+                return uri;
+            }
+            String scheme = parsed.getScheme().toLowerCase(Locale.ROOT);
+            int port = parsed.getPort();
+            if (port < 0) {
+                port = "https".equals(scheme) ? 443 : "http".equals(scheme) ? 80 : -1;
+            }
+            String host = scheme + "://" + parsed.getHost().toLowerCase(Locale.ROOT);
+            return port >= 0 ? host + ":" + port : host;
+        } catch (IllegalArgumentException e) {
+            return uri;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return httpMethod + " " + uri;
+    }
+}
@@ -0,0 +1,73 @@
+package org.xiaofeng.webclient.bulk;
+
+/**
+ * BulkResult class
+ * <p>
+ * Outcome of one request of a bulk invocation, either a response body or an error.
+ */
+public class BulkResult {
+    private final long index;
+    private final BulkRequest request;
+    private final String body;
+    private final Throwable error;
+
+    private BulkResult(long index, BulkRequest request, String body, Throwable error) {
+        this.index = index;
+        this.request = request;
+        this.body = body;
+        this.error = error;
+    }
+
+    /**
+     * Creates a successful result.
+     *
+     * @param index   The position of the request in the input.
+     * @param request The request.
+     * @param body    The response body, null for an empty response.
+     * @return BulkResult
+     */
+    public static BulkResult success(long index, BulkRequest request, String body) {
+        return new BulkResult(index, request, body, null);
+    }
+
+    /**
+     * Creates a failed result.
+     *
+     * @param index   The position of the request in the input.
+     * @param request The request.
+     * @param error   The error of the request.
+     * @return BulkResult
+     */
+    public static BulkResult failure(long index, BulkRequest request, Throwable error) {
+        return new BulkResult(index, request, null, error);
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public BulkRequest getRequest() {
+        return request;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{" +
+                "index=" + index +
+                ", request=" + request +
+                (isSuccess() ? ", success" : ", error=" + error) +
+                '}';
+    }
+}
@@ -0,0 +1,150 @@
+package org.xiaofeng.webclient.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * CachedResponse class
+ * <p>
+ * A stored response body with its validators and freshness.
+ */
+class CachedResponse {
+    private final String body;
+    private final int bodyBytes;
+    private final String eTag;
+    private final String lastModified;
+    private final long lifetimeMillis;
+    private final long expiresAt;
+
+    private CachedResponse(String body,
+                           int bodyBytes,
+                           String eTag,
+                           String lastModified,
+                           long lifetimeMillis,
+                           long expiresAt) {
+        this.body = body;
+        this.bodyBytes = bodyBytes;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.lifetimeMillis = lifetimeMillis;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Creates an entry.
+     *
+     * @param body           The response body.
+     * @param bodyBytes      The size of the body in UTF-8 bytes.
+     * @param headers        The response headers.
+     * @param lifetimeMillis The freshness lifetime.
+     * @param now            The current time in milliseconds.
+     * @return CachedResponse
+     */
+    static CachedResponse of(String body, int bodyBytes, HttpHeaders headers, long lifetimeMillis, long now) {
+        return new CachedResponse(body, bodyBytes, headers.getETag(),
+                headers.getFirst(HttpHeaders.LAST_MODIFIED), lifetimeMillis, now + lifetimeMillis);
+    }
+
+    /**
+     * Counts the UTF-8 bytes of a body without encoding it.
+     *
+     * @param body The body.
+     * @return The size in bytes.
+     */
+    static int utf8Length(String body) {
+        int bytes = body.length();
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < body.length()
+                        && Character.isLowSurrogate(body.charAt(i + 1))) {
+                    // 4 bytes for the pair of chars, a lone surrogate is encoded as '?'
+                    bytes += 2;
+                    i++;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Creates a copy of the entry refreshed by a 304 Not Modified response.
+     *
+     * @param headers        The headers of the 304 response.
+     * @param lifetimeMillis The new freshness lifetime, negative to keep the stored one.
+     * @param now            The current time in milliseconds.
+     * @return CachedResponse
+     */
+    CachedResponse refresh(HttpHeaders headers, long lifetimeMillis, long now) {
+        long lifetime = lifetimeMillis >= 0 ? lifetimeMillis : this.lifetimeMillis;
+        String newETag = headers.getETag();
+        String newLastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        return new CachedResponse(body, bodyBytes,
+                newETag != null ? newETag : eTag,
+                newLastModified != null ? newLastModified : lastModified,
+                lifetime, now + lifetime);
+    }
+
+    /**
+     * Gets the stored body.
+     *
+     * @return The body.
+     */
+    String body() {
+        return body;
+    }
+
+    /**
+     * Gets the size of the stored body.
+     *
+     * @return The size in UTF-8 bytes.
+     */
+    int bodyBytes() {
+        return bodyBytes;
+    }
+
+    /**
+     * Checks whether the entry can be served without revalidation.
+     *
+     * @param now The current time in milliseconds.
+     * @return true when the entry is fresh.
+     */
+    boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    /**
+     * Checks whether the entry has a validator for a conditional request.
+     *
+     * @return true when an ETag or Last-Modified is stored.
+     */
+    boolean hasValidators() {
+        return eTag != null || lastModified != null;
+    }
+
+    /**
+     * Adds the conditional request headers of the entry.
+     *
+     * @param headers The request headers.
+     */
+    void addValidators(HttpHeaders headers) {
+        if (eTag != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, eTag);
+        }
+        if (lastModified != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * Gets the size of the body on the heap, used as the eviction weight.
+     *
+     * @return The weight.
+     */
+    int weight() {
+        return body.length() * 2;
+    }
+}
@@ -0,0 +1,293 @@
+package org.xiaofeng.webclient.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * HttpResponseCache class
+ * <p>
+ * Private HTTP cache for GET responses. Freshness follows Cache-Control max-age and Expires,
+ * stale entries are revalidated with If-None-Match / If-Modified-Since and a 304 response
+ * reuses the stored body. Entries are bounded by size with Caffeine's W-TinyLFU eviction.
+ */
+public class HttpResponseCache {
+    private final ResponseCacheConfig config;
+
+    private final Cache<String, CachedResponse> heapEntries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder revalidations = new LongAdder();
+
+    private final LongAdder stores = new LongAdder();
+
+    private final LongAdder bytesServed = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param config ResponseCacheConfig, null to disable the cache
+     */
+    public HttpResponseCache(ResponseCacheConfig config) {
+        this.config = config;
+        this.heapEntries = config == null ? null : newCache(config.getMaxHeapBytes());
+    }
+
+    /**
+     * Creates a disabled cache.
+     *
+     * @return HttpResponseCache
+     */
+    public static HttpResponseCache disabled() {
+        return new HttpResponseCache(null);
+    }
+
+    private static Cache<String, CachedResponse> newCache(long maxWeight) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .<String, CachedResponse>weigher((key, response) -> response.weight())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Checks whether the cache is enabled.
+     *
+     * @return true when responses are cached.
+     */
+    public boolean isEnabled() {
+        return config != null;
+    }
+
+    /**
+     * Serves a GET request from the cache or through the given exchange.
+     *
+     * @param uri            The URI of the request.
+     * @param requestHeaders The headers of the request.
+     * @param exchange       Executes the request, with a consumer adding the conditional headers.
+     * @return A Mono representing the response body.
+     */
+    public Mono<String> execute(String uri,
+                                HttpHeaders requestHeaders,
+                                Function<Consumer<HttpHeaders>, Mono<ResponseEntity<String>>> exchange) {
+        Directives requestDirectives = Directives.parse(requestHeaders);
+        if (!isEnabled() || requestDirectives.noStore) {
+            return exchange.apply(headers -> {
+            }).mapNotNull(ResponseEntity::getBody);
+        }
+
+        return Mono.defer(() -> {
+            // Looked up per subscription, so a retried or repeated call sees the current entry
+            String key = key(uri, requestHeaders);
+            CachedResponse cached = lookup(key);
+            long now = System.currentTimeMillis();
+            if (cached != null && cached.isFresh(now) && !requestDirectives.noCache) {
+                hits.increment();
+                return Mono.just(served(cached));
+            }
+            if (cached == null) {
+                misses.increment();
+            }
+
+            Consumer<HttpHeaders> conditional = cached != null && cached.hasValidators()
+                    ? cached::addValidators
+                    : headers -> {
+            };
+            return exchange.apply(conditional).flatMap(entity -> {
+                if (!isNotModified(entity)) {
+                    return Mono.justOrEmpty(stored(key, entity));
+                }
+                if (cached != null) {
+                    long receivedAt = System.currentTimeMillis();
+                    revalidations.increment();
+                    CachedResponse refreshed = cached.refresh(entity.getHeaders(),
+                            freshnessLifetime(entity.getHeaders(), receivedAt, true), receivedAt);
+                    put(key, refreshed);
+                    return Mono.just(served(refreshed));
+                }
+                // A 304 with nothing to reuse, e.g. the entry was evicted meanwhile: ask again for the body
+                return exchange.apply(HttpResponseCache::removeValidators).flatMap(retry -> isNotModified(retry)
+                        ? Mono.error(new IllegalStateException("304 Not Modified without a cached response: " + uri))
+                        : Mono.justOrEmpty(stored(key, retry)));
+            });
+        });
+    }
+
+    private static boolean isNotModified(ResponseEntity<String> entity) {
+        return entity.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value();
+    }
+
+    private static void removeValidators(HttpHeaders headers) {
+        headers.remove(HttpHeaders.IF_NONE_MATCH);
+        headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    private String stored(String key, ResponseEntity<String> entity) {
+        String body = entity.getBody();
+        if (body != null && entity.getStatusCode().value() == HttpStatus.OK.value()) {
+            store(key, body, entity.getHeaders(), System.currentTimeMillis());
+        }
+        return body;
+    }
+
+    /**
+     * Removes every stored entry.
+     */
+    public void clear() {
+        if (heapEntries != null) {
+            heapEntries.invalidateAll();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the cache counters.
+     *
+     * @return ResponseCacheStats
+     */
+    public ResponseCacheStats stats() {
+        long evictions = 0;
+        long entries = 0;
+        if (heapEntries != null) {
+            evictions += heapEntries.stats().evictionCount();
+            entries += heapEntries.estimatedSize();
+        }
+        return new ResponseCacheStats(hits.sum(), misses.sum(), revalidations.sum(), stores.sum(),
+                evictions, bytesServed.sum(), entries);
+    }
+
+    private String served(CachedResponse cached) {
+        bytesServed.add(cached.bodyBytes());
+        return cached.body();
+    }
+
+    private CachedResponse lookup(String key) {
+        return heapEntries.getIfPresent(key);
+    }
+
+    private void put(String key, CachedResponse response) {
+        heapEntries.put(key, response);
+    }
+
+    private void store(String key, String body, HttpHeaders headers, long now) {
+        Directives directives = Directives.parse(headers);
+        if (directives.noStore || !varyCoveredByKey(headers)) {
+            return;
+        }
+        int bodyBytes = CachedResponse.utf8Length(body);
+        if (bodyBytes > config.getMaxEntryBytes()) {
+            return;
+        }
+        long lifetime = freshnessLifetime(headers, now, false);
+        if (lifetime <= 0 && headers.getETag() == null && headers.getFirst(HttpHeaders.LAST_MODIFIED) == null) {
+            return;
+        }
+        lifetime = Math.max(lifetime, 0);
+        put(key, CachedResponse.of(body, bodyBytes, headers, lifetime, now));
+        stores.increment();
+    }
+
+    private boolean varyCoveredByKey(HttpHeaders headers) {
+        for (String vary : headers.getVary()) {
+            if ("*".equals(vary) || config.getKeyHeaders().stream().noneMatch(vary::equalsIgnoreCase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String key(String uri, HttpHeaders requestHeaders) {
+        StringBuilder key = new StringBuilder(uri);
+        for (String name : config.getKeyHeaders()) {
+            List<String> values = requestHeaders.get(name);
+            if (values != null) {
+                key.append('\n').append(name.toLowerCase(Locale.ROOT)).append(':').append(values);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Computes the freshness lifetime of a response.
+     *
+     * @param headers     The response headers.
+     * @param now         The current time in milliseconds.
+     * @param notModified true for the headers of a 304 response.
+     * @return The lifetime in milliseconds, 0 when the response must be revalidated,
+     * -1 for a 304 response without freshness information.
+     */
+    private long freshnessLifetime(HttpHeaders headers, long now, boolean notModified) {
+        Directives directives = Directives.parse(headers);
+        if (directives.noCache) {
+            return 0;
+        }
+        if (directives.maxAge >= 0) {
+            return Math.max(0, (directives.maxAge - age(headers)) * 1000);
+        }
+        long expires = headers.getExpires();
+        if (expires >= 0) {
+            long date = date(headers);
+            return Math.max(0, expires - (date >= 0 ? date : now));
+        }
+        return notModified ? -1 : 0;
+    }
+
+    private static long age(HttpHeaders headers) {
+        String age = headers.getFirst(HttpHeaders.AGE);
+        if (age == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(age.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long date(HttpHeaders headers) {
+        try {
+            return headers.getDate();
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Cache-Control directives relevant to a private cache.
+     */
+    private static final class Directives {
+        private boolean noStore;
+        private boolean noCache;
+        private long maxAge = -1;
+
+        private static Directives parse(HttpHeaders headers) {
+            Directives directives = new Directives();
+            for (String value : headers.getValuesAsList(HttpHeaders.CACHE_CONTROL)) {
+                String directive = value.toLowerCase(Locale.ROOT);
+                if (directive.equals("no-store")) {
+                    directives.noStore = true;
+                } else if (directive.startsWith("no-cache")) {
+                    directives.noCache = true;
+                } else if (directive.startsWith("max-age=")) {
+                    try {
+                        directives.maxAge = Long.parseLong(directive.substring("max-age=".length()).replace("\"", ""));
+                    } catch (NumberFormatException e) {
+                        directives.noCache = true;
+                    }
+                }
+            }
+            return directives;
+        }
+    }
+}
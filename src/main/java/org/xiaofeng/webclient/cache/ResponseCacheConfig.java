@@ -0,0 +1,97 @@
+package org.xiaofeng.webclient.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * ResponseCacheConfig class
+ * <p>
+ * Settings of the HTTP response cache applied to GET requests.
+ */
+public class ResponseCacheConfig {
+    private final long maxHeapBytes;
+    private final int maxEntryBytes;
+    private final List<String> keyHeaders;
+
+    private ResponseCacheConfig(Builder builder) {
+        this.maxHeapBytes = builder.maxHeapBytes;
+        this.maxEntryBytes = builder.maxEntryBytes;
+        this.keyHeaders = List.copyOf(builder.keyHeaders);
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public List<String> getKeyHeaders() {
+        return keyHeaders;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private long maxHeapBytes = 64L * 1024 * 1024;
+        private int maxEntryBytes = 8 * 1024 * 1024;
+        private List<String> keyHeaders = List.of(HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum size of the bodies kept on the heap.
+         *
+         * @param maxHeapBytes max heap bytes
+         * @return Builder
+         */
+        public Builder maxHeapBytes(long maxHeapBytes) {
+            this.maxHeapBytes = maxHeapBytes;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of a cached body in UTF-8 bytes, larger responses are never stored.
+         *
+         * @param maxEntryBytes max entry bytes
+         * @return Builder
+         */
+        public Builder maxEntryBytes(int maxEntryBytes) {
+            this.maxEntryBytes = maxEntryBytes;
+            return this;
+        }
+
+        /**
+         * Sets the request headers that are part of the cache key, besides the URI.
+         *
+         * @param keyHeaders header names
+         * @return Builder
+         */
+        public Builder keyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return ResponseCacheConfig
+         */
+        public ResponseCacheConfig build() {
+            return new ResponseCacheConfig(this);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.xiaofeng.webclient.cache;
+
+/**
+ * ResponseCacheStats class
+ * <p>
+ * Point-in-time counters of the response cache.
+ */
+public class ResponseCacheStats {
+    private final long hits;
+    private final long misses;
+    private final long revalidations;
+    private final long stores;
+    private final long evictions;
+    private final long bytesServed;
+    private final long entries;
+
+    /**
+     * Constructor
+     *
+     * @param hits          fresh entries served without a request
+     * @param misses        lookups without a stored entry
+     * @param revalidations stale entries refreshed by a 304 response
+     * @param stores        responses stored
+     * @param evictions     entries evicted to respect the size bounds
+     * @param bytesServed   body bytes served from the cache, by hits and revalidations
+     * @param entries       estimated number of stored entries
+     */
+    public ResponseCacheStats(long hits,
+                              long misses,
+                              long revalidations,
+                              long stores,
+                              long evictions,
+                              long bytesServed,
+                              long entries) {
+        this.hits = hits;
+        this.misses = misses;
+        this.revalidations = revalidations;
+        this.stores = stores;
+        this.evictions = evictions;
+        this.bytesServed = bytesServed;
+        this.entries = entries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getRevalidations() {
+        return revalidations;
+    }
+
+    public long getStores() {
+        return stores;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getBytesServed() {
+        return bytesServed;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", revalidations=" + revalidations +
+                ", stores=" + stores +
+                ", evictions=" + evictions +
+                ", bytesServed=" + bytesServed +
+                ", entries=" + entries +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package org.xiaofeng.webclient.coalescing;
+
+import org.springframework.http.HttpHeaders;
+import org.xiaofeng.webclient.type.HttpMethod;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CoalescingConfig class
+ * <p>
+ * Settings of the single-flight coalescing of identical in-flight requests.
+ * The key of a request is its method, its URI and the values of the key headers.
+ */
+public class CoalescingConfig {
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS =
+            EnumSet.of(HttpMethod.GET, HttpMethod.OPTIONS, HttpMethod.DELETE, HttpMethod.PUT);
+
+    private final Set<HttpMethod> methods;
+    private final List<String> keyHeaders;
+
+    private CoalescingConfig(Builder builder) {
+        this.methods = EnumSet.copyOf(builder.methods);
+        this.keyHeaders = List.copyOf(builder.keyHeaders);
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Set<HttpMethod> getMethods() {
+        return methods;
+    }
+
+    public List<String> getKeyHeaders() {
+        return keyHeaders;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private Set<HttpMethod> methods = EnumSet.of(HttpMethod.GET);
+        private List<String> keyHeaders = List.of(HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the methods whose requests are coalesced, only idempotent methods are accepted.
+         *
+         * @param methods HTTP methods
+         * @return Builder
+         * @throws IllegalArgumentException If a method is not idempotent.
+         */
+        public Builder methods(Set<HttpMethod> methods) {
+            for (HttpMethod method : methods) {
+                if (!IDEMPOTENT_METHODS.contains(method)) {
+                    throw new IllegalArgumentException("Cannot coalesce non idempotent requests: " + method);
+                }
+            }
+            this.methods = methods;
+            return this;
+        }
+
+        /**
+         * Sets the request headers that are part of the coalescing key, besides the method and URI.
+         *
+         * @param keyHeaders header names
+         * @return Builder
+         */
+        public Builder keyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return CoalescingConfig
+         */
+        public CoalescingConfig build() {
+            return new CoalescingConfig(this);
+        }
+    }
+}
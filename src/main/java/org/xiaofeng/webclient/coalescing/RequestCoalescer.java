@@ -0,0 +1,130 @@
+package org.xiaofeng.webclient.coalescing;
+
+import org.springframework.http.HttpHeaders;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * RequestCoalescer class
+ * <p>
+ * Shares one exchange between the concurrent subscribers of identical requests.
+ * The exchange starts with the first subscriber, its result is fanned out to every subscriber
+ * that joined while it was in flight, and it is cancelled only once all subscribers went away.
+ * A request made after the exchange completed starts a new one.
+ */
+public class RequestCoalescer {
+    private final CoalescingConfig config;
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder started = new LongAdder();
+
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param config CoalescingConfig, null to disable the coalescing
+     */
+    public RequestCoalescer(CoalescingConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Checks whether the requests of a method are coalesced.
+     *
+     * @param httpMethod The HTTP method.
+     * @return true when the requests are coalesced.
+     */
+    public boolean isEnabled(HttpMethod httpMethod) {
+        return config != null && config.getMethods().contains(httpMethod);
+    }
+
+    /**
+     * Builds the coalescing key of a request.
+     *
+     * @param httpMethod The HTTP method of the request.
+     * @param uri        The URI of the request.
+     * @param headers    The headers of the request.
+     * @return The key.
+     */
+    public String key(HttpMethod httpMethod, String uri, HttpHeaders headers) {
+        StringBuilder key = new StringBuilder(httpMethod.name()).append(' ').append(uri);
+        for (String name : config.getKeyHeaders()) {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                key.append('\n').append(name.toLowerCase(Locale.ROOT)).append(':').append(values);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Executes a request, or joins the identical request already in flight.
+     *
+     * @param key      The coalescing key of the request.
+     * @param exchange Creates the exchange when no identical request is in flight.
+     * @param <T>      The type of the response.
+     * @return A Mono representing the shared response.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> exchange) {
+        return Mono.defer(() -> {
+            Mono<?> current = inFlight.get(key);
+            if (current == null) {
+                current = inFlight.computeIfAbsent(key, k -> share(k, exchange.get()));
+            } else {
+                joined.increment();
+            }
+            return (Mono<T>) current;
+        });
+    }
+
+    /**
+     * Gets the number of exchanges started.
+     *
+     * @return The started count.
+     */
+    public long getStarted() {
+        return started.sum();
+    }
+
+    /**
+     * Gets the number of requests that joined an exchange already in flight.
+     *
+     * @return The joined count.
+     */
+    public long getJoined() {
+        return joined.sum();
+    }
+
+    /**
+     * Gets the number of exchanges currently in flight.
+     *
+     * @return The in-flight count.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    private <T> Mono<T> share(String key, Mono<T> exchange) {
+        started.increment();
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> shared = exchange
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .flux()
+                .publish()
+                .refCount(1)
+                .singleOrEmpty();
+        self.set(shared);
+        return shared;
+    }
+}
@@ -0,0 +1,25 @@
+package org.xiaofeng.webclient.common;
+
+/**
+ * BatchQueueFullException class
+ * <p>
+ * Thrown without contacting the server when a micro-batcher already holds as many items waiting
+ * to be sent as its queue allows.
+ */
+public class BatchQueueFullException extends RuntimeException {
+    /**
+     * Constructor
+     */
+    public BatchQueueFullException() {
+        super();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param message Message
+     */
+    public BatchQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package org.xiaofeng.webclient.common;
+
+/**
+ * CircuitBreakerOpenException class
+ * <p>
+ * Thrown without contacting the server when the circuit breaker of a host is open.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+    /**
+     * Constructor
+     */
+    public CircuitBreakerOpenException() {
+        super();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param message Message
+     */
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
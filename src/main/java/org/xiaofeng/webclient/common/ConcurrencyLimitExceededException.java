@@ -0,0 +1,24 @@
+package org.xiaofeng.webclient.common;
+
+/**
+ * ConcurrencyLimitExceededException class
+ * <p>
+ * Thrown without contacting the server when a host already has as many requests in flight as its limit allows.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    /**
+     * Constructor
+     */
+    public ConcurrencyLimitExceededException() {
+        super();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param message Message
+     */
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,79 @@
+package org.xiaofeng.webclient.common;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * HttpResponseException class
+ * <p>
+ * Base class of the errors raised for a 4xx or 5xx response, carrying its status code, headers and
+ * body. The body is captured up to a bounded size, so a huge error page is never held in memory.
+ */
+public abstract class HttpResponseException extends RuntimeException {
+    private final int statusCode;
+
+    private final HttpHeaders headers;
+
+    private final boolean bodyTruncated;
+
+    /**
+     * Constructor
+     *
+     * @param statusCode Status code, 0 when unknown
+     * @param headers    Response headers
+     * @param message    Message
+     */
+    protected HttpResponseException(int statusCode, HttpHeaders headers, String message) {
+        this(statusCode, headers, message, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param statusCode    Status code, 0 when unknown
+     * @param headers       Response headers
+     * @param message       Message, the captured response body
+     * @param bodyTruncated Whether the body was cut at the capture limit
+     */
+    protected HttpResponseException(int statusCode, HttpHeaders headers, String message, boolean bodyTruncated) {
+        super(message);
+        this.statusCode = statusCode;
+        this.headers = headers != null ? HttpHeaders.readOnlyHttpHeaders(headers) : HttpHeaders.EMPTY;
+        this.bodyTruncated = bodyTruncated;
+    }
+
+    /**
+     * Gets the status code of the response.
+     *
+     * @return The status code, 0 when unknown.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Gets the headers of the response.
+     *
+     * @return The read-only headers.
+     */
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the captured body of the response.
+     *
+     * @return The body, possibly truncated.
+     */
+    public String getResponseBody() {
+        return getMessage();
+    }
+
+    /**
+     * Checks whether the body was cut at the capture limit.
+     *
+     * @return true when the rest of the body was discarded.
+     */
+    public boolean isBodyTruncated() {
+        return bodyTruncated;
+    }
+}
@@ -0,0 +1,49 @@
+package org.xiaofeng.webclient.common;
+
+import java.time.Duration;
+
+/**
+ * RateLimitExceededException class
+ * <p>
+ * Thrown without contacting the server when the client-side rate limit of a host or endpoint would
+ * delay the request longer than allowed.
+ */
+public class RateLimitExceededException extends RuntimeException {
+    private final Duration retryAfter;
+
+    /**
+     * Constructor
+     */
+    public RateLimitExceededException() {
+        this(null, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param message Message
+     */
+    public RateLimitExceededException(String message) {
+        this(message, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param message    Message
+     * @param retryAfter time until the request would be permitted
+     */
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the time until the request would have been permitted.
+     *
+     * @return The wait, or null when unknown.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,14 +1,16 @@
 package org.xiaofeng.webclient.common;
 
+import org.springframework.http.HttpHeaders;
+
 /**
  * ServerErrorException class
  */
-public class ServerErrorException extends RuntimeException {
+public class ServerErrorException extends HttpResponseException {
     /**
      * Constructor
      */
     public ServerErrorException() {
-        super();
+        super(0, null, null);
     }
 
     /**
@@ -17,6 +19,29 @@ public class ServerErrorException extends RuntimeException {
      * @param message Message
      */
     public ServerErrorException(String message) {
-        super(message);
+        super(0, null, message);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param statusCode Status code
+     * @param headers    Response headers
+     * @param message    Message, the response body
+     */
+    public ServerErrorException(int statusCode, HttpHeaders headers, String message) {
+        super(statusCode, headers, message);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param statusCode    Status code
+     * @param headers       Response headers
+     * @param message       Message, the captured response body
+     * @param bodyTruncated Whether the body was cut at the capture limit
+     */
+    public ServerErrorException(int statusCode, HttpHeaders headers, String message, boolean bodyTruncated) {
+        super(statusCode, headers, message, bodyTruncated);
     }
 }
@@ -0,0 +1,156 @@
+package org.xiaofeng.webclient.compression;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * CompressionConfig class
+ * <p>
+ * Settings of the transparent compression. Gzip and deflate responses are decoded as they stream in.
+ * POST and PUT bodies of a known size above the threshold are gzipped, for the hosts accepting
+ * compressed requests.
+ */
+public class CompressionConfig {
+    private final boolean responseDecompression;
+    private final boolean requestCompression;
+    private final int requestThresholdBytes;
+    private final int level;
+    private final Map<String, Boolean> hostRequestCompression;
+
+    private CompressionConfig(Builder builder) {
+        this.responseDecompression = builder.responseDecompression;
+        this.requestCompression = builder.requestCompression;
+        this.requestThresholdBytes = builder.requestThresholdBytes;
+        this.level = builder.level;
+        this.hostRequestCompression = Collections.unmodifiableMap(new HashMap<>(builder.hostRequestCompression));
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return CompressionConfig
+     */
+    public static CompressionConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isResponseDecompression() {
+        return responseDecompression;
+    }
+
+    public boolean isRequestCompression() {
+        return requestCompression;
+    }
+
+    public int getRequestThresholdBytes() {
+        return requestThresholdBytes;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public Map<String, Boolean> getHostRequestCompression() {
+        return hostRequestCompression;
+    }
+
+    /**
+     * Checks whether the requests to a host are compressed.
+     *
+     * @param host host name
+     * @return true when the request bodies are compressed.
+     */
+    public boolean isRequestCompression(String host) {
+        return hostRequestCompression.getOrDefault(host, requestCompression);
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private boolean responseDecompression = true;
+        private boolean requestCompression;
+        private int requestThresholdBytes = 1024;
+        private int level = Deflater.DEFAULT_COMPRESSION;
+        private final Map<String, Boolean> hostRequestCompression = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets whether gzip and deflate are advertised with Accept-Encoding and decoded.
+         *
+         * @param responseDecompression true to decompress the responses
+         * @return Builder
+         */
+        public Builder responseDecompression(boolean responseDecompression) {
+            this.responseDecompression = responseDecompression;
+            return this;
+        }
+
+        /**
+         * Sets whether the request bodies are compressed, unless overridden for the host.
+         *
+         * @param requestCompression true to compress the requests
+         * @return Builder
+         */
+        public Builder requestCompression(boolean requestCompression) {
+            this.requestCompression = requestCompression;
+            return this;
+        }
+
+        /**
+         * Sets the smallest request body compressed.
+         *
+         * @param requestThresholdBytes threshold in bytes
+         * @return Builder
+         */
+        public Builder requestThresholdBytes(int requestThresholdBytes) {
+            this.requestThresholdBytes = requestThresholdBytes;
+            return this;
+        }
+
+        /**
+         * Sets the compression level of the request bodies.
+         *
+         * @param level level, from 1 for the fastest to 9 for the smallest
+         * @return Builder
+         */
+        public Builder level(int level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Enables or disables the request compression for a host.
+         *
+         * @param host    host name
+         * @param enabled true if the host accepts compressed requests
+         * @return Builder
+         */
+        public Builder hostRequestCompression(String host, boolean enabled) {
+            this.hostRequestCompression.put(host, enabled);
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return CompressionConfig
+         */
+        public CompressionConfig build() {
+            return new CompressionConfig(this);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.xiaofeng.webclient.compression;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CompressionExchangeFilter class
+ * <p>
+ * Advertises gzip and deflate with Accept-Encoding and decodes the compressed responses buffer by
+ * buffer, so a large body is never held compressed and decompressed at once. Gzips the POST and PUT
+ * bodies written as a single buffer at or above the threshold; streamed bodies are sent as is since
+ * their size is not known up front. Bodies above 16 KiB are gzipped on the bounded elastic
+ * scheduler so that they do not stall the event loop. A request already carrying Accept-Encoding
+ * or Content-Encoding is left to the caller.
+ */
+public class CompressionExchangeFilter implements ExchangeFilterFunction {
+    private static final String GZIP = "gzip";
+
+    private static final int INLINE_GZIP_BYTES = 16 * 1024;
+
+    private static final NettyDataBufferFactory BUFFER_FACTORY = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+
+    private final CompressionConfig config;
+
+    private final CompressionStatistics statistics;
+
+    /**
+     * Constructor
+     *
+     * @param config     CompressionConfig
+     * @param statistics CompressionStatistics
+     */
+    public CompressionExchangeFilter(CompressionConfig config, CompressionStatistics statistics) {
+        this.config = config;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        HttpHeaders headers = request.headers();
+        boolean decompress = config.isResponseDecompression() && !headers.containsKey(HttpHeaders.ACCEPT_ENCODING);
+        boolean compress = isCompressedMethod(request)
+                && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                && config.isRequestCompression(request.url().getHost());
+        if (!decompress && !compress) {
+            return next.exchange(request);
+        }
+
+        ClientRequest.Builder builder = ClientRequest.from(request);
+        if (decompress) {
+            builder.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        }
+        if (compress) {
+            BodyInserter<?, ? super ClientHttpRequest> body = request.body();
+            builder.body((outputMessage, context) -> body.insert(new GzipRequest(outputMessage), context));
+        }
+        Mono<ClientResponse> exchange = next.exchange(builder.build());
+        return decompress ? exchange.map(this::decompress) : exchange;
+    }
+
+    private static boolean isCompressedMethod(ClientRequest request) {
+        String method = request.method().name();
+        return "POST".equals(method) || "PUT".equals(method);
+    }
+
+    private ClientResponse decompress(ClientResponse response) {
+        String encoding = response.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        ZlibWrapper wrapper;
+        if (GZIP.equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding)) {
+            wrapper = ZlibWrapper.GZIP;
+        } else if ("deflate".equalsIgnoreCase(encoding)) {
+            wrapper = ZlibWrapper.ZLIB_OR_NONE;
+        } else {
+            return response;
+        }
+        statistics.onResponseDecompressed();
+        return response.mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.CONTENT_ENCODING);
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                })
+                .body(body -> decode(body, wrapper))
+                .build();
+    }
+
+    private Flux<DataBuffer> decode(Flux<DataBuffer> body, ZlibWrapper wrapper) {
+        return Flux.using(() -> new EmbeddedChannel(ZlibCodecFactory.newZlibDecoder(wrapper)),
+                decoder -> body
+                        .concatMapIterable(buffer -> {
+                            ByteBuf compressed = toByteBuf(buffer);
+                            long compressedBytes = compressed.readableBytes();
+                            decoder.writeInbound(compressed);
+                            return drain(decoder, compressedBytes);
+                        })
+                        .concatWith(Flux.defer(() -> {
+                            decoder.finish();
+                            return Flux.fromIterable(drain(decoder, 0));
+                        })),
+                EmbeddedChannel::finishAndReleaseAll);
+    }
+
+    private List<DataBuffer> drain(EmbeddedChannel decoder, long compressedBytes) {
+        List<DataBuffer> decoded = new ArrayList<>(2);
+        long decodedBytes = 0;
+        ByteBuf chunk;
+        while ((chunk = decoder.readInbound()) != null) {
+            decodedBytes += chunk.readableBytes();
+            decoded.add(BUFFER_FACTORY.wrap(chunk));
+        }
+        statistics.onResponseBytes(compressedBytes, decodedBytes);
+        return decoded;
+    }
+
+    private static ByteBuf toByteBuf(DataBuffer buffer) {
+        if (buffer instanceof NettyDataBuffer nettyBuffer) {
+            return nettyBuffer.getNativeBuffer();
+        }
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return Unpooled.wrappedBuffer(bytes);
+    }
+
+    private byte[] gzip(DataBuffer buffer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(buffer.readableByteCount() / 4 + 64);
+        try (InputStream in = buffer.asInputStream();
+             GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+                 {
+                     def.setLevel(config.getLevel());
+                 }
+             }) {
+            in.transferTo(gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Gzips a buffer and releases it, on the calling thread when it is small and on the bounded
+     * elastic scheduler otherwise.
+     *
+     * @param buffer The body, released once compressed or when the write is cancelled.
+     * @param size   The size of the body.
+     * @return A Mono of the compressed bytes.
+     */
+    private Mono<byte[]> gzipOffLoop(DataBuffer buffer, int size) {
+        // Whoever claims the buffer first releases it: the compression, or a cancel before it started
+        AtomicBoolean claimed = new AtomicBoolean();
+        Mono<byte[]> compressed = Mono.fromCallable(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                return gzip(buffer);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        });
+        if (size <= INLINE_GZIP_BYTES) {
+            return compressed;
+        }
+        return compressed
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnCancel(() -> {
+                    if (claimed.compareAndSet(false, true)) {
+                        DataBufferUtils.release(buffer);
+                    }
+                });
+    }
+
+    /**
+     * GzipRequest class
+     * <p>
+     * Compresses a single-buffer body before the headers are committed.
+     */
+    private final class GzipRequest extends ClientHttpRequestDecorator {
+        private GzipRequest(ClientHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!(body instanceof Mono)) {
+                return super.writeWith(body);
+            }
+            return Mono.from(body)
+                    .singleOptional()
+                    .flatMap(optionalBuffer -> {
+                        if (optionalBuffer.isEmpty()) {
+                            return super.writeWith(Mono.empty());
+                        }
+                        DataBuffer buffer = optionalBuffer.get();
+                        int size = buffer.readableByteCount();
+                        if (size < config.getRequestThresholdBytes()) {
+                            return super.writeWith(Mono.just(buffer));
+                        }
+                        return gzipOffLoop(buffer, size).flatMap(compressed -> {
+                            getHeaders().set(HttpHeaders.CONTENT_ENCODING, GZIP);
+                            getHeaders().setContentLength(compressed.length);
+                            statistics.onRequestCompressed(size, compressed.length);
+                            return super.writeWith(Mono.just(bufferFactory().wrap(compressed)));
+                        });
+                    });
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.xiaofeng.webclient.compression;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CompressionStatistics class
+ * <p>
+ * Counts the bytes before and after compression, fed by the compression filter.
+ */
+public class CompressionStatistics {
+    private final LongAdder compressedRequests = new LongAdder();
+    private final LongAdder requestBytesBefore = new LongAdder();
+    private final LongAdder requestBytesAfter = new LongAdder();
+    private final LongAdder decompressedResponses = new LongAdder();
+    private final LongAdder responseBytesBefore = new LongAdder();
+    private final LongAdder responseBytesAfter = new LongAdder();
+
+    void onRequestCompressed(long before, long after) {
+        compressedRequests.increment();
+        requestBytesBefore.add(before);
+        requestBytesAfter.add(after);
+    }
+
+    void onResponseDecompressed() {
+        decompressedResponses.increment();
+    }
+
+    void onResponseBytes(long before, long after) {
+        responseBytesBefore.add(before);
+        responseBytesAfter.add(after);
+    }
+
+    /**
+     * Takes a snapshot of the counters.
+     *
+     * @return CompressionStats
+     */
+    public CompressionStats snapshot() {
+        return new CompressionStats(compressedRequests.sum(),
+                requestBytesBefore.sum(),
+                requestBytesAfter.sum(),
+                decompressedResponses.sum(),
+                responseBytesBefore.sum(),
+                responseBytesAfter.sum());
+    }
+}
@@ -0,0 +1,84 @@
+package org.xiaofeng.webclient.compression;
+
+/**
+ * CompressionStats class
+ * <p>
+ * Point-in-time byte counters of the compressed requests and the decompressed responses.
+ */
+public class CompressionStats {
+    private final long compressedRequests;
+    private final long requestBytesBefore;
+    private final long requestBytesAfter;
+    private final long decompressedResponses;
+    private final long responseBytesBefore;
+    private final long responseBytesAfter;
+
+    /**
+     * Constructor
+     *
+     * @param compressedRequests    requests sent compressed
+     * @param requestBytesBefore    request bytes before compression
+     * @param requestBytesAfter     request bytes sent
+     * @param decompressedResponses responses received compressed
+     * @param responseBytesBefore   response bytes received
+     * @param responseBytesAfter    response bytes after decompression
+     */
+    public CompressionStats(long compressedRequests,
+                            long requestBytesBefore,
+                            long requestBytesAfter,
+                            long decompressedResponses,
+                            long responseBytesBefore,
+                            long responseBytesAfter) {
+        this.compressedRequests = compressedRequests;
+        this.requestBytesBefore = requestBytesBefore;
+        this.requestBytesAfter = requestBytesAfter;
+        this.decompressedResponses = decompressedResponses;
+        this.responseBytesBefore = responseBytesBefore;
+        this.responseBytesAfter = responseBytesAfter;
+    }
+
+    public long getCompressedRequests() {
+        return compressedRequests;
+    }
+
+    public long getRequestBytesBefore() {
+        return requestBytesBefore;
+    }
+
+    public long getRequestBytesAfter() {
+        return requestBytesAfter;
+    }
+
+    public long getDecompressedResponses() {
+        return decompressedResponses;
+    }
+
+    public long getResponseBytesBefore() {
+        return responseBytesBefore;
+    }
+
+    public long getResponseBytesAfter() {
+        return responseBytesAfter;
+    }
+
+    /**
+     * Gets the bytes saved on the wire in both directions.
+     *
+     * @return The saved bytes.
+     */
+    public long getBytesSaved() {
+        return (requestBytesBefore - requestBytesAfter) + (responseBytesAfter - responseBytesBefore);
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionStats{" +
+                "compressedRequests=" + compressedRequests +
+                ", requestBytesBefore=" + requestBytesBefore +
+                ", requestBytesAfter=" + requestBytesAfter +
+                ", decompressedResponses=" + decompressedResponses +
+                ", responseBytesBefore=" + responseBytesBefore +
+                ", responseBytesAfter=" + responseBytesAfter +
+                '}';
+    }
+}
@@ -0,0 +1,195 @@
+package org.xiaofeng.webclient.config;
+
+import java.time.Duration;
+
+/**
+ * ConnectionPoolConfig class
+ * <p>
+ * Settings of the reactor-netty connection pool shared by every request of the client.
+ * Connection limits apply per remote host.
+ */
+public class ConnectionPoolConfig {
+    private final String name;
+    private final int maxConnections;
+    private final int pendingAcquireMaxCount;
+    private final Duration pendingAcquireTimeout;
+    private final Duration maxIdleTime;
+    private final Duration maxLifeTime;
+    private final Duration evictInBackground;
+    private final boolean metricsEnabled;
+
+    private ConnectionPoolConfig(Builder builder) {
+        this.name = builder.name;
+        this.maxConnections = builder.maxConnections;
+        this.pendingAcquireMaxCount = builder.pendingAcquireMaxCount;
+        this.pendingAcquireTimeout = builder.pendingAcquireTimeout;
+        this.maxIdleTime = builder.maxIdleTime;
+        this.maxLifeTime = builder.maxLifeTime;
+        this.evictInBackground = builder.evictInBackground;
+        this.metricsEnabled = builder.metricsEnabled;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return ConnectionPoolConfig
+     */
+    public static ConnectionPoolConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getPendingAcquireMaxCount() {
+        return pendingAcquireMaxCount;
+    }
+
+    public Duration getPendingAcquireTimeout() {
+        return pendingAcquireTimeout;
+    }
+
+    public Duration getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public Duration getMaxLifeTime() {
+        return maxLifeTime;
+    }
+
+    public Duration getEvictInBackground() {
+        return evictInBackground;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private String name = "crochet-webclient";
+        private int maxConnections = 500;
+        private int pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+        private boolean metricsEnabled = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the pool name, used as a prefix of the pool statistics.
+         *
+         * @param name pool name
+         * @return Builder
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections per remote host.
+         *
+         * @param maxConnections max connections
+         * @return Builder
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests waiting for a connection, -1 for no limit.
+         *
+         * @param pendingAcquireMaxCount pending acquire queue size
+         * @return Builder
+         */
+        public Builder pendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+            return this;
+        }
+
+        /**
+         * Sets how long a request may wait for a connection.
+         *
+         * @param pendingAcquireTimeout pending acquire timeout
+         * @return Builder
+         */
+        public Builder pendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long a connection may stay idle in the pool.
+         *
+         * @param maxIdleTime max idle time
+         * @return Builder
+         */
+        public Builder maxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+            return this;
+        }
+
+        /**
+         * Sets the maximum life time of a connection.
+         *
+         * @param maxLifeTime max life time
+         * @return Builder
+         */
+        public Builder maxLifeTime(Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+            return this;
+        }
+
+        /**
+         * Sets the interval of the background eviction, {@link Duration#ZERO} to disable it.
+         *
+         * @param evictInBackground eviction interval
+         * @return Builder
+         */
+        public Builder evictInBackground(Duration evictInBackground) {
+            this.evictInBackground = evictInBackground;
+            return this;
+        }
+
+        /**
+         * Enables or disables the pool statistics.
+         *
+         * @param metricsEnabled true to collect pool statistics
+         * @return Builder
+         */
+        public Builder metricsEnabled(boolean metricsEnabled) {
+            this.metricsEnabled = metricsEnabled;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return ConnectionPoolConfig
+         */
+        public ConnectionPoolConfig build() {
+            return new ConnectionPoolConfig(this);
+        }
+    }
+}
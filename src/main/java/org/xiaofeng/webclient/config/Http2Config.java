@@ -0,0 +1,104 @@
+package org.xiaofeng.webclient.config;
+
+/**
+ * Http2Config class
+ * <p>
+ * Settings of the multiplexed connection pool used over H2C. Each connection carries up to the max
+ * concurrent streams; a new connection is opened per host only when every connection is full.
+ * H2 keeps the ConnectionPoolConfig limits, since its hosts may answer in HTTP/1.1.
+ */
+public class Http2Config {
+    private final long maxConcurrentStreams;
+    private final int maxConnections;
+    private final int minConnections;
+
+    private Http2Config(Builder builder) {
+        this.maxConcurrentStreams = builder.maxConcurrentStreams;
+        this.maxConnections = builder.maxConnections;
+        this.minConnections = builder.minConnections;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return Http2Config
+     */
+    public static Http2Config defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMinConnections() {
+        return minConnections;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private long maxConcurrentStreams = 100;
+        private int maxConnections = 4;
+        private int minConnections = 1;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the highest number of streams per connection, lowered to the server limit if smaller.
+         *
+         * @param maxConcurrentStreams max concurrent streams
+         * @return Builder
+         */
+        public Builder maxConcurrentStreams(long maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        /**
+         * Sets the highest number of connections per host.
+         *
+         * @param maxConnections max connections
+         * @return Builder
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Sets the number of connections per host kept open.
+         *
+         * @param minConnections min connections
+         * @return Builder
+         */
+        public Builder minConnections(int minConnections) {
+            this.minConnections = minConnections;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return Http2Config
+         */
+        public Http2Config build() {
+            return new Http2Config(this);
+        }
+    }
+}
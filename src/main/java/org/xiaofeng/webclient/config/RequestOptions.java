@@ -0,0 +1,144 @@
+package org.xiaofeng.webclient.config;
+
+import org.xiaofeng.webclient.retry.RetryPolicy;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * RequestOptions class
+ * <p>
+ * Per-call overrides of the client settings. An unset option falls back to the global setting.
+ */
+public class RequestOptions {
+    private final RetryPolicy retryPolicy;
+    private final Boolean hedging;
+    private final Duration timeout;
+    private final Executor completionExecutor;
+    private final Integer maxInMemorySize;
+
+    private RequestOptions(Builder builder) {
+        this.retryPolicy = builder.retryPolicy;
+        this.hedging = builder.hedging;
+        this.timeout = builder.timeout;
+        this.completionExecutor = builder.completionExecutor;
+        this.maxInMemorySize = builder.maxInMemorySize;
+    }
+
+    /**
+     * Creates options that override nothing.
+     *
+     * @return RequestOptions
+     */
+    public static RequestOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public Boolean getHedging() {
+        return hedging;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public Executor getCompletionExecutor() {
+        return completionExecutor;
+    }
+
+    public Integer getMaxInMemorySize() {
+        return maxInMemorySize;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private RetryPolicy retryPolicy;
+        private Boolean hedging;
+        private Duration timeout;
+        private Executor completionExecutor;
+        private Integer maxInMemorySize;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the retry policy of the call.
+         *
+         * @param retryPolicy RetryPolicy, null for the global policy
+         * @return Builder
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Enables or disables the hedging of the call. Has no effect unless the hedging is configured.
+         *
+         * @param hedging true to hedge, false not to hedge, null for the configured default
+         * @return Builder
+         */
+        public Builder hedging(Boolean hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
+        /**
+         * Sets the deadline of the call, retries and backoff included.
+         *
+         * @param timeout call timeout, null for the configured call timeout
+         * @return Builder
+         */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets the executor completing the futures of the async methods.
+         *
+         * @param completionExecutor Executor, null for the configured one
+         * @return Builder
+         */
+        public Builder completionExecutor(Executor completionExecutor) {
+            this.completionExecutor = completionExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the largest response body of the call buffered in memory. A limit above the largest
+         * configured one is capped by the codecs.
+         *
+         * @param maxInMemorySize limit in bytes, null for the limit of the host
+         * @return Builder
+         */
+        public Builder maxInMemorySize(Integer maxInMemorySize) {
+            this.maxInMemorySize = maxInMemorySize;
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return RequestOptions
+         */
+        public RequestOptions build() {
+            return new RequestOptions(this);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.xiaofeng.webclient.config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TimeoutConfig class
+ * <p>
+ * Timeouts of the client. The connect and write timeouts are set once per connection, the read
+ * timeout is the longest silence while a response is awaited or received, and the response timeout
+ * bounds each attempt up to the response headers. The call timeout is the deadline of a whole call,
+ * retries and backoff included. The read and response timeouts can be overridden per host.
+ */
+public class TimeoutConfig {
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration writeTimeout;
+    private final Duration responseTimeout;
+    private final Duration callTimeout;
+    private final String deadlineHeader;
+    private final Map<String, Duration> hostReadTimeouts;
+    private final Map<String, Duration> hostResponseTimeouts;
+
+    private TimeoutConfig(Builder builder) {
+        this.connectTimeout = builder.connectTimeout;
+        this.readTimeout = builder.readTimeout;
+        this.writeTimeout = builder.writeTimeout;
+        this.responseTimeout = builder.responseTimeout;
+        this.callTimeout = builder.callTimeout;
+        this.deadlineHeader = builder.deadlineHeader;
+        this.hostReadTimeouts = Collections.unmodifiableMap(new HashMap<>(builder.hostReadTimeouts));
+        this.hostResponseTimeouts = Collections.unmodifiableMap(new HashMap<>(builder.hostResponseTimeouts));
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return TimeoutConfig
+     */
+    public static TimeoutConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public Duration getCallTimeout() {
+        return callTimeout;
+    }
+
+    public String getDeadlineHeader() {
+        return deadlineHeader;
+    }
+
+    public Map<String, Duration> getHostReadTimeouts() {
+        return hostReadTimeouts;
+    }
+
+    public Map<String, Duration> getHostResponseTimeouts() {
+        return hostResponseTimeouts;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        private Duration writeTimeout = Duration.ofSeconds(10);
+        private Duration responseTimeout;
+        private Duration callTimeout = Duration.ofSeconds(10);
+        private String deadlineHeader;
+        private final Map<String, Duration> hostReadTimeouts = new HashMap<>();
+        private final Map<String, Duration> hostResponseTimeouts = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the longest time to establish a connection.
+         *
+         * @param connectTimeout connect timeout
+         * @return Builder
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the longest silence while a response is awaited or received.
+         *
+         * @param readTimeout read timeout, null for none
+         * @return Builder
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the longest time a write may stay pending on a connection.
+         *
+         * @param writeTimeout write timeout, null for none
+         * @return Builder
+         */
+        public Builder writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the longest time an attempt may wait for the response headers.
+         *
+         * @param responseTimeout response timeout, null for none
+         * @return Builder
+         */
+        public Builder responseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the deadline of a call, retries and backoff included, unless overridden per call.
+         *
+         * @param callTimeout call timeout, null for none
+         * @return Builder
+         */
+        public Builder callTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the header telling the server how many milliseconds are left before the deadline.
+         *
+         * @param deadlineHeader header name, e.g. X-Request-Timeout, null to not send the deadline
+         * @return Builder
+         */
+        public Builder deadlineHeader(String deadlineHeader) {
+            this.deadlineHeader = deadlineHeader;
+            return this;
+        }
+
+        /**
+         * Overrides the read timeout of a host.
+         *
+         * @param host        host name
+         * @param readTimeout read timeout
+         * @return Builder
+         */
+        public Builder hostReadTimeout(String host, Duration readTimeout) {
+            this.hostReadTimeouts.put(host, readTimeout);
+            return this;
+        }
+
+        /**
+         * Overrides the response timeout of a host.
+         *
+         * @param host            host name
+         * @param responseTimeout response timeout
+         * @return Builder
+         */
+        public Builder hostResponseTimeout(String host, Duration responseTimeout) {
+            this.hostResponseTimeouts.put(host, responseTimeout);
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return TimeoutConfig
+         */
+        public TimeoutConfig build() {
+            return new TimeoutConfig(this);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package org.xiaofeng.webclient.config;
+
+import org.xiaofeng.webclient.async.AsyncConfig;
+import org.xiaofeng.webclient.blocking.BlockingConfig;
+import org.xiaofeng.webclient.body.BodyLimitConfig;
+import org.xiaofeng.webclient.cache.ResponseCacheConfig;
+import org.xiaofeng.webclient.coalescing.CoalescingConfig;
+import org.xiaofeng.webclient.compression.CompressionConfig;
+import org.xiaofeng.webclient.hedging.HedgingConfig;
+import org.xiaofeng.webclient.loadbalancer.LoadBalancerConfig;
+import org.xiaofeng.webclient.metrics.MetricsConfig;
+import org.xiaofeng.webclient.oauth2.OAuth2Config;
+import org.xiaofeng.webclient.ratelimit.RateLimitConfig;
+import org.xiaofeng.webclient.resilience.ResilienceConfig;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.type.HttpProtocol;
+
+/**
+ * WebClientConfig class
+ * <p>
+ * Root configuration of the {@link org.xiaofeng.webclient.module.WebClientModule}.
+ */
+public class WebClientConfig {
+    private final ConnectionPoolConfig connectionPool;
+    private final ResponseCacheConfig responseCache;
+    private final CoalescingConfig coalescing;
+    private final ResilienceConfig resilience;
+    private final RetryPolicy retryPolicy;
+    private final HedgingConfig hedging;
+    private final MetricsConfig metrics;
+    private final TimeoutConfig timeouts;
+    private final HttpProtocol protocol;
+    private final Http2Config http2;
+    private final CompressionConfig compression;
+    private final BlockingConfig blocking;
+    private final AsyncConfig async;
+    private final RateLimitConfig rateLimit;
+    private final OAuth2Config oauth2;
+    private final BodyLimitConfig bodyLimits;
+    private final LoadBalancerConfig loadBalancer;
+
+    private WebClientConfig(Builder builder) {
+        this.connectionPool = builder.connectionPool;
+        this.responseCache = builder.responseCache;
+        this.coalescing = builder.coalescing;
+        this.resilience = builder.resilience;
+        this.retryPolicy = builder.retryPolicy;
+        this.hedging = builder.hedging;
+        this.metrics = builder.metrics;
+        this.timeouts = builder.timeouts;
+        this.protocol = builder.protocol;
+        this.http2 = builder.http2;
+        this.compression = builder.compression;
+        this.blocking = builder.blocking;
+        this.async = builder.async;
+        this.rateLimit = builder.rateLimit;
+        this.oauth2 = builder.oauth2;
+        this.bodyLimits = builder.bodyLimits;
+        this.loadBalancer = builder.loadBalancer;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return WebClientConfig
+     */
+    public static WebClientConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ConnectionPoolConfig getConnectionPool() {
+        return connectionPool;
+    }
+
+    public ResponseCacheConfig getResponseCache() {
+        return responseCache;
+    }
+
+    public CoalescingConfig getCoalescing() {
+        return coalescing;
+    }
+
+    public ResilienceConfig getResilience() {
+        return resilience;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public HedgingConfig getHedging() {
+        return hedging;
+    }
+
+    public MetricsConfig getMetrics() {
+        return metrics;
+    }
+
+    public TimeoutConfig getTimeouts() {
+        return timeouts;
+    }
+
+    public HttpProtocol getProtocol() {
+        return protocol;
+    }
+
+    public Http2Config getHttp2() {
+        return http2;
+    }
+
+    public CompressionConfig getCompression() {
+        return compression;
+    }
+
+    public BlockingConfig getBlocking() {
+        return blocking;
+    }
+
+    public AsyncConfig getAsync() {
+        return async;
+    }
+
+    public RateLimitConfig getRateLimit() {
+        return rateLimit;
+    }
+
+    public OAuth2Config getOauth2() {
+        return oauth2;
+    }
+
+    public BodyLimitConfig getBodyLimits() {
+        return bodyLimits;
+    }
+
+    public LoadBalancerConfig getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private ConnectionPoolConfig connectionPool = ConnectionPoolConfig.defaults();
+        private ResponseCacheConfig responseCache;
+        private CoalescingConfig coalescing;
+        private ResilienceConfig resilience;
+        private RetryPolicy retryPolicy = RetryPolicy.defaults();
+        private HedgingConfig hedging;
+        private MetricsConfig metrics = MetricsConfig.defaults();
+        private TimeoutConfig timeouts = TimeoutConfig.defaults();
+        private HttpProtocol protocol = HttpProtocol.HTTP11;
+        private Http2Config http2 = Http2Config.defaults();
+        private CompressionConfig compression;
+        private BlockingConfig blocking = BlockingConfig.defaults();
+        private AsyncConfig async = AsyncConfig.defaults();
+        private RateLimitConfig rateLimit;
+        private OAuth2Config oauth2;
+        private BodyLimitConfig bodyLimits = BodyLimitConfig.defaults();
+        private LoadBalancerConfig loadBalancer;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the connection pool settings.
+         *
+         * @param connectionPool ConnectionPoolConfig
+         * @return Builder
+         */
+        public Builder connectionPool(ConnectionPoolConfig connectionPool) {
+            this.connectionPool = connectionPool;
+            return this;
+        }
+
+        /**
+         * Enables the HTTP response cache of GET requests, disabled by default.
+         *
+         * @param responseCache ResponseCacheConfig
+         * @return Builder
+         */
+        public Builder responseCache(ResponseCacheConfig responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Enables the coalescing of identical in-flight requests, disabled by default.
+         *
+         * @param coalescing CoalescingConfig
+         * @return Builder
+         */
+        public Builder coalescing(CoalescingConfig coalescing) {
+            this.coalescing = coalescing;
+            return this;
+        }
+
+        /**
+         * Enables the per-host circuit breaker and adaptive concurrency limiter, disabled by default.
+         *
+         * @param resilience ResilienceConfig
+         * @return Builder
+         */
+        public Builder resilience(ResilienceConfig resilience) {
+            this.resilience = resilience;
+            return this;
+        }
+
+        /**
+         * Sets the retry policy applied to every call unless overridden per call.
+         *
+         * @param retryPolicy RetryPolicy, RetryPolicy.none() to disable the retries
+         * @return Builder
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Enables the hedging of slow idempotent requests.
+         *
+         * @param hedging HedgingConfig
+         * @return Builder
+         */
+        public Builder hedging(HedgingConfig hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
+        /**
+         * Sets the request metrics settings.
+         *
+         * @param metrics MetricsConfig, null to disable the request metrics
+         * @return Builder
+         */
+        public Builder metrics(MetricsConfig metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets the connection, response and call timeouts.
+         *
+         * @param timeouts TimeoutConfig
+         * @return Builder
+         */
+        public Builder timeouts(TimeoutConfig timeouts) {
+            this.timeouts = timeouts;
+            return this;
+        }
+
+        /**
+         * Sets the HTTP protocol of the connections.
+         *
+         * @param protocol HttpProtocol
+         * @return Builder
+         */
+        public Builder protocol(HttpProtocol protocol) {
+            this.protocol = protocol;
+            return this;
+        }
+
+        /**
+         * Sets the HTTP/2 connection pool settings, used when the protocol is H2 or H2C.
+         *
+         * @param http2 Http2Config
+         * @return Builder
+         */
+        public Builder http2(Http2Config http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        /**
+         * Enables the transparent request and response compression.
+         *
+         * @param compression CompressionConfig
+         * @return Builder
+         */
+        public Builder compression(CompressionConfig compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Sets the executor of the blocking facade.
+         *
+         * @param blocking BlockingConfig
+         * @return Builder
+         */
+        public Builder blocking(BlockingConfig blocking) {
+            this.blocking = blocking;
+            return this;
+        }
+
+        /**
+         * Sets the completion of the futures returned by the async methods.
+         *
+         * @param async AsyncConfig
+         * @return Builder
+         */
+        public Builder async(AsyncConfig async) {
+            this.async = async;
+            return this;
+        }
+
+        /**
+         * Enables the client-side rate limits per host and endpoint.
+         *
+         * @param rateLimit RateLimitConfig
+         * @return Builder
+         */
+        public Builder rateLimit(RateLimitConfig rateLimit) {
+            this.rateLimit = rateLimit;
+            return this;
+        }
+
+        /**
+         * Enables the OAuth2 client credentials authentication.
+         *
+         * @param oauth2 OAuth2Config
+         * @return Builder
+         */
+        public Builder oauth2(OAuth2Config oauth2) {
+            this.oauth2 = oauth2;
+            return this;
+        }
+
+        /**
+         * Sets the memory limits of the response bodies.
+         *
+         * @param bodyLimits BodyLimitConfig
+         * @return Builder
+         */
+        public Builder bodyLimits(BodyLimitConfig bodyLimits) {
+            this.bodyLimits = bodyLimits;
+            return this;
+        }
+
+        /**
+         * Enables the client-side load balancing of the logical services.
+         *
+         * @param loadBalancer LoadBalancerConfig
+         * @return Builder
+         */
+        public Builder loadBalancer(LoadBalancerConfig loadBalancer) {
+            this.loadBalancer = loadBalancer;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return WebClientConfig
+         */
+        public WebClientConfig build() {
+            return new WebClientConfig(this);
+        }
+    }
+}
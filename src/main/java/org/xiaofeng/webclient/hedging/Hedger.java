@@ -0,0 +1,214 @@
+package org.xiaofeng.webclient.hedging;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.xiaofeng.webclient.metrics.LatencyHistogram;
+import org.xiaofeng.webclient.metrics.UriTemplates;
+import org.xiaofeng.webclient.retry.RetryBudget;
+import org.xiaofeng.webclient.type.HttpMethod;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedger class
+ * <p>
+ * Decides which requests are hedged and after which delay. Keeps the recent latencies of every
+ * endpoint, keyed by host and URI template, and the budget capping the hedges.
+ */
+public class Hedger {
+    /**
+     * Request attribute overriding per call whether the request is hedged, a Boolean.
+     */
+    public static final String HEDGING_ATTRIBUTE = Hedger.class.getName() + ".HEDGING";
+
+    private static final String OTHER_PATHS = "/{other}";
+
+    private final HedgingConfig config;
+
+    private final RetryBudget budget;
+
+    private final Map<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder hedged = new LongAdder();
+
+    private final LongAdder hedgeWins = new LongAdder();
+
+    private final LongAdder budgetRejected = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param config HedgingConfig, null to disable the hedging
+     */
+    public Hedger(HedgingConfig config) {
+        this.config = config;
+        this.budget = config != null ? new RetryBudget(config.getBudgetRatio(), config.getBudgetBurst()) : null;
+    }
+
+    /**
+     * Checks whether the hedging is configured.
+     *
+     * @return true when requests may be hedged.
+     */
+    public boolean isEnabled() {
+        return config != null;
+    }
+
+    /**
+     * Checks whether a request is hedged, from its method and the per-call attribute.
+     *
+     * @param request ClientRequest
+     * @return true when the request is hedged.
+     */
+    boolean shouldHedge(ClientRequest request) {
+        if (config == null || !isHedgedMethod(request.method().name())) {
+            return false;
+        }
+        Object enabled = request.attribute(HEDGING_ATTRIBUTE).orElse(null);
+        return enabled instanceof Boolean ? (Boolean) enabled : config.isEnabledByDefault();
+    }
+
+    private boolean isHedgedMethod(String method) {
+        for (HttpMethod hedgedMethod : config.getMethods()) {
+            if (hedgedMethod.name().equals(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the key of the endpoint of a URL. Once {@link HedgingConfig#getMaxEndpoints()} endpoints
+     * are tracked, the other paths of a host share one key.
+     *
+     * @param url URI
+     * @return The host, port and path with its identifiers replaced.
+     */
+    String key(URI url) {
+        String host = url.getHost() + ":" + url.getPort();
+        String path = url.getRawPath() == null || url.getRawPath().isEmpty() ? "/" : url.getRawPath();
+        String key = host + UriTemplates.normalize(path);
+        if (endpoints.containsKey(key) || endpoints.size() < config.getMaxEndpoints()) {
+            return key;
+        }
+        return host + OTHER_PATHS;
+    }
+
+    /**
+     * Records a hedged request and gets its hedge delay.
+     *
+     * @param key The endpoint key.
+     * @return The delay after which the hedge is sent.
+     */
+    Duration onRequest(String key) {
+        requests.increment();
+        budget.deposit();
+        if (config.getDelay() != null) {
+            return config.getDelay();
+        }
+        long nanos = endpoint(key).valueAtPercentile(config.getPercentile(), config.getMinSamples());
+        if (nanos < 0) {
+            return config.getMaxDelay();
+        }
+        Duration delay = Duration.ofNanos(nanos);
+        if (delay.compareTo(config.getMinDelay()) < 0) {
+            return config.getMinDelay();
+        }
+        return delay.compareTo(config.getMaxDelay()) > 0 ? config.getMaxDelay() : delay;
+    }
+
+    /**
+     * Asks the budget for the permission to send a hedge.
+     *
+     * @return true when the hedge may be sent.
+     */
+    boolean tryHedge() {
+        if (budget.tryWithdraw()) {
+            hedged.increment();
+            return true;
+        }
+        budgetRejected.increment();
+        return false;
+    }
+
+    /**
+     * Records a hedge answering first.
+     */
+    void onHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    /**
+     * Records the latency of an attempt up to its response headers, or the time waited by a primary
+     * cancelled when its hedge won.
+     *
+     * @param key   The endpoint key.
+     * @param nanos The latency.
+     */
+    void recordLatency(String key, long nanos) {
+        endpoint(key).record(nanos);
+    }
+
+    /**
+     * Takes a snapshot of the hedging counters.
+     *
+     * @return HedgingStats
+     */
+    public HedgingStats stats() {
+        return new HedgingStats(requests.sum(), hedged.sum(), hedgeWins.sum(), budgetRejected.sum());
+    }
+
+    private EndpointLatency endpoint(String key) {
+        EndpointLatency endpoint = endpoints.get(key);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(key, k -> new EndpointLatency(config.getWindow().toNanos()));
+        }
+        return endpoint;
+    }
+
+    /**
+     * EndpointLatency class
+     * <p>
+     * Latencies of an endpoint over the current and the previous window.
+     */
+    private static final class EndpointLatency {
+        private final long windowNanos;
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous = new LatencyHistogram();
+
+        private EndpointLatency(long windowNanos) {
+            this.windowNanos = windowNanos;
+        }
+
+        private void record(long nanos) {
+            rotateIfNeeded();
+            current.record(nanos);
+        }
+
+        private long valueAtPercentile(double percentile, int minSamples) {
+            rotateIfNeeded();
+            LatencyHistogram recent = current;
+            if (recent.getCount() >= minSamples) {
+                return recent.valueAtPercentile(percentile);
+            }
+            LatencyHistogram last = previous;
+            return last.getCount() >= minSamples ? last.valueAtPercentile(percentile) : -1;
+        }
+
+        private void rotateIfNeeded() {
+            long start = windowStart.get();
+            long now = System.nanoTime();
+            if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+                previous = current;
+                current = new LatencyHistogram();
+            }
+        }
+    }
+}
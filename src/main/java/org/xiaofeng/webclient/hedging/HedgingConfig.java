@@ -0,0 +1,264 @@
+package org.xiaofeng.webclient.hedging;
+
+import org.xiaofeng.webclient.type.HttpMethod;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * HedgingConfig class
+ * <p>
+ * Settings of the hedged requests. When no response headers arrived after the hedge delay, a second
+ * identical request is sent and the first response wins. The delay is either fixed or the observed
+ * percentile latency of the endpoint, and the hedges are capped at a fraction of the requests.
+ */
+public class HedgingConfig {
+    private final Set<HttpMethod> methods;
+    private final Duration delay;
+    private final double percentile;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final int minSamples;
+    private final Duration window;
+    private final int maxEndpoints;
+    private final double budgetRatio;
+    private final int budgetBurst;
+    private final boolean enabledByDefault;
+
+    private HedgingConfig(Builder builder) {
+        this.methods = Collections.unmodifiableSet(EnumSet.copyOf(builder.methods));
+        this.delay = builder.delay;
+        this.percentile = builder.percentile;
+        this.minDelay = builder.minDelay;
+        this.maxDelay = builder.maxDelay;
+        this.minSamples = builder.minSamples;
+        this.window = builder.window;
+        this.maxEndpoints = builder.maxEndpoints;
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetBurst = builder.budgetBurst;
+        this.enabledByDefault = builder.enabledByDefault;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return HedgingConfig
+     */
+    public static HedgingConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Set<HttpMethod> getMethods() {
+        return methods;
+    }
+
+    public Duration getDelay() {
+        return delay;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public int getMaxEndpoints() {
+        return maxEndpoints;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public int getBudgetBurst() {
+        return budgetBurst;
+    }
+
+    public boolean isEnabledByDefault() {
+        return enabledByDefault;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private Set<HttpMethod> methods = EnumSet.of(HttpMethod.GET, HttpMethod.OPTIONS);
+        private Duration delay;
+        private double percentile = 95.0;
+        private Duration minDelay = Duration.ofMillis(5);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private int minSamples = 100;
+        private Duration window = Duration.ofSeconds(60);
+        private int maxEndpoints = 1000;
+        private double budgetRatio = 0.05;
+        private int budgetBurst = 10;
+        private boolean enabledByDefault = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the methods that are hedged. Only idempotent methods may be hedged.
+         *
+         * @param methods hedged methods
+         * @return Builder
+         */
+        public Builder methods(HttpMethod... methods) {
+            for (HttpMethod method : methods) {
+                if (method == HttpMethod.POST || method == HttpMethod.PATCH) {
+                    throw new IllegalArgumentException("Non idempotent method cannot be hedged: " + method);
+                }
+            }
+            this.methods = methods.length == 0
+                    ? EnumSet.noneOf(HttpMethod.class)
+                    : EnumSet.copyOf(Arrays.asList(methods));
+            return this;
+        }
+
+        /**
+         * Sets a fixed hedge delay instead of the observed percentile latency.
+         *
+         * @param delay fixed delay, null for the adaptive delay
+         * @return Builder
+         */
+        public Builder delay(Duration delay) {
+            this.delay = delay;
+            return this;
+        }
+
+        /**
+         * Sets the percentile of the endpoint latency used as the adaptive delay.
+         *
+         * @param percentile percentile, between 0 and 100
+         * @return Builder
+         */
+        public Builder percentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets the shortest adaptive delay.
+         *
+         * @param minDelay min delay
+         * @return Builder
+         */
+        public Builder minDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * Sets the longest adaptive delay, also used until enough latencies were observed.
+         *
+         * @param maxDelay max delay
+         * @return Builder
+         */
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Sets the latencies to observe on an endpoint before the adaptive delay is used.
+         *
+         * @param minSamples min samples
+         * @return Builder
+         */
+        public Builder minSamples(int minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Sets how long latencies are kept to compute the adaptive delay.
+         *
+         * @param window window
+         * @return Builder
+         */
+        public Builder window(Duration window) {
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * Sets the highest number of endpoints whose latencies are kept; the requests to other
+         * paths share the latencies of their host.
+         *
+         * @param maxEndpoints max endpoints
+         * @return Builder
+         */
+        public Builder maxEndpoints(int maxEndpoints) {
+            this.maxEndpoints = maxEndpoints;
+            return this;
+        }
+
+        /**
+         * Sets the highest fraction of the requests that may be hedged, e.g. 0.05 for 5%.
+         *
+         * @param budgetRatio budget ratio
+         * @return Builder
+         */
+        public Builder budgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        /**
+         * Sets the hedges that may be sent in a burst.
+         *
+         * @param budgetBurst budget burst
+         * @return Builder
+         */
+        public Builder budgetBurst(int budgetBurst) {
+            this.budgetBurst = budgetBurst;
+            return this;
+        }
+
+        /**
+         * Sets whether the requests are hedged unless disabled per call.
+         *
+         * @param enabledByDefault false to only hedge the calls enabling it
+         * @return Builder
+         */
+        public Builder enabledByDefault(boolean enabledByDefault) {
+            this.enabledByDefault = enabledByDefault;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return HedgingConfig
+         */
+        public HedgingConfig build() {
+            return new HedgingConfig(this);
+        }
+    }
+}
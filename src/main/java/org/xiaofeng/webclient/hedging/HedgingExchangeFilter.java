@@ -0,0 +1,154 @@
+package org.xiaofeng.webclient.hedging;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HedgingExchangeFilter class
+ * <p>
+ * Sends a second identical exchange when the first one has no response headers after the hedge
+ * delay. The first response wins and the other exchange is cancelled; a response arriving after the
+ * winner is released. The call fails only when every attempt failed, with the error of the first
+ * attempt. Each attempt is retried by the retry policy as a whole. A primary cancelled because its
+ * hedge won is recorded at the time it had waited, a lower bound of its latency, so that the slow
+ * responses the hedges cut short still count in the hedge delay.
+ */
+public class HedgingExchangeFilter implements ExchangeFilterFunction {
+    private final Hedger hedger;
+
+    /**
+     * Constructor
+     *
+     * @param hedger Hedger
+     */
+    public HedgingExchangeFilter(Hedger hedger) {
+        this.hedger = hedger;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!hedger.shouldHedge(request)) {
+            return next.exchange(request);
+        }
+        return Mono.create(sink -> {
+            String key = hedger.key(request.url());
+            new HedgedExchange(request, next, key, sink).start(hedger.onRequest(key));
+        });
+    }
+
+    /**
+     * HedgedExchange class
+     * <p>
+     * The race between the primary exchange and its hedge.
+     */
+    private final class HedgedExchange {
+        private final ClientRequest request;
+        private final ExchangeFunction next;
+        private final String key;
+        private final MonoSink<ClientResponse> sink;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicBoolean primaryRecorded = new AtomicBoolean();
+        private volatile long primaryStart;
+        private volatile Throwable primaryError;
+        private volatile boolean hedgeWon;
+        private volatile Disposable primary;
+        private volatile Disposable timer;
+        private volatile Disposable hedge;
+
+        private HedgedExchange(ClientRequest request,
+                               ExchangeFunction next,
+                               String key,
+                               MonoSink<ClientResponse> sink) {
+            this.request = request;
+            this.next = next;
+            this.key = key;
+            this.sink = sink;
+        }
+
+        private void start(Duration delay) {
+            sink.onCancel(() -> {
+                done.set(true);
+                dispose(primary);
+                dispose(timer);
+                dispose(hedge);
+            });
+            primary = attempt(false);
+            timer = Mono.delay(delay).subscribe(tick -> {
+                if (done.get() || !hedger.tryHedge()) {
+                    return;
+                }
+                pending.incrementAndGet();
+                hedge = attempt(true);
+                // The call may have ended while the hedge was starting, before it could be disposed
+                if (done.get() && !hedgeWon) {
+                    dispose(hedge);
+                }
+            });
+            if (done.get()) {
+                dispose(timer);
+            }
+        }
+
+        private Disposable attempt(boolean isHedge) {
+            long start = System.nanoTime();
+            if (!isHedge) {
+                primaryStart = start;
+            }
+            return next.exchange(request)
+                    .contextWrite(sink.contextView())
+                    .subscribe(response -> {
+                        if (isHedge || primaryRecorded.compareAndSet(false, true)) {
+                            hedger.recordLatency(key, System.nanoTime() - start);
+                        }
+                        onResponse(response, isHedge);
+                    }, error -> onError(error, isHedge));
+        }
+
+        private void onResponse(ClientResponse response, boolean isHedge) {
+            // Also false once the call is cancelled, so that a late response is released
+            if (!done.compareAndSet(false, true)) {
+                response.releaseBody().subscribe();
+                return;
+            }
+            dispose(timer);
+            if (isHedge) {
+                hedgeWon = true;
+                hedger.onHedgeWin();
+                if (primaryRecorded.compareAndSet(false, true)) {
+                    hedger.recordLatency(key, System.nanoTime() - primaryStart);
+                }
+                dispose(primary);
+            } else {
+                dispose(hedge);
+            }
+            sink.success(response);
+        }
+
+        private void onError(Throwable error, boolean isHedge) {
+            if (!isHedge) {
+                primaryError = error;
+            }
+            if (pending.decrementAndGet() == 0 && done.compareAndSet(false, true)) {
+                dispose(timer);
+                Throwable first = primaryError;
+                sink.error(first != null ? first : error);
+            }
+        }
+
+        private void dispose(Disposable disposable) {
+            if (disposable != null) {
+                disposable.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.xiaofeng.webclient.hedging;
+
+/**
+ * HedgingStats class
+ * <p>
+ * Point-in-time counters of the hedged requests.
+ */
+public class HedgingStats {
+    private final long requests;
+    private final long hedged;
+    private final long hedgeWins;
+    private final long budgetRejected;
+
+    /**
+     * Constructor
+     *
+     * @param requests       requests eligible for hedging
+     * @param hedged         hedges sent
+     * @param hedgeWins      hedges that answered first
+     * @param budgetRejected hedges not sent because the budget was spent
+     */
+    public HedgingStats(long requests, long hedged, long hedgeWins, long budgetRejected) {
+        this.requests = requests;
+        this.hedged = hedged;
+        this.hedgeWins = hedgeWins;
+        this.budgetRejected = budgetRejected;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getHedged() {
+        return hedged;
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    public long getBudgetRejected() {
+        return budgetRejected;
+    }
+
+    /**
+     * Gets the fraction of the requests that were hedged.
+     *
+     * @return The hedge rate, between 0 and 1.
+     */
+    public double getHedgeRate() {
+        return requests == 0 ? 0 : (double) hedged / requests;
+    }
+
+    /**
+     * Gets the fraction of the hedges that answered first.
+     *
+     * @return The win rate, between 0 and 1.
+     */
+    public double getHedgeWinRate() {
+        return hedged == 0 ? 0 : (double) hedgeWins / hedged;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingStats{" +
+                "requests=" + requests +
+                ", hedged=" + hedged +
+                ", hedgeWins=" + hedgeWins +
+                ", budgetRejected=" + budgetRejected +
+                '}';
+    }
+}
@@ -0,0 +1,215 @@
+package org.xiaofeng.webclient.loadbalancer;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LoadBalancerConfig class
+ * <p>
+ * Settings of the client-side load balancing of the logical services, called with lb://name/path
+ * URIs. An endpoint failing several times in a row is ejected for a while, doubling on each new
+ * ejection, and comes back once the time is up or when an active health check succeeds.
+ */
+public class LoadBalancerConfig {
+    /**
+     * Strategy enum
+     */
+    public enum Strategy {
+        /**
+         * The endpoint with the fewest requests in flight.
+         */
+        LEAST_OUTSTANDING,
+        /**
+         * The better of two random endpoints, by latency EWMA weighted by the requests in flight.
+         */
+        POWER_OF_TWO_CHOICES
+    }
+
+    private final Map<String, List<String>> services;
+    private final Strategy strategy;
+    private final Duration decayTime;
+    private final int failureThreshold;
+    private final Duration ejectionTime;
+    private final Duration maxEjectionTime;
+    private final int maxEjectionPercent;
+    private final String healthCheckPath;
+    private final Duration healthCheckInterval;
+
+    private LoadBalancerConfig(Builder builder) {
+        this.services = Collections.unmodifiableMap(new LinkedHashMap<>(builder.services));
+        this.strategy = builder.strategy;
+        this.decayTime = builder.decayTime;
+        this.failureThreshold = builder.failureThreshold;
+        this.ejectionTime = builder.ejectionTime;
+        this.maxEjectionTime = builder.maxEjectionTime;
+        this.maxEjectionPercent = builder.maxEjectionPercent;
+        this.healthCheckPath = builder.healthCheckPath;
+        this.healthCheckInterval = builder.healthCheckInterval;
+    }
+
+    /**
+     * Creates a config with the default settings and no service.
+     *
+     * @return LoadBalancerConfig
+     */
+    public static LoadBalancerConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Map<String, List<String>> getServices() {
+        return services;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public Duration getDecayTime() {
+        return decayTime;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public Duration getEjectionTime() {
+        return ejectionTime;
+    }
+
+    public Duration getMaxEjectionTime() {
+        return maxEjectionTime;
+    }
+
+    public int getMaxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    public String getHealthCheckPath() {
+        return healthCheckPath;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private final Map<String, List<String>> services = new LinkedHashMap<>();
+        private Strategy strategy = Strategy.POWER_OF_TWO_CHOICES;
+        private Duration decayTime = Duration.ofSeconds(10);
+        private int failureThreshold = 5;
+        private Duration ejectionTime = Duration.ofSeconds(30);
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+        private int maxEjectionPercent = 50;
+        private String healthCheckPath;
+        private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+        private Builder() {
+        }
+
+        /**
+         * Registers a logical service.
+         *
+         * @param name     service name, the host of its lb:// URIs
+         * @param baseUrls base URLs of the endpoints, such as http://10.0.0.1:8080
+         * @return Builder
+         */
+        public Builder service(String name, String... baseUrls) {
+            this.services.put(name, List.of(baseUrls));
+            return this;
+        }
+
+        /**
+         * Sets how the endpoint of a request is chosen.
+         *
+         * @param strategy Strategy
+         * @return Builder
+         */
+        public Builder strategy(Strategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        /**
+         * Sets how fast the latency EWMA forgets an old sample. A slower sample is taken at once.
+         *
+         * @param decayTime decay time
+         * @return Builder
+         */
+        public Builder decayTime(Duration decayTime) {
+            this.decayTime = decayTime;
+            return this;
+        }
+
+        /**
+         * Sets the consecutive failures, 5xx statuses or transport errors, ejecting an endpoint.
+         *
+         * @param failureThreshold failure threshold
+         * @return Builder
+         */
+        public Builder failureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the first ejection time of an endpoint, doubled on each ejection in a row.
+         *
+         * @param ejectionTime ejection time
+         * @param max          longest ejection time
+         * @return Builder
+         */
+        public Builder ejectionTime(Duration ejectionTime, Duration max) {
+            this.ejectionTime = ejectionTime;
+            this.maxEjectionTime = max;
+            return this;
+        }
+
+        /**
+         * Sets the share of the endpoints of a service that may be ejected at once.
+         *
+         * @param maxEjectionPercent percentage
+         * @return Builder
+         */
+        public Builder maxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+            return this;
+        }
+
+        /**
+         * Enables the active health checks, a GET of a path of every endpoint expecting a 2xx status.
+         *
+         * @param path     health check path, such as /health
+         * @param interval time between two checks
+         * @return Builder
+         */
+        public Builder healthCheck(String path, Duration interval) {
+            this.healthCheckPath = path;
+            this.healthCheckInterval = interval;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return LoadBalancerConfig
+         */
+        public LoadBalancerConfig build() {
+            return new LoadBalancerConfig(this);
+        }
+    }
+}
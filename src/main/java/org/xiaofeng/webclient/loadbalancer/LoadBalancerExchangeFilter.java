@@ -0,0 +1,83 @@
+package org.xiaofeng.webclient.loadbalancer;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * LoadBalancerExchangeFilter class
+ * <p>
+ * Rewrites the lb://service URIs to an endpoint of the service, chosen again for each attempt, so a
+ * retry or a hedge may go to another endpoint. The latency up to the response headers and the
+ * outcome feed the choice of the next requests: a 5xx status or a transport error is a failure.
+ * A request stays outstanding on its endpoint until its response body is complete, failed or
+ * cancelled, so the filter wraps the body of the response.
+ */
+public class LoadBalancerExchangeFilter implements ExchangeFilterFunction {
+    private final ServiceRegistry registry;
+
+    /**
+     * Constructor
+     *
+     * @param registry ServiceRegistry
+     */
+    public LoadBalancerExchangeFilter(ServiceRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        URI url = request.url();
+        if (!ServiceRegistry.SCHEME.equals(url.getScheme())) {
+            return next.exchange(request);
+        }
+        return Mono.defer(() -> {
+            String service = url.getHost();
+            ServiceEndpoint endpoint = registry.choose(service);
+            if (endpoint == null) {
+                return Mono.error(new IllegalArgumentException("Unknown service: " + service));
+            }
+            ClientRequest routed = ClientRequest.from(request)
+                    .url(endpoint.resolve(url))
+                    .build();
+            endpoint.onStart();
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            AtomicBoolean ended = new AtomicBoolean();
+            return next.exchange(routed)
+                    .map(response -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            boolean failure = response.statusCode().is5xxServerError();
+                            registry.onResult(service, endpoint, System.nanoTime() - start, failure);
+                        }
+                        return response.mutate()
+                                .body(body -> body.doFinally(signal -> onEnd(endpoint, ended)))
+                                .build();
+                    })
+                    .doOnError(error -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            registry.onResult(service, endpoint, System.nanoTime() - start, true);
+                        }
+                        onEnd(endpoint, ended);
+                    })
+                    .doOnCancel(() -> {
+                        // Once there is a response, the body ends the request
+                        if (!recorded.get()) {
+                            onEnd(endpoint, ended);
+                        }
+                    })
+                    .switchIfEmpty(Mono.fromRunnable(() -> onEnd(endpoint, ended)));
+        });
+    }
+
+    private static void onEnd(ServiceEndpoint endpoint, AtomicBoolean ended) {
+        if (ended.compareAndSet(false, true)) {
+            endpoint.onEnd();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.xiaofeng.webclient.loadbalancer;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ServiceEndpoint class
+ * <p>
+ * State of one endpoint of a logical service: the requests in flight, a peak-sensitive latency
+ * EWMA and the ejection. The failures of the requests and of the health checks are counted apart.
+ * Every field is updated with atomics, so choosing an endpoint and recording a result never lock.
+ */
+final class ServiceEndpoint {
+    private final String baseUrl;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    private volatile long lastSampleNanos = System.nanoTime();
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicInteger consecutiveProbeFailures = new AtomicInteger();
+
+    private final AtomicInteger ejections = new AtomicInteger();
+
+    private volatile boolean ejected;
+
+    private volatile long ejectedUntilNanos;
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    ServiceEndpoint(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Resolves a logical URI against the endpoint, keeping its path, query and fragment.
+     *
+     * @param logical lb://service/path URI
+     * @return The physical URI.
+     */
+    URI resolve(URI logical) {
+        StringBuilder target = new StringBuilder(baseUrl.length() + 64).append(baseUrl);
+        if (logical.getRawPath() != null) {
+            target.append(logical.getRawPath());
+        }
+        if (logical.getRawQuery() != null) {
+            target.append('?').append(logical.getRawQuery());
+        }
+        if (logical.getRawFragment() != null) {
+            target.append('#').append(logical.getRawFragment());
+        }
+        return URI.create(target.toString());
+    }
+
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    double getEwmaNanos() {
+        return Double.longBitsToDouble(ewmaBits.get());
+    }
+
+    boolean isEjected() {
+        return ejected;
+    }
+
+    /**
+     * Checks whether the endpoint may take requests: never ejected, or its ejection time is up.
+     *
+     * @param now System.nanoTime()
+     * @return true when available.
+     */
+    boolean isAvailable(long now) {
+        return !ejected || now - ejectedUntilNanos >= 0;
+    }
+
+    long getEjectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    /**
+     * Gets the cost of a new request for the power of two choices.
+     *
+     * @return The latency EWMA weighted by the requests in flight.
+     */
+    double cost() {
+        // One nanosecond floor, so that the requests in flight still count before any sample
+        return (getEwmaNanos() + 1) * (outstanding.get() + 1);
+    }
+
+    void onStart() {
+        outstanding.incrementAndGet();
+        requests.increment();
+    }
+
+    void onEnd() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Records the latency of a response.
+     *
+     * @param latencyNanos latency up to the response headers
+     * @param decayNanos   decay time of the EWMA
+     */
+    void recordLatency(long latencyNanos, long decayNanos) {
+        long now = System.nanoTime();
+        double weight = Math.exp(-(double) Math.max(now - lastSampleNanos, 0) / decayNanos);
+        lastSampleNanos = now;
+        long currentBits;
+        double next;
+        do {
+            currentBits = ewmaBits.get();
+            double current = Double.longBitsToDouble(currentBits);
+            // Peak-sensitive: a slower sample is taken at once, a faster one is blended in
+            next = latencyNanos > current ? latencyNanos : current * weight + latencyNanos * (1 - weight);
+        } while (!ewmaBits.compareAndSet(currentBits, Double.doubleToRawLongBits(next)));
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+        if (ejected) {
+            ejected = false;
+            ejections.set(0);
+        }
+    }
+
+    /**
+     * Records a failure.
+     *
+     * @return The consecutive failures.
+     */
+    int onFailure() {
+        failures.increment();
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Records a successful health check. It only brings an ejected endpoint back and leaves the
+     * failures of the requests untouched.
+     */
+    void onProbeSuccess() {
+        consecutiveProbeFailures.set(0);
+        if (ejected) {
+            ejected = false;
+            ejections.set(0);
+        }
+    }
+
+    /**
+     * Records a failed health check.
+     *
+     * @return The consecutive failed health checks.
+     */
+    int onProbeFailure() {
+        return consecutiveProbeFailures.incrementAndGet();
+    }
+
+    /**
+     * Ejects the endpoint, for longer on each ejection in a row.
+     *
+     * @param now              System.nanoTime()
+     * @param ejectionNanos    first ejection time
+     * @param maxEjectionNanos longest ejection time
+     */
+    void eject(long now, long ejectionNanos, long maxEjectionNanos) {
+        int times = Math.min(ejections.getAndIncrement(), 30);
+        long duration = ejectionNanos << times;
+        if (duration <= 0 || duration > maxEjectionNanos) {
+            duration = maxEjectionNanos;
+        }
+        ejectedUntilNanos = now + duration;
+        consecutiveFailures.set(0);
+        consecutiveProbeFailures.set(0);
+        ejected = true;
+    }
+
+    ServiceEndpointStats toStats(String service) {
+        return new ServiceEndpointStats(service,
+                baseUrl,
+                outstanding.get(),
+                (long) getEwmaNanos(),
+                ejected && System.nanoTime() - ejectedUntilNanos < 0,
+                requests.sum(),
+                failures.sum());
+    }
+}
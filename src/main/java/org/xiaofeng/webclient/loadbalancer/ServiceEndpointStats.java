@@ -0,0 +1,84 @@
+package org.xiaofeng.webclient.loadbalancer;
+
+/**
+ * ServiceEndpointStats class
+ * <p>
+ * Point-in-time state of an endpoint of a logical service.
+ */
+public class ServiceEndpointStats {
+    private final String service;
+    private final String baseUrl;
+    private final int outstanding;
+    private final long latencyEwmaNanos;
+    private final boolean ejected;
+    private final long requests;
+    private final long failures;
+
+    /**
+     * Constructor
+     *
+     * @param service          service name
+     * @param baseUrl          base URL of the endpoint
+     * @param outstanding      requests in flight
+     * @param latencyEwmaNanos latency EWMA
+     * @param ejected          whether the endpoint is ejected
+     * @param requests         requests sent
+     * @param failures         5xx responses and transport errors
+     */
+    public ServiceEndpointStats(String service,
+                                String baseUrl,
+                                int outstanding,
+                                long latencyEwmaNanos,
+                                boolean ejected,
+                                long requests,
+                                long failures) {
+        this.service = service;
+        this.baseUrl = baseUrl;
+        this.outstanding = outstanding;
+        this.latencyEwmaNanos = latencyEwmaNanos;
+        this.ejected = ejected;
+        this.requests = requests;
+        this.failures = failures;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getOutstanding() {
+        return outstanding;
+    }
+
+    public long getLatencyEwmaNanos() {
+        return latencyEwmaNanos;
+    }
+
+    public boolean isEjected() {
+        return ejected;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceEndpointStats{" +
+                "service='" + service + '\'' +
+                ", baseUrl='" + baseUrl + '\'' +
+                ", outstanding=" + outstanding +
+                ", latencyEwmaNanos=" + latencyEwmaNanos +
+                ", ejected=" + ejected +
+                ", requests=" + requests +
+                ", failures=" + failures +
+                '}';
+    }
+}
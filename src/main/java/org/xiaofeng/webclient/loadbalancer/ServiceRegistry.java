@@ -0,0 +1,294 @@
+package org.xiaofeng.webclient.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ServiceRegistry class
+ * <p>
+ * Holds the endpoints of the logical services and chooses the endpoint of each request. The
+ * endpoints of a service are an immutable array replaced as a whole on registration, so choosing
+ * reads it without a lock.
+ */
+public class ServiceRegistry {
+    /**
+     * URI scheme of the logical services, as in lb://orders/v1/items.
+     */
+    public static final String SCHEME = "lb";
+
+    private final Logger logger = LoggerFactory.getLogger(ServiceRegistry.class);
+
+    private final LoadBalancerConfig config;
+
+    private final WebClient healthClient;
+
+    private final Map<String, ServiceEndpoint[]> services = new ConcurrentHashMap<>();
+
+    private final boolean activeChecks;
+
+    private volatile boolean started;
+
+    private volatile Disposable healthChecks;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param config       LoadBalancerConfig, null to disable the load balancing
+     * @param healthClient The WebClient of the active health checks
+     */
+    public ServiceRegistry(LoadBalancerConfig config, WebClient healthClient) {
+        this.config = config;
+        this.healthClient = healthClient;
+        this.activeChecks = config != null && config.getHealthCheckPath() != null;
+        if (config != null) {
+            config.getServices().forEach(this::register);
+        }
+    }
+
+    /**
+     * Checks whether the load balancing is configured.
+     *
+     * @return true when lb:// URIs are resolved.
+     */
+    public boolean isEnabled() {
+        return config != null;
+    }
+
+    /**
+     * Registers a service or replaces its endpoints. The endpoints kept keep their state.
+     *
+     * @param name     service name
+     * @param baseUrls base URLs of the endpoints
+     */
+    public void register(String name, List<String> baseUrls) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("Service " + name + " has no endpoint");
+        }
+        services.compute(name, (key, current) -> {
+            Map<String, ServiceEndpoint> existing = new HashMap<>();
+            if (current != null) {
+                for (ServiceEndpoint endpoint : current) {
+                    existing.put(endpoint.getBaseUrl(), endpoint);
+                }
+            }
+            ServiceEndpoint[] endpoints = new ServiceEndpoint[baseUrls.size()];
+            for (int i = 0; i < endpoints.length; i++) {
+                ServiceEndpoint created = new ServiceEndpoint(baseUrls.get(i));
+                endpoints[i] = existing.getOrDefault(created.getBaseUrl(), created);
+            }
+            return endpoints;
+        });
+    }
+
+    /**
+     * Removes a service.
+     *
+     * @param name service name
+     */
+    public void deregister(String name) {
+        services.remove(name);
+    }
+
+    LoadBalancerConfig config() {
+        return config;
+    }
+
+    /**
+     * Chooses the endpoint of a request. When every endpoint is ejected, the one coming back first
+     * is used rather than failing the request.
+     *
+     * @param name service name
+     * @return The endpoint, or null for an unknown service.
+     */
+    ServiceEndpoint choose(String name) {
+        ServiceEndpoint[] endpoints = services.get(name);
+        if (endpoints == null) {
+            return null;
+        }
+        // Only takes the lock until the active checks are started, never with passive ejection only
+        if (activeChecks && !started) {
+            startHealthChecks();
+        }
+        if (endpoints.length == 1) {
+            return endpoints[0];
+        }
+        long now = System.nanoTime();
+        ServiceEndpoint chosen = config.getStrategy() == LoadBalancerConfig.Strategy.LEAST_OUTSTANDING
+                ? leastOutstanding(endpoints, now)
+                : powerOfTwoChoices(endpoints, now);
+        return chosen != null ? chosen : soonestBack(endpoints);
+    }
+
+    private static ServiceEndpoint leastOutstanding(ServiceEndpoint[] endpoints, long now) {
+        // Random start, so that ties do not all go to the first endpoint
+        int start = ThreadLocalRandom.current().nextInt(endpoints.length);
+        ServiceEndpoint best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < endpoints.length; i++) {
+            ServiceEndpoint endpoint = endpoints[(start + i) % endpoints.length];
+            int outstanding = endpoint.getOutstanding();
+            if (outstanding < bestOutstanding && endpoint.isAvailable(now)) {
+                best = endpoint;
+                bestOutstanding = outstanding;
+            }
+        }
+        return best;
+    }
+
+    private static ServiceEndpoint powerOfTwoChoices(ServiceEndpoint[] endpoints, long now) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(endpoints.length);
+        int second = random.nextInt(endpoints.length - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceEndpoint a = endpoints[first];
+        ServiceEndpoint b = endpoints[second];
+        boolean aAvailable = a.isAvailable(now);
+        boolean bAvailable = b.isAvailable(now);
+        if (aAvailable && bAvailable) {
+            return a.cost() <= b.cost() ? a : b;
+        }
+        if (aAvailable || bAvailable) {
+            return aAvailable ? a : b;
+        }
+        return leastOutstanding(endpoints, now);
+    }
+
+    private static ServiceEndpoint soonestBack(ServiceEndpoint[] endpoints) {
+        ServiceEndpoint best = endpoints[0];
+        for (ServiceEndpoint endpoint : endpoints) {
+            if (endpoint.getEjectedUntilNanos() - best.getEjectedUntilNanos() < 0) {
+                best = endpoint;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Records the outcome of a request to an endpoint, ejecting it past the failure threshold unless
+     * too many endpoints of the service are ejected already.
+     *
+     * @param name         service name
+     * @param endpoint     the endpoint
+     * @param latencyNanos latency up to the response headers, negative when unknown
+     * @param failure      whether the request failed
+     */
+    void onResult(String name, ServiceEndpoint endpoint, long latencyNanos, boolean failure) {
+        if (latencyNanos >= 0) {
+            endpoint.recordLatency(latencyNanos, config.getDecayTime().toNanos());
+        }
+        if (!failure) {
+            endpoint.onSuccess();
+        } else if (endpoint.onFailure() >= config.getFailureThreshold()) {
+            eject(name, endpoint);
+        }
+    }
+
+    /**
+     * Records the outcome of an active health check. A success brings an ejected endpoint back
+     * without resetting the failures of its requests; failed checks eject it past the failure
+     * threshold, counted apart from the requests.
+     *
+     * @param name     service name
+     * @param endpoint the endpoint
+     * @param healthy  whether the check returned a 2xx status
+     */
+    void onProbeResult(String name, ServiceEndpoint endpoint, boolean healthy) {
+        if (healthy) {
+            endpoint.onProbeSuccess();
+        } else if (endpoint.onProbeFailure() >= config.getFailureThreshold()) {
+            eject(name, endpoint);
+        }
+    }
+
+    private void eject(String name, ServiceEndpoint endpoint) {
+        ServiceEndpoint[] endpoints = services.get(name);
+        if (endpoints == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        int ejected = 0;
+        for (ServiceEndpoint other : endpoints) {
+            if (other != endpoint && !other.isAvailable(now)) {
+                ejected++;
+            }
+        }
+        if ((ejected + 1) * 100 > endpoints.length * config.getMaxEjectionPercent()) {
+            return;
+        }
+        endpoint.eject(now, config.getEjectionTime().toNanos(), config.getMaxEjectionTime().toNanos());
+        logger.warn("Ejected {} of service {}", endpoint.getBaseUrl(), name);
+    }
+
+    /**
+     * Starts the active health checks, if configured and not closed. They start on the first
+     * request to a service at the latest. A 2xx status brings an ejected endpoint back, any other
+     * outcome counts as a failed check.
+     */
+    public synchronized void startHealthChecks() {
+        if (!activeChecks || started || closed) {
+            return;
+        }
+        started = true;
+        healthChecks = Flux.interval(config.getHealthCheckInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Flux.fromIterable(services.entrySet())
+                        .flatMap(service -> Flux.fromArray(service.getValue())
+                                .flatMap(endpoint -> check(service.getKey(), endpoint)))
+                        .then())
+                .subscribe();
+    }
+
+    private Mono<Void> check(String name, ServiceEndpoint endpoint) {
+        return healthClient.get()
+                .uri(endpoint.getBaseUrl() + config.getHealthCheckPath())
+                .exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(response.statusCode().is2xxSuccessful()))
+                .timeout(config.getHealthCheckInterval())
+                .onErrorReturn(false)
+                .doOnNext(healthy -> onProbeResult(name, endpoint, healthy))
+                .then();
+    }
+
+    /**
+     * Stops the active health checks for good. Call it before disposing the connection pool,
+     * which the checks would otherwise keep using.
+     */
+    public synchronized void close() {
+        closed = true;
+        started = true;
+        Disposable checks = healthChecks;
+        if (checks != null) {
+            checks.dispose();
+        }
+    }
+
+    /**
+     * Takes a snapshot of every endpoint.
+     *
+     * @return The state of each endpoint of each service.
+     */
+    public List<ServiceEndpointStats> snapshot() {
+        List<ServiceEndpointStats> stats = new ArrayList<>();
+        services.forEach((name, endpoints) -> {
+            for (ServiceEndpoint endpoint : endpoints) {
+                stats.add(endpoint.toStats(name));
+            }
+        });
+        return stats;
+    }
+}
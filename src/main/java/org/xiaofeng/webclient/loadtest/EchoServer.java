@@ -0,0 +1,73 @@
+package org.xiaofeng.webclient.loadtest;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * EchoServer class
+ * <p>
+ * Local HTTP server the load generator runs against when no URL is given, on a random port.
+ * GET /small and GET /large return a fixed JSON body of 128 bytes and 128 KB, POST /echo returns the
+ * request body, and GET /delay/{millis} answers after the given delay. Serves HTTP/1.1 and H2C.
+ */
+public class EchoServer implements AutoCloseable {
+    private final DisposableServer server;
+
+    /**
+     * Starts the server.
+     */
+    public EchoServer() {
+        ByteBuf small = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(json(128)));
+        ByteBuf large = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(json(128 * 1024)));
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .route(routes -> routes
+                        .get("/small", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .send(Mono.just(small.duplicate())))
+                        .get("/large", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .send(Mono.just(large.duplicate())))
+                        .post("/echo", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .send(request.receive().retain()))
+                        .get("/delay/{millis}", (request, response) -> response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .send(Mono.delay(Duration.ofMillis(Long.parseLong(request.param("millis"))))
+                                        .map(tick -> small.duplicate()))))
+                .bindNow();
+    }
+
+    /**
+     * Gets the base URL of the server.
+     *
+     * @return The URL, e.g. http://127.0.0.1:54321
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    private static byte[] json(int size) {
+        String prefix = "{\"data\":\"";
+        String suffix = "\"}";
+        char[] padding = new char[Math.max(0, size - prefix.length() - suffix.length())];
+        Arrays.fill(padding, 'x');
+        return (prefix + new String(padding) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
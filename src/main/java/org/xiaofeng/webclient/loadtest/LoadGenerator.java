@@ -0,0 +1,160 @@
+package org.xiaofeng.webclient.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xiaofeng.webclient.service.EndpointTemplate;
+import org.xiaofeng.webclient.service.WebClientService;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator class
+ * <p>
+ * Drives a WebClientService with an open model: request i is scheduled at start + i / rate and
+ * started at that time, or at once if the generator is late, without waiting for the earlier
+ * requests. Each latency is recorded from the scheduled time, so a slow response delaying the
+ * generator is not hidden by sending fewer requests. The scenario steps are prepared once, so the
+ * generator thread only expands a URI and subscribes per request.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final LoadGeneratorConfig config;
+
+    /**
+     * Constructor
+     *
+     * @param config LoadGeneratorConfig
+     */
+    public LoadGenerator(LoadGeneratorConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Runs the warmup, then the measured run, on the calling thread.
+     *
+     * @param service  The service under load.
+     * @param scenario The requests to send.
+     * @return The report of the measured run.
+     */
+    public LoadReport run(WebClientService service, Scenario scenario) {
+        List<PreparedStep> steps = new ArrayList<>();
+        for (ScenarioStep step : scenario.getSteps()) {
+            steps.add(new PreparedStep(step, service.prepare(step.getMethod(), step.getUriTemplate(), step.getHeaders())));
+        }
+        if (!config.getWarmup().isZero()) {
+            logger.info("Warming up for {}", config.getWarmup());
+            run(steps, config.getWarmup().toNanos());
+        }
+        logger.info("Running at {} req/s for {}", config.getRate(), config.getDuration());
+        return run(steps, config.getDuration().toNanos());
+    }
+
+    private LoadReport run(List<PreparedStep> steps, long durationNanos) {
+        LoadReport report = new LoadReport(config.getRate());
+        AtomicInteger inFlight = new AtomicInteger();
+        int totalWeight = steps.stream().mapToInt(step -> step.step.getWeight()).sum();
+        double intervalNanos = 1e9 / config.getRate();
+        long start = System.nanoTime();
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + (long) (i * intervalNanos);
+            if (scheduled - start >= durationNanos) {
+                break;
+            }
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (inFlight.get() >= config.getMaxInFlight()) {
+                report.onDropped();
+                continue;
+            }
+            PreparedStep step = pick(steps, totalWeight);
+            long started = System.nanoTime();
+            inFlight.incrementAndGet();
+            report.onSent();
+            Mono<String> call;
+            try {
+                call = step.call(i);
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet();
+                report.onCompleted(scheduled, started, System.nanoTime(), e);
+                continue;
+            }
+            call.subscribe(null,
+                    error -> {
+                        report.onCompleted(scheduled, started, System.nanoTime(), error);
+                        inFlight.decrementAndGet();
+                    },
+                    () -> {
+                        report.onCompleted(scheduled, started, System.nanoTime(), null);
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + config.getDrainTimeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        report.onFinished(System.nanoTime() - start, inFlight.get());
+        return report;
+    }
+
+    private static PreparedStep pick(List<PreparedStep> steps, int totalWeight) {
+        if (steps.size() == 1) {
+            return steps.get(0);
+        }
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (PreparedStep step : steps) {
+            ticket -= step.step.getWeight();
+            if (ticket < 0) {
+                return step;
+            }
+        }
+        return steps.get(steps.size() - 1);
+    }
+
+    /**
+     * PreparedStep class
+     * <p>
+     * Scenario step bound to its endpoint template. {seq} expands to the request number and
+     * {random} to a random non-negative int.
+     */
+    private static final class PreparedStep {
+        private final ScenarioStep step;
+
+        private final EndpointTemplate template;
+
+        private final boolean[] sequence;
+
+        private PreparedStep(ScenarioStep step, EndpointTemplate template) {
+            this.step = step;
+            this.template = template;
+            List<String> names = template.getVariableNames();
+            this.sequence = new boolean[names.size()];
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                if (!"seq".equals(name) && !"random".equals(name)) {
+                    throw new IllegalArgumentException("Unknown variable {" + name + "} in " + step.getUriTemplate());
+                }
+                sequence[i] = "seq".equals(name);
+            }
+        }
+
+        private Mono<String> call(long seq) {
+            Object[] variables = new Object[sequence.length];
+            for (int i = 0; i < sequence.length; i++) {
+                variables[i] = sequence[i] ? seq : ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE);
+            }
+            return step.getBody() != null
+                    ? template.invokeWithBody(step.getBody(), variables)
+                    : template.invoke(variables);
+        }
+    }
+}
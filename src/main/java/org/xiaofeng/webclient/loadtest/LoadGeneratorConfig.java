@@ -0,0 +1,150 @@
+package org.xiaofeng.webclient.loadtest;
+
+import java.time.Duration;
+
+/**
+ * LoadGeneratorConfig class
+ * <p>
+ * Settings of an open-model load run: requests are started at the target rate whether or not the
+ * previous ones have completed. The in-flight cap only protects the generator itself; requests
+ * beyond it are counted as dropped, not delayed.
+ */
+public class LoadGeneratorConfig {
+    private final double rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int maxInFlight;
+    private final Duration drainTimeout;
+
+    private LoadGeneratorConfig(Builder builder) {
+        this.rate = builder.rate;
+        this.duration = builder.duration;
+        this.warmup = builder.warmup;
+        this.maxInFlight = builder.maxInFlight;
+        this.drainTimeout = builder.drainTimeout;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return LoadGeneratorConfig
+     */
+    public static LoadGeneratorConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private double rate = 1000;
+        private Duration duration = Duration.ofSeconds(30);
+        private Duration warmup = Duration.ofSeconds(5);
+        private int maxInFlight = 10_000;
+        private Duration drainTimeout = Duration.ofSeconds(30);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the target rate.
+         *
+         * @param rate requests per second
+         * @return Builder
+         */
+        public Builder rate(double rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Sets the length of the measured run.
+         *
+         * @param duration run duration
+         * @return Builder
+         */
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * Sets the length of the unmeasured run warming up the JIT and the connection pool.
+         *
+         * @param warmup warmup duration, zero for none
+         * @return Builder
+         */
+        public Builder warmup(Duration warmup) {
+            this.warmup = warmup;
+            return this;
+        }
+
+        /**
+         * Sets the largest number of requests in flight before new ones are dropped.
+         *
+         * @param maxInFlight max in-flight requests
+         * @return Builder
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Sets how long the requests still in flight are awaited at the end of a run.
+         *
+         * @param drainTimeout drain timeout
+         * @return Builder
+         */
+        public Builder drainTimeout(Duration drainTimeout) {
+            this.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return LoadGeneratorConfig
+         * @throws IllegalArgumentException If the rate, the duration or the in-flight cap is not positive.
+         */
+        public LoadGeneratorConfig build() {
+            if (rate <= 0 || maxInFlight <= 0) {
+                throw new IllegalArgumentException("Rate and max in flight must be positive");
+            }
+            if (duration == null || duration.isZero() || duration.isNegative()
+                    || warmup == null || warmup.isNegative()) {
+                throw new IllegalArgumentException("Duration must be positive and warmup not negative");
+            }
+            return new LoadGeneratorConfig(this);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.xiaofeng.webclient.loadtest;
+
+import org.xiaofeng.webclient.common.HttpResponseException;
+import org.xiaofeng.webclient.metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadReport class
+ * <p>
+ * Outcome of a load run. The response time is measured from the time the request was scheduled to
+ * start, so a stall of the client or of the server counts against every request it delayed; this is
+ * the coordinated omission correction. The service time is measured from the time the request was
+ * actually started, as a closed-loop tool would report it. The gap between the two shows how far
+ * the generator fell behind its schedule. Requests dropped at the max in flight are never sent, so
+ * they have no latency and are left out of both; the report states how many were left out.
+ */
+public class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final double targetRate;
+
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+    private final LongAdder sent = new LongAdder();
+
+    private final LongAdder succeeded = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private volatile long elapsedNanos;
+
+    private volatile long unfinished;
+
+    /**
+     * Constructor
+     *
+     * @param targetRate target requests per second
+     */
+    public LoadReport(double targetRate) {
+        this.targetRate = targetRate;
+    }
+
+    void onSent() {
+        sent.increment();
+    }
+
+    void onDropped() {
+        dropped.increment();
+    }
+
+    void onCompleted(long scheduledNanos, long startedNanos, long endNanos, Throwable error) {
+        responseTime.record(endNanos - scheduledNanos);
+        serviceTime.record(endNanos - startedNanos);
+        if (error == null) {
+            succeeded.increment();
+        } else {
+            errors.computeIfAbsent(describe(error), key -> new LongAdder()).increment();
+        }
+    }
+
+    void onFinished(long elapsedNanos, long unfinished) {
+        this.elapsedNanos = elapsedNanos;
+        this.unfinished = unfinished;
+    }
+
+    private static String describe(Throwable error) {
+        if (error instanceof HttpResponseException responseException) {
+            return error.getClass().getSimpleName() + " " + responseException.getStatusCode();
+        }
+        return error.getClass().getSimpleName();
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public LatencyHistogram getResponseTime() {
+        return responseTime;
+    }
+
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the number of each kind of error.
+     *
+     * @return The counts by exception and status.
+     */
+    public Map<String, Long> getErrors() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((error, count) -> counts.put(error, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Gets the rate of the completed requests.
+     *
+     * @return Completed requests per second.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : (getSucceeded() + getFailed()) * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Prints the report.
+     *
+     * @param out The stream to print to.
+     */
+    public void print(PrintStream out) {
+        out.printf("Target rate      %10.1f req/s%n", targetRate);
+        out.printf("Elapsed          %10.1f s%n", elapsedNanos / 1e9);
+        out.printf("Sent             %10d%n", getSent());
+        out.printf("Succeeded        %10d%n", getSucceeded());
+        out.printf("Failed           %10d%n", getFailed());
+        out.printf("Dropped          %10d%n", getDropped());
+        out.printf("Unfinished       %10d%n", getUnfinished());
+        out.printf("Throughput       %10.1f req/s%n", getThroughput());
+        out.println();
+        if (getDropped() > 0) {
+            out.printf("The percentiles exclude the %d dropped requests, %.2f%% of the scheduled ones%n",
+                    getDropped(), getDropped() * 100.0 / (getSent() + getDropped()));
+            out.println();
+        }
+        print(out, "Response time, corrected for coordinated omission (ms)", responseTime);
+        print(out, "Service time, from the actual start (ms)", serviceTime);
+        Map<String, Long> errorCounts = getErrors();
+        if (!errorCounts.isEmpty()) {
+            out.println("Errors");
+            errorCounts.forEach((error, count) -> out.printf("  %-40s %10d%n", error, count));
+        }
+    }
+
+    private static void print(PrintStream out, String title, LatencyHistogram histogram) {
+        out.println(title);
+        out.printf("  %-8s %10.3f%n", "mean", histogram.getMean() / 1e6);
+        for (double percentile : PERCENTILES) {
+            out.printf("  %-8s %10.3f%n", "p" + formatPercentile(percentile),
+                    histogram.valueAtPercentile(percentile) / 1e6);
+        }
+        out.printf("  %-8s %10.3f%n", "max", histogram.getMax() / 1e6);
+        out.println();
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
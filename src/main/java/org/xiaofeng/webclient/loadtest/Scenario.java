@@ -0,0 +1,94 @@
+package org.xiaofeng.webclient.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.xiaofeng.webclient.type.HttpMethod;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scenario class
+ * <p>
+ * Weighted mix of the requests sent by the load generator, read from a JSON file:
+ * <pre>
+ * {"requests": [
+ *   {"method": "GET", "uri": "{baseUrl}/small", "weight": 3, "headers": {"Accept": "application/json"}},
+ *   {"method": "POST", "uri": "{baseUrl}/echo", "body": "{\"id\": 1}"}
+ * ]}
+ * </pre>
+ * {baseUrl} is replaced by the target URL before the templates are prepared. The weight defaults to 1.
+ */
+public class Scenario {
+    private final List<ScenarioStep> steps;
+
+    /**
+     * Constructor
+     *
+     * @param steps the requests of the scenario, at least one
+     */
+    public Scenario(List<ScenarioStep> steps) {
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("A scenario needs at least one request");
+        }
+        this.steps = List.copyOf(steps);
+    }
+
+    /**
+     * Creates a scenario of a single request.
+     *
+     * @param method The HTTP method.
+     * @param uri    The URI template.
+     * @return Scenario
+     */
+    public static Scenario single(HttpMethod method, String uri) {
+        return new Scenario(List.of(new ScenarioStep(method, uri, null, null, 1)));
+    }
+
+    /**
+     * Reads a scenario file.
+     *
+     * @param file    The JSON scenario.
+     * @param baseUrl The URL replacing {baseUrl}.
+     * @return Scenario
+     * @throws IOException              If the file cannot be read or parsed.
+     * @throws IllegalArgumentException If a request is invalid.
+     */
+    public static Scenario load(Path file, String baseUrl) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(Files.readAllBytes(file));
+        JsonNode requests = root.isArray() ? root : root.path("requests");
+        if (!requests.isArray()) {
+            throw new IllegalArgumentException("Scenario has no requests array: " + file);
+        }
+        List<ScenarioStep> steps = new ArrayList<>();
+        for (JsonNode request : requests) {
+            String uri = request.path("uri").asText(null);
+            if (uri == null) {
+                throw new IllegalArgumentException("Scenario request without uri: " + request);
+            }
+            HttpMethod method = HttpMethod.valueOf(request.path("method").asText("GET").toUpperCase());
+            JsonNode bodyNode = request.get("body");
+            String body = bodyNode == null || bodyNode.isNull() ? null
+                    : bodyNode.isTextual() ? bodyNode.asText() : bodyNode.toString();
+            HttpHeaders headers = new HttpHeaders();
+            Iterator<Map.Entry<String, JsonNode>> fields = request.path("headers").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> header = fields.next();
+                headers.add(header.getKey(), header.getValue().asText());
+            }
+            steps.add(new ScenarioStep(method, uri.replace("{baseUrl}", baseUrl), body, headers,
+                    request.path("weight").asInt(1)));
+        }
+        return new Scenario(steps);
+    }
+
+    public List<ScenarioStep> getSteps() {
+        return steps;
+    }
+}
@@ -0,0 +1,63 @@
+package org.xiaofeng.webclient.loadtest;
+
+import org.springframework.http.HttpHeaders;
+import org.xiaofeng.webclient.type.HttpMethod;
+
+/**
+ * ScenarioStep class
+ * <p>
+ * One request of a load scenario, picked at random in proportion to its weight.
+ * The URI template may use the {seq} and {random} variables.
+ */
+public class ScenarioStep {
+    private final HttpMethod method;
+    private final String uriTemplate;
+    private final String body;
+    private final HttpHeaders headers;
+    private final int weight;
+
+    /**
+     * Constructor
+     *
+     * @param method      HTTP method
+     * @param uriTemplate absolute URI template
+     * @param body        request body, null for none
+     * @param headers     request headers
+     * @param weight      relative weight, positive
+     */
+    public ScenarioStep(HttpMethod method, String uriTemplate, String body, HttpHeaders headers, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be positive: " + uriTemplate);
+        }
+        this.method = method;
+        this.uriTemplate = uriTemplate;
+        this.body = body;
+        this.headers = headers != null ? headers : new HttpHeaders();
+        this.weight = weight;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String getUriTemplate() {
+        return uriTemplate;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + uriTemplate + " x" + weight;
+    }
+}
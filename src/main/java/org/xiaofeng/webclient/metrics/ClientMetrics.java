@@ -0,0 +1,194 @@
+package org.xiaofeng.webclient.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.xiaofeng.webclient.pool.ConnectionPoolStatistics;
+import org.xiaofeng.webclient.pool.PoolStats;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClientMetrics class
+ * <p>
+ * Holds the metrics of every endpoint, the request event listeners and the connection pool gauges.
+ * Bridge to a metrics library by reading the endpoints periodically or by adding a listener.
+ */
+public class ClientMetrics {
+    /**
+     * Request attribute counting the attempts of a call, an AtomicInteger.
+     */
+    public static final String ATTEMPT_ATTRIBUTE = ClientMetrics.class.getName() + ".ATTEMPT";
+
+    private static final String OTHER_PATHS = "/{other}";
+
+    private final Logger logger = LoggerFactory.getLogger(ClientMetrics.class);
+
+    private final MetricsConfig config;
+
+    private final ConnectionPoolStatistics poolStatistics;
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    private final List<RequestEventListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param config         MetricsConfig, null to disable the request metrics
+     * @param poolStatistics ConnectionPoolStatistics
+     */
+    public ClientMetrics(MetricsConfig config, ConnectionPoolStatistics poolStatistics) {
+        this.config = config;
+        this.poolStatistics = poolStatistics;
+        if (config != null) {
+            listeners.addAll(config.getListeners());
+        }
+    }
+
+    /**
+     * Checks whether the request metrics are recorded.
+     *
+     * @return true when enabled.
+     */
+    public boolean isEnabled() {
+        return config != null;
+    }
+
+    /**
+     * Adds a listener of the request events.
+     *
+     * @param listener RequestEventListener
+     */
+    public void addListener(RequestEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener of the request events.
+     *
+     * @param listener RequestEventListener
+     */
+    public void removeListener(RequestEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the metrics of every endpoint.
+     *
+     * @return The live metrics.
+     */
+    public Collection<EndpointMetrics> getEndpoints() {
+        return Collections.unmodifiableCollection(endpoints.values());
+    }
+
+    /**
+     * Gets the metrics of an endpoint.
+     *
+     * @param endpoint Host and URI template, e.g. api.example.com:443/users/{id}.
+     * @return The live metrics, or null when no request was made.
+     */
+    public EndpointMetrics getEndpoint(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * Gets the connection gauges of every pool.
+     *
+     * @return The active, idle and pending connections per remote address.
+     */
+    public List<PoolStats> getPoolStats() {
+        return poolStatistics.snapshot();
+    }
+
+    /**
+     * Gets the connection gauges summed over every pool.
+     *
+     * @return PoolStats
+     */
+    public PoolStats getPoolTotal() {
+        return poolStatistics.total();
+    }
+
+    /**
+     * Gets the metrics of the endpoint of a URL, created on first use.
+     *
+     * @param url URI
+     * @return EndpointMetrics
+     */
+    EndpointMetrics endpoint(URI url) {
+        String host = url.getPort() != -1 ? url.getHost() + ":" + url.getPort() : url.getHost();
+        String path = url.getRawPath() == null || url.getRawPath().isEmpty() ? "/" : url.getRawPath();
+        String key = host + (config.isNormalizePaths() ? UriTemplates.normalize(path) : path);
+        EndpointMetrics endpoint = endpoints.get(key);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        if (endpoints.size() >= config.getMaxEndpoints()) {
+            key = host + OTHER_PATHS;
+        }
+        return endpoints.computeIfAbsent(key, EndpointMetrics::new);
+    }
+
+    /**
+     * Counts an attempt of a call.
+     *
+     * @param request ClientRequest
+     * @return The attempt, 1 for the first one.
+     */
+    int attempt(ClientRequest request) {
+        Object counter = request.attribute(ATTEMPT_ATTRIBUTE).orElse(null);
+        return counter instanceof AtomicInteger ? ((AtomicInteger) counter).incrementAndGet() : 1;
+    }
+
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    void fireRequestStart(RequestInfo request) {
+        for (RequestEventListener listener : listeners) {
+            try {
+                listener.onRequestStart(request);
+            } catch (RuntimeException e) {
+                logger.warn("Request event listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    void fireFirstByte(RequestInfo request, int status, long latencyNanos) {
+        for (RequestEventListener listener : listeners) {
+            try {
+                listener.onFirstByte(request, status, latencyNanos);
+            } catch (RuntimeException e) {
+                logger.warn("Request event listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    void fireComplete(RequestInfo request, int status, long latencyNanos) {
+        for (RequestEventListener listener : listeners) {
+            try {
+                listener.onComplete(request, status, latencyNanos);
+            } catch (RuntimeException e) {
+                logger.warn("Request event listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    void fireError(RequestInfo request, Throwable error, long latencyNanos) {
+        for (RequestEventListener listener : listeners) {
+            try {
+                listener.onError(request, error, latencyNanos);
+            } catch (RuntimeException e) {
+                logger.warn("Request event listener failed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.xiaofeng.webclient.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EndpointMetrics class
+ * <p>
+ * Live metrics of an endpoint: the latency histogram of the exchanges up to the last byte of the
+ * response, and counters of the status classes, errors, timeouts and retries.
+ */
+public class EndpointMetrics {
+    private final String endpoint;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder[] statusClasses = new LongAdder[6];
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param endpoint host and URI template
+     */
+    EndpointMetrics(String endpoint) {
+        this.endpoint = endpoint;
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+    }
+
+    void onStatus(int status) {
+        int statusClass = status / 100;
+        statusClasses[statusClass >= 1 && statusClass <= 5 ? statusClass : 0].increment();
+    }
+
+    void onError(boolean timeout) {
+        errors.increment();
+        if (timeout) {
+            timeouts.increment();
+        }
+    }
+
+    void onRetry() {
+        retries.increment();
+    }
+
+    void onCancel() {
+        cancelled.increment();
+    }
+
+    void recordLatency(long nanos) {
+        latency.record(nanos);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Gets the responses of a status class.
+     *
+     * @param statusClass The status class, 1 for 1xx to 5 for 5xx.
+     * @return The count.
+     */
+    public long getStatusCount(int statusClass) {
+        return statusClass >= 1 && statusClass <= 5 ? statusClasses[statusClass].sum() : 0;
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointMetrics{" +
+                "endpoint='" + endpoint + '\'' +
+                ", count=" + latency.getCount() +
+                ", p50=" + TimeUnit.NANOSECONDS.toMillis(latency.valueAtPercentile(50)) + "ms" +
+                ", p99=" + TimeUnit.NANOSECONDS.toMillis(latency.valueAtPercentile(99)) + "ms" +
+                ", max=" + TimeUnit.NANOSECONDS.toMillis(latency.getMax()) + "ms" +
+                ", 2xx=" + getStatusCount(2) +
+                ", 4xx=" + getStatusCount(4) +
+                ", 5xx=" + getStatusCount(5) +
+                ", errors=" + getErrors() +
+                ", timeouts=" + getTimeouts() +
+                ", retries=" + getRetries() +
+                '}';
+    }
+}
@@ -0,0 +1,145 @@
+package org.xiaofeng.webclient.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram class
+ * <p>
+ * Lock-free log-linear histogram of latencies in nanoseconds, in the spirit of HdrHistogram. Each
+ * power of two is split into 32 linear sub-buckets, so a recorded value is reported within about 3%
+ * of its real value. Recording increments a counter and never allocates. Values above one hour are
+ * recorded as one hour.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long HIGHEST_TRACKABLE = 3_600_000_000_000L;
+    private static final int BUCKETS = index(HIGHEST_TRACKABLE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds, negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE);
+        counts.incrementAndGet(index(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        long currentMax;
+        while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+            // retry until the max is updated or a higher value was recorded
+        }
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Gets the highest recorded value.
+     *
+     * @return The max in nanoseconds, 0 when empty.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean in nanoseconds, 0 when empty.
+     */
+    public long getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : total.get() / n;
+    }
+
+    /**
+     * Gets the value below which a percentage of the recorded values fall.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The value in nanoseconds, 0 when empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Adds the values recorded by another histogram.
+     *
+     * @param other LatencyHistogram
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        count.addAndGet(other.count.get());
+        total.addAndGet(other.total.get());
+        long otherMax = other.max.get();
+        long currentMax;
+        while (otherMax > (currentMax = max.get()) && !max.compareAndSet(currentMax, otherMax)) {
+            // retry until the max is updated or a higher value was recorded
+        }
+    }
+
+    /**
+     * Clears the recorded values. Values recorded concurrently may be kept or lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,108 @@
+package org.xiaofeng.webclient.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MetricsConfig class
+ * <p>
+ * Settings of the request metrics. Endpoints are keyed by host and URI template; identifiers in the
+ * path are replaced by {id} so that the number of endpoints stays bounded.
+ */
+public class MetricsConfig {
+    private final int maxEndpoints;
+    private final boolean normalizePaths;
+    private final List<RequestEventListener> listeners;
+
+    private MetricsConfig(Builder builder) {
+        this.maxEndpoints = builder.maxEndpoints;
+        this.normalizePaths = builder.normalizePaths;
+        this.listeners = Collections.unmodifiableList(new ArrayList<>(builder.listeners));
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return MetricsConfig
+     */
+    public static MetricsConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxEndpoints() {
+        return maxEndpoints;
+    }
+
+    public boolean isNormalizePaths() {
+        return normalizePaths;
+    }
+
+    public List<RequestEventListener> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private int maxEndpoints = 1000;
+        private boolean normalizePaths = true;
+        private final List<RequestEventListener> listeners = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the highest number of endpoints tracked; the requests to other endpoints are
+         * recorded under their host only.
+         *
+         * @param maxEndpoints max endpoints
+         * @return Builder
+         */
+        public Builder maxEndpoints(int maxEndpoints) {
+            this.maxEndpoints = maxEndpoints;
+            return this;
+        }
+
+        /**
+         * Sets whether numeric, UUID and hexadecimal path segments are replaced by {id}.
+         *
+         * @param normalizePaths true to normalize the paths
+         * @return Builder
+         */
+        public Builder normalizePaths(boolean normalizePaths) {
+            this.normalizePaths = normalizePaths;
+            return this;
+        }
+
+        /**
+         * Adds a listener of the request events.
+         *
+         * @param listener RequestEventListener
+         * @return Builder
+         */
+        public Builder listener(RequestEventListener listener) {
+            this.listeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return MetricsConfig
+         */
+        public MetricsConfig build() {
+            return new MetricsConfig(this);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.xiaofeng.webclient.metrics;
+
+import io.netty.channel.ConnectTimeoutException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * MetricsExchangeFilter class
+ * <p>
+ * Records every exchange in the metrics of its endpoint and notifies the listeners. The latency is
+ * measured up to the last byte of the response body, so the filter wraps the body of the response.
+ * Being the outermost filter, a hedged call is recorded once.
+ */
+public class MetricsExchangeFilter implements ExchangeFilterFunction {
+    private final ClientMetrics metrics;
+
+    /**
+     * Constructor
+     *
+     * @param metrics ClientMetrics
+     */
+    public MetricsExchangeFilter(ClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            EndpointMetrics endpoint = metrics.endpoint(request.url());
+            int attempt = metrics.attempt(request);
+            if (attempt > 1) {
+                endpoint.onRetry();
+            }
+            RequestInfo info = metrics.hasListeners()
+                    ? new RequestInfo(request.method().name(), request.url(), endpoint.getEndpoint(), attempt)
+                    : null;
+            if (info != null) {
+                metrics.fireRequestStart(info);
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean finished = new AtomicBoolean();
+            return next.exchange(request)
+                    .map(response -> {
+                        int status = response.statusCode().value();
+                        endpoint.onStatus(status);
+                        if (info != null) {
+                            metrics.fireFirstByte(info, status, System.nanoTime() - start);
+                        }
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnComplete(() -> {
+                                            if (finished.compareAndSet(false, true)) {
+                                                long latency = System.nanoTime() - start;
+                                                endpoint.recordLatency(latency);
+                                                if (info != null) {
+                                                    metrics.fireComplete(info, status, latency);
+                                                }
+                                            }
+                                        })
+                                        .doOnError(error -> onError(endpoint, info, error, start, finished))
+                                        .doOnCancel(() -> onCancel(endpoint, finished)))
+                                .build();
+                    })
+                    .doOnError(error -> onError(endpoint, info, error, start, finished))
+                    .doOnCancel(() -> onCancel(endpoint, finished));
+        });
+    }
+
+    private void onError(EndpointMetrics endpoint,
+                         RequestInfo info,
+                         Throwable error,
+                         long start,
+                         AtomicBoolean finished) {
+        if (finished.compareAndSet(false, true)) {
+            long latency = System.nanoTime() - start;
+            endpoint.onError(isTimeout(error));
+            endpoint.recordLatency(latency);
+            if (info != null) {
+                metrics.fireError(info, error, latency);
+            }
+        }
+    }
+
+    private void onCancel(EndpointMetrics endpoint, AtomicBoolean finished) {
+        if (finished.compareAndSet(false, true)) {
+            endpoint.onCancel();
+        }
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException
+                    || cause instanceof io.netty.handler.timeout.TimeoutException
+                    || cause instanceof ConnectTimeoutException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
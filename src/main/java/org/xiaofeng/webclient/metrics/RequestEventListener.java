@@ -0,0 +1,47 @@
+package org.xiaofeng.webclient.metrics;
+
+/**
+ * RequestEventListener interface
+ * <p>
+ * Receives the events of every exchange, e.g. to export them to Micrometer. Each attempt of a call
+ * is an exchange. The methods are called on the I/O threads and must not block.
+ */
+public interface RequestEventListener {
+    /**
+     * Called when an exchange starts.
+     *
+     * @param request RequestInfo
+     */
+    default void onRequestStart(RequestInfo request) {
+    }
+
+    /**
+     * Called when the response headers are received.
+     *
+     * @param request      RequestInfo
+     * @param status       The response status code.
+     * @param latencyNanos The time since the start of the exchange.
+     */
+    default void onFirstByte(RequestInfo request, int status, long latencyNanos) {
+    }
+
+    /**
+     * Called when the response body is fully received.
+     *
+     * @param request      RequestInfo
+     * @param status       The response status code.
+     * @param latencyNanos The time since the start of the exchange.
+     */
+    default void onComplete(RequestInfo request, int status, long latencyNanos) {
+    }
+
+    /**
+     * Called when an exchange fails before or while receiving the response.
+     *
+     * @param request      RequestInfo
+     * @param error        The failure.
+     * @param latencyNanos The time since the start of the exchange.
+     */
+    default void onError(RequestInfo request, Throwable error, long latencyNanos) {
+    }
+}
@@ -0,0 +1,56 @@
+package org.xiaofeng.webclient.metrics;
+
+import java.net.URI;
+
+/**
+ * RequestInfo class
+ * <p>
+ * Describes an exchange to the request event listeners.
+ */
+public class RequestInfo {
+    private final String method;
+    private final URI uri;
+    private final String endpoint;
+    private final int attempt;
+
+    /**
+     * Constructor
+     *
+     * @param method   HTTP method
+     * @param uri      request URI
+     * @param endpoint host and URI template
+     * @param attempt  attempt of the call, 1 for the first one
+     */
+    public RequestInfo(String method, URI uri, String endpoint, int attempt) {
+        this.method = method;
+        this.uri = uri;
+        this.endpoint = endpoint;
+        this.attempt = attempt;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestInfo{" +
+                "method='" + method + '\'' +
+                ", uri=" + uri +
+                ", endpoint='" + endpoint + '\'' +
+                ", attempt=" + attempt +
+                '}';
+    }
+}
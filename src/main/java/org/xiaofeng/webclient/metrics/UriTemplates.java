@@ -0,0 +1,73 @@
+package org.xiaofeng.webclient.metrics;
+
+/**
+ * UriTemplates class
+ * <p>
+ * Turns a request path into a URI template by replacing the identifiers it contains by {id}:
+ * numbers, UUIDs, and long tokens containing digits such as hashes or opaque keys.
+ */
+public final class UriTemplates {
+    private static final String ID = "{id}";
+
+    private static final int MIN_TOKEN_LENGTH = 16;
+
+    private UriTemplates() {
+    }
+
+    /**
+     * Normalizes a path.
+     *
+     * @param path The raw path.
+     * @return The path with its identifiers replaced, the same instance when it has none.
+     */
+    public static String normalize(String path) {
+        StringBuilder normalized = null;
+        int start = 0;
+        int length = path.length();
+        while (start <= length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start && isIdentifier(path, start, end)) {
+                if (normalized == null) {
+                    normalized = new StringBuilder(length).append(path, 0, start);
+                }
+                normalized.append(ID);
+            } else if (normalized != null) {
+                normalized.append(path, start, end);
+            }
+            if (end < length && normalized != null) {
+                normalized.append('/');
+            }
+            start = end + 1;
+        }
+        return normalized != null ? normalized.toString() : path;
+    }
+
+    private static boolean isIdentifier(String path, int start, int end) {
+        int digits = 0;
+        int nonHexLetters = 0;
+        int dashes = 0;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '-') {
+                dashes++;
+            } else if ((c >= 'g' && c <= 'z') || (c >= 'G' && c <= 'Z')) {
+                nonHexLetters++;
+            } else if (!((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == '_')) {
+                return false;
+            }
+        }
+        int segmentLength = end - start;
+        if (digits == segmentLength) {
+            return true;
+        }
+        if (segmentLength == 36 && dashes == 4 && nonHexLetters == 0) {
+            return true;
+        }
+        return segmentLength >= MIN_TOKEN_LENGTH && digits > 0;
+    }
+}
@@ -2,37 +2,415 @@ package org.xiaofeng.webclient.module;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
-import io.netty.handler.timeout.ReadTimeoutHandler;
+import com.google.inject.Singleton;
+import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.security.oauth2.client.endpoint.WebClientReactiveClientCredentialsTokenResponseClient;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.xiaofeng.webclient.async.AsyncConfig;
+import org.xiaofeng.webclient.async.FutureAdapter;
+import org.xiaofeng.webclient.blocking.BlockingConfig;
+import org.xiaofeng.webclient.blocking.BlockingExecutor;
+import org.xiaofeng.webclient.blocking.BlockingWebClientService;
+import org.xiaofeng.webclient.blocking.BlockingWebClientServiceImpl;
+import org.xiaofeng.webclient.body.BodyLimitConfig;
+import org.xiaofeng.webclient.body.BodyLimitExchangeFilter;
+import org.xiaofeng.webclient.cache.HttpResponseCache;
+import org.xiaofeng.webclient.coalescing.RequestCoalescer;
+import org.xiaofeng.webclient.compression.CompressionExchangeFilter;
+import org.xiaofeng.webclient.compression.CompressionStatistics;
+import org.xiaofeng.webclient.config.ConnectionPoolConfig;
+import org.xiaofeng.webclient.config.Http2Config;
+import org.xiaofeng.webclient.config.TimeoutConfig;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.hedging.Hedger;
+import org.xiaofeng.webclient.hedging.HedgingExchangeFilter;
+import org.xiaofeng.webclient.loadbalancer.LoadBalancerExchangeFilter;
+import org.xiaofeng.webclient.loadbalancer.ServiceRegistry;
+import org.xiaofeng.webclient.metrics.ClientMetrics;
+import org.xiaofeng.webclient.metrics.MetricsExchangeFilter;
+import org.xiaofeng.webclient.oauth2.OAuth2ExchangeFilter;
+import org.xiaofeng.webclient.oauth2.OAuth2TokenCache;
+import org.xiaofeng.webclient.pool.ConnectionPoolStatistics;
+import org.xiaofeng.webclient.ratelimit.RateLimitExchangeFilter;
+import org.xiaofeng.webclient.ratelimit.RateLimiterRegistry;
+import org.xiaofeng.webclient.resilience.ResilienceExchangeFilter;
+import org.xiaofeng.webclient.resilience.ResilienceRegistry;
+import org.xiaofeng.webclient.retry.RetryPolicy;
 import org.xiaofeng.webclient.service.WebClientService;
 import org.xiaofeng.webclient.service.WebClientServiceImpl;
+import org.xiaofeng.webclient.timeout.TimeoutExchangeFilter;
+import org.xiaofeng.webclient.type.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * WebClientModule class
  */
 public class WebClientModule extends AbstractModule {
+    private final WebClientConfig config;
+
+    /**
+     * Constructor with the default configuration.
+     */
+    public WebClientModule() {
+        this(WebClientConfig.defaults());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param config WebClientConfig
+     */
+    public WebClientModule(WebClientConfig config) {
+        this.config = config;
+    }
+
     @Override
     protected void configure() {
+        bind(WebClientConfig.class).toInstance(config);
         bind(WebClientService.class).to(WebClientServiceImpl.class);
+        bind(BlockingWebClientService.class).to(BlockingWebClientServiceImpl.class);
+    }
+
+    /**
+     * Creates the registry of the connection pool statistics.
+     *
+     * @return The ConnectionPoolStatistics.
+     */
+    @Provides
+    @Singleton
+    public ConnectionPoolStatistics connectionPoolStatistics() {
+        return new ConnectionPoolStatistics();
+    }
+
+    /**
+     * Creates the HTTP response cache, disabled unless configured.
+     *
+     * @return The HttpResponseCache.
+     */
+    @Provides
+    @Singleton
+    public HttpResponseCache responseCache() {
+        return new HttpResponseCache(config.getResponseCache());
+    }
+
+    /**
+     * Creates the coalescer of identical in-flight requests, disabled unless configured.
+     *
+     * @return The RequestCoalescer.
+     */
+    @Provides
+    @Singleton
+    public RequestCoalescer requestCoalescer() {
+        return new RequestCoalescer(config.getCoalescing());
+    }
+
+    /**
+     * Creates the registry of the per-host circuit breakers and concurrency limiters.
+     *
+     * @return The ResilienceRegistry.
+     */
+    @Provides
+    @Singleton
+    public ResilienceRegistry resilienceRegistry() {
+        return new ResilienceRegistry(config.getResilience());
+    }
+
+    /**
+     * Creates the registry of the per-host and per-endpoint rate limiters, disabled unless configured.
+     *
+     * @return The RateLimiterRegistry.
+     */
+    @Provides
+    @Singleton
+    public RateLimiterRegistry rateLimiterRegistry() {
+        return new RateLimiterRegistry(config.getRateLimit());
+    }
+
+    /**
+     * Creates the request metrics, also exposing the connection pool gauges.
+     *
+     * @param statistics The registry receiving the pool statistics.
+     * @return The ClientMetrics.
+     */
+    @Provides
+    @Singleton
+    public ClientMetrics clientMetrics(ConnectionPoolStatistics statistics) {
+        return new ClientMetrics(config.getMetrics(), statistics);
+    }
+
+    /**
+     * Creates the byte counters of the compression.
+     *
+     * @return The CompressionStatistics.
+     */
+    @Provides
+    @Singleton
+    public CompressionStatistics compressionStatistics() {
+        return new CompressionStatistics();
+    }
+
+    /**
+     * Creates the hedger of slow idempotent requests, disabled unless configured.
+     *
+     * @return The Hedger.
+     */
+    @Provides
+    @Singleton
+    public Hedger hedger() {
+        return new Hedger(config.getHedging());
+    }
+
+    /**
+     * Creates the bridge of the async methods, completing the futures on the completion executor.
+     *
+     * @return The FutureAdapter.
+     */
+    @Provides
+    @Singleton
+    public FutureAdapter futureAdapter() {
+        return new FutureAdapter(config.getAsync() != null ? config.getAsync() : AsyncConfig.defaults());
+    }
+
+    /**
+     * Creates the executor of the blocking facade, on virtual threads when the runtime has them.
+     *
+     * @return The BlockingExecutor.
+     */
+    @Provides
+    @Singleton
+    public BlockingExecutor blockingExecutor() {
+        return new BlockingExecutor(config.getBlocking() != null ? config.getBlocking() : BlockingConfig.defaults());
+    }
+
+    /**
+     * Gets the retry policy applied to every call unless overridden per call.
+     *
+     * @return The RetryPolicy.
+     */
+    @Provides
+    @Singleton
+    public RetryPolicy retryPolicy() {
+        return config.getRetryPolicy() != null ? config.getRetryPolicy() : RetryPolicy.none();
+    }
+
+    /**
+     * Gets the timeouts of the client.
+     *
+     * @return The TimeoutConfig.
+     */
+    @Provides
+    @Singleton
+    public TimeoutConfig timeoutConfig() {
+        return config.getTimeouts() != null ? config.getTimeouts() : TimeoutConfig.defaults();
+    }
+
+    /**
+     * Gets the memory limits of the response bodies.
+     *
+     * @return The BodyLimitConfig.
+     */
+    @Provides
+    @Singleton
+    public BodyLimitConfig bodyLimitConfig() {
+        return config.getBodyLimits() != null ? config.getBodyLimits() : BodyLimitConfig.defaults();
+    }
+
+    /**
+     * Creates the connection pool shared by every request.
+     * Over H2C the pool multiplexes the streams over the few connections per host of the Http2Config.
+     * H2 keeps the pool limits, as hosts may negotiate HTTP/1.1 and need one connection per request;
+     * its HTTP/2 connections take as many streams as the server allows.
+     *
+     * @param statistics The registry receiving the pool statistics.
+     * @return The configured ConnectionProvider.
+     */
+    @Provides
+    @Singleton
+    public ConnectionProvider connectionProvider(ConnectionPoolStatistics statistics) {
+        ConnectionPoolConfig pool = config.getConnectionPool();
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(pool.getName())
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground());
+        if (pool.isMetricsEnabled()) {
+            builder.metrics(true, () -> statistics);
+        }
+        Http2Config http2 = config.getHttp2();
+        if (config.getProtocol() == HttpProtocol.H2C && http2 != null) {
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConcurrentStreams(http2.getMaxConcurrentStreams())
+                    .maxConnections(http2.getMaxConnections())
+                    .minConnections(http2.getMinConnections())
+                    .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates the HttpClient backed by the shared connection pool.
+     * The connect and write timeouts are set once per connection. The read timeout only runs while
+     * a response is awaited or received, so idle pooled connections are not closed by it.
+     *
+     * @param connectionProvider The shared ConnectionProvider.
+     * @param timeouts           The timeouts of the client.
+     * @return The configured HttpClient.
+     */
+    @Provides
+    @Singleton
+    public HttpClient httpClient(ConnectionProvider connectionProvider, TimeoutConfig timeouts) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(protocols())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeouts.getConnectTimeout().toMillis());
+        if (timeouts.getReadTimeout() != null) {
+            httpClient = httpClient.responseTimeout(timeouts.getReadTimeout());
+        }
+        if (timeouts.getWriteTimeout() != null) {
+            long writeTimeoutMillis = timeouts.getWriteTimeout().toMillis();
+            httpClient = httpClient.doOnChannelInit((observer, channel, remoteAddress) ->
+                    channel.pipeline().addFirst(new WriteTimeoutHandler(writeTimeoutMillis, TimeUnit.MILLISECONDS)));
+        }
+        return httpClient;
+    }
+
+    /**
+     * Gets the reactor-netty protocols of the configured protocol.
+     *
+     * @return The protocols offered to the server.
+     */
+    private reactor.netty.http.HttpProtocol[] protocols() {
+        HttpProtocol protocol = config.getProtocol() != null ? config.getProtocol() : HttpProtocol.HTTP11;
+        return switch (protocol) {
+            case H2 -> new reactor.netty.http.HttpProtocol[]{
+                    reactor.netty.http.HttpProtocol.H2, reactor.netty.http.HttpProtocol.HTTP11};
+            case H2C -> new reactor.netty.http.HttpProtocol[]{reactor.netty.http.HttpProtocol.H2C};
+            default -> new reactor.netty.http.HttpProtocol[]{reactor.netty.http.HttpProtocol.HTTP11};
+        };
+    }
+
+    /**
+     * Creates the connector shared by every WebClient of the module.
+     *
+     * @param httpClient The shared HttpClient.
+     * @return The ClientHttpConnector.
+     */
+    @Provides
+    @Singleton
+    public ClientHttpConnector clientHttpConnector(HttpClient httpClient) {
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    /**
+     * Creates the cache of the OAuth2 client credentials token, disabled unless configured.
+     * The token endpoint is called through the shared connector, without the filters of the client.
+     *
+     * @param connector The shared ClientHttpConnector.
+     * @return The OAuth2TokenCache.
+     */
+    @Provides
+    @Singleton
+    public OAuth2TokenCache oauth2TokenCache(ClientHttpConnector connector) {
+        WebClientReactiveClientCredentialsTokenResponseClient tokenClient =
+                new WebClientReactiveClientCredentialsTokenResponseClient();
+        tokenClient.setWebClient(WebClient.builder().clientConnector(connector).build());
+        return new OAuth2TokenCache(config.getOauth2(), tokenClient);
+    }
+
+    /**
+     * Creates the registry of the load balanced logical services, disabled unless configured.
+     * Its active health checks start with the first request to a service and stop when it is closed.
+     *
+     * @param connector The shared ClientHttpConnector.
+     * @return The ServiceRegistry.
+     */
+    @Provides
+    @Singleton
+    public ServiceRegistry serviceRegistry(ClientHttpConnector connector) {
+        return new ServiceRegistry(config.getLoadBalancer(),
+                WebClient.builder().clientConnector(connector).build());
     }
 
     /**
      * Creates a WebClient.Builder with custom configurations.
+     * Every builder shares the same connector and connection pool.
      *
+     * @param connector             The shared ClientHttpConnector.
+     * @param metrics               The request metrics.
+     * @param oauth2TokenCache      The cache of the OAuth2 token.
+     * @param hedger                The hedger of slow idempotent requests.
+     * @param serviceRegistry       The load balanced logical services.
+     * @param rateLimiterRegistry   The per-host and per-endpoint rate limiters.
+     * @param resilienceRegistry    The per-host circuit breakers and concurrency limiters.
+     * @param compressionStatistics The byte counters of the compression.
+     * @param bodyLimits            The memory limits of the response bodies.
+     * @param timeouts              The timeouts of the client.
      * @return The configured WebClient.Builder.
      */
     @Provides
-    public WebClient.Builder clientBuilder() {
-        HttpClient httpClient = HttpClient.create().doOnRequest(
-                ((httpClientRequest, connection) -> connection.addHandlerLast(new ReadTimeoutHandler(10))
-                        .addHandlerLast(new WriteTimeoutHandler(10)).channel().config()
-                        .setConnectTimeoutMillis(10000)));
-        ClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
-        return WebClient.builder()
-                .clientConnector(connector);
+    public WebClient.Builder clientBuilder(ClientHttpConnector connector,
+                                           ClientMetrics metrics,
+                                           OAuth2TokenCache oauth2TokenCache,
+                                           Hedger hedger,
+                                           ServiceRegistry serviceRegistry,
+                                           RateLimiterRegistry rateLimiterRegistry,
+                                           ResilienceRegistry resilienceRegistry,
+                                           CompressionStatistics compressionStatistics,
+                                           BodyLimitConfig bodyLimits,
+                                           TimeoutConfig timeouts) {
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(connector)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(bodyLimits.getCodecMaxInMemorySize()));
+        if (metrics.isEnabled()) {
+            builder.filter(new MetricsExchangeFilter(metrics));
+        }
+        if (oauth2TokenCache.isEnabled()) {
+            // Outside the hedging and the resilience, so that the retry after a 401 is guarded again
+            builder.filter(new OAuth2ExchangeFilter(oauth2TokenCache));
+        }
+        if (hedger.isEnabled()) {
+            // Before the resilience filter, so that the primary exchange and the hedge are each guarded
+            builder.filter(new HedgingExchangeFilter(hedger));
+        }
+        if (serviceRegistry.isEnabled()) {
+            // After the hedging, so that a hedge may go to another endpoint, and before the
+            // per-host filters, so that they see the endpoint rather than the logical service
+            builder.filter(new LoadBalancerExchangeFilter(serviceRegistry));
+        }
+        if (rateLimiterRegistry.isEnabled()) {
+            // Before the resilience filter, so that a delayed request holds no concurrency permit
+            builder.filter(new RateLimitExchangeFilter(rateLimiterRegistry));
+        }
+        if (resilienceRegistry.isEnabled()) {
+            builder.filter(new ResilienceExchangeFilter(resilienceRegistry));
+        }
+        // Outside the compression filter, so that the decompressed bytes are counted
+        builder.filter(new BodyLimitExchangeFilter(bodyLimits));
+        if (config.getCompression() != null) {
+            builder.filter(new CompressionExchangeFilter(config.getCompression(), compressionStatistics));
+        }
+        // Innermost, so that a timed out attempt is seen as a failure by the other filters
+        builder.filter(new TimeoutExchangeFilter(timeouts));
+        return builder;
+    }
+
+    /**
+     * Creates the WebClient used on the request path, built once.
+     *
+     * @param clientBuilder The configured WebClient.Builder.
+     * @return The shared WebClient.
+     */
+    @Provides
+    @Singleton
+    public WebClient webClient(WebClient.Builder clientBuilder) {
+        return clientBuilder.build();
     }
 }
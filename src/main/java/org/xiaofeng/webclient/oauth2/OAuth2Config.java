@@ -0,0 +1,224 @@
+package org.xiaofeng.webclient.oauth2;
+
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * OAuth2Config class
+ * <p>
+ * Settings of the OAuth2 client credentials grant. The token is attached to the requests to the
+ * listed hosts, or to every request when no host is listed, and refreshed in the background before
+ * it expires.
+ */
+public class OAuth2Config {
+    private final String tokenUri;
+    private final String clientId;
+    private final String clientSecret;
+    private final Set<String> scopes;
+    private final ClientAuthenticationMethod clientAuthenticationMethod;
+    private final Set<String> hosts;
+    private final Duration refreshBefore;
+    private final Duration clockSkew;
+
+    private OAuth2Config(Builder builder) {
+        this.tokenUri = builder.tokenUri;
+        this.clientId = builder.clientId;
+        this.clientSecret = builder.clientSecret;
+        this.scopes = Collections.unmodifiableSet(new LinkedHashSet<>(builder.scopes));
+        this.clientAuthenticationMethod = builder.clientAuthenticationMethod;
+        this.hosts = Collections.unmodifiableSet(new LinkedHashSet<>(builder.hosts));
+        this.refreshBefore = builder.refreshBefore;
+        this.clockSkew = builder.clockSkew;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getTokenUri() {
+        return tokenUri;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public String getClientSecret() {
+        return clientSecret;
+    }
+
+    public Set<String> getScopes() {
+        return scopes;
+    }
+
+    public ClientAuthenticationMethod getClientAuthenticationMethod() {
+        return clientAuthenticationMethod;
+    }
+
+    public Set<String> getHosts() {
+        return hosts;
+    }
+
+    public Duration getRefreshBefore() {
+        return refreshBefore;
+    }
+
+    public Duration getClockSkew() {
+        return clockSkew;
+    }
+
+    /**
+     * Checks whether the token is attached to the requests to a host.
+     *
+     * @param host host name
+     * @return true when the host is listed or no host is listed.
+     */
+    public boolean isAuthenticated(String host) {
+        return hosts.isEmpty() || hosts.contains(host);
+    }
+
+    /**
+     * Creates the Spring Security registration of the client.
+     *
+     * @return ClientRegistration
+     */
+    ClientRegistration toClientRegistration() {
+        return ClientRegistration.withRegistrationId(clientId)
+                .clientId(clientId)
+                .clientSecret(clientSecret)
+                .clientAuthenticationMethod(clientAuthenticationMethod)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri(tokenUri)
+                .scope(scopes)
+                .build();
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private String tokenUri;
+        private String clientId;
+        private String clientSecret;
+        private final Set<String> scopes = new LinkedHashSet<>();
+        private ClientAuthenticationMethod clientAuthenticationMethod = ClientAuthenticationMethod.CLIENT_SECRET_BASIC;
+        private final Set<String> hosts = new LinkedHashSet<>();
+        private Duration refreshBefore = Duration.ofSeconds(60);
+        private Duration clockSkew = Duration.ofSeconds(10);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the token endpoint.
+         *
+         * @param tokenUri token endpoint URI
+         * @return Builder
+         */
+        public Builder tokenUri(String tokenUri) {
+            this.tokenUri = tokenUri;
+            return this;
+        }
+
+        /**
+         * Sets the client id.
+         *
+         * @param clientId client id
+         * @return Builder
+         */
+        public Builder clientId(String clientId) {
+            this.clientId = clientId;
+            return this;
+        }
+
+        /**
+         * Sets the client secret.
+         *
+         * @param clientSecret client secret
+         * @return Builder
+         */
+        public Builder clientSecret(String clientSecret) {
+            this.clientSecret = clientSecret;
+            return this;
+        }
+
+        /**
+         * Adds scopes requested with the token.
+         *
+         * @param scopes scopes
+         * @return Builder
+         */
+        public Builder scopes(String... scopes) {
+            Collections.addAll(this.scopes, scopes);
+            return this;
+        }
+
+        /**
+         * Sets how the client authenticates to the token endpoint, HTTP Basic by default.
+         *
+         * @param clientAuthenticationMethod ClientAuthenticationMethod
+         * @return Builder
+         */
+        public Builder clientAuthenticationMethod(ClientAuthenticationMethod clientAuthenticationMethod) {
+            this.clientAuthenticationMethod = clientAuthenticationMethod;
+            return this;
+        }
+
+        /**
+         * Restricts the token to the requests to some hosts, so that it never leaks to others.
+         *
+         * @param hosts host names
+         * @return Builder
+         */
+        public Builder hosts(String... hosts) {
+            Collections.addAll(this.hosts, hosts);
+            return this;
+        }
+
+        /**
+         * Sets how long before its expiry the token is refreshed in the background.
+         *
+         * @param refreshBefore refresh lead time
+         * @return Builder
+         */
+        public Builder refreshBefore(Duration refreshBefore) {
+            this.refreshBefore = refreshBefore;
+            return this;
+        }
+
+        /**
+         * Sets how long before its expiry the token is no longer sent, covering the clock drift and
+         * the transit time.
+         *
+         * @param clockSkew clock skew
+         * @return Builder
+         */
+        public Builder clockSkew(Duration clockSkew) {
+            this.clockSkew = clockSkew;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return OAuth2Config
+         */
+        public OAuth2Config build() {
+            if (tokenUri == null || clientId == null) {
+                throw new IllegalArgumentException("tokenUri and clientId are required");
+            }
+            return new OAuth2Config(this);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.xiaofeng.webclient.oauth2;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * OAuth2ExchangeFilter class
+ * <p>
+ * Attaches the cached bearer token to the requests to the authenticated hosts. A 401 response drops
+ * the token and the request is sent once more with a fresh one; the body inserter is run again, so
+ * a one-shot body such as an InputStream is not resent. A request already carrying an
+ * Authorization header is left to the caller.
+ */
+public class OAuth2ExchangeFilter implements ExchangeFilterFunction {
+    private final OAuth2Config config;
+
+    private final OAuth2TokenCache tokenCache;
+
+    /**
+     * Constructor
+     *
+     * @param tokenCache OAuth2TokenCache
+     */
+    public OAuth2ExchangeFilter(OAuth2TokenCache tokenCache) {
+        this.config = tokenCache.getConfig();
+        this.tokenCache = tokenCache;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.headers().containsKey(HttpHeaders.AUTHORIZATION)
+                || !config.isAuthenticated(request.url().getHost())) {
+            return next.exchange(request);
+        }
+        return tokenCache.token()
+                .flatMap(token -> next.exchange(authorize(request, token))
+                        .flatMap(response -> {
+                            if (response.statusCode().value() != HttpStatus.UNAUTHORIZED.value()) {
+                                return Mono.just(response);
+                            }
+                            tokenCache.invalidate(token);
+                            return response.releaseBody()
+                                    .then(tokenCache.token())
+                                    .flatMap(fresh -> next.exchange(authorize(request, fresh)));
+                        }));
+    }
+
+    private static ClientRequest authorize(ClientRequest request, OAuth2AccessToken token) {
+        return ClientRequest.from(request)
+                .headers(headers -> headers.setBearerAuth(token.getTokenValue()))
+                .build();
+    }
+}
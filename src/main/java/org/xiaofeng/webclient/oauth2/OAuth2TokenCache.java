@@ -0,0 +1,173 @@
+package org.xiaofeng.webclient.oauth2;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.client.endpoint.OAuth2ClientCredentialsGrantRequest;
+import org.springframework.security.oauth2.client.endpoint.ReactiveOAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * OAuth2TokenCache class
+ * <p>
+ * Thread-safe in-memory cache of the client credentials token. Callers get the cached token without
+ * any lock while it is valid. A refresh is single-flight: the callers arriving while the token
+ * endpoint is called all wait on the same response. The token is refreshed in the background
+ * ahead of its expiry, so callers normally never wait for it.
+ */
+public class OAuth2TokenCache {
+    private final Logger logger = LoggerFactory.getLogger(OAuth2TokenCache.class);
+
+    private final OAuth2Config config;
+
+    private final ClientRegistration registration;
+
+    private final ReactiveOAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenClient;
+
+    private volatile OAuth2AccessToken token;
+
+    private final AtomicReference<Mono<OAuth2AccessToken>> inFlight = new AtomicReference<>();
+
+    private final AtomicReference<Disposable> scheduledRefresh = new AtomicReference<>();
+
+    /**
+     * Constructor
+     *
+     * @param config      OAuth2Config, null to disable the authentication
+     * @param tokenClient The client calling the token endpoint
+     */
+    public OAuth2TokenCache(OAuth2Config config,
+                            ReactiveOAuth2AccessTokenResponseClient<OAuth2ClientCredentialsGrantRequest> tokenClient) {
+        this.config = config;
+        this.registration = config != null ? config.toClientRegistration() : null;
+        this.tokenClient = tokenClient;
+    }
+
+    /**
+     * Checks whether the client credentials are configured.
+     *
+     * @return true when the requests are authenticated.
+     */
+    public boolean isEnabled() {
+        return config != null;
+    }
+
+    public OAuth2Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Gets a valid token, fetching one only when none is cached or the cached one is about to expire.
+     *
+     * @return A Mono of the token.
+     */
+    public Mono<OAuth2AccessToken> token() {
+        OAuth2AccessToken current = token;
+        if (isUsable(current)) {
+            return Mono.just(current);
+        }
+        return refresh(current);
+    }
+
+    /**
+     * Drops a token rejected by the server, unless another caller already replaced it.
+     *
+     * @param rejected The token answered with 401.
+     */
+    public void invalidate(OAuth2AccessToken rejected) {
+        OAuth2AccessToken current = token;
+        if (current != null && current.getTokenValue().equals(rejected.getTokenValue())) {
+            token = null;
+        }
+    }
+
+    /**
+     * Cancels the background refresh.
+     */
+    public void close() {
+        Disposable refresh = scheduledRefresh.getAndSet(null);
+        if (refresh != null) {
+            refresh.dispose();
+        }
+    }
+
+    /**
+     * Replaces a stale token, joining the refresh in flight if any.
+     *
+     * @param stale The token being replaced, null when none.
+     * @return A Mono of the new token.
+     */
+    private Mono<OAuth2AccessToken> refresh(OAuth2AccessToken stale) {
+        while (true) {
+            Mono<OAuth2AccessToken> flight = inFlight.get();
+            if (flight != null) {
+                return flight;
+            }
+            OAuth2AccessToken current = token;
+            if (current != stale && isUsable(current)) {
+                // Replaced between the check of the caller and now
+                return Mono.just(current);
+            }
+            Sinks.One<OAuth2AccessToken> sink = Sinks.one();
+            Mono<OAuth2AccessToken> created = sink.asMono();
+            if (inFlight.compareAndSet(null, created)) {
+                fetch(sink);
+                return created;
+            }
+        }
+    }
+
+    private void fetch(Sinks.One<OAuth2AccessToken> sink) {
+        // Not cancelled with the callers, since the response is shared by every waiting caller
+        tokenClient.getTokenResponse(new OAuth2ClientCredentialsGrantRequest(registration))
+                .map(OAuth2AccessTokenResponse::getAccessToken)
+                .subscribe(fetched -> {
+                    token = fetched;
+                    inFlight.set(null);
+                    scheduleRefresh(fetched);
+                    sink.tryEmitValue(fetched);
+                }, error -> {
+                    inFlight.set(null);
+                    sink.tryEmitError(error);
+                });
+    }
+
+    private void scheduleRefresh(OAuth2AccessToken fetched) {
+        Instant expiresAt = fetched.getExpiresAt();
+        if (expiresAt == null) {
+            return;
+        }
+        Duration delay = Duration.between(Instant.now(), expiresAt.minus(config.getRefreshBefore()));
+        if (delay.isNegative()) {
+            // Short-lived token: refresh once past half of its lifetime
+            delay = Duration.between(Instant.now(), expiresAt).dividedBy(2);
+        }
+        if (delay.isNegative()) {
+            return;
+        }
+        Disposable refresh = Mono.delay(delay)
+                .flatMap(tick -> refresh(fetched))
+                .subscribe(refreshed -> {
+                }, error -> logger.warn("Background refresh of the OAuth2 token failed: {}", error.toString()));
+        Disposable previous = scheduledRefresh.getAndSet(refresh);
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    private boolean isUsable(OAuth2AccessToken candidate) {
+        if (candidate == null) {
+            return false;
+        }
+        Instant expiresAt = candidate.getExpiresAt();
+        return expiresAt == null || Instant.now().isBefore(expiresAt.minus(config.getClockSkew()));
+    }
+}
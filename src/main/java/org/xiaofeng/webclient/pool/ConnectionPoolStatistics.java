@@ -0,0 +1,100 @@
+package org.xiaofeng.webclient.pool;
+
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ConnectionPoolStatistics class
+ * <p>
+ * Keeps a live view of every per-host pool created by the shared {@link ConnectionProvider}.
+ */
+public class ConnectionPoolStatistics implements ConnectionProvider.MeterRegistrar {
+    private final Map<String, RegisteredPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a pool, called by reactor-netty when a pool for a new remote host is created.
+     *
+     * @param poolName      The pool name.
+     * @param id            The pool id.
+     * @param remoteAddress The remote address of the pool.
+     * @param metrics       The live metrics of the pool.
+     */
+    @Override
+    public void registerMetrics(String poolName,
+                                String id,
+                                SocketAddress remoteAddress,
+                                ConnectionPoolMetrics metrics) {
+        pools.put(id, new RegisteredPool(poolName, remoteAddress, metrics));
+    }
+
+    /**
+     * Removes a pool, called by reactor-netty when a pool is disposed.
+     *
+     * @param poolName      The pool name.
+     * @param id            The pool id.
+     * @param remoteAddress The remote address of the pool.
+     */
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(id);
+    }
+
+    /**
+     * Takes a snapshot of every registered pool.
+     *
+     * @return The statistics of each pool.
+     */
+    public List<PoolStats> snapshot() {
+        List<PoolStats> stats = new ArrayList<>(pools.size());
+        pools.values().forEach(pool -> stats.add(pool.toStats()));
+        return stats;
+    }
+
+    /**
+     * Sums the statistics of every registered pool.
+     *
+     * @return The aggregated statistics.
+     */
+    public PoolStats total() {
+        int acquired = 0;
+        int idle = 0;
+        int allocated = 0;
+        int pending = 0;
+        for (RegisteredPool pool : pools.values()) {
+            acquired += pool.metrics.acquiredSize();
+            idle += pool.metrics.idleSize();
+            allocated += pool.metrics.allocatedSize();
+            pending += pool.metrics.pendingAcquireSize();
+        }
+        return new PoolStats("*", "*", acquired, idle, allocated, pending, -1, -1);
+    }
+
+    private static final class RegisteredPool {
+        private final String poolName;
+        private final SocketAddress remoteAddress;
+        private final ConnectionPoolMetrics metrics;
+
+        private RegisteredPool(String poolName, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+            this.poolName = poolName;
+            this.remoteAddress = remoteAddress;
+            this.metrics = metrics;
+        }
+
+        private PoolStats toStats() {
+            return new PoolStats(poolName,
+                    String.valueOf(remoteAddress),
+                    metrics.acquiredSize(),
+                    metrics.idleSize(),
+                    metrics.allocatedSize(),
+                    metrics.pendingAcquireSize(),
+                    metrics.maxAllocatedSize(),
+                    metrics.maxPendingAcquireSize());
+        }
+    }
+}
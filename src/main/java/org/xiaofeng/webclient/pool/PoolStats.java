@@ -0,0 +1,93 @@
+package org.xiaofeng.webclient.pool;
+
+/**
+ * PoolStats class
+ * <p>
+ * Point-in-time statistics of a connection pool.
+ */
+public class PoolStats {
+    private final String poolName;
+    private final String remoteAddress;
+    private final int acquired;
+    private final int idle;
+    private final int allocated;
+    private final int pendingAcquire;
+    private final int maxAllocated;
+    private final int maxPendingAcquire;
+
+    /**
+     * Constructor
+     *
+     * @param poolName          pool name
+     * @param remoteAddress     remote address of the pool
+     * @param acquired          connections in use
+     * @param idle              idle connections
+     * @param allocated         connections currently allocated
+     * @param pendingAcquire    requests waiting for a connection
+     * @param maxAllocated      max connections, -1 when unknown
+     * @param maxPendingAcquire max waiting requests, -1 when unknown
+     */
+    public PoolStats(String poolName,
+                     String remoteAddress,
+                     int acquired,
+                     int idle,
+                     int allocated,
+                     int pendingAcquire,
+                     int maxAllocated,
+                     int maxPendingAcquire) {
+        this.poolName = poolName;
+        this.remoteAddress = remoteAddress;
+        this.acquired = acquired;
+        this.idle = idle;
+        this.allocated = allocated;
+        this.pendingAcquire = pendingAcquire;
+        this.maxAllocated = maxAllocated;
+        this.maxPendingAcquire = maxPendingAcquire;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public int getAcquired() {
+        return acquired;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getAllocated() {
+        return allocated;
+    }
+
+    public int getPendingAcquire() {
+        return pendingAcquire;
+    }
+
+    public int getMaxAllocated() {
+        return maxAllocated;
+    }
+
+    public int getMaxPendingAcquire() {
+        return maxPendingAcquire;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "poolName='" + poolName + '\'' +
+                ", remoteAddress='" + remoteAddress + '\'' +
+                ", acquired=" + acquired +
+                ", idle=" + idle +
+                ", allocated=" + allocated +
+                ", pendingAcquire=" + pendingAcquire +
+                ", maxAllocated=" + maxAllocated +
+                ", maxPendingAcquire=" + maxPendingAcquire +
+                '}';
+    }
+}
@@ -0,0 +1,193 @@
+package org.xiaofeng.webclient.ratelimit;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RateLimitConfig class
+ * <p>
+ * Settings of the client-side rate limits. A limit applies to a host, or to the paths of a host
+ * starting with a prefix; the other hosts get the default limit, if any, each on its own. A request
+ * over the limit is delayed up to the max wait, then rejected.
+ */
+public class RateLimitConfig {
+    private final Limit defaultLimit;
+    private final Map<String, Limit> limits;
+    private final Duration maxWait;
+    private final boolean adaptToHeaders;
+    private final Duration penalty;
+
+    private RateLimitConfig(Builder builder) {
+        this.defaultLimit = builder.defaultLimit;
+        this.limits = Collections.unmodifiableMap(new HashMap<>(builder.limits));
+        this.maxWait = builder.maxWait;
+        this.adaptToHeaders = builder.adaptToHeaders;
+        this.penalty = builder.penalty;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return RateLimitConfig
+     */
+    public static RateLimitConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Limit getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public Map<String, Limit> getLimits() {
+        return limits;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public boolean isAdaptToHeaders() {
+        return adaptToHeaders;
+    }
+
+    public Duration getPenalty() {
+        return penalty;
+    }
+
+    /**
+     * Limit class
+     * <p>
+     * A sustained rate and the burst allowed above it.
+     */
+    public static final class Limit {
+        private final double permitsPerSecond;
+        private final int burst;
+
+        private Limit(double permitsPerSecond, int burst) {
+            if (permitsPerSecond <= 0) {
+                throw new IllegalArgumentException("permitsPerSecond must be positive");
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException("burst must be at least 1");
+            }
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+
+        public double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private Limit defaultLimit;
+        private final Map<String, Limit> limits = new HashMap<>();
+        private Duration maxWait = Duration.ofSeconds(1);
+        private boolean adaptToHeaders = true;
+        private Duration penalty = Duration.ofSeconds(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the limit of every host without a limit of its own.
+         *
+         * @param permitsPerSecond sustained rate
+         * @param burst            requests allowed at once
+         * @return Builder
+         */
+        public Builder defaultLimit(double permitsPerSecond, int burst) {
+            this.defaultLimit = new Limit(permitsPerSecond, burst);
+            return this;
+        }
+
+        /**
+         * Sets the limit of a host.
+         *
+         * @param host             host name
+         * @param permitsPerSecond sustained rate
+         * @param burst            requests allowed at once
+         * @return Builder
+         */
+        public Builder hostLimit(String host, double permitsPerSecond, int burst) {
+            this.limits.put(host, new Limit(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * Sets the limit of the paths of a host starting with a prefix, shared by those paths.
+         * The longest matching prefix wins over a shorter one and over the host limit.
+         *
+         * @param host             host name
+         * @param pathPrefix       path prefix, such as /v1/search
+         * @param permitsPerSecond sustained rate
+         * @param burst            requests allowed at once
+         * @return Builder
+         */
+        public Builder endpointLimit(String host, String pathPrefix, double permitsPerSecond, int burst) {
+            this.limits.put(host + (pathPrefix.startsWith("/") ? pathPrefix : "/" + pathPrefix),
+                    new Limit(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * Sets the longest a request is delayed before it is rejected.
+         *
+         * @param maxWait max wait, zero to reject instead of delaying
+         * @return Builder
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Sets whether the Retry-After and RateLimit headers of the responses tighten the limits.
+         *
+         * @param adaptToHeaders true to adapt
+         * @return Builder
+         */
+        public Builder adaptToHeaders(boolean adaptToHeaders) {
+            this.adaptToHeaders = adaptToHeaders;
+            return this;
+        }
+
+        /**
+         * Sets how long a limit admits no request after a 429 response without Retry-After.
+         *
+         * @param penalty pause
+         * @return Builder
+         */
+        public Builder penalty(Duration penalty) {
+            this.penalty = penalty;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return RateLimitConfig
+         */
+        public RateLimitConfig build() {
+            return new RateLimitConfig(this);
+        }
+    }
+}
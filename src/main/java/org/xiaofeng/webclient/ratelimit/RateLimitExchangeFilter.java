@@ -0,0 +1,120 @@
+package org.xiaofeng.webclient.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.xiaofeng.webclient.common.RateLimitExceededException;
+import org.xiaofeng.webclient.retry.RetryAfter;
+import org.xiaofeng.webclient.timeout.Deadline;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitExchangeFilter class
+ * <p>
+ * Takes a permit from the rate limit of the host or endpoint before every exchange, including
+ * each retry and hedge. A request over the limit waits on a timer, never on a thread, and is
+ * rejected when the wait would exceed the max wait or the deadline of the call. A request cancelled
+ * while it waits gives its permit back. The responses tighten the limit: a Retry-After on a 429 or
+ * 503 pauses it, and the RateLimit-Remaining and RateLimit-Reset headers, or their X-RateLimit
+ * variants, spread the quota left over its window.
+ */
+public class RateLimitExchangeFilter implements ExchangeFilterFunction {
+    private static final long EPOCH_SECONDS_THRESHOLD = 1_000_000_000L;
+
+    private final RateLimiterRegistry registry;
+
+    /**
+     * Constructor
+     *
+     * @param registry RateLimiterRegistry
+     */
+    public RateLimitExchangeFilter(RateLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String key = registry.key(request.url());
+        if (key == null) {
+            return next.exchange(request);
+        }
+        RateLimitConfig config = registry.config();
+        RateLimiter limiter = registry.limiter(key);
+        return Mono.deferContextual(context -> {
+            long maxWait = config.getMaxWait().toNanos();
+            Deadline deadline = context.getOrDefault(Deadline.CONTEXT_KEY, null);
+            if (deadline != null) {
+                maxWait = Math.min(maxWait, deadline.remaining().toNanos());
+            }
+            long wait = limiter.reserve(System.nanoTime(), maxWait);
+            if (wait < 0) {
+                return Mono.error(new RateLimitExceededException("Rate limit reached for " + key,
+                        Duration.ofNanos(-wait)));
+            }
+            Mono<ClientResponse> exchange = next.exchange(request);
+            if (config.isAdaptToHeaders()) {
+                exchange = exchange.doOnNext(response -> adapt(limiter, response, config));
+            }
+            if (wait == 0) {
+                return exchange;
+            }
+            return Mono.delay(Duration.ofNanos(wait))
+                    .doOnCancel(() -> limiter.release(System.nanoTime()))
+                    .then(exchange);
+        });
+    }
+
+    /**
+     * Tightens a limiter from the headers of a response.
+     *
+     * @param limiter  the limiter of the request
+     * @param response the response
+     * @param config   RateLimitConfig
+     */
+    static void adapt(RateLimiter limiter, ClientResponse response, RateLimitConfig config) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        int status = response.statusCode().value();
+        long now = System.nanoTime();
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            Duration retryAfter = RetryAfter.parse(headers);
+            if (retryAfter != null) {
+                limiter.pauseUntil(now + retryAfter.toNanos());
+                return;
+            }
+        }
+
+        Long remaining = header(headers, "RateLimit-Remaining", "X-RateLimit-Remaining");
+        Long reset = header(headers, "RateLimit-Reset", "X-RateLimit-Reset");
+        if (remaining != null && reset != null) {
+            long resetSeconds = reset;
+            if (resetSeconds > EPOCH_SECONDS_THRESHOLD) {
+                // Some servers send the reset as an epoch timestamp rather than a delay
+                resetSeconds -= System.currentTimeMillis() / 1000;
+            }
+            limiter.adapt(remaining, TimeUnit.SECONDS.toNanos(Math.max(resetSeconds, 0)), now);
+        } else if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            limiter.pauseUntil(now + config.getPenalty().toNanos());
+        }
+    }
+
+    private static Long header(HttpHeaders headers, String name, String fallbackName) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            value = headers.getFirst(fallbackName);
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.xiaofeng.webclient.ratelimit;
+
+/**
+ * RateLimitStats class
+ * <p>
+ * Point-in-time counters and wait times of the rate limit of a host or endpoint.
+ */
+public class RateLimitStats {
+    private final String key;
+    private final double permitsPerSecond;
+    private final long permitted;
+    private final long delayed;
+    private final long rejected;
+    private final long meanWaitNanos;
+    private final long p99WaitNanos;
+    private final long maxWaitNanos;
+
+    /**
+     * Constructor
+     *
+     * @param key              host, or host and path prefix
+     * @param permitsPerSecond current rate, tightened by the server headers
+     * @param permitted        requests let through
+     * @param delayed          requests let through after a wait
+     * @param rejected         requests rejected
+     * @param meanWaitNanos    mean wait of the permitted requests
+     * @param p99WaitNanos     99th percentile of the wait
+     * @param maxWaitNanos     longest wait
+     */
+    public RateLimitStats(String key,
+                          double permitsPerSecond,
+                          long permitted,
+                          long delayed,
+                          long rejected,
+                          long meanWaitNanos,
+                          long p99WaitNanos,
+                          long maxWaitNanos) {
+        this.key = key;
+        this.permitsPerSecond = permitsPerSecond;
+        this.permitted = permitted;
+        this.delayed = delayed;
+        this.rejected = rejected;
+        this.meanWaitNanos = meanWaitNanos;
+        this.p99WaitNanos = p99WaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public long getPermitted() {
+        return permitted;
+    }
+
+    public long getDelayed() {
+        return delayed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getMeanWaitNanos() {
+        return meanWaitNanos;
+    }
+
+    public long getP99WaitNanos() {
+        return p99WaitNanos;
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitStats{" +
+                "key='" + key + '\'' +
+                ", permitsPerSecond=" + permitsPerSecond +
+                ", permitted=" + permitted +
+                ", delayed=" + delayed +
+                ", rejected=" + rejected +
+                ", meanWaitNanos=" + meanWaitNanos +
+                ", p99WaitNanos=" + p99WaitNanos +
+                ", maxWaitNanos=" + maxWaitNanos +
+                '}';
+    }
+}
@@ -0,0 +1,130 @@
+package org.xiaofeng.webclient.ratelimit;
+
+import org.xiaofeng.webclient.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RateLimiter class
+ * <p>
+ * Lock-free token bucket implemented as the generic cell rate algorithm: a single theoretical
+ * arrival time moves forward by one emission interval per permit, and a request may start once it
+ * is within the burst tolerance of now. Reserving a permit is a compare-and-set and never blocks;
+ * the caller waits the returned delay on a timer.
+ */
+final class RateLimiter {
+    private final long intervalNanos;
+
+    private final int burst;
+
+    private final AtomicLong theoreticalArrival;
+
+    private volatile long adaptedIntervalNanos;
+
+    private volatile long adaptedUntilNanos;
+
+    private final LongAdder permitted = new LongAdder();
+
+    private final LongAdder delayed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LatencyHistogram waits = new LatencyHistogram();
+
+    RateLimiter(RateLimitConfig.Limit limit) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / limit.getPermitsPerSecond()));
+        this.burst = limit.getBurst();
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserves a permit.
+     *
+     * @param now          System.nanoTime()
+     * @param maxWaitNanos the longest acceptable delay
+     * @return The delay before the request may start, or the negated delay when it exceeds the max wait.
+     */
+    long reserve(long now, long maxWaitNanos) {
+        long interval = interval(now);
+        long tolerance = (burst - 1) * interval;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = current - now > 0 ? current : now;
+            long wait = base - tolerance - now;
+            if (wait > maxWaitNanos) {
+                rejected.increment();
+                return -wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + interval)) {
+                wait = Math.max(wait, 0);
+                permitted.increment();
+                if (wait > 0) {
+                    delayed.increment();
+                }
+                waits.record(wait);
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit reserved by a request cancelled while it waited, so that the next
+     * request may take its place.
+     *
+     * @param now System.nanoTime()
+     */
+    void release(long now) {
+        theoreticalArrival.addAndGet(-interval(now));
+        permitted.decrement();
+    }
+
+    /**
+     * Admits no request before a point in time, as asked by the server.
+     *
+     * @param untilNanos System.nanoTime() of the first request allowed again
+     */
+    void pauseUntil(long untilNanos) {
+        long target = untilNanos + (burst - 1) * interval(untilNanos);
+        long current;
+        while ((current = theoreticalArrival.get()) - target < 0
+                && !theoreticalArrival.compareAndSet(current, target)) {
+            // retry until the arrival time is at least the target
+        }
+    }
+
+    /**
+     * Tightens the rate to the quota left on the server until it resets.
+     *
+     * @param remaining  requests left in the server window
+     * @param resetNanos time until the server window resets
+     * @param now        System.nanoTime()
+     */
+    void adapt(long remaining, long resetNanos, long now) {
+        if (remaining <= 0) {
+            pauseUntil(now + resetNanos);
+            return;
+        }
+        long serverInterval = resetNanos / remaining;
+        if (serverInterval > intervalNanos) {
+            adaptedIntervalNanos = serverInterval;
+            adaptedUntilNanos = now + resetNanos;
+        }
+    }
+
+    private long interval(long now) {
+        long adapted = adaptedIntervalNanos;
+        return adapted > intervalNanos && adaptedUntilNanos - now > 0 ? adapted : intervalNanos;
+    }
+
+    RateLimitStats toStats(String key) {
+        return new RateLimitStats(key,
+                1_000_000_000.0 / interval(System.nanoTime()),
+                permitted.sum(),
+                delayed.sum(),
+                rejected.sum(),
+                waits.getMean(),
+                waits.valueAtPercentile(99),
+                waits.getMax());
+    }
+}
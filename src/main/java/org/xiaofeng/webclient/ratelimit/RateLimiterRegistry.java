@@ -0,0 +1,102 @@
+package org.xiaofeng.webclient.ratelimit;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RateLimiterRegistry class
+ * <p>
+ * Holds the rate limiter of every host and endpoint, created on first use.
+ */
+public class RateLimiterRegistry {
+    private final RateLimitConfig config;
+
+    private final List<String> endpointKeys;
+
+    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param config RateLimitConfig, null to disable the rate limits
+     */
+    public RateLimiterRegistry(RateLimitConfig config) {
+        this.config = config;
+        this.endpointKeys = new ArrayList<>();
+        if (config != null) {
+            config.getLimits().keySet().stream()
+                    .filter(key -> key.indexOf('/') >= 0)
+                    .sorted(Comparator.comparingInt(String::length).reversed())
+                    .forEach(endpointKeys::add);
+        }
+    }
+
+    /**
+     * Checks whether any rate limit is configured.
+     *
+     * @return true when the requests are rate limited.
+     */
+    public boolean isEnabled() {
+        return config != null && (config.getDefaultLimit() != null || !config.getLimits().isEmpty());
+    }
+
+    RateLimitConfig config() {
+        return config;
+    }
+
+    /**
+     * Finds the limit a request counts against: the longest matching endpoint prefix, then the
+     * host, then the default limit of the host.
+     *
+     * @param url The request URL.
+     * @return The key of the limit, or null when the request is not limited.
+     */
+    String key(URI url) {
+        String host = url.getHost();
+        if (!endpointKeys.isEmpty()) {
+            String target = host + (url.getRawPath() != null ? url.getRawPath() : "");
+            for (String key : endpointKeys) {
+                if (target.startsWith(key)
+                        && (target.length() == key.length()
+                        || key.endsWith("/")
+                        || target.charAt(key.length()) == '/')) {
+                    return key;
+                }
+            }
+        }
+        if (config.getLimits().containsKey(host) || config.getDefaultLimit() != null) {
+            return host;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the limiter of a key, creating it on first use.
+     *
+     * @param key The host, or host and path prefix.
+     * @return RateLimiter
+     */
+    RateLimiter limiter(String key) {
+        RateLimiter limiter = limiters.get(key);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(key, k ->
+                    new RateLimiter(config.getLimits().getOrDefault(k, config.getDefaultLimit())));
+        }
+        return limiter;
+    }
+
+    /**
+     * Takes a snapshot of every limiter.
+     *
+     * @return The counters and wait times of each host and endpoint.
+     */
+    public List<RateLimitStats> snapshot() {
+        List<RateLimitStats> stats = new ArrayList<>(limiters.size());
+        limiters.forEach((key, limiter) -> stats.add(limiter.toStats(key)));
+        return stats;
+    }
+}
@@ -0,0 +1,104 @@
+package org.xiaofeng.webclient.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AdaptiveConcurrencyLimiter class
+ * <p>
+ * Lock-free AIMD limiter learning how many concurrent calls a host handles without queueing.
+ * Calls above the limit are rejected at once instead of waiting. The lowest latency seen is
+ * the reference of an uncongested call; it is re-learned periodically so that a lasting change
+ * of the host is picked up.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final int MIN_RTT_RESET_SAMPLES = 1000;
+
+    private final AdaptiveLimitConfig config;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong limitBits;
+
+    private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+
+    private final AtomicLong samples = new AtomicLong();
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param config AdaptiveLimitConfig
+     */
+    public AdaptiveConcurrencyLimiter(AdaptiveLimitConfig config) {
+        this.config = config;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(config.getInitialLimit()));
+    }
+
+    /**
+     * Takes an in-flight slot if the limit allows it.
+     *
+     * @return true when the call may proceed, false when it is shed.
+     */
+    public boolean tryAcquire() {
+        int limit = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases the slot of a call and adjusts the limit from its outcome.
+     *
+     * @param rttNanos The latency of the call.
+     * @param dropped  true when the call failed in a way that signals overload (timeout, 503, ...).
+     */
+    public void onSample(long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        if (samples.incrementAndGet() % MIN_RTT_RESET_SAMPLES == 0) {
+            minRttNanos.set(rttNanos);
+        } else {
+            minRttNanos.accumulateAndGet(rttNanos, Math::min);
+        }
+
+        boolean congested = dropped || rttNanos > minRttNanos.get() * config.getLatencyTolerance();
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next = congested
+                    ? Math.max(config.getMinLimit(), limit * config.getBackoffRatio())
+                    : Math.min(config.getMaxLimit(), limit + 1.0 / limit);
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases the slot of a call without adjusting the limit, for a call cancelled by its caller.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
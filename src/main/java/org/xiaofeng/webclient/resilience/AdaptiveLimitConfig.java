@@ -0,0 +1,140 @@
+package org.xiaofeng.webclient.resilience;
+
+/**
+ * AdaptiveLimitConfig class
+ * <p>
+ * Settings of the AIMD concurrency limiter. The limit grows by one per window of successful calls
+ * and is multiplied by the backoff ratio when a call is dropped or its latency exceeds the
+ * lowest observed latency times the tolerance.
+ */
+public class AdaptiveLimitConfig {
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private AdaptiveLimitConfig(Builder builder) {
+        this.initialLimit = builder.initialLimit;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.backoffRatio = builder.backoffRatio;
+        this.latencyTolerance = builder.latencyTolerance;
+    }
+
+    /**
+     * Creates a config with the default settings.
+     *
+     * @return AdaptiveLimitConfig
+     */
+    public static AdaptiveLimitConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 500;
+        private double backoffRatio = 0.9;
+        private double latencyTolerance = 2.0;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the limit used before any latency is observed.
+         *
+         * @param initialLimit initial limit
+         * @return Builder
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Sets the lowest limit.
+         *
+         * @param minLimit min limit
+         * @return Builder
+         */
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * Sets the highest limit.
+         *
+         * @param maxLimit max limit
+         * @return Builder
+         */
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Sets the ratio the limit is multiplied by on congestion.
+         *
+         * @param backoffRatio backoff ratio, between 0 and 1
+         * @return Builder
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Sets how many times the lowest observed latency a call may take before it signals congestion.
+         *
+         * @param latencyTolerance latency tolerance
+         * @return Builder
+         */
+        public Builder latencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return AdaptiveLimitConfig
+         */
+        public AdaptiveLimitConfig build() {
+            return new AdaptiveLimitConfig(this);
+        }
+    }
+}
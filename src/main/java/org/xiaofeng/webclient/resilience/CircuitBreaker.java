@@ -0,0 +1,227 @@
+package org.xiaofeng.webclient.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CircuitBreaker class
+ * <p>
+ * Lock-free circuit breaker. The outcome of the last calls is kept in a ring buffer; once enough
+ * calls were recorded, a failure or slow call rate above its threshold opens the breaker and calls
+ * fail fast. After the open duration a few probes are let through: the breaker closes when they all
+ * succeed and opens again on the first failing probe. A probe given back before its result is known
+ * frees its permit for the next call.
+ */
+public class CircuitBreaker {
+    private static final int RECORDED = 1;
+    private static final int FAILURE = 2;
+    private static final int SLOW = 4;
+
+    /**
+     * State enum
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final CircuitBreakerConfig config;
+
+    private final long slowCallNanos;
+
+    private final long openNanos;
+
+    private final AtomicReference<Transition> transition =
+            new AtomicReference<>(new Transition(State.CLOSED, System.nanoTime()));
+
+    private final AtomicIntegerArray outcomes;
+
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param config CircuitBreakerConfig
+     */
+    public CircuitBreaker(CircuitBreakerConfig config) {
+        this.config = config;
+        this.slowCallNanos = config.getSlowCallThreshold().toNanos();
+        this.openNanos = config.getOpenDuration().toNanos();
+        this.outcomes = new AtomicIntegerArray(config.getWindowSize());
+    }
+
+    /**
+     * Asks for the permission to make a call.
+     *
+     * @return true when the call may proceed, false when it must fail fast.
+     */
+    public boolean tryAcquire() {
+        Transition current = transition.get();
+        if (current.state == State.CLOSED) {
+            return true;
+        }
+        if (current.state == State.OPEN) {
+            if (System.nanoTime() - current.since < openNanos) {
+                return false;
+            }
+            // The probe permits are part of the transition, so a thread losing the race reads them
+            // from the winning transition
+            transition.compareAndSet(current,
+                    new Transition(State.HALF_OPEN, System.nanoTime(), config.getHalfOpenProbes()));
+            current = transition.get();
+            if (current.state != State.HALF_OPEN) {
+                return current.state == State.CLOSED;
+            }
+        }
+        // Rejected calls take no permit, so the count never goes below zero
+        int permits;
+        do {
+            permits = current.probePermits.get();
+            if (permits <= 0) {
+                return false;
+            }
+        } while (!current.probePermits.compareAndSet(permits, permits - 1));
+        return true;
+    }
+
+    /**
+     * Gives back the permission of a call that was allowed but not made, or cancelled before its
+     * result was known. While half open the permit goes to the next call, which probes in its place.
+     */
+    public void releasePermission() {
+        Transition current = transition.get();
+        if (current.state != State.HALF_OPEN) {
+            return;
+        }
+        int permits;
+        do {
+            permits = current.probePermits.get();
+            if (permits >= config.getHalfOpenProbes()) {
+                return;
+            }
+        } while (!current.probePermits.compareAndSet(permits, permits + 1));
+    }
+
+    /**
+     * Records the outcome of a call allowed by {@link #tryAcquire()}.
+     *
+     * @param failure      true when the call failed.
+     * @param latencyNanos The latency of the call.
+     */
+    public void onResult(boolean failure, long latencyNanos) {
+        boolean slow = latencyNanos >= slowCallNanos;
+        Transition current = transition.get();
+        if (current.state == State.HALF_OPEN) {
+            if (failure || slow) {
+                open(current);
+            } else if (current.probeSuccesses.incrementAndGet() >= config.getHalfOpenProbes()) {
+                close(current);
+            }
+            return;
+        }
+        if (current.state == State.OPEN) {
+            return;
+        }
+
+        int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+        outcomes.set(slot, RECORDED | (failure ? FAILURE : 0) | (slow ? SLOW : 0));
+        if ((failure || slow) && thresholdCrossed()) {
+            open(current);
+        }
+    }
+
+    /**
+     * Gets the current state.
+     *
+     * @return State
+     */
+    public State getState() {
+        Transition current = transition.get();
+        if (current.state == State.OPEN && System.nanoTime() - current.since >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return current.state;
+    }
+
+    /**
+     * Gets the failure rate over the window.
+     *
+     * @return The failure rate in percent, 0 when no call was recorded.
+     */
+    public int getFailureRate() {
+        return rate(FAILURE);
+    }
+
+    /**
+     * Gets the slow call rate over the window.
+     *
+     * @return The slow call rate in percent, 0 when no call was recorded.
+     */
+    public int getSlowCallRate() {
+        return rate(SLOW);
+    }
+
+    private int rate(int flag) {
+        int recorded = 0;
+        int flagged = 0;
+        for (int i = 0; i < outcomes.length(); i++) {
+            int outcome = outcomes.get(i);
+            if ((outcome & RECORDED) != 0) {
+                recorded++;
+                if ((outcome & flag) != 0) {
+                    flagged++;
+                }
+            }
+        }
+        return recorded == 0 ? 0 : flagged * 100 / recorded;
+    }
+
+    private boolean thresholdCrossed() {
+        int recorded = 0;
+        int failures = 0;
+        int slowCalls = 0;
+        for (int i = 0; i < outcomes.length(); i++) {
+            int outcome = outcomes.get(i);
+            if ((outcome & RECORDED) != 0) {
+                recorded++;
+                failures += (outcome & FAILURE) != 0 ? 1 : 0;
+                slowCalls += (outcome & SLOW) != 0 ? 1 : 0;
+            }
+        }
+        return recorded >= config.getMinimumCalls()
+                && (failures * 100 >= config.getFailureRateThreshold() * recorded
+                || slowCalls * 100 >= config.getSlowCallRateThreshold() * recorded);
+    }
+
+    private void open(Transition from) {
+        transition.compareAndSet(from, new Transition(State.OPEN, System.nanoTime()));
+    }
+
+    private void close(Transition from) {
+        if (transition.compareAndSet(from, new Transition(State.CLOSED, System.nanoTime()))) {
+            for (int i = 0; i < outcomes.length(); i++) {
+                outcomes.set(i, 0);
+            }
+        }
+    }
+
+    private static final class Transition {
+        private final State state;
+        private final long since;
+        private final AtomicInteger probePermits;
+        private final AtomicInteger probeSuccesses = new AtomicInteger();
+
+        private Transition(State state, long since) {
+            this(state, since, 0);
+        }
+
+        private Transition(State state, long since, int probePermits) {
+            this.state = state;
+            this.since = since;
+            this.probePermits = new AtomicInteger(probePermits);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.xiaofeng.webclient.resilience;
+
+import java.time.Duration;
+
+/**
+ * CircuitBreakerConfig class
+ * <p>
+ * Thresholds of the per-host circuit breaker, evaluated over a window of the last calls.
+ */
+public class CircuitBreakerConfig {
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final Duration slowCallThreshold;
+    private final int slowCallRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+
+    private CircuitBreakerConfig(Builder builder) {
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallThreshold = builder.slowCallThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.openDuration = builder.openDuration;
+        this.halfOpenProbes = builder.halfOpenProbes;
+    }
+
+    /**
+     * Creates a config with the default thresholds.
+     *
+     * @return CircuitBreakerConfig
+     */
+    public static CircuitBreakerConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public Duration getSlowCallThreshold() {
+        return slowCallThreshold;
+    }
+
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private int windowSize = 100;
+        private int minimumCalls = 20;
+        private int failureRateThreshold = 50;
+        private Duration slowCallThreshold = Duration.ofSeconds(5);
+        private int slowCallRateThreshold = 80;
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenProbes = 5;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the number of last calls the rates are computed over.
+         *
+         * @param windowSize window size
+         * @return Builder
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of calls recorded before the breaker may open.
+         *
+         * @param minimumCalls minimum calls
+         * @return Builder
+         */
+        public Builder minimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets the failure rate, in percent, that opens the breaker.
+         *
+         * @param failureRateThreshold failure rate threshold
+         * @return Builder
+         */
+        public Builder failureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the latency from which a call is considered slow.
+         *
+         * @param slowCallThreshold slow call threshold
+         * @return Builder
+         */
+        public Builder slowCallThreshold(Duration slowCallThreshold) {
+            this.slowCallThreshold = slowCallThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the slow call rate, in percent, that opens the breaker.
+         *
+         * @param slowCallRateThreshold slow call rate threshold
+         * @return Builder
+         */
+        public Builder slowCallRateThreshold(int slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets how long the breaker stays open before letting probes through.
+         *
+         * @param openDuration open duration
+         * @return Builder
+         */
+        public Builder openDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of probes allowed, and required to succeed, in the half-open state.
+         *
+         * @param halfOpenProbes half-open probes
+         * @return Builder
+         */
+        public Builder halfOpenProbes(int halfOpenProbes) {
+            this.halfOpenProbes = halfOpenProbes;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return CircuitBreakerConfig
+         */
+        public CircuitBreakerConfig build() {
+            return new CircuitBreakerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.xiaofeng.webclient.resilience;
+
+/**
+ * ResilienceConfig class
+ * <p>
+ * Enables the circuit breaker and the adaptive concurrency limiter, each guarding every host,
+ * or every host and path, separately. Per-endpoint guards are keyed by the path with its
+ * identifiers replaced, up to a maximum number of endpoints.
+ */
+public class ResilienceConfig {
+    private final CircuitBreakerConfig circuitBreaker;
+    private final AdaptiveLimitConfig adaptiveLimit;
+    private final boolean perEndpoint;
+    private final int maxEndpoints;
+
+    private ResilienceConfig(Builder builder) {
+        this.circuitBreaker = builder.circuitBreaker;
+        this.adaptiveLimit = builder.adaptiveLimit;
+        this.perEndpoint = builder.perEndpoint;
+        this.maxEndpoints = builder.maxEndpoints;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public CircuitBreakerConfig getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public AdaptiveLimitConfig getAdaptiveLimit() {
+        return adaptiveLimit;
+    }
+
+    public boolean isPerEndpoint() {
+        return perEndpoint;
+    }
+
+    public int getMaxEndpoints() {
+        return maxEndpoints;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private CircuitBreakerConfig circuitBreaker;
+        private AdaptiveLimitConfig adaptiveLimit;
+        private boolean perEndpoint;
+        private int maxEndpoints = 1000;
+
+        private Builder() {
+        }
+
+        /**
+         * Enables the circuit breaker.
+         *
+         * @param circuitBreaker CircuitBreakerConfig
+         * @return Builder
+         */
+        public Builder circuitBreaker(CircuitBreakerConfig circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Enables the adaptive concurrency limiter.
+         *
+         * @param adaptiveLimit AdaptiveLimitConfig
+         * @return Builder
+         */
+        public Builder adaptiveLimit(AdaptiveLimitConfig adaptiveLimit) {
+            this.adaptiveLimit = adaptiveLimit;
+            return this;
+        }
+
+        /**
+         * Guards every host and path separately instead of every host.
+         *
+         * @param perEndpoint true to key the guards by host and path
+         * @return Builder
+         */
+        public Builder perEndpoint(boolean perEndpoint) {
+            this.perEndpoint = perEndpoint;
+            return this;
+        }
+
+        /**
+         * Sets the highest number of per-endpoint guards; the requests to other paths share one
+         * guard per host.
+         *
+         * @param maxEndpoints max endpoints
+         * @return Builder
+         */
+        public Builder maxEndpoints(int maxEndpoints) {
+            this.maxEndpoints = maxEndpoints;
+            return this;
+        }
+
+        /**
+         * Builds the config.
+         *
+         * @return ResilienceConfig
+         */
+        public ResilienceConfig build() {
+            return new ResilienceConfig(this);
+        }
+    }
+}
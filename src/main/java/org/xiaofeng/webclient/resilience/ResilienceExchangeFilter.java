@@ -0,0 +1,100 @@
+package org.xiaofeng.webclient.resilience;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.xiaofeng.webclient.common.CircuitBreakerOpenException;
+import org.xiaofeng.webclient.common.ConcurrencyLimitExceededException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ResilienceExchangeFilter class
+ * <p>
+ * Guards every exchange, including each retry attempt, with the circuit breaker and the
+ * concurrency limiter of its host. A rejected exchange fails before any connection is acquired.
+ * The outcome is recorded once the response headers are received: a 5xx status or a transport
+ * error is a failure, a 429 or 503 status also tells the limiter the host is overloaded. An
+ * exchange cancelled by its caller only gives its permission and its slot back.
+ */
+public class ResilienceExchangeFilter implements ExchangeFilterFunction {
+    private final ResilienceRegistry registry;
+
+    /**
+     * Constructor
+     *
+     * @param registry ResilienceRegistry
+     */
+    public ResilienceExchangeFilter(ResilienceRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            String key = registry.key(request.url());
+            ResilienceRegistry.HostGuard guard = registry.guard(key);
+            CircuitBreaker breaker = guard.breaker();
+            AdaptiveConcurrencyLimiter limiter = guard.limiter();
+
+            if (breaker != null && !breaker.tryAcquire()) {
+                return Mono.error(new CircuitBreakerOpenException("Circuit breaker is open for " + key));
+            }
+            if (limiter != null && !limiter.tryAcquire()) {
+                if (breaker != null) {
+                    breaker.releasePermission();
+                }
+                return Mono.error(new ConcurrencyLimitExceededException("Concurrency limit reached for " + key));
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return next.exchange(request)
+                    .doOnSuccess(response -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            int status = response != null ? response.statusCode().value() : 0;
+                            record(breaker, limiter, System.nanoTime() - start, status >= 500, overloaded(status));
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(breaker, limiter, System.nanoTime() - start, true, true);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            release(breaker, limiter);
+                        }
+                    });
+        });
+    }
+
+    private static void record(CircuitBreaker breaker,
+                               AdaptiveConcurrencyLimiter limiter,
+                               long latencyNanos,
+                               boolean failure,
+                               boolean dropped) {
+        if (breaker != null) {
+            breaker.onResult(failure, latencyNanos);
+        }
+        if (limiter != null) {
+            limiter.onSample(latencyNanos, dropped);
+        }
+    }
+
+    private static void release(CircuitBreaker breaker, AdaptiveConcurrencyLimiter limiter) {
+        if (breaker != null) {
+            breaker.releasePermission();
+        }
+        if (limiter != null) {
+            limiter.release();
+        }
+    }
+
+    private static boolean overloaded(int status) {
+        return status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+}
@@ -0,0 +1,119 @@
+package org.xiaofeng.webclient.resilience;
+
+import org.xiaofeng.webclient.metrics.UriTemplates;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ResilienceRegistry class
+ * <p>
+ * Holds the circuit breaker and the concurrency limiter of every host, created on first use.
+ */
+public class ResilienceRegistry {
+    private static final String OTHER_PATHS = "/{other}";
+
+    private final ResilienceConfig config;
+
+    private final Map<String, HostGuard> guards = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param config ResilienceConfig, null to disable the circuit breaker and the limiter
+     */
+    public ResilienceRegistry(ResilienceConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Checks whether a circuit breaker or a limiter is configured.
+     *
+     * @return true when the requests are guarded.
+     */
+    public boolean isEnabled() {
+        return config != null && (config.getCircuitBreaker() != null || config.getAdaptiveLimit() != null);
+    }
+
+    /**
+     * Gets the key of the guard of a URL: the host, or the host and the path with its identifiers
+     * replaced. Once {@link ResilienceConfig#getMaxEndpoints()} endpoints are guarded, the other
+     * paths of a host share one guard.
+     *
+     * @param url URI
+     * @return The key of the guard.
+     */
+    String key(URI url) {
+        String host = url.getHost() + ":" + url.getPort();
+        if (!config.isPerEndpoint()) {
+            return host;
+        }
+        String path = url.getRawPath() == null || url.getRawPath().isEmpty() ? "/" : url.getRawPath();
+        String key = host + UriTemplates.normalize(path);
+        if (guards.containsKey(key) || guards.size() < config.getMaxEndpoints()) {
+            return key;
+        }
+        return host + OTHER_PATHS;
+    }
+
+    /**
+     * Gets the guard of a host, creating it on first use.
+     *
+     * @param key The host, or host and path.
+     * @return HostGuard
+     */
+    HostGuard guard(String key) {
+        HostGuard guard = guards.get(key);
+        if (guard == null) {
+            guard = guards.computeIfAbsent(key, k -> new HostGuard(
+                    config.getCircuitBreaker() != null ? new CircuitBreaker(config.getCircuitBreaker()) : null,
+                    config.getAdaptiveLimit() != null ? new AdaptiveConcurrencyLimiter(config.getAdaptiveLimit()) : null));
+        }
+        return guard;
+    }
+
+    /**
+     * Takes a snapshot of every guard.
+     *
+     * @return The state of each host.
+     */
+    public List<ResilienceStats> snapshot() {
+        List<ResilienceStats> stats = new ArrayList<>(guards.size());
+        guards.forEach((key, guard) -> stats.add(guard.toStats(key)));
+        return stats;
+    }
+
+    /**
+     * HostGuard class
+     */
+    static final class HostGuard {
+        private final CircuitBreaker breaker;
+        private final AdaptiveConcurrencyLimiter limiter;
+
+        private HostGuard(CircuitBreaker breaker, AdaptiveConcurrencyLimiter limiter) {
+            this.breaker = breaker;
+            this.limiter = limiter;
+        }
+
+        CircuitBreaker breaker() {
+            return breaker;
+        }
+
+        AdaptiveConcurrencyLimiter limiter() {
+            return limiter;
+        }
+
+        private ResilienceStats toStats(String key) {
+            return new ResilienceStats(key,
+                    breaker != null ? breaker.getState() : null,
+                    breaker != null ? breaker.getFailureRate() : 0,
+                    breaker != null ? breaker.getSlowCallRate() : 0,
+                    limiter != null ? limiter.getLimit() : -1,
+                    limiter != null ? limiter.getInFlight() : 0,
+                    limiter != null ? limiter.getRejected() : 0);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.xiaofeng.webclient.resilience;
+
+/**
+ * ResilienceStats class
+ * <p>
+ * Point-in-time state of the circuit breaker and the concurrency limiter of a host.
+ */
+public class ResilienceStats {
+    private final String key;
+    private final CircuitBreaker.State state;
+    private final int failureRate;
+    private final int slowCallRate;
+    private final int limit;
+    private final int inFlight;
+    private final long rejected;
+
+    /**
+     * Constructor
+     *
+     * @param key          host, or host and path
+     * @param state        breaker state, null when the breaker is disabled
+     * @param failureRate  failure rate in percent
+     * @param slowCallRate slow call rate in percent
+     * @param limit        concurrency limit, -1 when the limiter is disabled
+     * @param inFlight     calls in flight
+     * @param rejected     calls shed by the limiter
+     */
+    public ResilienceStats(String key,
+                           CircuitBreaker.State state,
+                           int failureRate,
+                           int slowCallRate,
+                           int limit,
+                           int inFlight,
+                           long rejected) {
+        this.key = key;
+        this.state = state;
+        this.failureRate = failureRate;
+        this.slowCallRate = slowCallRate;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.rejected = rejected;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public CircuitBreaker.State getState() {
+        return state;
+    }
+
+    public int getFailureRate() {
+        return failureRate;
+    }
+
+    public int getSlowCallRate() {
+        return slowCallRate;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "ResilienceStats{" +
+                "key='" + key + '\'' +
+                ", state=" + state +
+                ", failureRate=" + failureRate +
+                ", slowCallRate=" + slowCallRate +
+                ", limit=" + limit +
+                ", inFlight=" + inFlight +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
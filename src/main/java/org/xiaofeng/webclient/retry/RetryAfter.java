@@ -0,0 +1,44 @@
+package org.xiaofeng.webclient.retry;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * RetryAfter class
+ * <p>
+ * Parses the Retry-After header, given either in seconds or as an HTTP date.
+ */
+public final class RetryAfter {
+    private RetryAfter() {
+    }
+
+    /**
+     * Parses the Retry-After header.
+     *
+     * @param headers HttpHeaders
+     * @return The delay requested by the server, or null when absent or invalid.
+     */
+    public static Duration parse(HttpHeaders headers) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        value = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException ignored) {
+            // not a number of seconds, try an HTTP date
+        }
+        try {
+            Duration delay = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
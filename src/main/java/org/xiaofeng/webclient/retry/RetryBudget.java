@@ -0,0 +1,74 @@
+package org.xiaofeng.webclient.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RetryBudget class
+ * <p>
+ * Lock-free token bucket shared by every call of a policy. Each call deposits a fraction of a token
+ * and each retry withdraws a whole one, so retries stay below that fraction of the traffic once the
+ * initial tokens are spent. When a host is down the budget runs dry and calls fail fast instead of
+ * multiplying the load.
+ */
+public class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final long depositPerCall;
+
+    private final long maxTokens;
+
+    private final AtomicLong tokens;
+
+    /**
+     * Constructor
+     *
+     * @param retryRatio Retries allowed per call, e.g. 0.1 for one retry every ten calls
+     * @param maxTokens  Retries that may be spent in a burst
+     */
+    public RetryBudget(double retryRatio, int maxTokens) {
+        if (retryRatio < 0 || maxTokens < 1) {
+            throw new IllegalArgumentException("retryRatio must not be negative and maxTokens must be positive");
+        }
+        this.depositPerCall = Math.round(retryRatio * SCALE);
+        this.maxTokens = maxTokens * SCALE;
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    /**
+     * Records a call.
+     */
+    public void deposit() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current >= maxTokens) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.min(maxTokens, current + depositPerCall)));
+    }
+
+    /**
+     * Asks for the permission to retry.
+     *
+     * @return true when a token was withdrawn.
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * Gets the retries left.
+     *
+     * @return The whole tokens in the bucket.
+     */
+    public long getAvailable() {
+        return tokens.get() / SCALE;
+    }
+}
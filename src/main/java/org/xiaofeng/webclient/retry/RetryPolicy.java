@@ -0,0 +1,376 @@
+package org.xiaofeng.webclient.retry;
+
+import io.netty.handler.timeout.TimeoutException;
+import org.reactivestreams.Publisher;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.xiaofeng.webclient.common.CircuitBreakerOpenException;
+import org.xiaofeng.webclient.common.ConcurrencyLimitExceededException;
+import org.xiaofeng.webclient.common.HttpResponseException;
+import org.xiaofeng.webclient.common.RateLimitExceededException;
+import org.xiaofeng.webclient.timeout.Deadline;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RetryPolicy class
+ * <p>
+ * Decides which failed calls are retried and how long to wait in between. Only idempotent methods
+ * are retried, and only on a transport error or one of the retryable status codes; the circuit
+ * breaker and the concurrency limiter rejections are never retried. The wait grows exponentially
+ * with jitter, or follows the Retry-After header of a 429 or 503 response. An optional budget caps
+ * the retries across all calls sharing the policy. A retry that cannot start before the deadline of
+ * the call is not attempted and the last error is propagated.
+ */
+public class RetryPolicy {
+    /**
+     * Jitter enum
+     */
+    public enum Jitter {
+        /**
+         * Plain exponential backoff.
+         */
+        NONE,
+        /**
+         * Random wait between zero and the exponential backoff.
+         */
+        FULL,
+        /**
+         * Random wait between the initial backoff and three times the previous wait.
+         */
+        DECORRELATED
+    }
+
+    private final int maxRetries;
+    private final Set<HttpMethod> retryableMethods;
+    private final Set<Integer> retryableStatuses;
+    private final boolean retryTransportErrors;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Jitter jitter;
+    private final RetryBudget budget;
+    private final boolean respectRetryAfter;
+    private final Duration maxRetryAfter;
+
+    private RetryPolicy(Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.retryableMethods = Collections.unmodifiableSet(EnumSet.copyOf(builder.retryableMethods));
+        this.retryableStatuses = Collections.unmodifiableSet(new HashSet<>(builder.retryableStatuses));
+        this.retryTransportErrors = builder.retryTransportErrors;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.jitter = builder.jitter;
+        this.budget = builder.budget;
+        this.respectRetryAfter = builder.respectRetryAfter;
+        this.maxRetryAfter = builder.maxRetryAfter;
+    }
+
+    /**
+     * Creates a policy with the default settings.
+     *
+     * @return RetryPolicy
+     */
+    public static RetryPolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a policy that never retries.
+     *
+     * @return RetryPolicy
+     */
+    public static RetryPolicy none() {
+        return builder().maxRetries(0).build();
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates the Retry applied to a call.
+     *
+     * @param httpMethod HttpMethod of the call
+     * @return Retry
+     */
+    public Retry toRetry(HttpMethod httpMethod) {
+        if (maxRetries <= 0 || !retryableMethods.contains(httpMethod)) {
+            return Retry.max(0).onRetryExhaustedThrow((spec, signal) -> signal.failure());
+        }
+        return new Retry() {
+            @Override
+            public Publisher<?> generateCompanion(Flux<RetrySignal> retrySignals) {
+                if (budget != null) {
+                    budget.deposit();
+                }
+                long[] previousDelay = {initialBackoff.toMillis()};
+                return Flux.deferContextual(context -> {
+                    Deadline deadline = context.getOrDefault(Deadline.CONTEXT_KEY, null);
+                    return retrySignals.concatMap(signal -> {
+                        Throwable error = signal.failure();
+                        if (signal.totalRetries() >= maxRetries || !isRetryable(error)) {
+                            return Mono.error(error);
+                        }
+                        Duration delay = delay(signal.totalRetries(), error, previousDelay);
+                        if (delay == null
+                                || (deadline != null && deadline.remaining().compareTo(delay) <= 0)
+                                || (budget != null && !budget.tryWithdraw())) {
+                            return Mono.error(error);
+                        }
+                        return Mono.delay(delay).thenReturn(signal);
+                    });
+                });
+            }
+        };
+    }
+
+    /**
+     * Checks whether an error may be retried, regardless of the method and the retries left.
+     *
+     * @param error Throwable
+     * @return true when the error is retryable.
+     */
+    public boolean isRetryable(Throwable error) {
+        if (error instanceof CircuitBreakerOpenException
+                || error instanceof ConcurrencyLimitExceededException
+                || error instanceof RateLimitExceededException) {
+            return false;
+        }
+        if (error instanceof HttpResponseException) {
+            return retryableStatuses.contains(((HttpResponseException) error).getStatusCode());
+        }
+        return retryTransportErrors
+                && (error instanceof WebClientRequestException
+                || error instanceof java.util.concurrent.TimeoutException
+                || error instanceof TimeoutException
+                || error instanceof IOException);
+    }
+
+    private Duration delay(long retry, Throwable error, long[] previousDelay) {
+        if (respectRetryAfter && error instanceof HttpResponseException) {
+            HttpResponseException responseError = (HttpResponseException) error;
+            int status = responseError.getStatusCode();
+            if (status == 429 || status == 503) {
+                Duration retryAfter = RetryAfter.parse(responseError.getHeaders());
+                if (retryAfter != null) {
+                    // Waiting longer than allowed would only delay the failure
+                    return retryAfter.compareTo(maxRetryAfter) <= 0 ? retryAfter : null;
+                }
+            }
+        }
+
+        long initial = initialBackoff.toMillis();
+        long max = maxBackoff.toMillis();
+        long exponential = retry >= 30 ? max : Math.min(max, initial << retry);
+        long millis;
+        switch (jitter) {
+            case FULL:
+                millis = ThreadLocalRandom.current().nextLong(exponential + 1);
+                break;
+            case DECORRELATED:
+                long upper = Math.max(initial, Math.min(max, previousDelay[0] * 3));
+                millis = upper > initial ? ThreadLocalRandom.current().nextLong(initial, upper + 1) : initial;
+                previousDelay[0] = millis;
+                break;
+            default:
+                millis = exponential;
+        }
+        return Duration.ofMillis(millis);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Set<HttpMethod> getRetryableMethods() {
+        return retryableMethods;
+    }
+
+    public Set<Integer> getRetryableStatuses() {
+        return retryableStatuses;
+    }
+
+    public boolean isRetryTransportErrors() {
+        return retryTransportErrors;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public Jitter getJitter() {
+        return jitter;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    public boolean isRespectRetryAfter() {
+        return respectRetryAfter;
+    }
+
+    public Duration getMaxRetryAfter() {
+        return maxRetryAfter;
+    }
+
+    /**
+     * Builder class
+     */
+    public static class Builder {
+        private int maxRetries = 3;
+        private Set<HttpMethod> retryableMethods =
+                EnumSet.of(HttpMethod.GET, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.OPTIONS);
+        private Set<Integer> retryableStatuses = new HashSet<>(Arrays.asList(408, 429, 500, 502, 503, 504));
+        private boolean retryTransportErrors = true;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private Jitter jitter = Jitter.FULL;
+        private RetryBudget budget;
+        private boolean respectRetryAfter = true;
+        private Duration maxRetryAfter = Duration.ofSeconds(30);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the highest number of retries of a call.
+         *
+         * @param maxRetries max retries, 0 to disable the retries
+         * @return Builder
+         */
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the methods that are retried. POST and PATCH are not idempotent and are not retried by default.
+         *
+         * @param methods retryable methods
+         * @return Builder
+         */
+        public Builder retryableMethods(HttpMethod... methods) {
+            this.retryableMethods = methods.length == 0
+                    ? EnumSet.noneOf(HttpMethod.class)
+                    : EnumSet.copyOf(Arrays.asList(methods));
+            return this;
+        }
+
+        /**
+         * Sets the response status codes that are retried.
+         *
+         * @param statuses retryable status codes
+         * @return Builder
+         */
+        public Builder retryableStatuses(Integer... statuses) {
+            this.retryableStatuses = new HashSet<>(Arrays.asList(statuses));
+            return this;
+        }
+
+        /**
+         * Sets whether connection errors and timeouts are retried.
+         *
+         * @param retryTransportErrors true to retry transport errors
+         * @return Builder
+         */
+        public Builder retryTransportErrors(boolean retryTransportErrors) {
+            this.retryTransportErrors = retryTransportErrors;
+            return this;
+        }
+
+        /**
+         * Sets the wait before the first retry.
+         *
+         * @param initialBackoff initial backoff
+         * @return Builder
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the longest wait between two attempts.
+         *
+         * @param maxBackoff max backoff
+         * @return Builder
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Sets how the wait is randomized.
+         *
+         * @param jitter Jitter
+         * @return Builder
+         */
+        public Builder jitter(Jitter jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Sets the budget shared by the calls of the policy.
+         *
+         * @param budget RetryBudget, null for no budget
+         * @return Builder
+         */
+        public Builder budget(RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * Sets whether the Retry-After header of a 429 or 503 response replaces the backoff.
+         *
+         * @param respectRetryAfter true to honour Retry-After
+         * @return Builder
+         */
+        public Builder respectRetryAfter(boolean respectRetryAfter) {
+            this.respectRetryAfter = respectRetryAfter;
+            return this;
+        }
+
+        /**
+         * Sets the longest Retry-After honoured; a longer one fails the call right away.
+         *
+         * @param maxRetryAfter max Retry-After
+         * @return Builder
+         */
+        public Builder maxRetryAfter(Duration maxRetryAfter) {
+            this.maxRetryAfter = maxRetryAfter;
+            return this;
+        }
+
+        /**
+         * Builds the policy.
+         *
+         * @return RetryPolicy
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.xiaofeng.webclient.service;
+
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * EndpointTemplate interface
+ * <p>
+ * A request prepared once by WebClientService.prepare: the method, the parsed URI template and
+ * the default headers are reused by every call, which only expands the variables and sets the body.
+ * The variables are given in the order of their first appearance in the template.
+ */
+public interface EndpointTemplate {
+    HttpMethod getHttpMethod();
+
+    String getUriTemplate();
+
+    List<String> getVariableNames();
+
+    URI expand(Object... uriVariables);
+
+    Mono<String> invoke(Object... uriVariables);
+
+    Mono<String> invokeWithBody(Object body, Object... uriVariables);
+
+    <T> Mono<T> retrieve(Class<T> responseType, Object... uriVariables);
+
+    <T> Mono<T> retrieveWithBody(Object body, Class<T> responseType, Object... uriVariables);
+}
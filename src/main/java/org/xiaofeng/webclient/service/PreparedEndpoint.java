@@ -0,0 +1,187 @@
+package org.xiaofeng.webclient.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriUtils;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PreparedEndpoint class
+ * <p>
+ * EndpointTemplate of WebClientServiceImpl. The template is split once into literals and variable
+ * slots, so expanding it is a single StringBuilder pass; a value made of unreserved characters only
+ * is appended without encoding. The request skips the URI template handling of WebClient and copies
+ * the default headers instead of running a headers consumer.
+ */
+final class PreparedEndpoint implements EndpointTemplate {
+    private final WebClientServiceImpl service;
+
+    private final HttpMethod httpMethod;
+
+    private final org.springframework.http.HttpMethod method;
+
+    private final String uriTemplate;
+
+    private final String[] literals;
+
+    private final int[] slots;
+
+    private final boolean[] inQuery;
+
+    private final List<String> variableNames;
+
+    private final int expandedLength;
+
+    private final HttpHeaders defaults;
+
+    PreparedEndpoint(WebClientServiceImpl service, HttpMethod httpMethod, String uriTemplate, HttpHeaders defaults) {
+        this.service = service;
+        this.httpMethod = httpMethod;
+        this.method = org.springframework.http.HttpMethod.valueOf(httpMethod.name());
+        this.uriTemplate = uriTemplate;
+
+        List<String> parsedLiterals = new ArrayList<>();
+        List<Integer> parsedSlots = new ArrayList<>();
+        List<Boolean> parsedInQuery = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int queryStart = uriTemplate.indexOf('?');
+        int position = 0;
+        int open;
+        while ((open = uriTemplate.indexOf('{', position)) >= 0) {
+            int close = uriTemplate.indexOf('}', open);
+            int next = uriTemplate.indexOf('{', open + 1);
+            if (close < 0 || close == open + 1 || (next >= 0 && next < close)) {
+                throw new IllegalArgumentException("Malformed URI template: " + uriTemplate);
+            }
+            String name = uriTemplate.substring(open + 1, close);
+            int index = names.indexOf(name);
+            if (index < 0) {
+                index = names.size();
+                names.add(name);
+            }
+            parsedLiterals.add(uriTemplate.substring(position, open));
+            parsedSlots.add(index);
+            parsedInQuery.add(queryStart >= 0 && open > queryStart);
+            position = close + 1;
+        }
+        if (uriTemplate.indexOf('}', position) >= 0) {
+            throw new IllegalArgumentException("Malformed URI template: " + uriTemplate);
+        }
+        parsedLiterals.add(uriTemplate.substring(position));
+
+        this.literals = parsedLiterals.toArray(new String[0]);
+        this.slots = parsedSlots.stream().mapToInt(Integer::intValue).toArray();
+        this.inQuery = new boolean[parsedInQuery.size()];
+        for (int i = 0; i < inQuery.length; i++) {
+            inQuery[i] = parsedInQuery.get(i);
+        }
+        this.variableNames = List.copyOf(names);
+        this.expandedLength = uriTemplate.length() + 16 * slots.length;
+
+        HttpHeaders copy = new HttpHeaders();
+        if (defaults != null) {
+            copy.addAll(defaults);
+        }
+        this.defaults = HttpHeaders.readOnlyHttpHeaders(copy);
+
+        // Validate once with placeholder values, so that a bad template fails here and not per call
+        Object[] placeholders = new Object[names.size()];
+        Arrays.fill(placeholders, "x");
+        URI sample = expand(placeholders);
+        if (!sample.isAbsolute() || sample.getHost() == null) {
+            throw new IllegalArgumentException("URI template must be absolute: " + uriTemplate);
+        }
+    }
+
+    @Override
+    public HttpMethod getHttpMethod() {
+        return httpMethod;
+    }
+
+    @Override
+    public String getUriTemplate() {
+        return uriTemplate;
+    }
+
+    @Override
+    public List<String> getVariableNames() {
+        return variableNames;
+    }
+
+    /**
+     * Expands the template.
+     *
+     * @param uriVariables The values of the variables, in the order of their first appearance.
+     * @return The URI.
+     */
+    @Override
+    public URI expand(Object... uriVariables) {
+        if (uriVariables.length != variableNames.size()) {
+            throw new IllegalArgumentException("Expected " + variableNames.size() + " URI variables "
+                    + variableNames + " but got " + uriVariables.length);
+        }
+        if (slots.length == 0) {
+            return URI.create(literals[0]);
+        }
+        StringBuilder uri = new StringBuilder(expandedLength);
+        for (int i = 0; i < slots.length; i++) {
+            uri.append(literals[i]);
+            appendEncoded(uri, String.valueOf(uriVariables[slots[i]]), inQuery[i]);
+        }
+        uri.append(literals[slots.length]);
+        return URI.create(uri.toString());
+    }
+
+    private static void appendEncoded(StringBuilder uri, String value, boolean query) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!isUnreserved(value.charAt(i))) {
+                // encodeQueryParam keeps '+', which servers decode as a space in a query
+                String encoded = query
+                        ? UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8).replace("+", "%2B")
+                        : UriUtils.encodePathSegment(value, StandardCharsets.UTF_8);
+                uri.append(encoded);
+                return;
+            }
+        }
+        uri.append(value);
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    @Override
+    public Mono<String> invoke(Object... uriVariables) {
+        return retrieve(String.class, uriVariables);
+    }
+
+    @Override
+    public Mono<String> invokeWithBody(Object body, Object... uriVariables) {
+        return retrieveWithBody(body, String.class, uriVariables);
+    }
+
+    @Override
+    public <T> Mono<T> retrieve(Class<T> responseType, Object... uriVariables) {
+        WebClient.RequestBodySpec spec = service.preparedSpec(method, expand(uriVariables), defaults);
+        return service.executeRequest(spec, httpMethod, responseType);
+    }
+
+    @Override
+    public <T> Mono<T> retrieveWithBody(Object body, Class<T> responseType, Object... uriVariables) {
+        WebClient.RequestBodySpec spec = service.preparedSpec(method, expand(uriVariables), defaults);
+        return service.executeRequest(service.withBody(spec, body), httpMethod, responseType);
+    }
+
+    @Override
+    public String toString() {
+        return httpMethod + " " + uriTemplate;
+    }
+}
@@ -1,18 +1,41 @@
 package org.xiaofeng.webclient.service;
 
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.reactive.function.BodyInserter;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.xiaofeng.webclient.batching.BatchCodec;
+import org.xiaofeng.webclient.batching.BatchingConfig;
+import org.xiaofeng.webclient.batching.MicroBatcher;
+import org.xiaofeng.webclient.bulk.BulkOptions;
+import org.xiaofeng.webclient.bulk.BulkRequest;
+import org.xiaofeng.webclient.bulk.BulkResult;
+import org.xiaofeng.webclient.config.RequestOptions;
 import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public interface WebClientService {
     WebClient.Builder builder();
 
+    WebClientService withOptions(RequestOptions options);
+
+    WebClientService forService(String name);
+
+    EndpointTemplate prepare(HttpMethod httpMethod, String uriTemplate, HttpHeaders defaults);
+
+    <I, O> MicroBatcher<I, O> batcher(BatchCodec<I, O> codec, BatchingConfig config);
+
     Mono<String> invokeApi(String uri,
                            HttpMethod httpMethod,
                            String request,
@@ -38,6 +61,92 @@ public interface WebClientService {
     Mono<String> invokeApi(String uri,
                            HttpMethod httpMethod);
 
+    //------------------Typed method--------------------------
+    <T> Mono<T> invokeApi(String uri,
+                          HttpMethod httpMethod,
+                          Object request,
+                          Consumer<HttpHeaders> headers,
+                          Class<T> responseType);
+
+    <T> Mono<T> invokeApi(String uri,
+                          HttpMethod httpMethod,
+                          Object request,
+                          Consumer<HttpHeaders> headers,
+                          ParameterizedTypeReference<T> responseType);
+
+    <T> Mono<T> invokeApi(String uri,
+                          HttpMethod httpMethod,
+                          Consumer<HttpHeaders> headers,
+                          Class<T> responseType);
+
+    <T> Mono<T> invokeApi(String uri,
+                          HttpMethod httpMethod,
+                          Consumer<HttpHeaders> headers,
+                          ParameterizedTypeReference<T> responseType);
+
+    <T> Mono<T> invokeApi(String uri,
+                          HttpMethod httpMethod,
+                          Class<T> responseType);
+
+    <T> Mono<T> invokeApi(String uri,
+                          HttpMethod httpMethod,
+                          ParameterizedTypeReference<T> responseType);
+
+    Mono<byte[]> invokeApiForBytes(String uri,
+                                   HttpMethod httpMethod,
+                                   Consumer<HttpHeaders> headers);
+
+    Mono<DataBuffer> invokeApiForBuffer(String uri,
+                                        HttpMethod httpMethod,
+                                        Consumer<HttpHeaders> headers);
+
+    //------------------Upload method--------------------------
+    Mono<String> invokeApi(String uri,
+                           HttpMethod httpMethod,
+                           Path file,
+                           Consumer<HttpHeaders> headers);
+
+    Mono<String> invokeApi(String uri,
+                           HttpMethod httpMethod,
+                           InputStream inputStream,
+                           Consumer<HttpHeaders> headers);
+
+    Mono<String> invokeApi(String uri,
+                           HttpMethod httpMethod,
+                           Flux<DataBuffer> body,
+                           Consumer<HttpHeaders> headers);
+
+    Mono<String> invokeApi(String uri,
+                           HttpMethod httpMethod,
+                           byte[] body,
+                           Consumer<HttpHeaders> headers);
+
+    //------------------Streaming method--------------------------
+    Flux<DataBuffer> stream(String uri,
+                            HttpMethod httpMethod,
+                            Consumer<HttpHeaders> headers);
+
+    <T> Flux<T> streamJson(String uri,
+                           HttpMethod httpMethod,
+                           Consumer<HttpHeaders> headers,
+                           Class<T> elementType);
+
+    <T> Flux<ServerSentEvent<T>> streamEvents(String uri,
+                                              Consumer<HttpHeaders> headers,
+                                              Class<T> dataType);
+
+    Mono<Path> downloadTo(String uri,
+                          HttpMethod httpMethod,
+                          Consumer<HttpHeaders> headers,
+                          Path target);
+
+    //------------------Bulk method--------------------------
+    Mono<List<BulkResult>> invokeAll(Collection<BulkRequest> requests,
+                                     BulkOptions options);
+
+    Flux<BulkResult> invokeStream(Flux<BulkRequest> requests,
+                                  BulkOptions options);
+
     //------------------Async method--------------------------
     CompletableFuture<String> invokeApiAsync(String uri,
                                              HttpMethod httpMethod,
@@ -63,4 +172,26 @@ public interface WebClientService {
 
     CompletableFuture<String> invokeApiAsync(String uri,
                                              HttpMethod httpMethod);
+
+    <T> CompletableFuture<T> invokeApiAsync(String uri,
+                                            HttpMethod httpMethod,
+                                            Object request,
+                                            Consumer<HttpHeaders> headers,
+                                            Class<T> responseType);
+
+    <T> CompletableFuture<T> invokeApiAsync(String uri,
+                                            HttpMethod httpMethod,
+                                            Object request,
+                                            Consumer<HttpHeaders> headers,
+                                            ParameterizedTypeReference<T> responseType);
+
+    <T> CompletableFuture<T> invokeApiAsync(String uri,
+                                            HttpMethod httpMethod,
+                                            Consumer<HttpHeaders> headers,
+                                            Class<T> responseType);
+
+    <T> CompletableFuture<T> invokeApiAsync(String uri,
+                                            HttpMethod httpMethod,
+                                            Consumer<HttpHeaders> headers,
+                                            ParameterizedTypeReference<T> responseType);
 }
@@ -3,37 +3,214 @@ package org.xiaofeng.webclient.service;
 import com.google.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.xiaofeng.webclient.async.FutureAdapter;
+import org.xiaofeng.webclient.batching.BatchCodec;
+import org.xiaofeng.webclient.batching.BatchingConfig;
+import org.xiaofeng.webclient.batching.MicroBatcher;
+import org.xiaofeng.webclient.body.BodyLimitConfig;
+import org.xiaofeng.webclient.body.BodyLimitExchangeFilter;
+import org.xiaofeng.webclient.body.ErrorBodies;
+import org.xiaofeng.webclient.bulk.BulkExecutor;
+import org.xiaofeng.webclient.bulk.BulkOptions;
+import org.xiaofeng.webclient.bulk.BulkRequest;
+import org.xiaofeng.webclient.bulk.BulkResult;
+import org.xiaofeng.webclient.cache.HttpResponseCache;
+import org.xiaofeng.webclient.coalescing.RequestCoalescer;
 import org.xiaofeng.webclient.common.ClientErrorException;
 import org.xiaofeng.webclient.common.ServerErrorException;
+import org.xiaofeng.webclient.config.RequestOptions;
+import org.xiaofeng.webclient.config.TimeoutConfig;
+import org.xiaofeng.webclient.hedging.Hedger;
+import org.xiaofeng.webclient.loadbalancer.ServiceRegistry;
+import org.xiaofeng.webclient.metrics.ClientMetrics;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.timeout.Deadline;
+import org.xiaofeng.webclient.timeout.TimeoutExchangeFilter;
 import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * WebClientServiceImpl class
  */
 public class WebClientServiceImpl implements WebClientService {
+    private static final int UPLOAD_BUFFER_SIZE = 64 * 1024;
+
     private final Logger logger = LoggerFactory.getLogger(WebClientServiceImpl.class);
 
     private final WebClient.Builder clientBuilder;
 
+    private final WebClient client;
+
+    private final HttpResponseCache responseCache;
+
+    private final RequestCoalescer coalescer;
+
+    private final RetryPolicy retryPolicy;
+
+    private final TimeoutConfig timeouts;
+
+    private final FutureAdapter futures;
+
+    private final BodyLimitConfig bodyLimits;
+
+    private final RequestOptions options;
+
+    private final String baseUri;
+
     /**
      * Constructor
      *
      * @param clientBuilder WebClient.Builder
+     * @param client        The shared WebClient built once by the module
+     * @param responseCache The HTTP response cache of GET requests
+     * @param coalescer     The coalescer of identical in-flight requests
+     * @param retryPolicy   The retry policy applied unless overridden per call
+     * @param timeouts      The timeouts, including the call timeout applied unless overridden per call
+     * @param futures       The bridge of the async methods
+     * @param bodyLimits    The memory limits of the response bodies
      */
     @Inject
-    public WebClientServiceImpl(WebClient.Builder clientBuilder) {
+    public WebClientServiceImpl(WebClient.Builder clientBuilder,
+                                WebClient client,
+                                HttpResponseCache responseCache,
+                                RequestCoalescer coalescer,
+                                RetryPolicy retryPolicy,
+                                TimeoutConfig timeouts,
+                                FutureAdapter futures,
+                                BodyLimitConfig bodyLimits) {
         this.clientBuilder = clientBuilder;
+        this.client = client;
+        this.responseCache = responseCache;
+        this.coalescer = coalescer;
+        this.retryPolicy = retryPolicy;
+        this.timeouts = timeouts;
+        this.futures = futures;
+        this.bodyLimits = bodyLimits;
+        this.options = RequestOptions.defaults();
+        this.baseUri = null;
+    }
+
+    /**
+     * Constructor of a view sharing the components of another service with different options.
+     *
+     * @param service The service to share the components of
+     * @param options The per-call overrides
+     * @param baseUri The base of the relative URIs, null for none
+     */
+    private WebClientServiceImpl(WebClientServiceImpl service, RequestOptions options, String baseUri) {
+        this.clientBuilder = service.clientBuilder;
+        this.client = service.client;
+        this.responseCache = service.responseCache;
+        this.coalescer = service.coalescer;
+        this.retryPolicy = service.retryPolicy;
+        this.timeouts = service.timeouts;
+        this.futures = service.futures;
+        this.bodyLimits = service.bodyLimits;
+        this.options = options;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Creates a view of the service applying per-call overrides.
+     *
+     * @param options The per-call overrides.
+     * @return A WebClientService sharing the client, cache and pools of this one.
+     */
+    @Override
+    public WebClientService withOptions(RequestOptions options) {
+        return new WebClientServiceImpl(this, options != null ? options : RequestOptions.defaults(), baseUri);
+    }
+
+    /**
+     * Creates a view of the service calling a load balanced logical service with relative URIs.
+     *
+     * @param name The name of the service, registered in the ServiceRegistry.
+     * @return A WebClientService resolving "/path" to lb://name/path.
+     */
+    @Override
+    public WebClientService forService(String name) {
+        return new WebClientServiceImpl(this, options, ServiceRegistry.SCHEME + "://" + name);
+    }
+
+    /**
+     * Prepares an endpoint called many times. The URI template is parsed and validated once,
+     * relative templates are resolved against the base of the view.
+     *
+     * @param httpMethod  The HTTP method of the endpoint.
+     * @param uriTemplate The URI template, with {name} variables in the path or the query.
+     * @param defaults    The headers sent with every call, may be null.
+     * @return EndpointTemplate
+     * @throws IllegalArgumentException If the template is malformed or not absolute.
+     */
+    @Override
+    public EndpointTemplate prepare(HttpMethod httpMethod, String uriTemplate, HttpHeaders defaults) {
+        return new PreparedEndpoint(this, httpMethod, resolve(uriTemplate), defaults);
+    }
+
+    /**
+     * Creates a micro-batcher sending the submitted items as bulk POST requests through this view.
+     *
+     * @param codec  The codec of the bulk requests and responses.
+     * @param config The batch sizes, window and limits.
+     * @param <I>    The type of the submitted items.
+     * @param <O>    The type of the item results.
+     * @return MicroBatcher
+     */
+    @Override
+    public <I, O> MicroBatcher<I, O> batcher(BatchCodec<I, O> codec, BatchingConfig config) {
+        return new MicroBatcher<>(this, codec, config, futures, options.getCompletionExecutor());
+    }
+
+    /**
+     * Resolves a relative URI against the base of the view. Absolute URIs are kept as is.
+     *
+     * @param uri The URI of the call.
+     * @return The absolute URI.
+     */
+    private String resolve(String uri) {
+        if (baseUri == null || uri.contains("://")) {
+            return uri;
+        }
+        return uri.startsWith("/") ? baseUri + uri : baseUri + "/" + uri;
     }
 
     /**
@@ -52,46 +229,217 @@ public class WebClientServiceImpl implements WebClientService {
      * @return WebClient
      */
     private WebClient client() {
-        return clientBuilder.build();
+        return client;
     }
 
     /**
      * Converts a Reactor Mono to a Java CompletableFuture.
+     * The future is completed on the completion executor, and cancelling it cancels the request.
      *
      * @param mono The Reactor Mono to be converted.
+     * @param <T>  The type of the result.
      * @return A CompletableFuture representing the result of the Mono.
      */
-    private CompletableFuture<String> toCompletableFuture(Mono<String> mono) {
-        CompletableFuture<String> future = new CompletableFuture<>();
-        mono.subscribe(future::complete, future::completeExceptionally);
-        return future;
+    private <T> CompletableFuture<T> toCompletableFuture(Mono<T> mono) {
+        return futures.toFuture(mono, options.getCompletionExecutor());
     }
 
     /**
-     * Executes a request using a WebClient and handles 4xx and 5xx errors.
+     * Retrieves the response of a request and maps 4xx and 5xx statuses to errors.
+     * The error body is captured up to the configured size, the rest is discarded unread.
      *
      * @param spec The WebClient.RequestHeadersSpec representing the request to be executed.
-     * @return A Mono representing the response body.
+     * @return The WebClient.ResponseSpec with the error mapping applied.
      */
-    private Mono<String> executeRequest(WebClient.RequestHeadersSpec<?> spec) {
+    private WebClient.ResponseSpec retrieve(WebClient.RequestHeadersSpec<?> spec) {
         return spec
                 .retrieve()
                 .onStatus(HttpStatusCode::is4xxClientError, response ->
-                        response.bodyToMono(String.class)
+                        ErrorBodies.capture(response, bodyLimits.getMaxErrorBodySize())
                                 .flatMap(errorBody ->
-                                        Mono.error(new ClientErrorException(errorBody)))
+                                        Mono.error(new ClientErrorException(response.statusCode().value(),
+                                                response.headers().asHttpHeaders(),
+                                                errorBody.getBody(),
+                                                errorBody.isTruncated())))
                 )
                 .onStatus(HttpStatusCode::is5xxServerError, response ->
-                        response.bodyToMono(String.class)
+                        ErrorBodies.capture(response, bodyLimits.getMaxErrorBodySize())
                                 .flatMap(errorBody ->
-                                        Mono.error(new ServerErrorException(errorBody)))
-                )
-                .bodyToMono(String.class)
-                .timeout(Duration.ofSeconds(10))
-                .retryWhen(Retry.backoff(3, Duration.ofSeconds(2)))
+                                        Mono.error(new ServerErrorException(response.statusCode().value(),
+                                                response.headers().asHttpHeaders(),
+                                                errorBody.getBody(),
+                                                errorBody.isTruncated())))
+                );
+    }
+
+    /**
+     * Gets the retry policy of the calls, the per-call one when set.
+     *
+     * @return RetryPolicy
+     */
+    private RetryPolicy retryPolicy() {
+        return options.getRetryPolicy() != null ? options.getRetryPolicy() : retryPolicy;
+    }
+
+    /**
+     * Gets the deadline of the calls, the per-call one when set.
+     *
+     * @return The call timeout, null for none.
+     */
+    private Duration callTimeout() {
+        return options.getTimeout() != null ? options.getTimeout() : timeouts.getCallTimeout();
+    }
+
+    /**
+     * Applies the retry, deadline and logging policies to a decoded response.
+     * Whether and when a failed attempt is retried is decided by the retry policy.
+     * The deadline covers every attempt and backoff, and is passed to the filters in the context.
+     *
+     * @param mono       The decoded response.
+     * @param httpMethod The HTTP method of the request.
+     * @param <T>        The type of the response body.
+     * @return A Mono with the policies applied.
+     */
+    private <T> Mono<T> withPolicies(Mono<T> mono, HttpMethod httpMethod) {
+        Mono<T> retried = mono.retryWhen(retryPolicy().toRetry(httpMethod));
+        Duration callTimeout = callTimeout();
+        if (callTimeout != null) {
+            retried = retried
+                    .timeout(callTimeout)
+                    .contextWrite(context -> Deadline.putIn(context, Deadline.after(callTimeout)));
+        }
+        return retried
                 .doOnError(error -> logger.error("Error occurred: {}", error.getMessage()));
     }
 
+    /**
+     * Executes a request using a WebClient and handles 4xx and 5xx errors.
+     *
+     * @param spec       The WebClient.RequestHeadersSpec representing the request to be executed.
+     * @param httpMethod The HTTP method of the request.
+     * @return A Mono representing the response body.
+     */
+    private Mono<String> executeRequest(WebClient.RequestHeadersSpec<?> spec, HttpMethod httpMethod) {
+        return executeRequest(spec, httpMethod, String.class);
+    }
+
+    /**
+     * Executes a request and decodes the response body with the configured codecs.
+     * Also used by the prepared endpoints.
+     *
+     * @param spec         The WebClient.RequestHeadersSpec representing the request to be executed.
+     * @param httpMethod   The HTTP method of the request.
+     * @param responseType The type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A Mono representing the decoded response body.
+     */
+    <T> Mono<T> executeRequest(WebClient.RequestHeadersSpec<?> spec,
+                               HttpMethod httpMethod,
+                               Class<T> responseType) {
+        return withPolicies(retrieve(spec).bodyToMono(responseType), httpMethod);
+    }
+
+    /**
+     * Executes a request and decodes the response body with the configured codecs.
+     *
+     * @param spec         The WebClient.RequestHeadersSpec representing the request to be executed.
+     * @param httpMethod   The HTTP method of the request.
+     * @param responseType The generic type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A Mono representing the decoded response body.
+     */
+    private <T> Mono<T> executeRequest(WebClient.RequestHeadersSpec<?> spec,
+                                       HttpMethod httpMethod,
+                                       ParameterizedTypeReference<T> responseType) {
+        return withPolicies(retrieve(spec).bodyToMono(responseType), httpMethod);
+    }
+
+    /**
+     * Executes a request and streams the decoded response body.
+     * The timeout and retry policies only cover the exchange up to the response headers,
+     * a failure after the first byte is propagated to the subscriber as is.
+     * The body has no read timeout, so it may stay idle as long as the server needs.
+     * The body is not buffered whole, so only the codec limit of a single element applies.
+     *
+     * @param spec        The WebClient.RequestHeadersSpec representing the request to be executed.
+     * @param httpMethod  The HTTP method of the request.
+     * @param elementType The generic type of the stream elements.
+     * @param <T>         The type of the stream elements.
+     * @return A Flux representing the response body.
+     */
+    private <T> Flux<T> executeStream(WebClient.RequestHeadersSpec<?> spec,
+                                      HttpMethod httpMethod,
+                                      ParameterizedTypeReference<T> elementType) {
+        spec.attribute(TimeoutExchangeFilter.STREAMING_ATTRIBUTE, true);
+        spec.attribute(BodyLimitExchangeFilter.MAX_IN_MEMORY_ATTRIBUTE, -1);
+        return withPolicies(retrieve(spec).toEntityFlux(elementType), httpMethod)
+                .flatMapMany(this::streamBody);
+    }
+
+    /**
+     * Gets the streamed body of a response entity.
+     *
+     * @param entity The response entity.
+     * @param <T>    The type of the stream elements.
+     * @return The body, or an empty Flux when the response has no body.
+     */
+    private <T> Flux<T> streamBody(ResponseEntity<Flux<T>> entity) {
+        Flux<T> body = entity.getBody();
+        return body != null ? body : Flux.empty();
+    }
+
+    /**
+     * Gets the WebClient.RequestBodySpec based on the provided URI and HTTP method.
+     *
+     * @param uri        The URI of the request.
+     * @param httpMethod The HTTP method of the request (e.g., POST, PUT, PATCH).
+     * @return The configured WebClient.RequestBodySpec.
+     * @throws IllegalArgumentException If the provided HTTP method is not supported.
+     */
+    private WebClient.RequestBodySpec getBodySpec(String uri, HttpMethod httpMethod) {
+        WebClient.RequestBodySpec bodySpec = switch (httpMethod) {
+            case POST -> client().post().uri(resolve(uri));
+            case PUT -> client().put().uri(resolve(uri));
+            case PATCH -> client().patch().uri(resolve(uri));
+            default -> throw new IllegalArgumentException("Unsupported request type: " + httpMethod);
+        };
+
+        bodySpec.attributes(this::applyOptions);
+        return bodySpec;
+    }
+
+    /**
+     * Gets the WebClient.RequestHeadersSpec of a request with an encoded body.
+     *
+     * @param uri        The URI of the request.
+     * @param httpMethod The HTTP method of the request (e.g., POST, PUT).
+     * @param request    The request body, a BodyInserter or a value encoded with the configured codecs.
+     * @param headers    A consumer to set additional HTTP headers.
+     * @return The configured WebClient.RequestHeadersSpec.
+     * @throws IllegalArgumentException If the provided HTTP method is not supported.
+     */
+    private WebClient.RequestHeadersSpec<?> getHeadersSpec(String uri,
+                                                           HttpMethod httpMethod,
+                                                           Object request,
+                                                           Consumer<HttpHeaders> headers) {
+        return withBody(getBodySpec(uri, httpMethod).headers(headers), request);
+    }
+
+    /**
+     * Sets the body of a request.
+     *
+     * @param bodySpec The WebClient.RequestBodySpec of the request.
+     * @param request  The request body, a BodyInserter or a value encoded with the configured codecs.
+     * @return The configured WebClient.RequestHeadersSpec.
+     */
+    @SuppressWarnings("unchecked")
+    WebClient.RequestHeadersSpec<?> withBody(WebClient.RequestBodySpec bodySpec, Object request) {
+        if (request instanceof BodyInserter<?, ?> bodyInserter) {
+            return bodySpec.body((BodyInserter<?, ? super ClientHttpRequest>) bodyInserter);
+        }
+        return bodySpec.bodyValue(request);
+    }
+
     /**
      * Executes a request with a body using a WebClient.
      *
@@ -106,17 +454,13 @@ public class WebClientServiceImpl implements WebClientService {
                                          HttpMethod httpMethod,
                                          String request,
                                          Consumer<HttpHeaders> headers) {
-        WebClient.RequestBodySpec bodySpec = switch (httpMethod) {
-            case POST -> client().post().uri(uri);
-            case PUT -> client().put().uri(uri);
-            default -> throw new IllegalArgumentException("Unsupported request type: " + httpMethod);
-        };
+        WebClient.RequestBodySpec bodySpec = getBodySpec(uri, httpMethod);
 
         WebClient.RequestHeadersSpec<?> headersSpec = bodySpec
                 .headers(headers)
                 .body(Mono.just(request), request.getClass());
 
-        return executeRequest(headersSpec);
+        return executeRequest(headersSpec, httpMethod);
     }
 
     /**
@@ -133,17 +477,13 @@ public class WebClientServiceImpl implements WebClientService {
                                          HttpMethod httpMethod,
                                          BodyInserter<?, ? super ClientHttpRequest> bodyInserter,
                                          Consumer<HttpHeaders> headers) {
-        WebClient.RequestBodySpec bodySpec = switch (httpMethod) {
-            case POST -> client().post().uri(uri);
-            case PUT -> client().put().uri(uri);
-            default -> throw new IllegalArgumentException("Unsupported request type: " + httpMethod);
-        };
+        WebClient.RequestBodySpec bodySpec = getBodySpec(uri, httpMethod);
 
         WebClient.RequestHeadersSpec<?> headersSpec = bodySpec
                 .headers(headers)
                 .body(bodyInserter);
 
-        return executeRequest(headersSpec);
+        return executeRequest(headersSpec, httpMethod);
     }
 
     /**
@@ -158,16 +498,12 @@ public class WebClientServiceImpl implements WebClientService {
     private Mono<String> executeWithBody(String uri,
                                          HttpMethod httpMethod,
                                          String request) {
-        WebClient.RequestBodySpec bodySpec = switch (httpMethod) {
-            case POST -> client().post().uri(uri);
-            case PUT -> client().put().uri(uri);
-            default -> throw new IllegalArgumentException("Unsupported request type: " + httpMethod);
-        };
+        WebClient.RequestBodySpec bodySpec = getBodySpec(uri, httpMethod);
 
         WebClient.RequestHeadersSpec<?> headersSpec = bodySpec
                 .body(Mono.just(request), request.getClass());
 
-        return executeRequest(headersSpec);
+        return executeRequest(headersSpec, httpMethod);
     }
 
     /**
@@ -182,38 +518,70 @@ public class WebClientServiceImpl implements WebClientService {
     private Mono<String> executeWithBody(String uri,
                                          HttpMethod httpMethod,
                                          BodyInserter<?, ? super ClientHttpRequest> bodyInserter) {
-        WebClient.RequestBodySpec bodySpec = switch (httpMethod) {
-            case POST -> client().post().uri(uri);
-            case PUT -> client().put().uri(uri);
-            default -> throw new IllegalArgumentException("Unsupported request type: " + httpMethod);
-        };
+        WebClient.RequestBodySpec bodySpec = getBodySpec(uri, httpMethod);
 
         WebClient.RequestHeadersSpec<?> headersSpec = bodySpec
                 .body(bodyInserter);
 
-        return executeRequest(headersSpec);
+        return executeRequest(headersSpec, httpMethod);
     }
 
     /**
      * Gets the WebClient.RequestHeadersSpec based on the provided URI and HTTP method.
      *
      * @param uri        The URI of the request.
-     * @param httpMethod The HTTP method of the request (e.g., POST, PUT, GET, DELETE).
+     * @param httpMethod The HTTP method of the request (e.g., POST, PUT, GET, DELETE, PATCH, OPTIONS).
      * @return The configured WebClient.RequestHeadersSpec.
      * @throws IllegalArgumentException If the provided HTTP method is not supported.
      */
     private WebClient.RequestHeadersSpec<?> getHeadersSpec(String uri, HttpMethod httpMethod) {
         WebClient.RequestHeadersSpec<?> headersSpec = switch (httpMethod) {
-            case POST -> client().post().uri(uri);
-            case PUT -> client().put().uri(uri);
-            case GET -> client().get().uri(uri);
-            case DELETE -> client().delete().uri(uri);
+            case POST -> client().post().uri(resolve(uri));
+            case PUT -> client().put().uri(resolve(uri));
+            case GET -> client().get().uri(resolve(uri));
+            case DELETE -> client().delete().uri(resolve(uri));
+            case PATCH -> client().patch().uri(resolve(uri));
+            case OPTIONS -> client().options().uri(resolve(uri));
             default -> throw new IllegalArgumentException("Unsupported request type: " + httpMethod);
         };
 
+        headersSpec.attributes(this::applyOptions);
         return headersSpec;
     }
 
+    /**
+     * Gets the WebClient.RequestBodySpec of a prepared endpoint. The URI is already expanded and
+     * encoded, so it does not go through the URI template handling of the client.
+     *
+     * @param method   The HTTP method of the request.
+     * @param uri      The expanded URI of the request.
+     * @param defaults The default headers of the endpoint.
+     * @return The configured WebClient.RequestBodySpec.
+     */
+    WebClient.RequestBodySpec preparedSpec(org.springframework.http.HttpMethod method, URI uri, HttpHeaders defaults) {
+        WebClient.RequestBodySpec bodySpec = client().method(method).uri(uri);
+        if (!defaults.isEmpty()) {
+            bodySpec.headers(headers -> headers.addAll(defaults));
+        }
+        bodySpec.attributes(this::applyOptions);
+        return bodySpec;
+    }
+
+    /**
+     * Passes the per-call options read by the exchange filters as request attributes.
+     *
+     * @param attributes The attributes of the request.
+     */
+    private void applyOptions(Map<String, Object> attributes) {
+        attributes.put(ClientMetrics.ATTEMPT_ATTRIBUTE, new AtomicInteger());
+        if (options.getHedging() != null) {
+            attributes.put(Hedger.HEDGING_ATTRIBUTE, options.getHedging());
+        }
+        if (options.getMaxInMemorySize() != null) {
+            attributes.put(BodyLimitExchangeFilter.MAX_IN_MEMORY_ATTRIBUTE, options.getMaxInMemorySize());
+        }
+    }
+
     /**
      * Executes a request without a request body using a WebClient.
      *
@@ -226,9 +594,25 @@ public class WebClientServiceImpl implements WebClientService {
     private Mono<String> executeWithoutBody(String uri,
                                             HttpMethod httpMethod,
                                             Consumer<HttpHeaders> headers) {
-        WebClient.RequestHeadersSpec<?> headersSpec = getHeadersSpec(uri, httpMethod);
-        WebClient.RequestHeadersSpec<?> requestHeadersSpec = headersSpec.headers(headers);
-        return executeRequest(requestHeadersSpec);
+        boolean cached = httpMethod == HttpMethod.GET && responseCache.isEnabled();
+        boolean coalesced = coalescer.isEnabled(httpMethod);
+        if (!cached && !coalesced) {
+            WebClient.RequestHeadersSpec<?> headersSpec = getHeadersSpec(uri, httpMethod);
+            WebClient.RequestHeadersSpec<?> requestHeadersSpec = headersSpec.headers(headers);
+            return executeRequest(requestHeadersSpec, httpMethod);
+        }
+
+        String target = resolve(uri);
+        HttpHeaders requestHeaders = new HttpHeaders();
+        headers.accept(requestHeaders);
+        Supplier<Mono<String>> exchange = () -> cached
+                ? executeCached(target, requestHeaders)
+                : executeRequest(getHeadersSpec(target, httpMethod)
+                        .headers(httpHeaders -> httpHeaders.addAll(requestHeaders)), httpMethod);
+        if (coalesced) {
+            return coalescer.execute(coalescer.key(httpMethod, target, requestHeaders), exchange);
+        }
+        return exchange.get();
     }
 
     /**
@@ -241,8 +625,25 @@ public class WebClientServiceImpl implements WebClientService {
      */
     private Mono<String> executeWithoutBody(String uri,
                                             HttpMethod httpMethod) {
-        WebClient.RequestHeadersSpec<?> headersSpec = getHeadersSpec(uri, httpMethod);
-        return executeRequest(headersSpec);
+        return executeWithoutBody(uri, httpMethod, headers -> {
+        });
+    }
+
+    /**
+     * Executes a GET request through the HTTP response cache.
+     *
+     * @param uri            The URI of the request.
+     * @param requestHeaders The headers of the request.
+     * @return A Mono representing the response body.
+     */
+    private Mono<String> executeCached(String uri, HttpHeaders requestHeaders) {
+        return responseCache.execute(uri, requestHeaders, conditional ->
+                withPolicies(retrieve(getHeadersSpec(uri, HttpMethod.GET)
+                        .headers(httpHeaders -> {
+                            httpHeaders.addAll(requestHeaders);
+                            conditional.accept(httpHeaders);
+                        }))
+                        .toEntity(String.class), HttpMethod.GET));
     }
 
     /**
@@ -337,6 +738,403 @@ public class WebClientServiceImpl implements WebClientService {
         return executeWithoutBody(uri, httpMethod);
     }
 
+    /**
+     * Invokes an API request with a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., POST, PUT).
+     * @param request      The request body, a BodyInserter or a value encoded with the configured codecs.
+     * @param headers      A consumer to set additional HTTP headers.
+     * @param responseType The type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A Mono representing the decoded response body.
+     */
+    @Override
+    public <T> Mono<T> invokeApi(String uri,
+                                 HttpMethod httpMethod,
+                                 Object request,
+                                 Consumer<HttpHeaders> headers,
+                                 Class<T> responseType) {
+        return executeRequest(getHeadersSpec(uri, httpMethod, request, headers), httpMethod, responseType);
+    }
+
+    /**
+     * Invokes an API request with a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., POST, PUT).
+     * @param request      The request body, a BodyInserter or a value encoded with the configured codecs.
+     * @param headers      A consumer to set additional HTTP headers.
+     * @param responseType The generic type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A Mono representing the decoded response body.
+     */
+    @Override
+    public <T> Mono<T> invokeApi(String uri,
+                                 HttpMethod httpMethod,
+                                 Object request,
+                                 Consumer<HttpHeaders> headers,
+                                 ParameterizedTypeReference<T> responseType) {
+        return executeRequest(getHeadersSpec(uri, httpMethod, request, headers), httpMethod, responseType);
+    }
+
+    /**
+     * Invokes an API request without a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., GET, DELETE).
+     * @param headers      A consumer to set additional HTTP headers.
+     * @param responseType The type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A Mono representing the decoded response body.
+     */
+    @Override
+    public <T> Mono<T> invokeApi(String uri,
+                                 HttpMethod httpMethod,
+                                 Consumer<HttpHeaders> headers,
+                                 Class<T> responseType) {
+        return executeRequest(getHeadersSpec(uri, httpMethod).headers(headers), httpMethod, responseType);
+    }
+
+    /**
+     * Invokes an API request without a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., GET, DELETE).
+     * @param headers      A consumer to set additional HTTP headers.
+     * @param responseType The generic type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A Mono representing the decoded response body.
+     */
+    @Override
+    public <T> Mono<T> invokeApi(String uri,
+                                 HttpMethod httpMethod,
+                                 Consumer<HttpHeaders> headers,
+                                 ParameterizedTypeReference<T> responseType) {
+        return executeRequest(getHeadersSpec(uri, httpMethod).headers(headers), httpMethod, responseType);
+    }
+
+    /**
+     * Invokes an API request without a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., GET, DELETE).
+     * @param responseType The type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A Mono representing the decoded response body.
+     */
+    @Override
+    public <T> Mono<T> invokeApi(String uri,
+                                 HttpMethod httpMethod,
+                                 Class<T> responseType) {
+        return executeRequest(getHeadersSpec(uri, httpMethod), httpMethod, responseType);
+    }
+
+    /**
+     * Invokes an API request without a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., GET, DELETE).
+     * @param responseType The generic type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A Mono representing the decoded response body.
+     */
+    @Override
+    public <T> Mono<T> invokeApi(String uri,
+                                 HttpMethod httpMethod,
+                                 ParameterizedTypeReference<T> responseType) {
+        return executeRequest(getHeadersSpec(uri, httpMethod), httpMethod, responseType);
+    }
+
+    /**
+     * Invokes an API request without a request body and returns the raw response bytes.
+     *
+     * @param uri        The URI of the API.
+     * @param httpMethod The HTTP method of the API request (e.g., GET, DELETE).
+     * @param headers    A consumer to set additional HTTP headers.
+     * @return A Mono representing the response body as bytes.
+     */
+    @Override
+    public Mono<byte[]> invokeApiForBytes(String uri,
+                                          HttpMethod httpMethod,
+                                          Consumer<HttpHeaders> headers) {
+        return executeRequest(getHeadersSpec(uri, httpMethod).headers(headers), httpMethod, byte[].class);
+    }
+
+    /**
+     * Invokes an API request without a request body and returns the response as a single DataBuffer.
+     * The caller owns the buffer and must release it with DataBufferUtils.release.
+     *
+     * @param uri        The URI of the API.
+     * @param httpMethod The HTTP method of the API request (e.g., GET, DELETE).
+     * @param headers    A consumer to set additional HTTP headers.
+     * @return A Mono representing the response body as a DataBuffer.
+     */
+    @Override
+    public Mono<DataBuffer> invokeApiForBuffer(String uri,
+                                               HttpMethod httpMethod,
+                                               Consumer<HttpHeaders> headers) {
+        return executeRequest(getHeadersSpec(uri, httpMethod).headers(headers), httpMethod, DataBuffer.class);
+    }
+
+    //------------------Upload method--------------------------
+    /**
+     * Uploads a file as the request body.
+     * The file is sent with a known Content-Length and is never loaded into the heap,
+     * reactor-netty transfers it with sendfile, or in chunks when the connection is encrypted.
+     *
+     * @param uri        The URI of the API.
+     * @param httpMethod The HTTP method of the API request (e.g., POST, PUT).
+     * @param file       The file to upload.
+     * @param headers    A consumer to set additional HTTP headers.
+     * @return A Mono representing the response body.
+     */
+    @Override
+    public Mono<String> invokeApi(String uri,
+                                  HttpMethod httpMethod,
+                                  Path file,
+                                  Consumer<HttpHeaders> headers) {
+        return executeWithBody(uri, httpMethod, BodyInserters.fromResource(new FileSystemResource(file)), headers);
+    }
+
+    /**
+     * Uploads the content of an InputStream as the request body using chunked transfer encoding.
+     * The stream is read in chunks on the bounded elastic scheduler and closed once fully sent.
+     * It can only be sent once, a retry after the body has been consumed fails instead of
+     * sending a partial body.
+     *
+     * @param uri         The URI of the API.
+     * @param httpMethod  The HTTP method of the API request (e.g., POST, PUT).
+     * @param inputStream The content to upload.
+     * @param headers     A consumer to set additional HTTP headers.
+     * @return A Mono representing the response body.
+     */
+    @Override
+    public Mono<String> invokeApi(String uri,
+                                  HttpMethod httpMethod,
+                                  InputStream inputStream,
+                                  Consumer<HttpHeaders> headers) {
+        AtomicBoolean consumed = new AtomicBoolean();
+        Flux<DataBuffer> body = Flux.defer(() -> {
+            if (!consumed.compareAndSet(false, true)) {
+                return Flux.error(new IllegalStateException("InputStream request body cannot be sent twice"));
+            }
+            return DataBufferUtils.readInputStream(() -> inputStream,
+                            DefaultDataBufferFactory.sharedInstance, UPLOAD_BUFFER_SIZE)
+                    .subscribeOn(Schedulers.boundedElastic());
+        });
+        return executeWithBody(uri, httpMethod, BodyInserters.fromDataBuffers(body), headers);
+    }
+
+    /**
+     * Uploads a stream of buffers as the request body.
+     * Chunked transfer encoding is used unless the headers set a Content-Length.
+     *
+     * @param uri        The URI of the API.
+     * @param httpMethod The HTTP method of the API request (e.g., POST, PUT).
+     * @param body       The buffers to upload, released once written.
+     * @param headers    A consumer to set additional HTTP headers.
+     * @return A Mono representing the response body.
+     */
+    @Override
+    public Mono<String> invokeApi(String uri,
+                                  HttpMethod httpMethod,
+                                  Flux<DataBuffer> body,
+                                  Consumer<HttpHeaders> headers) {
+        return executeWithBody(uri, httpMethod, BodyInserters.fromDataBuffers(body), headers);
+    }
+
+    /**
+     * Uploads a pre-encoded body, written as is with a known Content-Length.
+     *
+     * @param uri        The URI of the API.
+     * @param httpMethod The HTTP method of the API request (e.g., POST, PUT).
+     * @param body       The encoded request body.
+     * @param headers    A consumer to set additional HTTP headers.
+     * @return A Mono representing the response body.
+     */
+    @Override
+    public Mono<String> invokeApi(String uri,
+                                  HttpMethod httpMethod,
+                                  byte[] body,
+                                  Consumer<HttpHeaders> headers) {
+        return executeWithBody(uri, httpMethod, BodyInserters.fromValue(body), headers);
+    }
+
+    //------------------Streaming method--------------------------
+    /**
+     * Streams the raw response body of an API request without aggregating it.
+     * The caller must release every DataBuffer with DataBufferUtils.release.
+     *
+     * @param uri        The URI of the API.
+     * @param httpMethod The HTTP method of the API request (e.g., GET, DELETE).
+     * @param headers    A consumer to set additional HTTP headers.
+     * @return A Flux of the response body buffers.
+     */
+    @Override
+    public Flux<DataBuffer> stream(String uri,
+                                   HttpMethod httpMethod,
+                                   Consumer<HttpHeaders> headers) {
+        return executeStream(getHeadersSpec(uri, httpMethod).headers(headers), httpMethod,
+                ParameterizedTypeReference.forType(DataBuffer.class));
+    }
+
+    /**
+     * Streams a newline delimited JSON response, decoding one element per line.
+     *
+     * @param uri         The URI of the API.
+     * @param httpMethod  The HTTP method of the API request (e.g., GET, DELETE).
+     * @param headers     A consumer to set additional HTTP headers.
+     * @param elementType The type of the stream elements.
+     * @param <T>         The type of the stream elements.
+     * @return A Flux of the decoded elements.
+     */
+    @Override
+    public <T> Flux<T> streamJson(String uri,
+                                  HttpMethod httpMethod,
+                                  Consumer<HttpHeaders> headers,
+                                  Class<T> elementType) {
+        WebClient.RequestHeadersSpec<?> spec = getHeadersSpec(uri, httpMethod)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .headers(headers);
+        return executeStream(spec, httpMethod, ParameterizedTypeReference.forType(elementType));
+    }
+
+    /**
+     * Subscribes to a Server-Sent Events endpoint.
+     *
+     * @param uri      The URI of the API.
+     * @param headers  A consumer to set additional HTTP headers.
+     * @param dataType The type of the event data.
+     * @param <T>      The type of the event data.
+     * @return A Flux of the received events.
+     */
+    @Override
+    public <T> Flux<ServerSentEvent<T>> streamEvents(String uri,
+                                                     Consumer<HttpHeaders> headers,
+                                                     Class<T> dataType) {
+        WebClient.RequestHeadersSpec<?> spec = getHeadersSpec(uri, HttpMethod.GET)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .headers(headers);
+        ResolvableType eventType = ResolvableType.forClassWithGenerics(ServerSentEvent.class, dataType);
+        return executeStream(spec, HttpMethod.GET, ParameterizedTypeReference.forType(eventType.getType()));
+    }
+
+    /**
+     * Downloads the response body of an API request to a file.
+     * Buffers are written to an AsynchronousFileChannel and released as soon as they are written,
+     * so the memory used stays bounded whatever the size of the body.
+     * The body is written to a temporary file next to the target, moved over the target once complete,
+     * so an error status, a timeout or a failure mid-body leaves an existing target untouched.
+     *
+     * @param uri        The URI of the API.
+     * @param httpMethod The HTTP method of the API request (e.g., GET, DELETE).
+     * @param headers    A consumer to set additional HTTP headers.
+     * @param target     The file to write, created or replaced.
+     * @return A Mono emitting the target once the body has been fully written.
+     */
+    @Override
+    public Mono<Path> downloadTo(String uri,
+                                 HttpMethod httpMethod,
+                                 Consumer<HttpHeaders> headers,
+                                 Path target) {
+        return Mono.usingWhen(
+                Mono.fromCallable(() -> createPartFile(target)).subscribeOn(Schedulers.boundedElastic()),
+                part -> DataBufferUtils.write(stream(uri, httpMethod, headers), part, StandardOpenOption.WRITE)
+                        .then(Mono.fromCallable(() -> replace(part, target))
+                                .subscribeOn(Schedulers.boundedElastic())),
+                part -> Mono.fromCallable(() -> Files.deleteIfExists(part))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Creates the temporary file a download is written to, in the directory of its target
+     * so that it can be moved over the target atomically. Unlike Files.createTempFile, which
+     * makes it owner-only on POSIX, the file gets the permissions of the umask.
+     *
+     * @param target The file to download to.
+     * @return The created temporary file.
+     * @throws IOException If the file cannot be created.
+     */
+    private static Path createPartFile(Path target) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        while (true) {
+            Path part = absolute.resolveSibling("." + absolute.getFileName() + "."
+                    + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".part");
+            try {
+                Files.newByteChannel(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+                return part;
+            } catch (FileAlreadyExistsException e) {
+                // Name taken by a concurrent download of the same target, try another one
+            }
+        }
+    }
+
+    /**
+     * Moves a completed download over its target, atomically when the file system supports it.
+     * An existing target keeps its POSIX permissions.
+     *
+     * @param part   The completed temporary file.
+     * @param target The file to download to.
+     * @return The target.
+     * @throws IOException If the file cannot be moved.
+     */
+    private static Path replace(Path part, Path target) throws IOException {
+        if (Files.exists(target) && Files.getFileAttributeView(target, PosixFileAttributeView.class) != null) {
+            Files.setPosixFilePermissions(part, Files.getPosixFilePermissions(target));
+        }
+        try {
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target;
+    }
+
+    //------------------Bulk method--------------------------
+    /**
+     * Invokes many API requests with bounded concurrency and collects every result.
+     *
+     * @param requests The requests to execute.
+     * @param options  The global and per-host concurrency limits.
+     * @return A Mono of the results, in the order of the requests.
+     */
+    @Override
+    public Mono<List<BulkResult>> invokeAll(Collection<BulkRequest> requests,
+                                            BulkOptions options) {
+        // The requests are already in memory, so all of them may wait for their host
+        return new BulkExecutor(options, this::executeBulkRequest, this::resolve)
+                .execute(Flux.fromIterable(requests), Math.max(requests.size(), options.getMaxQueued()))
+                .collectSortedList(Comparator.comparingLong(BulkResult::getIndex));
+    }
+
+    /**
+     * Invokes many API requests with bounded concurrency.
+     * A failed request is reported as a failed result and does not stop the others.
+     *
+     * @param requests The requests to execute.
+     * @param options  The global and per-host concurrency limits.
+     * @return A Flux of the results, in completion order.
+     */
+    @Override
+    public Flux<BulkResult> invokeStream(Flux<BulkRequest> requests,
+                                         BulkOptions options) {
+        return new BulkExecutor(options, this::executeBulkRequest, this::resolve).execute(requests);
+    }
+
+    /**
+     * Executes one request of a bulk invocation.
+     *
+     * @param request The request.
+     * @return A Mono representing the response body.
+     */
+    private Mono<String> executeBulkRequest(BulkRequest request) {
+        if (request.getBody() != null) {
+            return executeWithBody(request.getUri(), request.getHttpMethod(), request.getBody(), request.getHeaders());
+        }
+        return executeWithoutBody(request.getUri(), request.getHttpMethod(), request.getHeaders());
+    }
+
     //------------------Async method--------------------------
     /**
      * Invokes an API request with a request body using a WebClient.
@@ -428,4 +1226,80 @@ public class WebClientServiceImpl implements WebClientService {
                                                     HttpMethod httpMethod) {
         return toCompletableFuture(executeWithoutBody(uri, httpMethod));
     }
+
+    /**
+     * Invokes an API request with a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., POST, PUT).
+     * @param request      The request body, a BodyInserter or a value encoded with the configured codecs.
+     * @param headers      A consumer to set additional HTTP headers.
+     * @param responseType The type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A CompletableFuture representing the decoded response body.
+     */
+    @Override
+    public <T> CompletableFuture<T> invokeApiAsync(String uri,
+                                                   HttpMethod httpMethod,
+                                                   Object request,
+                                                   Consumer<HttpHeaders> headers,
+                                                   Class<T> responseType) {
+        return toCompletableFuture(invokeApi(uri, httpMethod, request, headers, responseType));
+    }
+
+    /**
+     * Invokes an API request with a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., POST, PUT).
+     * @param request      The request body, a BodyInserter or a value encoded with the configured codecs.
+     * @param headers      A consumer to set additional HTTP headers.
+     * @param responseType The generic type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A CompletableFuture representing the decoded response body.
+     */
+    @Override
+    public <T> CompletableFuture<T> invokeApiAsync(String uri,
+                                                   HttpMethod httpMethod,
+                                                   Object request,
+                                                   Consumer<HttpHeaders> headers,
+                                                   ParameterizedTypeReference<T> responseType) {
+        return toCompletableFuture(invokeApi(uri, httpMethod, request, headers, responseType));
+    }
+
+    /**
+     * Invokes an API request without a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., GET, DELETE).
+     * @param headers      A consumer to set additional HTTP headers.
+     * @param responseType The type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A CompletableFuture representing the decoded response body.
+     */
+    @Override
+    public <T> CompletableFuture<T> invokeApiAsync(String uri,
+                                                   HttpMethod httpMethod,
+                                                   Consumer<HttpHeaders> headers,
+                                                   Class<T> responseType) {
+        return toCompletableFuture(invokeApi(uri, httpMethod, headers, responseType));
+    }
+
+    /**
+     * Invokes an API request without a request body and decodes the response.
+     *
+     * @param uri          The URI of the API.
+     * @param httpMethod   The HTTP method of the API request (e.g., GET, DELETE).
+     * @param headers      A consumer to set additional HTTP headers.
+     * @param responseType The generic type of the response body.
+     * @param <T>          The type of the response body.
+     * @return A CompletableFuture representing the decoded response body.
+     */
+    @Override
+    public <T> CompletableFuture<T> invokeApiAsync(String uri,
+                                                   HttpMethod httpMethod,
+                                                   Consumer<HttpHeaders> headers,
+                                                   ParameterizedTypeReference<T> responseType) {
+        return toCompletableFuture(invokeApi(uri, httpMethod, headers, responseType));
+    }
 }
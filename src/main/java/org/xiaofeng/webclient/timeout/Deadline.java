@@ -0,0 +1,68 @@
+package org.xiaofeng.webclient.timeout;
+
+import reactor.util.context.Context;
+
+import java.time.Duration;
+
+/**
+ * Deadline class
+ * <p>
+ * Point in time by which a call must complete. The deadline of a call travels in the Reactor
+ * context, where the retry policy and the exchange filters read it.
+ */
+public final class Deadline {
+    /**
+     * Key of the deadline in the Reactor context.
+     */
+    public static final String CONTEXT_KEY = Deadline.class.getName();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates the deadline of a call starting now.
+     *
+     * @param timeout The time the call may take.
+     * @return Deadline
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Stores a deadline in a context, keeping the deadline already stored when it is earlier.
+     *
+     * @param context  The context.
+     * @param deadline The deadline.
+     * @return The updated context.
+     */
+    public static Context putIn(Context context, Deadline deadline) {
+        Deadline current = context.getOrDefault(CONTEXT_KEY, null);
+        if (current != null && current.deadlineNanos - deadline.deadlineNanos <= 0) {
+            return context;
+        }
+        return context.put(CONTEXT_KEY, deadline);
+    }
+
+    /**
+     * Gets the time left before the deadline.
+     *
+     * @return The remaining time, zero once expired.
+     */
+    public Duration remaining() {
+        long remaining = deadlineNanos - System.nanoTime();
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * Checks whether the deadline has passed.
+     *
+     * @return true once expired.
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+}
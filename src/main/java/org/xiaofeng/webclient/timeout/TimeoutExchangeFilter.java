@@ -0,0 +1,76 @@
+package org.xiaofeng.webclient.timeout;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.xiaofeng.webclient.config.TimeoutConfig;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * TimeoutExchangeFilter class
+ * <p>
+ * Applies the per-host read timeout and the response timeout to each attempt, and sends the time
+ * left before the deadline of the call to the server when a deadline header is configured. An
+ * attempt starting after the deadline fails without being sent. Streamed responses have no read
+ * timeout, since their body may stay idle for longer; the call deadline still bounds the wait for
+ * their headers.
+ */
+public class TimeoutExchangeFilter implements ExchangeFilterFunction {
+    /**
+     * Request attribute marking a call whose response body is streamed, a Boolean.
+     */
+    public static final String STREAMING_ATTRIBUTE = TimeoutExchangeFilter.class.getName() + ".streaming";
+
+    private final TimeoutConfig config;
+
+    /**
+     * Constructor
+     *
+     * @param config TimeoutConfig
+     */
+    public TimeoutExchangeFilter(TimeoutConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.CONTEXT_KEY, null);
+            if (deadline != null && deadline.isExpired()) {
+                return Mono.error(new TimeoutException("Deadline exceeded before " + request.url() + " was sent"));
+            }
+
+            String host = request.url().getHost();
+            boolean streaming = request.attribute(STREAMING_ATTRIBUTE).map(Boolean.TRUE::equals).orElse(false);
+            Duration readTimeout = config.getHostReadTimeouts().get(host);
+            Duration responseTimeout = config.getHostResponseTimeouts().getOrDefault(host, config.getResponseTimeout());
+            boolean sendDeadline = deadline != null && config.getDeadlineHeader() != null;
+
+            ClientRequest effectiveRequest = request;
+            if (readTimeout != null || streaming || sendDeadline) {
+                ClientRequest.Builder builder = ClientRequest.from(request);
+                if (readTimeout != null || streaming) {
+                    // A null response timeout replaces the one of the HttpClient for this request only
+                    Duration effectiveReadTimeout = streaming ? null : readTimeout;
+                    builder.httpRequest(httpRequest -> {
+                        HttpClientRequest nativeRequest = httpRequest.getNativeRequest();
+                        nativeRequest.responseTimeout(effectiveReadTimeout);
+                    });
+                }
+                if (sendDeadline) {
+                    builder.headers(headers -> headers.set(config.getDeadlineHeader(),
+                            Long.toString(Math.max(1, deadline.remaining().toMillis()))));
+                }
+                effectiveRequest = builder.build();
+            }
+
+            Mono<ClientResponse> exchange = next.exchange(effectiveRequest);
+            return responseTimeout != null ? exchange.timeout(responseTimeout) : exchange;
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package org.xiaofeng.webclient.type;
+
+/**
+ * HttpProtocol enum
+ */
+public enum HttpProtocol {
+    /**
+     * HTTP/1.1, one request at a time per connection.
+     */
+    HTTP11,
+    /**
+     * HTTP/2 over TLS negotiated with ALPN, falling back to HTTP/1.1 when the server does not support it.
+     */
+    H2,
+    /**
+     * HTTP/2 over cleartext with prior knowledge.
+     */
+    H2C
+}
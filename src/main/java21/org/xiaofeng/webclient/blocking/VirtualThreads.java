@@ -0,0 +1,28 @@
+package org.xiaofeng.webclient.blocking;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * VirtualThreads class
+ * <p>
+ * Java 21 variant, packaged under META-INF/versions/21 of the multi-release jar.
+ */
+final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static boolean isVirtual(Thread thread) {
+        return thread.isVirtual();
+    }
+
+    static ExecutorService newExecutor(BlockingConfig config) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                .name(config.getThreadNamePrefix() + "-", 0)
+                .factory());
+    }
+}
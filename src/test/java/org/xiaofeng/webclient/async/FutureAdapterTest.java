@@ -0,0 +1,97 @@
+package org.xiaofeng.webclient.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FutureAdapterTest {
+    private final ExecutorService completion = Executors.newSingleThreadExecutor(runnable ->
+            new Thread(runnable, "test-completion"));
+
+    private final FutureAdapter adapter = new FutureAdapter(AsyncConfig.builder()
+            .completionExecutor(completion)
+            .build());
+
+    @AfterEach
+    void tearDown() {
+        completion.shutdownNow();
+    }
+
+    @Test
+    void cancelDisposesSubscription() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CompletableFuture<String> future = adapter.toFuture(Mono.<String>never().doOnCancel(cancelled::countDown), null);
+
+        assertTrue(future.cancel(true));
+
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+        assertThrows(CancellationException.class, future::join);
+    }
+
+    @Test
+    void orTimeoutDisposesSubscription() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CompletableFuture<String> future = adapter.toFuture(Mono.<String>never().doOnCancel(cancelled::countDown), null)
+                .orTimeout(100, TimeUnit.MILLISECONDS);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancellingDependentStageKeepsSubscription() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CompletableFuture<String> future = adapter.toFuture(Mono.<String>never().doOnCancel(cancelled::countDown), null);
+
+        future.thenApply(String::length).cancel(true);
+
+        assertFalse(cancelled.await(100, TimeUnit.MILLISECONDS));
+        assertFalse(future.isDone());
+        future.cancel(true);
+    }
+
+    @Test
+    void completesOnCompletionExecutor() throws Exception {
+        CompletableFuture<String> thread = adapter.toFuture(Mono.delay(Duration.ofMillis(10)).thenReturn("ok"), null)
+                .thenApply(value -> Thread.currentThread().getName());
+
+        assertEquals("test-completion", thread.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void perCallExecutorWinsOverConfigured() throws Exception {
+        CompletableFuture<String> thread = adapter.toFuture(Mono.just("ok"), FutureAdapter.SAME_THREAD)
+                .thenApply(value -> Thread.currentThread().getName());
+
+        assertEquals(Thread.currentThread().getName(), thread.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void emptyCompletesWithNullAndErrorCompletesExceptionally() throws Exception {
+        assertNull(adapter.toFuture(Mono.empty(), null).get(1, TimeUnit.SECONDS));
+
+        IllegalStateException failure = new IllegalStateException("failed");
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> adapter.toFuture(Mono.error(failure), null).get(1, TimeUnit.SECONDS));
+        assertEquals(failure, error.getCause());
+    }
+}
@@ -0,0 +1,170 @@
+package org.xiaofeng.webclient.batching;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.xiaofeng.webclient.async.AsyncConfig;
+import org.xiaofeng.webclient.async.FutureAdapter;
+import org.xiaofeng.webclient.common.BatchQueueFullException;
+import org.xiaofeng.webclient.service.WebClientService;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MicroBatcherTest {
+    private static final String URI = "http://api/bulk";
+
+    private static final BatchCodec<String, String> CODEC = new BatchCodec<>() {
+        @Override
+        public Object encode(List<String> items) {
+            return String.join(",", items);
+        }
+
+        @Override
+        public List<BatchItemResult<String>> decode(String responseBody, List<String> items) {
+            return Arrays.stream(responseBody.split(","))
+                    .map(BatchItemResult::success)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public void headers(HttpHeaders headers) {
+            headers.setContentType(MediaType.TEXT_PLAIN);
+        }
+    };
+
+    private final List<String> batches = new CopyOnWriteArrayList<>();
+
+    private MicroBatcher<String, String> batcher(BatchingConfig config, Function<String, Mono<String>> server) {
+        WebClientService service = (WebClientService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebClientService.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("invokeApi") || args.length != 5) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    String body = (String) args[2];
+                    batches.add(body);
+                    return server.apply(body);
+                });
+        return new MicroBatcher<>(service, CODEC, config, new FutureAdapter(AsyncConfig.defaults()), null);
+    }
+
+    private static Mono<String> upperCase(String body) {
+        return Mono.just(body.toUpperCase());
+    }
+
+    @Test
+    void sendsBatchWhenFull() {
+        MicroBatcher<String, String> batcher = batcher(BatchingConfig.builder()
+                .maxBatchSize(3)
+                .maxDelay(Duration.ofSeconds(10))
+                .build(), MicroBatcherTest::upperCase);
+
+        List<String> results = Flux.just("a", "b", "c")
+                .flatMapSequential(item -> batcher.submit(URI, item))
+                .collectList()
+                .block(Duration.ofSeconds(1));
+
+        assertEquals(List.of("A", "B", "C"), results);
+        assertEquals(List.of("a,b,c"), batches);
+        assertEquals(0, batcher.getQueuedItems());
+    }
+
+    @Test
+    void sendsPartialBatchAfterMaxDelay() {
+        MicroBatcher<String, String> batcher = batcher(BatchingConfig.builder()
+                .maxBatchSize(100)
+                .maxDelay(Duration.ofMillis(100))
+                .build(), MicroBatcherTest::upperCase);
+
+        long start = System.nanoTime();
+        List<String> results = Flux.just("a", "b")
+                .flatMapSequential(item -> batcher.submit(URI, item))
+                .collectList()
+                .block(Duration.ofSeconds(1));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(List.of("A", "B"), results);
+        assertEquals(List.of("a,b"), batches);
+        assertTrue(elapsed >= 90, "elapsed " + elapsed);
+    }
+
+    @Test
+    void cancelledItemIsDroppedFromBatch() {
+        MicroBatcher<String, String> batcher = batcher(BatchingConfig.builder()
+                .maxBatchSize(100)
+                .maxDelay(Duration.ofMillis(100))
+                .build(), MicroBatcherTest::upperCase);
+
+        Mono<String> a = batcher.submit(URI, "a").cache();
+        a.subscribe();
+        Disposable b = batcher.submit(URI, "b").subscribe();
+        Mono<String> c = batcher.submit(URI, "c").cache();
+        c.subscribe();
+        b.dispose();
+
+        assertEquals("A", a.block(Duration.ofSeconds(1)));
+        assertEquals("C", c.block(Duration.ofSeconds(1)));
+        assertEquals(List.of("a,c"), batches);
+        assertEquals(0, batcher.getQueuedItems());
+    }
+
+    @Test
+    void cancelledBatchIsNotSent() throws InterruptedException {
+        MicroBatcher<String, String> batcher = batcher(BatchingConfig.builder()
+                .maxDelay(Duration.ofMillis(50))
+                .build(), MicroBatcherTest::upperCase);
+
+        batcher.submit(URI, "a").subscribe().dispose();
+        // The item leaves the queue when its batch is sealed by the timer
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batcher.getQueuedItems() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(List.of(), batches);
+        assertEquals(0, batcher.getQueuedItems());
+    }
+
+    @Test
+    void failedBulkRequestFailsEveryItem() {
+        MicroBatcher<String, String> batcher = batcher(BatchingConfig.builder()
+                .maxBatchSize(2)
+                .build(), body -> Mono.error(new IllegalStateException("bulk failed")));
+
+        List<String> errors = Flux.just("a", "b")
+                .flatMap(item -> batcher.submit(URI, item)
+                        .onErrorResume(error -> Mono.just(error.getMessage())))
+                .collectList()
+                .block(Duration.ofSeconds(1));
+
+        assertEquals(List.of("bulk failed", "bulk failed"), errors);
+    }
+
+    @Test
+    void rejectsItemsOnceQueueIsFull() {
+        MicroBatcher<String, String> batcher = batcher(BatchingConfig.builder()
+                .maxDelay(Duration.ofSeconds(10))
+                .maxQueueSize(2)
+                .build(), MicroBatcherTest::upperCase);
+        batcher.submit(URI, "a").subscribe();
+        batcher.submit(URI, "b").subscribe();
+
+        assertThrows(BatchQueueFullException.class, () -> batcher.submit(URI, "c").block(Duration.ofSeconds(1)));
+        batcher.close();
+        assertEquals(List.of("a,b"), batches);
+    }
+}
@@ -0,0 +1,96 @@
+package org.xiaofeng.webclient.blocking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BlockingExecutorTest {
+    @Test
+    void platformPoolRejectsBeyondQueue() throws InterruptedException {
+        BlockingConfig config = BlockingConfig.builder()
+                .virtualThreads(false)
+                .maxPlatformThreads(1)
+                .maxQueuedTasks(1)
+                .build();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (BlockingExecutor executor = new BlockingExecutor(config)) {
+            assertFalse(executor.isVirtual());
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+            executor.execute(() -> { });
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void java17VariantReturnsPlatformPool() throws InterruptedException {
+        ExecutorService executor = VirtualThreads.newExecutor(BlockingConfig.builder()
+                .threadNamePrefix("test-blocking")
+                .build());
+        CountDownLatch ran = new CountDownLatch(1);
+        String[] name = new String[1];
+        executor.execute(() -> {
+            name[0] = Thread.currentThread().getName();
+            ran.countDown();
+        });
+
+        assertTrue(ran.await(1, TimeUnit.SECONDS));
+        assertTrue(name[0].startsWith("test-blocking-"));
+        executor.shutdown();
+    }
+
+    @Test
+    void java21VariantRunsTasksOnVirtualThreads() throws InterruptedException {
+        // Only on the classpath of the testJava21 task
+        assumeTrue(VirtualThreads.isSupported(), "Java 17 variant of VirtualThreads");
+        CountDownLatch ran = new CountDownLatch(1);
+        boolean[] virtual = new boolean[2];
+        String[] name = new String[1];
+        try (BlockingExecutor executor = new BlockingExecutor(BlockingConfig.builder()
+                .threadNamePrefix("test-virtual")
+                .build())) {
+            assertTrue(executor.isVirtual());
+            executor.execute(() -> {
+                Thread thread = Thread.currentThread();
+                virtual[0] = VirtualThreads.isVirtual(thread);
+                virtual[1] = BlockingExecutor.isNonBlocking(thread);
+                name[0] = thread.getName();
+                ran.countDown();
+            });
+
+            assertTrue(ran.await(1, TimeUnit.SECONDS));
+        }
+        assertTrue(virtual[0]);
+        // A virtual thread may block, even when its carrier is a ForkJoinPool thread
+        assertFalse(virtual[1]);
+        assertTrue(name[0].startsWith("test-virtual-"));
+    }
+
+    @Test
+    void rejectsInvalidQueueSize() {
+        assertThrows(IllegalArgumentException.class, () -> BlockingConfig.builder().maxQueuedTasks(0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
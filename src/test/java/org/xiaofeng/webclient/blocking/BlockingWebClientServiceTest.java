@@ -0,0 +1,98 @@
+package org.xiaofeng.webclient.blocking;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockingWebClientServiceTest {
+    private DisposableServer server;
+
+    private Injector injector;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> response.sendString(Mono.just("ok")))
+                .bindNow();
+        injector = Guice.createInjector(new WebClientModule());
+    }
+
+    @AfterEach
+    void tearDown() {
+        injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        server.disposeNow();
+    }
+
+    private BlockingWebClientService service() {
+        return injector.getInstance(BlockingWebClientService.class);
+    }
+
+    private String uri() {
+        return "http://127.0.0.1:" + server.port() + "/hello";
+    }
+
+    private static void assertRefused(Throwable error) {
+        assertInstanceOf(IllegalStateException.class, error);
+        // Reactor refuses block() on these threads too, the facade must refuse first
+        assertTrue(error.getMessage().contains("non-blocking thread"), error.getMessage());
+    }
+
+    @Test
+    void blockingCallOnNettyEventLoopIsRefused() throws Exception {
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> group
+                    .submit(() -> service().invokeApi(uri(), HttpMethod.GET))
+                    .get(5, TimeUnit.SECONDS));
+
+            assertRefused(error.getCause());
+        } finally {
+            group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void blockingCallOnParallelSchedulerIsRefused() {
+        Throwable error = assertThrows(RuntimeException.class, () -> Mono
+                .fromCallable(() -> service().invokeApi(uri(), HttpMethod.GET))
+                .subscribeOn(Schedulers.parallel())
+                .block(Duration.ofSeconds(5)));
+
+        assertRefused(error);
+    }
+
+    @Test
+    void blockingCallOnCallerThreadSucceeds() {
+        assertEquals("ok", service().invokeApi(uri(), HttpMethod.GET));
+    }
+
+    @Test
+    void submittedCallRunsOnTheBlockingExecutor() throws Exception {
+        String body = service().submit(blocking -> blocking.invokeApi(uri(), HttpMethod.GET))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("ok", body);
+    }
+}
@@ -0,0 +1,120 @@
+package org.xiaofeng.webclient.body;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BodyLimitExchangeFilterTest {
+    private static final int CHUNK = 100;
+
+    private final AtomicInteger chunksSent = new AtomicInteger();
+
+    private final BodyLimitExchangeFilter filter = new BodyLimitExchangeFilter(BodyLimitConfig.builder()
+            .maxInMemorySize(1_000)
+            .hostMaxInMemorySize("big", 10_000)
+            .build());
+
+    private ExchangeFunction respond(int chunks) {
+        return request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body(Flux.range(0, chunks)
+                        .doOnNext(i -> chunksSent.incrementAndGet())
+                        .map(i -> (DataBuffer) DefaultDataBufferFactory.sharedInstance.wrap(new byte[CHUNK])))
+                .build());
+    }
+
+    private static ClientRequest request(String host) {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://" + host + "/data")).build();
+    }
+
+    private Integer bodySize(ClientRequest request, int chunks) {
+        return filter.filter(request, respond(chunks))
+                .flatMap(response -> response.bodyToMono(byte[].class))
+                .map(body -> body.length)
+                .block(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void bodyWithinLimitIsRead() {
+        assertEquals(1_000, bodySize(request("api"), 10));
+    }
+
+    @Test
+    void bodyPastLimitFailsEarly() {
+        assertThrows(DataBufferLimitException.class, () -> bodySize(request("api"), 1_000));
+
+        assertEquals(11, chunksSent.get());
+    }
+
+    @Test
+    void hostLimitOverridesDefault() {
+        assertEquals(5_000, bodySize(request("big"), 50));
+        assertThrows(DataBufferLimitException.class, () -> bodySize(request("big"), 101));
+    }
+
+    @Test
+    void callLimitOverridesHost() {
+        ClientRequest small = ClientRequest.from(request("big"))
+                .attribute(BodyLimitExchangeFilter.MAX_IN_MEMORY_ATTRIBUTE, 200)
+                .build();
+        assertThrows(DataBufferLimitException.class, () -> bodySize(small, 3));
+
+        ClientRequest unlimited = ClientRequest.from(request("api"))
+                .attribute(BodyLimitExchangeFilter.MAX_IN_MEMORY_ATTRIBUTE, -1)
+                .build();
+        assertEquals(50_000, bodySize(unlimited, 500));
+    }
+
+    @Test
+    void errorBodyIsCapturedUpToLimit() {
+        ErrorBodies.Captured captured = ErrorBodies.capture(ClientResponse.create(HttpStatus.BAD_REQUEST)
+                .body("bad request: field is missing")
+                .build(), 11).block(Duration.ofSeconds(1));
+
+        assertEquals("bad request...", captured.getBody());
+        assertTrue(captured.isTruncated());
+    }
+
+    @Test
+    void errorBodyWithinLimitIsKeptWhole() {
+        ErrorBodies.Captured exact = ErrorBodies.capture(ClientResponse.create(HttpStatus.BAD_REQUEST)
+                .body("bad request")
+                .build(), "bad request".getBytes(StandardCharsets.UTF_8).length).block(Duration.ofSeconds(1));
+        assertEquals("bad request", exact.getBody());
+        assertFalse(exact.isTruncated());
+
+        ErrorBodies.Captured empty = ErrorBodies.capture(ClientResponse.create(HttpStatus.NOT_FOUND).build(), 10)
+                .block(Duration.ofSeconds(1));
+        assertEquals("", empty.getBody());
+        assertFalse(empty.isTruncated());
+    }
+
+    @Test
+    void errorBodyReadingStopsAtLimit() {
+        ErrorBodies.Captured captured = ErrorBodies.capture(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Flux.range(0, 1_000)
+                        .doOnNext(i -> chunksSent.incrementAndGet())
+                        .map(i -> (DataBuffer) DefaultDataBufferFactory.sharedInstance.wrap(new byte[CHUNK])))
+                .build(), 250).block(Duration.ofSeconds(1));
+
+        assertTrue(captured.isTruncated());
+        assertEquals(3, chunksSent.get());
+    }
+}
@@ -0,0 +1,195 @@
+package org.xiaofeng.webclient.bulk;
+
+import org.junit.jupiter.api.Test;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkExecutorTest {
+    private final Map<String, AtomicInteger> started = new ConcurrentHashMap<>();
+
+    @Test
+    void slowHostDoesNotStallOtherHosts() {
+        Function<BulkRequest, Mono<String>> invoker = request -> {
+            boolean slow = request.getUri().startsWith("http://slow");
+            started.computeIfAbsent(slow ? "slow" : "fast", host -> new AtomicInteger()).incrementAndGet();
+            return slow ? Mono.never() : Mono.just("ok");
+        };
+        BulkOptions options = BulkOptions.builder()
+                .maxConcurrency(8)
+                .maxConcurrencyPerHost(2)
+                .maxQueued(512)
+                .build();
+        Flux<BulkRequest> requests = Flux.concat(
+                Flux.range(0, 300).map(i -> BulkRequest.of("http://slow/items/" + i, HttpMethod.GET)),
+                Flux.range(0, 5).map(i -> BulkRequest.of("http://fast/items/" + i, HttpMethod.GET)));
+
+        List<BulkResult> fast = new BulkExecutor(options, invoker).execute(requests)
+                .take(5)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(5, fast.size());
+        assertTrue(fast.stream().allMatch(result -> result.getRequest().getUri().startsWith("http://fast")));
+        // Cancelling the stream must not start the requests that were waiting for the slow host
+        assertEquals(2, started.get("slow").get());
+    }
+
+    @Test
+    void readAheadIsBoundedByMaxQueued() {
+        AtomicInteger read = new AtomicInteger();
+        BulkOptions options = BulkOptions.builder()
+                .maxConcurrency(4)
+                .maxConcurrencyPerHost(4)
+                .maxQueued(16)
+                .build();
+        Flux<BulkRequest> requests = Flux.range(0, 1000)
+                .map(i -> BulkRequest.of("http://slow/items/" + i, HttpMethod.GET))
+                .doOnNext(request -> read.incrementAndGet());
+
+        new BulkExecutor(options, request -> Mono.<String>never()).execute(requests).subscribe().dispose();
+
+        assertEquals(16, read.get());
+    }
+
+    @Test
+    void globalAndHostLimitsAreRespected() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<String, AtomicInteger> hostRunning = new ConcurrentHashMap<>();
+        List<Integer> maxHostRunning = new CopyOnWriteArrayList<>();
+        Function<BulkRequest, Mono<String>> invoker = request -> Mono.defer(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            AtomicInteger host = hostRunning.computeIfAbsent(request.host(), key -> new AtomicInteger());
+            maxHostRunning.add(host.incrementAndGet());
+            // Count the request as done before its result releases the permits to the next one
+            return Mono.delay(Duration.ofMillis(5))
+                    .doOnNext(tick -> {
+                        running.decrementAndGet();
+                        host.decrementAndGet();
+                    })
+                    .thenReturn("ok");
+        });
+        BulkOptions options = BulkOptions.builder().maxConcurrency(6).maxConcurrencyPerHost(2).build();
+        Flux<BulkRequest> requests = Flux.range(0, 200)
+                .map(i -> BulkRequest.of("http://host" + (i % 10) + "/items/" + i, HttpMethod.GET));
+
+        List<BulkResult> results = new BulkExecutor(options, invoker).execute(requests)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(200, results.size());
+        assertTrue(maxRunning.get() <= 6, "global limit exceeded: " + maxRunning.get());
+        assertTrue(maxHostRunning.stream().allMatch(count -> count <= 2), "host limit exceeded");
+    }
+
+    @Test
+    void failureIsReportedPerRequest() {
+        Function<BulkRequest, Mono<String>> invoker = request -> request.getUri().endsWith("/1")
+                ? Mono.error(new IllegalStateException("boom"))
+                : Mono.just("ok");
+        Flux<BulkRequest> requests = Flux.range(0, 3)
+                .map(i -> BulkRequest.of("http://host/items/" + i, HttpMethod.GET));
+
+        List<BulkResult> results = new BulkExecutor(BulkOptions.defaults(), invoker).execute(requests)
+                .collectSortedList((a, b) -> Long.compare(a.getIndex(), b.getIndex()))
+                .block(Duration.ofSeconds(5));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("boom", results.get(1).getError().getMessage());
+        assertTrue(results.get(2).isSuccess());
+    }
+
+    @Test
+    void hostKeyIncludesSchemeAndDefaultPort() {
+        assertEquals("http://api:80", BulkRequest.of("http://api/items", HttpMethod.GET).host());
+        assertEquals("http://api:80", BulkRequest.of("http://API:80/items", HttpMethod.GET).host());
+        assertEquals("https://api:443", BulkRequest.of("https://api/items", HttpMethod.GET).host());
+        assertEquals("http://api:8080", BulkRequest.of("http://api:8080/items", HttpMethod.GET).host());
+        assertEquals("/items", BulkRequest.of("/items", HttpMethod.GET).host());
+    }
+
+    @Test
+    void permitIsNotLostWhenGrantRacesCancel() throws Exception {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                assertEquals(Boolean.TRUE, semaphore.acquire().block(Duration.ofSeconds(1)));
+                AtomicBoolean granted = new AtomicBoolean();
+                // Unlike subscribe(Consumer), a BaseSubscriber sees a value emitted while it is cancelled
+                BaseSubscriber<Boolean> waiter = new BaseSubscriber<>() {
+                    @Override
+                    protected void hookOnNext(Boolean permit) {
+                        granted.set(true);
+                    }
+                };
+                semaphore.acquire().subscribe(waiter);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                Future<?> release = executor.submit(() -> {
+                    barrier.await();
+                    semaphore.release();
+                    return null;
+                });
+                Future<?> cancel = executor.submit(() -> {
+                    barrier.await();
+                    waiter.dispose();
+                    return null;
+                });
+                release.get();
+                cancel.get();
+                if (granted.get()) {
+                    semaphore.release();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Exactly one permit is left
+        assertEquals(Boolean.TRUE, semaphore.acquire().block(Duration.ofSeconds(1)));
+        AtomicBoolean granted = new AtomicBoolean();
+        semaphore.acquire().subscribe(permit -> granted.set(true));
+        assertFalse(granted.get());
+    }
+
+    @Test
+    void relativeUrisShareTheLimitOfTheirResolvedHost() {
+        AtomicInteger running = new AtomicInteger();
+        BulkOptions options = BulkOptions.builder().maxConcurrency(8).maxConcurrencyPerHost(2).build();
+        Flux<BulkRequest> requests = Flux.range(0, 10).map(i -> BulkRequest.of("/items/" + i, HttpMethod.GET));
+
+        new BulkExecutor(options, request -> {
+            running.incrementAndGet();
+            return Mono.<String>never();
+        }, uri -> "lb://orders" + uri).execute(requests).subscribe().dispose();
+
+        assertEquals(2, running.get());
+    }
+
+    @Test
+    void maxQueuedBelowMaxConcurrencyIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BulkOptions.builder().maxConcurrency(64).maxQueued(8).build());
+    }
+}
@@ -0,0 +1,153 @@
+package org.xiaofeng.webclient.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpResponseCacheTest {
+    private static final String URI = "http://localhost/items";
+
+    private HttpResponseCache cache;
+
+    private Deque<ResponseEntity<String>> responses;
+
+    private List<HttpHeaders> sentHeaders;
+
+    private Function<Consumer<HttpHeaders>, Mono<ResponseEntity<String>>> exchange;
+
+    @BeforeEach
+    void setUp() {
+        cache = new HttpResponseCache(ResponseCacheConfig.builder().build());
+        responses = new ArrayDeque<>();
+        sentHeaders = new ArrayList<>();
+        exchange = conditional -> Mono.fromSupplier(() -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.IF_NONE_MATCH, "\"from-caller\"");
+            conditional.accept(headers);
+            sentHeaders.add(headers);
+            return responses.remove();
+        });
+    }
+
+    @Test
+    void freshResponseIsServedFromTheCache() {
+        responses.add(ok("v1", "max-age=60", null));
+
+        assertEquals("v1", cache.execute(URI, new HttpHeaders(), exchange).block());
+        assertEquals("v1", cache.execute(URI, new HttpHeaders(), exchange).block());
+
+        assertEquals(1, sentHeaders.size());
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    void lookupHappensOnSubscription() {
+        Mono<String> call = cache.execute(URI, new HttpHeaders(), exchange);
+        assertEquals(0, cache.stats().getMisses());
+
+        responses.add(ok("v1", "max-age=60", null));
+        assertEquals("v1", call.block());
+        // The same Mono subscribed again now finds the stored entry
+        assertEquals("v1", call.block());
+
+        assertEquals(1, sentHeaders.size());
+        assertEquals(1, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test
+    void unsubscribedCallIsNotCountedAsHit() {
+        responses.add(ok("v1", "max-age=60", null));
+        cache.execute(URI, new HttpHeaders(), exchange).block();
+
+        cache.execute(URI, new HttpHeaders(), exchange);
+
+        assertEquals(0, cache.stats().getHits());
+    }
+
+    @Test
+    void staleEntryIsRevalidated() {
+        responses.add(ok("v1", "max-age=0", "\"v1\""));
+        responses.add(ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(cacheControl("max-age=60")).build());
+
+        cache.execute(URI, new HttpHeaders(), exchange).block();
+        assertEquals("v1", cache.execute(URI, new HttpHeaders(), exchange).block());
+
+        assertEquals("\"v1\"", sentHeaders.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(1, cache.stats().getRevalidations());
+    }
+
+    @Test
+    void notModifiedWithoutEntryIsRequestedAgainUnconditionally() {
+        responses.add(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        responses.add(ok("v2", "max-age=60", null));
+
+        assertEquals("v2", cache.execute(URI, new HttpHeaders(), exchange).block());
+
+        assertEquals(2, sentHeaders.size());
+        assertNull(sentHeaders.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void repeatedNotModifiedWithoutEntryFails() {
+        responses.add(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        responses.add(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> cache.execute(URI, new HttpHeaders(), exchange).block());
+        assertTrue(error.getMessage().contains("304"));
+    }
+
+    @Test
+    void entryLimitIsCountedInBytes() {
+        cache = new HttpResponseCache(ResponseCacheConfig.builder().maxEntryBytes(10).build());
+        // 6 chars but 12 bytes in UTF-8
+        String body = "\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9";
+        responses.add(ok(body, "max-age=60", null));
+        responses.add(ok(body, "max-age=60", null));
+
+        assertEquals(body, cache.execute(URI, new HttpHeaders(), exchange).block());
+        assertEquals(body, cache.execute(URI, new HttpHeaders(), exchange).block());
+
+        assertEquals(2, sentHeaders.size());
+        assertEquals(0, cache.stats().getHits());
+    }
+
+    @Test
+    void utf8LengthMatchesTheEncodedBody() {
+        for (String body : List.of("", "ascii", "\u00e9t\u00e9", "\u20ac5", "\ud83d\ude00!", "\ud83d lone")) {
+            assertEquals(body.getBytes(StandardCharsets.UTF_8).length, CachedResponse.utf8Length(body), body);
+        }
+    }
+
+    private static ResponseEntity<String> ok(String body, String cacheControl, String etag) {
+        HttpHeaders headers = cacheControl(cacheControl);
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    private static HttpHeaders cacheControl(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(value);
+        return headers;
+    }
+}
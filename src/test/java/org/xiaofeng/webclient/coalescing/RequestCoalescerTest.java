@@ -0,0 +1,112 @@
+package org.xiaofeng.webclient.coalescing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+    private final RequestCoalescer coalescer = new RequestCoalescer(CoalescingConfig.builder().build());
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private Sinks.One<String> response = Sinks.one();
+
+    private final Supplier<Mono<String>> exchange = () -> {
+        exchanges.incrementAndGet();
+        return response.asMono().doOnCancel(() -> cancelled.set(true));
+    };
+
+    @Test
+    void concurrentIdenticalRequestsShareOneExchange() {
+        List<String> results = new CopyOnWriteArrayList<>();
+        coalescer.execute("k", exchange).subscribe(results::add);
+        coalescer.execute("k", exchange).subscribe(results::add);
+
+        response.tryEmitValue("body");
+
+        assertEquals(List.of("body", "body"), results);
+        assertEquals(1, exchanges.get());
+        assertEquals(1, coalescer.getStarted());
+        assertEquals(1, coalescer.getJoined());
+        assertEquals(0, coalescer.getInFlight());
+    }
+
+    @Test
+    void requestAfterCompletionStartsNewExchange() {
+        response.tryEmitValue("first");
+        assertEquals("first", coalescer.execute("k", exchange).block());
+
+        response = Sinks.one();
+        response.tryEmitValue("second");
+        assertEquals("second", coalescer.execute("k", exchange).block());
+
+        assertEquals(2, exchanges.get());
+    }
+
+    @Test
+    void errorIsFannedOutToEverySubscriber() {
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        coalescer.execute("k", exchange).subscribe(value -> {
+        }, errors::add);
+        coalescer.execute("k", exchange).subscribe(value -> {
+        }, errors::add);
+
+        response.tryEmitError(new IllegalStateException("boom"));
+
+        assertEquals(2, errors.size());
+        assertEquals(1, exchanges.get());
+    }
+
+    @Test
+    void exchangeIsCancelledOnlyWhenEverySubscriberLeft() {
+        Disposable first = coalescer.execute("k", exchange).subscribe();
+        Disposable second = coalescer.execute("k", exchange).subscribe();
+
+        first.dispose();
+        assertFalse(cancelled.get());
+        assertEquals(1, coalescer.getInFlight());
+
+        second.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(0, coalescer.getInFlight());
+    }
+
+    @Test
+    void keyHeadersSeparateRequests() {
+        HttpHeaders json = new HttpHeaders();
+        json.setAccept(List.of(MediaType.APPLICATION_JSON));
+        HttpHeaders xml = new HttpHeaders();
+        xml.setAccept(List.of(MediaType.APPLICATION_XML));
+        HttpHeaders other = new HttpHeaders();
+        other.set("X-Trace", "1");
+
+        String jsonKey = coalescer.key(HttpMethod.GET, "http://localhost/a", json);
+        assertNotEquals(jsonKey, coalescer.key(HttpMethod.GET, "http://localhost/a", xml));
+        assertEquals(coalescer.key(HttpMethod.GET, "http://localhost/a", new HttpHeaders()),
+                coalescer.key(HttpMethod.GET, "http://localhost/a", other));
+    }
+
+    @Test
+    void onlyConfiguredMethodsAreCoalesced() {
+        assertTrue(coalescer.isEnabled(HttpMethod.GET));
+        assertFalse(coalescer.isEnabled(HttpMethod.POST));
+        assertFalse(new RequestCoalescer(null).isEnabled(HttpMethod.GET));
+    }
+}
@@ -0,0 +1,159 @@
+package org.xiaofeng.webclient.compression;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionExchangeFilterTest {
+    private static final String TEXT = "compressible text ".repeat(200);
+
+    private DisposableServer server;
+
+    private Injector injector;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                // Gzips the responses of the clients sending Accept-Encoding: gzip
+                .compress(true)
+                .route(routes -> routes
+                        // Answers with the Content-Encoding of the request and its decoded body
+                        .post("/echo", (request, response) -> {
+                            String encoding = request.requestHeaders().get(HttpHeaders.CONTENT_ENCODING, "identity");
+                            return response.sendString(request.receive().aggregate().asByteArray()
+                                    .map(bytes -> encoding + "|" + gunzipIf(encoding, bytes)));
+                        })
+                        .get("/text", (request, response) -> response.sendString(Mono.just(TEXT)))
+                        .get("/deflate", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_ENCODING, "deflate")
+                                .sendByteArray(Mono.just(deflate(TEXT)))))
+                .bindNow();
+        WebClientConfig config = WebClientConfig.builder()
+                .compression(CompressionConfig.builder()
+                        .requestCompression(true)
+                        .requestThresholdBytes(1024)
+                        .hostRequestCompression("localhost", false)
+                        .build())
+                .retryPolicy(RetryPolicy.none())
+                .build();
+        injector = Guice.createInjector(new WebClientModule(config));
+    }
+
+    @AfterEach
+    void tearDown() {
+        injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        server.disposeNow();
+    }
+
+    private static String gunzipIf(String encoding, byte[] bytes) {
+        if (!"gzip".equals(encoding)) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] deflate(String text) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private WebClientService service() {
+        return injector.getInstance(WebClientService.class);
+    }
+
+    private String post(String host, String body) {
+        return service().invokeApi("http://" + host + ":" + server.port() + "/echo", HttpMethod.POST, body)
+                .block(Duration.ofSeconds(5));
+    }
+
+    private CompressionStats stats() {
+        return injector.getInstance(CompressionStatistics.class).snapshot();
+    }
+
+    @Test
+    void bodyAboveThresholdIsGzipped() {
+        assertEquals("gzip|" + TEXT, post("127.0.0.1", TEXT));
+
+        CompressionStats stats = stats();
+        assertEquals(1, stats.getCompressedRequests());
+        assertEquals(TEXT.length(), stats.getRequestBytesBefore());
+        assertTrue(stats.getRequestBytesAfter() < TEXT.length() / 10, stats.toString());
+    }
+
+    @Test
+    void largeBodyIsGzippedOffTheEventLoop() {
+        String large = TEXT.repeat(50);
+
+        assertEquals("gzip|" + large, post("127.0.0.1", large));
+        assertEquals(1, stats().getCompressedRequests());
+    }
+
+    @Test
+    void bodyBelowThresholdIsSentAsIs() {
+        assertEquals("identity|small", post("127.0.0.1", "small"));
+        assertEquals(0, stats().getCompressedRequests());
+    }
+
+    @Test
+    void hostCanOptOutOfRequestCompression() {
+        assertEquals("identity|" + TEXT, post("localhost", TEXT));
+        assertEquals(0, stats().getCompressedRequests());
+    }
+
+    @Test
+    void gzipResponseIsDecoded() {
+        String body = service().invokeApi("http://127.0.0.1:" + server.port() + "/text", HttpMethod.GET)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(TEXT, body);
+        CompressionStats stats = stats();
+        assertEquals(1, stats.getDecompressedResponses());
+        assertEquals(TEXT.length(), stats.getResponseBytesAfter());
+        assertTrue(stats.getResponseBytesBefore() < TEXT.length() / 10, stats.toString());
+    }
+
+    @Test
+    void deflateResponseIsDecoded() {
+        String body = service().invokeApi("http://127.0.0.1:" + server.port() + "/deflate", HttpMethod.GET)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(TEXT, body);
+        assertEquals(1, stats().getDecompressedResponses());
+    }
+}
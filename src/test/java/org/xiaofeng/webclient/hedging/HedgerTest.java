@@ -0,0 +1,82 @@
+package org.xiaofeng.webclient.hedging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgerTest {
+    private static Hedger hedger(int maxEndpoints) {
+        return new Hedger(HedgingConfig.builder()
+                .minSamples(10)
+                .minDelay(Duration.ofMillis(1))
+                .maxDelay(Duration.ofSeconds(1))
+                .maxEndpoints(maxEndpoints)
+                .build());
+    }
+
+    @Test
+    void keyReplacesIdentifiers() {
+        Hedger hedger = hedger(1000);
+
+        assertEquals("api:8080/users/{id}/orders", hedger.key(URI.create("http://api:8080/users/42/orders")));
+        assertEquals("api:8080/", hedger.key(URI.create("http://api:8080")));
+    }
+
+    @Test
+    void latenciesAreSharedAcrossIdentifiers() {
+        Hedger hedger = hedger(1000);
+        for (int id = 0; id < 10; id++) {
+            String key = hedger.key(URI.create("http://api:8080/users/" + id));
+            hedger.recordLatency(key, Duration.ofMillis(20).toNanos());
+        }
+
+        Duration delay = hedger.onRequest(hedger.key(URI.create("http://api:8080/users/99")));
+
+        assertEquals(20, delay.toMillis(), 1);
+    }
+
+    @Test
+    void endpointsAreCapped() {
+        Hedger hedger = hedger(2);
+        hedger.recordLatency(hedger.key(URI.create("http://api:8080/a")), 1);
+        hedger.recordLatency(hedger.key(URI.create("http://api:8080/b")), 1);
+
+        assertEquals("api:8080/a", hedger.key(URI.create("http://api:8080/a")));
+        assertEquals("api:8080/{other}", hedger.key(URI.create("http://api:8080/c")));
+        hedger.recordLatency(hedger.key(URI.create("http://api:8080/c")), 1);
+        assertEquals("api:8080/{other}", hedger.key(URI.create("http://api:8080/d")));
+    }
+
+    @Test
+    void primaryCancelledByWinningHedgeIsRecorded() {
+        Hedger hedger = new Hedger(HedgingConfig.builder()
+                .minSamples(1)
+                .minDelay(Duration.ofMillis(1))
+                .maxDelay(Duration.ofMillis(100))
+                .build());
+        AtomicInteger attempts = new AtomicInteger();
+        // The primary would answer after two seconds, the hedge at once
+        ExchangeFunction next = request -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(2)).map(tick -> ClientResponse.create(HttpStatus.OK).build())
+                : Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://api:8080/items")).build();
+
+        new HedgingExchangeFilter(hedger).filter(request, next).block(Duration.ofSeconds(1));
+        assertEquals(1, hedger.stats().getHedgeWins());
+
+        // The primary waited the 100 ms hedge delay, the hedge almost nothing
+        Duration delay = hedger.onRequest(hedger.key(request.url()));
+        assertTrue(delay.toMillis() >= 90, "delay " + delay);
+    }
+}
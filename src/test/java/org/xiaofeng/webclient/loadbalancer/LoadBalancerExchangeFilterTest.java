@@ -0,0 +1,184 @@
+package org.xiaofeng.webclient.loadbalancer;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoadBalancerExchangeFilterTest {
+    private static final String SERVICE = "orders";
+
+    private final AtomicInteger badHits = new AtomicInteger();
+
+    private final AtomicInteger goodHits = new AtomicInteger();
+
+    private DisposableServer bad;
+
+    private DisposableServer good;
+
+    private Injector injector;
+
+    @AfterEach
+    void tearDown() {
+        if (injector != null) {
+            injector.getInstance(ServiceRegistry.class).close();
+            injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        }
+        if (bad != null) {
+            bad.disposeNow();
+            good.disposeNow();
+        }
+    }
+
+    private static ServiceRegistry registry(String... baseUrls) {
+        return new ServiceRegistry(LoadBalancerConfig.builder()
+                .service(SERVICE, baseUrls)
+                .strategy(LoadBalancerConfig.Strategy.LEAST_OUTSTANDING)
+                .build(), null);
+    }
+
+    private static ClientRequest request(String uri) {
+        return ClientRequest.create(org.springframework.http.HttpMethod.GET, URI.create(uri)).build();
+    }
+
+    private static ServiceEndpoint endpoint(ServiceRegistry registry, String baseUrl) {
+        for (int i = 0; i < 100; i++) {
+            ServiceEndpoint endpoint = registry.choose(SERVICE);
+            if (endpoint.getBaseUrl().equals(baseUrl)) {
+                return endpoint;
+            }
+        }
+        throw new AssertionError("Endpoint not chosen: " + baseUrl);
+    }
+
+    @Test
+    void logicalUriIsRewrittenToTheEndpoint() {
+        LoadBalancerExchangeFilter filter = new LoadBalancerExchangeFilter(registry("http://a:8080/"));
+        AtomicReference<URI> routed = new AtomicReference<>();
+
+        filter.filter(request("lb://orders/v1/items?page=2"), next -> {
+            routed.set(next.url());
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        }).block(Duration.ofSeconds(5));
+
+        assertEquals(URI.create("http://a:8080/v1/items?page=2"), routed.get());
+    }
+
+    @Test
+    void otherUrisAreLeftAlone() {
+        LoadBalancerExchangeFilter filter = new LoadBalancerExchangeFilter(registry("http://a:8080"));
+        AtomicReference<URI> routed = new AtomicReference<>();
+
+        filter.filter(request("http://b:8080/v1/items"), next -> {
+            routed.set(next.url());
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        }).block(Duration.ofSeconds(5));
+
+        assertEquals(URI.create("http://b:8080/v1/items"), routed.get());
+    }
+
+    @Test
+    void unknownServiceFails() {
+        LoadBalancerExchangeFilter filter = new LoadBalancerExchangeFilter(registry("http://a:8080"));
+
+        assertThrows(IllegalArgumentException.class, () -> filter
+                .filter(request("lb://payments/v1"), next -> Mono.just(ClientResponse.create(HttpStatus.OK).build()))
+                .block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void requestIsOutstandingUntilItsBodyEnds() {
+        ServiceRegistry registry = registry("http://a:8080");
+        ServiceEndpoint a = registry.choose(SERVICE);
+        LoadBalancerExchangeFilter filter = new LoadBalancerExchangeFilter(registry);
+
+        ClientResponse response = filter.filter(request("lb://orders/v1/items"), next -> Mono.just(
+                        ClientResponse.create(HttpStatus.OK).body("items").build()))
+                .block(Duration.ofSeconds(5));
+        assertEquals(1, a.getOutstanding());
+
+        assertEquals("items", response.bodyToMono(String.class).block(Duration.ofSeconds(5)));
+        assertEquals(0, a.getOutstanding());
+    }
+
+    @Test
+    void failedExchangeIsNotOutstanding() {
+        ServiceRegistry registry = registry("http://a:8080");
+        ServiceEndpoint a = registry.choose(SERVICE);
+        LoadBalancerExchangeFilter filter = new LoadBalancerExchangeFilter(registry);
+
+        assertThrows(IllegalStateException.class, () -> filter
+                .filter(request("lb://orders/v1/items"), next -> Mono.error(new IllegalStateException("refused")))
+                .block(Duration.ofSeconds(5)));
+
+        assertEquals(0, a.getOutstanding());
+    }
+
+    @Test
+    void retryMovesToAnotherEndpoint() {
+        bad = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    badHits.incrementAndGet();
+                    return response.status(HttpStatus.SERVICE_UNAVAILABLE.value()).send();
+                })
+                .bindNow();
+        good = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    goodHits.incrementAndGet();
+                    return response.sendString(Mono.just("ok"));
+                })
+                .bindNow();
+        String badUrl = "http://127.0.0.1:" + bad.port();
+        String goodUrl = "http://127.0.0.1:" + good.port();
+        WebClientConfig config = WebClientConfig.builder()
+                .loadBalancer(LoadBalancerConfig.builder()
+                        .service(SERVICE, badUrl, goodUrl)
+                        .strategy(LoadBalancerConfig.Strategy.LEAST_OUTSTANDING)
+                        .failureThreshold(1)
+                        .build())
+                .retryPolicy(RetryPolicy.builder()
+                        .maxRetries(1)
+                        .initialBackoff(Duration.ofMillis(10))
+                        .build())
+                .build();
+        injector = Guice.createInjector(new WebClientModule(config));
+        // Requests in flight on the good endpoint make the bad one the first choice
+        ServiceEndpoint busy = endpoint(injector.getInstance(ServiceRegistry.class), goodUrl);
+        for (int i = 0; i < 5; i++) {
+            busy.onStart();
+        }
+
+        String body = injector.getInstance(WebClientService.class)
+                .forService(SERVICE)
+                .invokeApi("/v1/items", HttpMethod.GET)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("ok", body);
+        assertEquals(1, badHits.get());
+        assertEquals(1, goodHits.get());
+    }
+}
@@ -0,0 +1,165 @@
+package org.xiaofeng.webclient.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceRegistryTest {
+    private static final String SERVICE = "orders";
+
+    private static ServiceRegistry registry() {
+        return new ServiceRegistry(LoadBalancerConfig.builder()
+                .service(SERVICE, "http://a:8080", "http://b:8080")
+                .failureThreshold(3)
+                .ejectionTime(Duration.ofMinutes(1), Duration.ofMinutes(5))
+                .build(), null);
+    }
+
+    private static ServiceRegistry registry(LoadBalancerConfig.Strategy strategy) {
+        return new ServiceRegistry(LoadBalancerConfig.builder()
+                .service(SERVICE, "http://a:8080", "http://b:8080")
+                .strategy(strategy)
+                .build(), null);
+    }
+
+    private static ServiceEndpoint endpoint(ServiceRegistry registry, String baseUrl) {
+        for (int i = 0; i < 100; i++) {
+            ServiceEndpoint endpoint = registry.choose(SERVICE);
+            if (endpoint.getBaseUrl().equals(baseUrl)) {
+                return endpoint;
+            }
+        }
+        throw new AssertionError("Endpoint not chosen: " + baseUrl);
+    }
+
+    private static boolean ejected(ServiceEndpoint endpoint) {
+        return !endpoint.isAvailable(System.nanoTime());
+    }
+
+    @Test
+    void consecutiveFailuresEject() {
+        ServiceRegistry registry = registry();
+        ServiceEndpoint a = endpoint(registry, "http://a:8080");
+        for (int i = 0; i < 3; i++) {
+            registry.onResult(SERVICE, a, 1_000_000, true);
+        }
+
+        assertTrue(ejected(a));
+    }
+
+    @Test
+    void probeSuccessKeepsRequestFailures() {
+        ServiceRegistry registry = registry();
+        ServiceEndpoint a = endpoint(registry, "http://a:8080");
+        registry.onResult(SERVICE, a, 1_000_000, true);
+        registry.onResult(SERVICE, a, 1_000_000, true);
+
+        registry.onProbeResult(SERVICE, a, true);
+        registry.onResult(SERVICE, a, 1_000_000, true);
+
+        assertTrue(ejected(a));
+    }
+
+    @Test
+    void probeSuccessReadmitsEjectedEndpoint() {
+        ServiceRegistry registry = registry();
+        ServiceEndpoint a = endpoint(registry, "http://a:8080");
+        for (int i = 0; i < 3; i++) {
+            registry.onResult(SERVICE, a, 1_000_000, true);
+        }
+        assertTrue(ejected(a));
+
+        registry.onProbeResult(SERVICE, a, true);
+
+        assertFalse(ejected(a));
+    }
+
+    @Test
+    void failedProbesEjectApartFromRequests() {
+        ServiceRegistry registry = registry();
+        ServiceEndpoint a = endpoint(registry, "http://a:8080");
+        registry.onProbeResult(SERVICE, a, false);
+        registry.onProbeResult(SERVICE, a, false);
+        registry.onResult(SERVICE, a, 1_000_000, false);
+        assertFalse(ejected(a));
+
+        registry.onProbeResult(SERVICE, a, false);
+
+        assertTrue(ejected(a));
+    }
+
+    @Test
+    void leastOutstandingPicksTheIdleEndpoint() {
+        ServiceRegistry registry = registry(LoadBalancerConfig.Strategy.LEAST_OUTSTANDING);
+        ServiceEndpoint a = endpoint(registry, "http://a:8080");
+        a.onStart();
+        a.onStart();
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("http://b:8080", registry.choose(SERVICE).getBaseUrl());
+        }
+    }
+
+    @Test
+    void powerOfTwoChoicesAvoidsTheSlowEndpoint() {
+        ServiceRegistry registry = registry(LoadBalancerConfig.Strategy.POWER_OF_TWO_CHOICES);
+        ServiceEndpoint a = endpoint(registry, "http://a:8080");
+        ServiceEndpoint b = endpoint(registry, "http://b:8080");
+        registry.onResult(SERVICE, a, 100_000_000, false);
+        registry.onResult(SERVICE, b, 1_000_000, false);
+
+        // With two endpoints both are always compared
+        for (int i = 0; i < 50; i++) {
+            assertEquals("http://b:8080", registry.choose(SERVICE).getBaseUrl());
+        }
+    }
+
+    @Test
+    void powerOfTwoChoicesWeighsTheRequestsInFlight() {
+        ServiceRegistry registry = registry(LoadBalancerConfig.Strategy.POWER_OF_TWO_CHOICES);
+        ServiceEndpoint a = endpoint(registry, "http://a:8080");
+        ServiceEndpoint b = endpoint(registry, "http://b:8080");
+        registry.onResult(SERVICE, a, 1_000_000, false);
+        registry.onResult(SERVICE, b, 2_000_000, false);
+        for (int i = 0; i < 4; i++) {
+            a.onStart();
+        }
+
+        // 1 ms x 5 in flight costs more than 2 ms x 1
+        for (int i = 0; i < 50; i++) {
+            assertEquals("http://b:8080", registry.choose(SERVICE).getBaseUrl());
+        }
+    }
+
+    @Test
+    void ejectedEndpointIsSkipped() {
+        ServiceRegistry registry = registry();
+        ServiceEndpoint a = endpoint(registry, "http://a:8080");
+        for (int i = 0; i < 3; i++) {
+            registry.onResult(SERVICE, a, 1_000_000, true);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("http://b:8080", registry.choose(SERVICE).getBaseUrl());
+        }
+    }
+
+    @Test
+    void passiveOnlyChoiceTakesNoLock() throws Exception {
+        ServiceRegistry registry = registry();
+
+        // Another thread holding the registry monitor must not hold up the choice
+        synchronized (registry) {
+            ServiceEndpoint chosen = CompletableFuture.supplyAsync(() -> registry.choose(SERVICE))
+                    .get(5, TimeUnit.SECONDS);
+            assertNotNull(chosen);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.xiaofeng.webclient.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.xiaofeng.webclient.service.EndpointTemplate;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTest {
+    private final List<Long> sequence = new CopyOnWriteArrayList<>();
+
+    private WebClientService service(Supplier<Mono<String>> response) {
+        EndpointTemplate template = (EndpointTemplate) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{EndpointTemplate.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getVariableNames" -> List.of("seq");
+                    case "invoke" -> {
+                        sequence.add((Long) ((Object[]) args[0])[0]);
+                        yield response.get();
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return (WebClientService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebClientService.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("prepare")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return template;
+                });
+    }
+
+    private static LoadGeneratorConfig.Builder config() {
+        return LoadGeneratorConfig.builder()
+                .rate(200)
+                .duration(Duration.ofMillis(500))
+                .warmup(Duration.ZERO)
+                .drainTimeout(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void requestsStartOnScheduleWithoutWaitingForResponses() {
+        WebClientService service = service(() -> Mono.delay(Duration.ofMillis(50)).thenReturn("ok"));
+
+        long start = System.nanoTime();
+        LoadReport report = new LoadGenerator(config().build())
+                .run(service, Scenario.single(HttpMethod.GET, "http://api/items/{seq}"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 200 req/s for 500 ms, although each response takes 50 ms
+        assertEquals(100, report.getSent());
+        assertEquals(100, report.getSucceeded());
+        assertEquals(0, report.getDropped());
+        assertEquals(LongStream.range(0, 100).boxed().collect(Collectors.toList()), sequence);
+        assertTrue(elapsedMillis < 1000, "elapsed " + elapsedMillis);
+    }
+
+    @Test
+    void requestsBeyondMaxInFlightAreDropped() {
+        WebClientService service = service(Mono::never);
+
+        LoadReport report = new LoadGenerator(config().maxInFlight(5).drainTimeout(Duration.ZERO).build())
+                .run(service, Scenario.single(HttpMethod.GET, "http://api/items/{seq}"));
+
+        assertEquals(5, report.getSent());
+        assertEquals(95, report.getDropped());
+        assertEquals(5, report.getUnfinished());
+        assertEquals(0, report.getResponseTime().getCount());
+    }
+
+    @Test
+    void callFailingToStartIsCountedAsFailure() {
+        WebClientService service = service(() -> {
+            throw new IllegalArgumentException("bad uri");
+        });
+
+        LoadReport report = new LoadGenerator(config().build())
+                .run(service, Scenario.single(HttpMethod.GET, "http://api/items/{seq}"));
+
+        assertEquals(100, report.getFailed());
+        assertEquals(1, report.getErrors().size());
+        assertEquals(100, report.getErrors().get("IllegalArgumentException"));
+    }
+}
@@ -0,0 +1,80 @@
+package org.xiaofeng.webclient.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.xiaofeng.webclient.common.ServerErrorException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadReportTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static String print(LoadReport report) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void responseTimeStartsAtTheScheduledTime() {
+        LoadReport report = new LoadReport(100);
+        report.onSent();
+        // Scheduled at 0, started 40 ms late, answered 10 ms later
+        report.onCompleted(0, 40 * MILLIS, 50 * MILLIS, null);
+
+        assertEquals(50, report.getResponseTime().getMax() / MILLIS, 1);
+        assertEquals(10, report.getServiceTime().getMax() / MILLIS, 1);
+        assertEquals(1, report.getSucceeded());
+    }
+
+    @Test
+    void errorsAreCountedByTypeAndStatus() {
+        LoadReport report = new LoadReport(100);
+        report.onCompleted(0, 0, MILLIS, new ServerErrorException(503, new HttpHeaders(), "busy"));
+        report.onCompleted(0, 0, MILLIS, new ServerErrorException(503, new HttpHeaders(), "busy"));
+        report.onCompleted(0, 0, MILLIS, new TimeoutException());
+        report.onFinished(TimeUnit.SECONDS.toNanos(1), 0);
+
+        assertEquals(Map.of("ServerErrorException 503", 2L, "TimeoutException", 1L), report.getErrors());
+        assertEquals(3, report.getFailed());
+        assertEquals(3.0, report.getThroughput(), 0.01);
+    }
+
+    @Test
+    void printStatesThatDroppedRequestsAreExcluded() {
+        LoadReport report = new LoadReport(100);
+        for (int i = 0; i < 3; i++) {
+            report.onSent();
+            report.onCompleted(0, 0, MILLIS, null);
+        }
+        report.onDropped();
+        report.onFinished(TimeUnit.SECONDS.toNanos(1), 0);
+
+        String printed = print(report);
+
+        assertTrue(printed.contains("The percentiles exclude the 1 dropped requests, 25.00% of the scheduled ones"),
+                printed);
+    }
+
+    @Test
+    void printHasNoExclusionWithoutDrops() {
+        LoadReport report = new LoadReport(100);
+        report.onSent();
+        report.onCompleted(0, 0, MILLIS, null);
+        report.onFinished(TimeUnit.SECONDS.toNanos(1), 0);
+
+        String printed = print(report);
+
+        assertFalse(printed.contains("dropped requests"), printed);
+        assertTrue(printed.contains("p99.9"), printed);
+    }
+}
@@ -0,0 +1,160 @@
+package org.xiaofeng.webclient.metrics;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientMetricsTest {
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    private DisposableServer server;
+
+    private Injector injector;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/items/{id}", (request, response) -> response.sendString(Mono.just("item")))
+                        .get("/busy", (request, response) -> response
+                                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                                .sendString(Mono.just("busy")))
+                        .get("/pages/{name}", (request, response) -> response.sendString(Mono.just("page"))))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (injector != null) {
+            injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        }
+        server.disposeNow();
+    }
+
+    private WebClientService service(MetricsConfig metrics) {
+        WebClientConfig config = WebClientConfig.builder()
+                .metrics(metrics)
+                .retryPolicy(RetryPolicy.builder()
+                        .maxRetries(2)
+                        .initialBackoff(Duration.ofMillis(1))
+                        .maxBackoff(Duration.ofMillis(5))
+                        .build())
+                .build();
+        injector = Guice.createInjector(new WebClientModule(config));
+        return injector.getInstance(WebClientService.class);
+    }
+
+    private ClientMetrics metrics() {
+        return injector.getInstance(ClientMetrics.class);
+    }
+
+    private String host() {
+        return "127.0.0.1:" + server.port();
+    }
+
+    private String get(WebClientService service, String path) {
+        return service.invokeApi("http://" + host() + path, HttpMethod.GET).block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void idSegmentsShareOneEndpoint() {
+        WebClientService service = service(MetricsConfig.defaults());
+
+        get(service, "/items/1");
+        get(service, "/items/42");
+        get(service, "/items/3f2504e0-4f89-11d3-9a0c-0305e82c3301");
+
+        EndpointMetrics endpoint = metrics().getEndpoint(host() + "/items/{id}");
+        assertNotNull(endpoint, String.valueOf(metrics().getEndpoints()));
+        assertEquals(1, metrics().getEndpoints().size());
+        assertEquals(3, endpoint.getStatusCount(2));
+        assertEquals(3, endpoint.getLatency().getCount());
+        assertTrue(endpoint.getLatency().getMax() > 0);
+        assertEquals(0, endpoint.getErrors());
+    }
+
+    @Test
+    void retriesAndErrorsAreCounted() {
+        WebClientService service = service(MetricsConfig.defaults());
+
+        assertThrows(RuntimeException.class, () -> get(service, "/busy"));
+
+        EndpointMetrics endpoint = metrics().getEndpoint(host() + "/busy");
+        assertEquals(3, endpoint.getStatusCount(5));
+        assertEquals(2, endpoint.getRetries());
+        assertEquals(0, endpoint.getTimeouts());
+    }
+
+    @Test
+    void endpointsAreCapped() {
+        WebClientService service = service(MetricsConfig.builder()
+                .maxEndpoints(2)
+                .normalizePaths(false)
+                .build());
+
+        get(service, "/pages/a");
+        get(service, "/pages/b");
+        get(service, "/pages/c");
+        get(service, "/pages/d");
+
+        assertEquals(3, metrics().getEndpoints().size());
+        assertEquals(2, metrics().getEndpoint(host() + "/{other}").getStatusCount(2));
+    }
+
+    @Test
+    void listenerSeesEveryPhase() {
+        WebClientService service = service(MetricsConfig.builder()
+                .listener(new RequestEventListener() {
+                    @Override
+                    public void onRequestStart(RequestInfo request) {
+                        events.add("start " + request.getMethod() + " " + request.getEndpoint());
+                    }
+
+                    @Override
+                    public void onFirstByte(RequestInfo request, int status, long latencyNanos) {
+                        events.add("first byte " + status);
+                    }
+
+                    @Override
+                    public void onComplete(RequestInfo request, int status, long latencyNanos) {
+                        events.add("complete " + status);
+                    }
+                })
+                .build());
+
+        get(service, "/items/7");
+
+        assertEquals(List.of("start GET " + host() + "/items/{id}", "first byte 200", "complete 200"), events);
+    }
+
+    @Test
+    void metricsCanBeDisabled() {
+        WebClientService service = service(null);
+
+        assertEquals("item", get(service, "/items/1"));
+        assertEquals(0, metrics().getEndpoints().size());
+    }
+}
@@ -0,0 +1,87 @@
+package org.xiaofeng.webclient.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // 32 sub-buckets per power of two
+    private static final double PRECISION = 1.0 / 32;
+
+    private static void assertNear(long expected, long actual) {
+        assertEquals(expected, actual, expected * PRECISION, "value " + actual);
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.valueAtPercentile(99));
+    }
+
+    @Test
+    void percentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * MILLIS);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500 * MILLIS + MILLIS / 2, histogram.getMean());
+        assertNear(500 * MILLIS, histogram.valueAtPercentile(50));
+        assertNear(900 * MILLIS, histogram.valueAtPercentile(90));
+        assertNear(990 * MILLIS, histogram.valueAtPercentile(99));
+        assertEquals(1000 * MILLIS, histogram.valueAtPercentile(100));
+        assertEquals(1000 * MILLIS, histogram.getMax());
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 20; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        assertEquals(0, histogram.valueAtPercentile(0));
+        assertEquals(9, histogram.valueAtPercentile(50));
+        assertEquals(19, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void addMergesAnotherHistogram() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            fast.record(10 * MILLIS);
+        }
+        for (int i = 0; i < 10; i++) {
+            slow.record(200 * MILLIS);
+        }
+
+        fast.add(slow);
+
+        assertEquals(100, fast.getCount());
+        assertEquals(200 * MILLIS, fast.getMax());
+        assertNear(10 * MILLIS, fast.valueAtPercentile(90));
+        assertNear(200 * MILLIS, fast.valueAtPercentile(91));
+    }
+
+    @Test
+    void resetClearsTheValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5 * MILLIS);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.valueAtPercentile(50));
+    }
+}
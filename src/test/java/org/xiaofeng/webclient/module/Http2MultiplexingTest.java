@@ -0,0 +1,105 @@
+package org.xiaofeng.webclient.module;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.xiaofeng.webclient.config.Http2Config;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import org.xiaofeng.webclient.type.HttpProtocol;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Http2MultiplexingTest {
+    private static final int CALLS = 20;
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private DisposableServer server;
+
+    private Injector injector;
+
+    private void start(HttpProtocol protocol, reactor.netty.http.HttpProtocol serverProtocol) {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .protocol(serverProtocol)
+                .route(routes -> routes.get("/slow", (request, response) -> {
+                    clientPorts.add(((InetSocketAddress) request.remoteAddress()).getPort());
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return response.sendString(Mono.delay(Duration.ofMillis(200))
+                            .doOnNext(tick -> inFlight.decrementAndGet())
+                            .thenReturn("ok"));
+                }))
+                .bindNow();
+        WebClientConfig config = WebClientConfig.builder()
+                .protocol(protocol)
+                .http2(Http2Config.builder()
+                        .maxConcurrentStreams(100)
+                        .maxConnections(1)
+                        .build())
+                .retryPolicy(RetryPolicy.none())
+                .build();
+        injector = Guice.createInjector(new WebClientModule(config));
+    }
+
+    private List<String> callConcurrently() {
+        WebClientService service = injector.getInstance(WebClientService.class);
+        String uri = "http://127.0.0.1:" + server.port() + "/slow";
+        return Flux.range(0, CALLS)
+                .flatMap(i -> service.invokeApi(uri, HttpMethod.GET), CALLS)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        server.disposeNow();
+    }
+
+    @Test
+    void concurrentCallsShareOneMultiplexedConnection() {
+        start(HttpProtocol.H2C, reactor.netty.http.HttpProtocol.H2C);
+
+        List<String> bodies = callConcurrently();
+
+        assertEquals(CALLS, bodies.size());
+        assertEquals(1, clientPorts.size(), "calls were spread over " + clientPorts.size() + " connections");
+        // Several requests in flight on a single connection is only possible with HTTP/2 streams
+        assertTrue(maxInFlight.get() > 1, "requests were not concurrent");
+    }
+
+    @Test
+    void http11FallbackCallsRunConcurrently() {
+        start(HttpProtocol.H2, reactor.netty.http.HttpProtocol.HTTP11);
+
+        List<String> bodies = callConcurrently();
+
+        assertEquals(CALLS, bodies.size());
+        assertTrue(bodies.stream().allMatch("ok"::equals));
+        // The one connection of the Http2Config does not cap the hosts falling back to HTTP/1.1
+        assertTrue(maxInFlight.get() > 1, "fallback calls were serialized");
+        assertTrue(clientPorts.size() > 1, "fallback calls shared " + clientPorts.size() + " connection");
+    }
+}
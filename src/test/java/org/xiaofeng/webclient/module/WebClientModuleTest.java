@@ -0,0 +1,123 @@
+package org.xiaofeng.webclient.module;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.xiaofeng.webclient.config.ConnectionPoolConfig;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.pool.ConnectionPoolStatistics;
+import org.xiaofeng.webclient.pool.PoolStats;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebClientModuleTest {
+    private final Set<InetSocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private DisposableServer server;
+
+    private Injector injector;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    clientAddresses.add(request.remoteAddress());
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return response.sendString(Mono.delay(Duration.ofMillis(100))
+                            .then(Mono.fromSupplier(() -> {
+                                inFlight.decrementAndGet();
+                                return "ok";
+                            })));
+                })
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (injector != null) {
+            injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        }
+        server.disposeNow();
+    }
+
+    private WebClientService service(ConnectionPoolConfig pool) {
+        injector = Guice.createInjector(new WebClientModule(WebClientConfig.builder()
+                .connectionPool(pool)
+                .build()));
+        return injector.getInstance(WebClientService.class);
+    }
+
+    private String uri() {
+        return "http://127.0.0.1:" + server.port() + "/";
+    }
+
+    @Test
+    void clientAndPoolAreShared() {
+        service(ConnectionPoolConfig.defaults());
+
+        assertSame(injector.getInstance(WebClient.class), injector.getInstance(WebClient.class));
+        assertSame(injector.getInstance(ConnectionProvider.class), injector.getInstance(ConnectionProvider.class));
+    }
+
+    @Test
+    void sequentialCallsReusePooledConnections() {
+        WebClientService service = service(ConnectionPoolConfig.defaults());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("ok", service.invokeApi(uri(), HttpMethod.GET).block(Duration.ofSeconds(5)));
+        }
+
+        // A call may start before the previous connection is back in the pool
+        assertTrue(clientAddresses.size() <= 2, "connections " + clientAddresses.size());
+    }
+
+    @Test
+    void poolLimitsComeFromTheConfig() {
+        WebClientService service = service(ConnectionPoolConfig.builder()
+                .name("limited")
+                .maxConnections(2)
+                .pendingAcquireMaxCount(10)
+                .metricsEnabled(true)
+                .build());
+
+        List<String> bodies = Flux.range(0, 6)
+                .flatMap(i -> service.invokeApi(uri(), HttpMethod.GET))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(6, bodies.size());
+        assertEquals(2, maxInFlight.get());
+        assertEquals(2, clientAddresses.size());
+        List<PoolStats> pools = injector.getInstance(ConnectionPoolStatistics.class).snapshot();
+        assertEquals(1, pools.size());
+        assertEquals("limited", pools.get(0).getPoolName());
+        assertEquals(2, pools.get(0).getMaxAllocated());
+        assertEquals(10, pools.get(0).getMaxPendingAcquire());
+        assertEquals(2, injector.getInstance(ConnectionPoolStatistics.class).total().getAllocated());
+    }
+}
@@ -0,0 +1,160 @@
+package org.xiaofeng.webclient.oauth2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.client.endpoint.WebClientReactiveClientCredentialsTokenResponseClient;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OAuth2TokenCacheTest {
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final AtomicInteger apiCalls = new AtomicInteger();
+
+    private final Set<String> acceptedTokens = ConcurrentHashMap.newKeySet();
+
+    private volatile long expiresInSeconds = 3600;
+
+    private volatile Duration tokenDelay = Duration.ZERO;
+
+    private DisposableServer server;
+
+    private OAuth2TokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/token", (request, response) -> {
+                            String token = "token-" + fetches.incrementAndGet();
+                            String body = "{\"access_token\":\"" + token + "\",\"token_type\":\"Bearer\","
+                                    + "\"expires_in\":" + expiresInSeconds + "}";
+                            return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                    .sendString(request.receive().aggregate().asString()
+                                            .then(Mono.delay(tokenDelay))
+                                            .thenReturn(body));
+                        })
+                        .get("/api", (request, response) -> {
+                            apiCalls.incrementAndGet();
+                            String authorization = request.requestHeaders().get(HttpHeaders.AUTHORIZATION);
+                            if (authorization == null || !acceptedTokens.contains(authorization.substring(7))) {
+                                return response.status(HttpStatus.UNAUTHORIZED.value()).send();
+                            }
+                            return response.sendString(Mono.just("ok"));
+                        }))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.close();
+        }
+        server.disposeNow();
+    }
+
+    private OAuth2TokenCache cache(Duration refreshBefore) {
+        OAuth2Config config = OAuth2Config.builder()
+                .tokenUri("http://127.0.0.1:" + server.port() + "/token")
+                .clientId("client")
+                .clientSecret("secret")
+                .hosts("127.0.0.1")
+                .refreshBefore(refreshBefore)
+                .clockSkew(Duration.ZERO)
+                .build();
+        cache = new OAuth2TokenCache(config, new WebClientReactiveClientCredentialsTokenResponseClient());
+        return cache;
+    }
+
+    private WebClient client(OAuth2TokenCache tokenCache) {
+        return WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.port())
+                .filter(new OAuth2ExchangeFilter(tokenCache))
+                .build();
+    }
+
+    @Test
+    void concurrentCallersFetchOnce() {
+        tokenDelay = Duration.ofMillis(300);
+        OAuth2TokenCache tokenCache = cache(Duration.ofSeconds(60));
+
+        List<String> tokens = Flux.range(0, 50)
+                .flatMap(i -> tokenCache.token(), 50)
+                .map(OAuth2AccessToken::getTokenValue)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(50, tokens.size());
+        assertTrue(tokens.stream().allMatch("token-1"::equals));
+        assertEquals(1, fetches.get());
+        assertEquals("token-1", tokenCache.token().block(Duration.ofSeconds(1)).getTokenValue());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void refreshesInBackgroundBeforeExpiry() throws InterruptedException {
+        expiresInSeconds = 3;
+        OAuth2TokenCache tokenCache = cache(Duration.ofSeconds(2));
+        assertEquals("token-1", tokenCache.token().block(Duration.ofSeconds(1)).getTokenValue());
+
+        // The refresh is due 1 s after the first fetch, callers keep the cached token meanwhile
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String token = "token-1";
+        while (token.equals("token-1") && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            token = tokenCache.token().block(Duration.ofSeconds(1)).getTokenValue();
+        }
+
+        assertEquals("token-2", token);
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void unauthorizedInvalidatesTokenAndRetriesOnce() {
+        OAuth2TokenCache tokenCache = cache(Duration.ofSeconds(60));
+        acceptedTokens.add("token-2");
+
+        String body = client(tokenCache).get().uri("/api")
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("ok", body);
+        assertEquals(2, apiCalls.get());
+        assertEquals(2, fetches.get());
+        assertEquals("token-2", tokenCache.token().block(Duration.ofSeconds(1)).getTokenValue());
+    }
+
+    @Test
+    void repeatedUnauthorizedIsNotRetriedAgain() {
+        OAuth2TokenCache tokenCache = cache(Duration.ofSeconds(60));
+
+        HttpStatus status = client(tokenCache).get().uri("/api")
+                .exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(HttpStatus.valueOf(response.statusCode().value())))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, status);
+        assertEquals(2, apiCalls.get());
+        assertEquals(2, fetches.get());
+    }
+}
@@ -0,0 +1,221 @@
+package org.xiaofeng.webclient.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.xiaofeng.webclient.common.RateLimitExceededException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitExchangeFilterTest {
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    private final ExchangeFunction ok = request -> Mono.fromCallable(() -> {
+        exchanges.incrementAndGet();
+        return ClientResponse.create(HttpStatus.OK).build();
+    });
+
+    private static ClientRequest request() {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://api:8080/items")).build();
+    }
+
+    private static RateLimiterRegistry registry(Duration maxWait) {
+        return new RateLimiterRegistry(RateLimitConfig.builder()
+                .hostLimit("api", 1, 1)
+                .maxWait(maxWait)
+                .build());
+    }
+
+    private static RateLimitConfig adaptive() {
+        return RateLimitConfig.builder()
+                .hostLimit("api", 100, 1)
+                .penalty(Duration.ofSeconds(2))
+                .build();
+    }
+
+    private static RateLimiter limiter(RateLimitConfig config) {
+        return new RateLimiter(config.getLimits().get("api"));
+    }
+
+    private static long seconds(long nanos) {
+        return Math.round(nanos / 1e9);
+    }
+
+    private static long millis(Runnable call) {
+        long start = System.nanoTime();
+        call.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @Test
+    void delaysRequestOverLimit() {
+        RateLimitExchangeFilter filter = new RateLimitExchangeFilter(registry(Duration.ofSeconds(1)));
+        filter.filter(request(), ok).block(Duration.ofSeconds(1));
+
+        long waited = millis(() -> filter.filter(request(), ok).block(Duration.ofSeconds(2)));
+
+        assertTrue(waited >= 500, "waited " + waited);
+        assertEquals(2, exchanges.get());
+    }
+
+    @Test
+    void rejectsWhenWaitExceedsMaxWait() {
+        RateLimitExchangeFilter filter = new RateLimitExchangeFilter(registry(Duration.ZERO));
+        filter.filter(request(), ok).block(Duration.ofSeconds(1));
+
+        RateLimitExceededException error = assertThrows(RateLimitExceededException.class,
+                () -> filter.filter(request(), ok).block(Duration.ofSeconds(1)));
+
+        assertEquals(1, exchanges.get());
+        assertTrue(error.getMessage().contains("api"));
+    }
+
+    @Test
+    void cancelDuringWaitGivesPermitBack() {
+        RateLimiterRegistry registry = registry(Duration.ofSeconds(5));
+        RateLimitExchangeFilter filter = new RateLimitExchangeFilter(registry);
+        filter.filter(request(), ok).block(Duration.ofSeconds(1));
+
+        for (int i = 0; i < 5; i++) {
+            Disposable waiting = filter.filter(request(), ok).subscribe();
+            waiting.dispose();
+        }
+        long waited = millis(() -> filter.filter(request(), ok).block(Duration.ofSeconds(3)));
+
+        assertTrue(waited < 1500, "waited " + waited);
+        assertEquals(2, exchanges.get());
+        assertEquals(2, registry.snapshot().get(0).getPermitted());
+    }
+
+    @Test
+    void retryAfterOn429PausesTheLimit() {
+        RateLimitConfig config = adaptive();
+        RateLimiter limiter = limiter(config);
+
+        RateLimitExchangeFilter.adapt(limiter, ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "3")
+                .build(), config);
+
+        long wait = limiter.reserve(System.nanoTime(), TimeUnit.SECONDS.toNanos(1));
+        assertTrue(wait < 0, "not rejected, wait " + wait);
+        assertEquals(3, seconds(-wait));
+    }
+
+    @Test
+    void retryAfterOn503DelaysTheNextRequest() {
+        RateLimitConfig config = adaptive();
+        RateLimiter limiter = limiter(config);
+
+        RateLimitExchangeFilter.adapt(limiter, ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "3")
+                .build(), config);
+
+        assertEquals(3, seconds(limiter.reserve(System.nanoTime(), TimeUnit.SECONDS.toNanos(10))));
+    }
+
+    @Test
+    void remainingQuotaIsSpreadUntilReset() {
+        RateLimitConfig config = adaptive();
+        RateLimiter limiter = limiter(config);
+
+        RateLimitExchangeFilter.adapt(limiter, ClientResponse.create(HttpStatus.OK)
+                .header("RateLimit-Remaining", "2")
+                .header("RateLimit-Reset", "10")
+                .build(), config);
+
+        long now = System.nanoTime();
+        assertEquals(0, limiter.reserve(now, TimeUnit.SECONDS.toNanos(10)));
+        // Two requests left over ten seconds, one every five seconds
+        assertEquals(5, seconds(limiter.reserve(now, TimeUnit.SECONDS.toNanos(10))));
+    }
+
+    @Test
+    void prefixedHeadersAreRead() {
+        RateLimitConfig config = adaptive();
+        RateLimiter limiter = limiter(config);
+
+        RateLimitExchangeFilter.adapt(limiter, ClientResponse.create(HttpStatus.OK)
+                .header("X-RateLimit-Remaining", "0")
+                .header("X-RateLimit-Reset", "4")
+                .build(), config);
+
+        assertEquals(4, seconds(limiter.reserve(System.nanoTime(), TimeUnit.SECONDS.toNanos(10))));
+    }
+
+    @Test
+    void resetAsEpochSecondsIsTurnedIntoADelay() {
+        RateLimitConfig config = adaptive();
+        RateLimiter limiter = limiter(config);
+        long reset = System.currentTimeMillis() / 1000 + 10;
+
+        RateLimitExchangeFilter.adapt(limiter, ClientResponse.create(HttpStatus.OK)
+                .header("RateLimit-Remaining", "2")
+                .header("RateLimit-Reset", Long.toString(reset))
+                .build(), config);
+
+        long now = System.nanoTime();
+        limiter.reserve(now, TimeUnit.SECONDS.toNanos(10));
+        long wait = limiter.reserve(now, TimeUnit.SECONDS.toNanos(10));
+        // Nine to ten seconds left, depending on the current second
+        assertTrue(wait >= TimeUnit.MILLISECONDS.toNanos(4_400) && wait <= TimeUnit.SECONDS.toNanos(5),
+                "wait " + wait);
+    }
+
+    @Test
+    void bare429PausesForThePenalty() {
+        RateLimitConfig config = adaptive();
+        RateLimiter limiter = limiter(config);
+
+        RateLimitExchangeFilter.adapt(limiter, ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS).build(), config);
+
+        assertEquals(2, seconds(limiter.reserve(System.nanoTime(), TimeUnit.SECONDS.toNanos(10))));
+    }
+
+    @Test
+    void responseWithoutHeadersLeavesTheLimit() {
+        RateLimitConfig config = adaptive();
+        RateLimiter limiter = limiter(config);
+
+        RateLimitExchangeFilter.adapt(limiter, ClientResponse.create(HttpStatus.OK).build(), config);
+
+        long now = System.nanoTime();
+        assertEquals(0, limiter.reserve(now, TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(limiter.reserve(now, TimeUnit.SECONDS.toNanos(1)) <= TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    void waitTimesAreReported() {
+        RateLimiterRegistry registry = new RateLimiterRegistry(RateLimitConfig.builder()
+                .hostLimit("api", 10, 1)
+                .build());
+        RateLimiter limiter = registry.limiter("api");
+        long now = System.nanoTime();
+
+        // Waits of 0, 100, 200, 300 and 400 ms
+        for (int i = 0; i < 5; i++) {
+            limiter.reserve(now, TimeUnit.SECONDS.toNanos(1));
+        }
+
+        RateLimitStats stats = registry.snapshot().get(0);
+        assertEquals(5, stats.getPermitted());
+        assertEquals(4, stats.getDelayed());
+        assertEquals(200, TimeUnit.NANOSECONDS.toMillis(stats.getMeanWaitNanos()));
+        assertEquals(400, TimeUnit.NANOSECONDS.toMillis(stats.getMaxWaitNanos()));
+        // The histogram reports a value within about 3% of the recorded one
+        long p99 = TimeUnit.NANOSECONDS.toMillis(stats.getP99WaitNanos());
+        assertTrue(p99 >= 388 && p99 <= 412, "p99 " + p99);
+    }
+}
@@ -0,0 +1,170 @@
+package org.xiaofeng.webclient.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+
+    private static CircuitBreaker breaker() {
+        return new CircuitBreaker(CircuitBreakerConfig.builder()
+                .windowSize(4)
+                .minimumCalls(4)
+                .failureRateThreshold(50)
+                .slowCallThreshold(Duration.ofMillis(100))
+                .slowCallRateThreshold(50)
+                .openDuration(Duration.ofMillis(100))
+                .halfOpenProbes(2)
+                .build());
+    }
+
+    private static void open(CircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onResult(true, FAST);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static void halfOpen(CircuitBreaker breaker) throws InterruptedException {
+        open(breaker);
+        Thread.sleep(150);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onResult(true, FAST);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void opensOnFailureRateAndFailsFast() {
+        CircuitBreaker breaker = breaker();
+        open(breaker);
+
+        assertFalse(breaker.tryAcquire());
+        assertEquals(100, breaker.getFailureRate());
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onResult(false, Duration.ofMillis(200).toNanos());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void closesWhenEveryProbeSucceeds() throws InterruptedException {
+        CircuitBreaker breaker = breaker();
+        halfOpen(breaker);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onResult(false, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void reopensOnFailingProbe() throws InterruptedException {
+        CircuitBreaker breaker = breaker();
+        halfOpen(breaker);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(true, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void releasedProbeIsGivenBack() throws InterruptedException {
+        CircuitBreaker breaker = breaker();
+        halfOpen(breaker);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.releasePermission();
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void releasedProbeAfterRejectedCallsStillCloses() throws InterruptedException {
+        CircuitBreaker breaker = breaker();
+        halfOpen(breaker);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        for (int i = 0; i < 5; i++) {
+            assertFalse(breaker.tryAcquire());
+        }
+        // The second probe is cancelled, the next call probes in its place
+        breaker.releasePermission();
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onResult(false, FAST);
+        breaker.onResult(false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void concurrentCallsTakeOnlyTheProbePermits() throws Exception {
+        CircuitBreaker breaker = breaker();
+        halfOpen(breaker);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int j = 0; j < 100; j++) {
+                        if (breaker.tryAcquire()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, allowed.get());
+    }
+}
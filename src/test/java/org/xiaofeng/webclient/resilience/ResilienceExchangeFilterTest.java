@@ -0,0 +1,116 @@
+package org.xiaofeng.webclient.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.xiaofeng.webclient.common.CircuitBreakerOpenException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilienceExchangeFilterTest {
+    private static final ExchangeFunction OK = request -> Mono.just(ClientResponse.create(HttpStatus.OK).build());
+
+    private static final ExchangeFunction FAILING =
+            request -> Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+
+    private static final ExchangeFunction HANGING = request -> Mono.never();
+
+    private static ClientRequest request(String url) {
+        return ClientRequest.create(HttpMethod.GET, URI.create(url)).build();
+    }
+
+    private static ResilienceRegistry registry(boolean perEndpoint, int maxEndpoints) {
+        return new ResilienceRegistry(ResilienceConfig.builder()
+                .circuitBreaker(CircuitBreakerConfig.builder()
+                        .windowSize(2)
+                        .minimumCalls(2)
+                        .openDuration(Duration.ofMillis(100))
+                        .halfOpenProbes(1)
+                        .build())
+                .adaptiveLimit(AdaptiveLimitConfig.builder()
+                        .initialLimit(10)
+                        .build())
+                .perEndpoint(perEndpoint)
+                .maxEndpoints(maxEndpoints)
+                .build());
+    }
+
+    private static ResilienceStats stats(ResilienceRegistry registry) {
+        List<ResilienceStats> stats = registry.snapshot();
+        assertEquals(1, stats.size());
+        return stats.get(0);
+    }
+
+    @Test
+    void cancelDoesNotCloseHalfOpenBreaker() throws InterruptedException {
+        ResilienceRegistry registry = registry(false, 1000);
+        ResilienceExchangeFilter filter = new ResilienceExchangeFilter(registry);
+        ClientRequest request = request("http://api:8080/items");
+        filter.filter(request, FAILING).block(Duration.ofSeconds(1));
+        filter.filter(request, FAILING).block(Duration.ofSeconds(1));
+        assertEquals(CircuitBreaker.State.OPEN, stats(registry).getState());
+        assertThrows(CircuitBreakerOpenException.class, () -> filter.filter(request, OK).block(Duration.ofSeconds(1)));
+
+        Thread.sleep(150);
+        Disposable probe = filter.filter(request, HANGING).subscribe();
+        probe.dispose();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, stats(registry).getState());
+        filter.filter(request, OK).block(Duration.ofSeconds(1));
+        assertEquals(CircuitBreaker.State.CLOSED, stats(registry).getState());
+    }
+
+    @Test
+    void cancelReleasesLimiterSlotWithoutSample() {
+        ResilienceRegistry registry = registry(false, 1000);
+        ResilienceExchangeFilter filter = new ResilienceExchangeFilter(registry);
+
+        Disposable call = filter.filter(request("http://api:8080/items"), HANGING).subscribe();
+        assertEquals(1, stats(registry).getInFlight());
+        call.dispose();
+
+        assertEquals(0, stats(registry).getInFlight());
+        assertEquals(10, stats(registry).getLimit());
+    }
+
+    @Test
+    void perEndpointKeysAreNormalized() {
+        ResilienceRegistry registry = registry(true, 1000);
+        ResilienceExchangeFilter filter = new ResilienceExchangeFilter(registry);
+
+        for (int id = 0; id < 50; id++) {
+            filter.filter(request("http://api:8080/users/" + id + "/orders"), OK).block(Duration.ofSeconds(1));
+        }
+
+        assertEquals("api:8080/users/{id}/orders", stats(registry).getKey());
+    }
+
+    @Test
+    void perEndpointKeysAreCapped() {
+        ResilienceRegistry registry = registry(true, 2);
+        ResilienceExchangeFilter filter = new ResilienceExchangeFilter(registry);
+
+        for (String path : List.of("/a", "/b", "/c", "/d", "/a")) {
+            filter.filter(request("http://api:8080" + path), OK).block(Duration.ofSeconds(1));
+        }
+
+        List<String> keys = registry.snapshot().stream()
+                .map(ResilienceStats::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(3, keys.size());
+        assertTrue(keys.contains("api:8080/{other}"));
+    }
+}
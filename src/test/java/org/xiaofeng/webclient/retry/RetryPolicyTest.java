@@ -0,0 +1,181 @@
+package org.xiaofeng.webclient.retry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.xiaofeng.webclient.common.CircuitBreakerOpenException;
+import org.xiaofeng.webclient.common.ClientErrorException;
+import org.xiaofeng.webclient.common.ServerErrorException;
+import org.xiaofeng.webclient.timeout.Deadline;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+    private final List<Long> attempts = new CopyOnWriteArrayList<>();
+
+    private Mono<String> failing(Supplier<Throwable> error) {
+        return Mono.defer(() -> {
+            attempts.add(System.nanoTime());
+            return Mono.error(error.get());
+        });
+    }
+
+    private long gapMillis(int retry) {
+        return TimeUnit.NANOSECONDS.toMillis(attempts.get(retry) - attempts.get(retry - 1));
+    }
+
+    private static ServerErrorException serverError(int status) {
+        return new ServerErrorException(status, new HttpHeaders(), "failed");
+    }
+
+    private static ClientErrorException tooManyRequests(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        return new ClientErrorException(429, headers, "slow down");
+    }
+
+    @Test
+    void backoffGrowsExponentially() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .maxRetries(3)
+                .initialBackoff(Duration.ofMillis(50))
+                .maxBackoff(Duration.ofMillis(150))
+                .jitter(RetryPolicy.Jitter.NONE)
+                .build();
+
+        assertThrows(ServerErrorException.class, () -> failing(() -> serverError(503))
+                .retryWhen(policy.toRetry(HttpMethod.GET))
+                .block(Duration.ofSeconds(5)));
+
+        assertEquals(4, attempts.size());
+        assertTrue(gapMillis(1) >= 50, "first wait " + gapMillis(1));
+        assertTrue(gapMillis(2) >= 100, "second wait " + gapMillis(2));
+        assertTrue(gapMillis(3) >= 150 && gapMillis(3) < 290, "capped wait " + gapMillis(3));
+    }
+
+    @Test
+    void onlyIdempotentMethodsAndRetryableErrorsAreRetried() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(1))
+                .build();
+
+        assertThrows(ServerErrorException.class, () -> failing(() -> serverError(503))
+                .retryWhen(policy.toRetry(HttpMethod.POST))
+                .block(Duration.ofSeconds(5)));
+        assertEquals(1, attempts.size());
+
+        assertThrows(ServerErrorException.class, () -> failing(() -> serverError(501))
+                .retryWhen(policy.toRetry(HttpMethod.GET))
+                .block(Duration.ofSeconds(5)));
+        assertEquals(2, attempts.size());
+
+        assertFalse(policy.isRetryable(new CircuitBreakerOpenException("open")));
+        assertTrue(policy.isRetryable(new IOException("reset")));
+    }
+
+    @Test
+    void waitsForRetryAfter() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .maxRetries(1)
+                .initialBackoff(Duration.ofMillis(1))
+                .build();
+
+        assertThrows(ClientErrorException.class, () -> failing(() -> tooManyRequests("1"))
+                .retryWhen(policy.toRetry(HttpMethod.GET))
+                .block(Duration.ofSeconds(5)));
+
+        assertEquals(2, attempts.size());
+        assertTrue(gapMillis(1) >= 1000, "waited " + gapMillis(1));
+    }
+
+    @Test
+    void retryAfterBeyondMaxFailsAtOnce() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .maxRetryAfter(Duration.ofSeconds(5))
+                .build();
+        ClientErrorException error = tooManyRequests("60");
+
+        ClientErrorException thrown = assertThrows(ClientErrorException.class, () -> failing(() -> error)
+                .retryWhen(policy.toRetry(HttpMethod.GET))
+                .block(Duration.ofSeconds(5)));
+
+        assertSame(error, thrown);
+        assertEquals(1, attempts.size());
+    }
+
+    @Test
+    void budgetCapsRetriesAcrossCalls() {
+        RetryBudget budget = new RetryBudget(0.0, 2);
+        RetryPolicy policy = RetryPolicy.builder()
+                .maxRetries(3)
+                .initialBackoff(Duration.ofMillis(1))
+                .jitter(RetryPolicy.Jitter.NONE)
+                .budget(budget)
+                .build();
+
+        for (int call = 0; call < 3; call++) {
+            assertThrows(ServerErrorException.class, () -> failing(() -> serverError(500))
+                    .retryWhen(policy.toRetry(HttpMethod.GET))
+                    .block(Duration.ofSeconds(5)));
+        }
+
+        assertEquals(3 + 2, attempts.size());
+        assertEquals(0, budget.getAvailable());
+    }
+
+    @Test
+    void budgetRefillsWithCalls() {
+        RetryBudget budget = new RetryBudget(0.5, 1);
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        budget.deposit();
+        assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+    }
+
+    @Test
+    void noRetryPastDeadline() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .maxRetries(5)
+                .initialBackoff(Duration.ofMillis(200))
+                .jitter(RetryPolicy.Jitter.NONE)
+                .build();
+
+        long start = System.nanoTime();
+        assertThrows(ServerErrorException.class, () -> failing(() -> serverError(503))
+                .retryWhen(policy.toRetry(HttpMethod.GET))
+                .contextWrite(context -> Deadline.putIn(context, Deadline.after(Duration.ofMillis(300))))
+                .block(Duration.ofSeconds(5)));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(2, attempts.size());
+        assertTrue(elapsed < 300, "elapsed " + elapsed);
+    }
+
+    @Test
+    void retryAfterParsesSecondsAndDates() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "120");
+        assertEquals(Duration.ofSeconds(120), RetryAfter.parse(headers));
+
+        headers.set(HttpHeaders.RETRY_AFTER, "Wed, 21 Oct 2015 07:28:00 GMT");
+        assertEquals(Duration.ZERO, RetryAfter.parse(headers));
+
+        headers.set(HttpHeaders.RETRY_AFTER, "soon");
+        assertEquals(null, RetryAfter.parse(headers));
+    }
+}
@@ -0,0 +1,124 @@
+package org.xiaofeng.webclient.service;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PreparedEndpointTest {
+    private DisposableServer server;
+
+    private Injector injector;
+
+    @BeforeEach
+    void setUp() {
+        // Echoes the method, the raw URI and the body of every request
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> response.sendString(request.receive().aggregate().asString()
+                        .defaultIfEmpty("")
+                        .map(body -> request.method().name() + " " + request.uri() + " " + body)))
+                .bindNow();
+        WebClientConfig config = WebClientConfig.builder()
+                .retryPolicy(RetryPolicy.none())
+                .build();
+        injector = Guice.createInjector(new WebClientModule(config));
+    }
+
+    @AfterEach
+    void tearDown() {
+        injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        server.disposeNow();
+    }
+
+    private static PreparedEndpoint endpoint(String uriTemplate) {
+        return new PreparedEndpoint(null, HttpMethod.GET, uriTemplate, null);
+    }
+
+    private WebClientService service() {
+        return injector.getInstance(WebClientService.class);
+    }
+
+    private String base() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    @Test
+    void valuesAreEncodedForTheirComponent() {
+        PreparedEndpoint endpoint = endpoint("http://api/users/{name}/items?q={query}&page={page}");
+
+        assertEquals(URI.create("http://api/users/a%20b%2Fc/items?q=a%2Bb%20c%26d%3De&page=2"),
+                endpoint.expand("a b/c", "a+b c&d=e", 2));
+        assertEquals(URI.create("http://api/users/plain-1.2_3~/items?q=x&page=1"),
+                endpoint.expand("plain-1.2_3~", "x", 1));
+        assertEquals(URI.create("http://api/users/%C3%A9t%C3%A9/items?q=%C3%A9&page=1"),
+                endpoint.expand("\u00e9t\u00e9", "\u00e9", 1));
+    }
+
+    @Test
+    void repeatedNameIsOneVariable() {
+        PreparedEndpoint endpoint = endpoint("http://api/{id}/copy/{id}?of={other}");
+
+        assertEquals(List.of("id", "other"), endpoint.getVariableNames());
+        assertEquals(URI.create("http://api/7/copy/7?of=8"), endpoint.expand(7, 8));
+    }
+
+    @Test
+    void wrongVariableCountIsRejected() {
+        PreparedEndpoint endpoint = endpoint("http://api/{id}/items/{item}");
+
+        assertThrows(IllegalArgumentException.class, () -> endpoint.expand(1));
+        assertThrows(IllegalArgumentException.class, () -> endpoint.expand(1, 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> endpoint("http://api/items").expand(1));
+    }
+
+    @Test
+    void malformedTemplateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> endpoint("http://api/{id"));
+        assertThrows(IllegalArgumentException.class, () -> endpoint("http://api/id}"));
+        assertThrows(IllegalArgumentException.class, () -> endpoint("http://api/{}"));
+        assertThrows(IllegalArgumentException.class, () -> endpoint("http://api/{a{b}}"));
+    }
+
+    @Test
+    void relativeTemplateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> endpoint("/users/{id}"));
+        assertThrows(IllegalArgumentException.class, () -> service().prepare(HttpMethod.GET, "users/{id}", null));
+    }
+
+    @Test
+    void preparedPatchAndOptionsAreSent() {
+        EndpointTemplate patch = service().prepare(HttpMethod.PATCH, base() + "/users/{id}", null);
+        EndpointTemplate options = service().prepare(HttpMethod.OPTIONS, base() + "/users/{id}", null);
+
+        assertEquals("PATCH /users/7 {\"name\":\"x\"}",
+                patch.invokeWithBody("{\"name\":\"x\"}", 7).block(Duration.ofSeconds(5)));
+        assertEquals("OPTIONS /users/7 ", options.invoke(7).block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void patchAndOptionsAreSent() {
+        assertEquals("PATCH /users/7 {\"name\":\"x\"}", service()
+                .invokeApi(base() + "/users/7", HttpMethod.PATCH, "{\"name\":\"x\"}")
+                .block(Duration.ofSeconds(5)));
+        assertEquals("OPTIONS /users/7 ", service()
+                .invokeApi(base() + "/users/7", HttpMethod.OPTIONS)
+                .block(Duration.ofSeconds(5)));
+    }
+}
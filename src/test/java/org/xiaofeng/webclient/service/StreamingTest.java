@@ -0,0 +1,299 @@
+package org.xiaofeng.webclient.service;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.xiaofeng.webclient.body.BodyLimitConfig;
+import org.xiaofeng.webclient.common.ClientErrorException;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StreamingTest {
+    private static final int MAX_IN_MEMORY = 64 * 1024;
+
+    private static final byte[] CHUNK = new byte[16 * 1024];
+
+    // Sixteen times the codec limit
+    private static final int CHUNKS = 64;
+
+    private static final String ORIGINAL = "original content";
+
+    private final AtomicInteger flakyHits = new AtomicInteger();
+
+    private final AtomicInteger brokenHits = new AtomicInteger();
+
+    private DisposableServer server;
+
+    private Injector injector;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/items", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                                .sendString(Flux.just("{\"name\":\"a\",\"count\":1}\n",
+                                        "{\"name\":\"b\",\"count\":2}\n")))
+                        .get("/events", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                                .sendString(Flux.just("id:1\ndata:first\n\n", "id:2\ndata:second\n\n")))
+                        .get("/large", (request, response) -> response
+                                .send(Flux.range(0, CHUNKS).map(i -> Unpooled.wrappedBuffer(CHUNK))))
+                        .get("/missing", (request, response) -> response
+                                .status(HttpStatus.NOT_FOUND.value())
+                                .sendString(Mono.just("no such file")))
+                        // Unavailable on the first call only
+                        .get("/flaky", (request, response) -> flakyHits.incrementAndGet() == 1
+                                ? response.status(HttpStatus.SERVICE_UNAVAILABLE.value()).send()
+                                : response.sendString(Mono.just("recovered")))
+                        // Drops the connection after the first bytes of the body
+                        .get("/broken", (request, response) -> {
+                            brokenHits.incrementAndGet();
+                            return response.sendString(Flux.concat(
+                                    Mono.just("first,"),
+                                    Mono.delay(Duration.ofMillis(100))
+                                            .then(Mono.error(new IllegalStateException("broken")))));
+                        }))
+                .bindNow();
+        WebClientConfig config = WebClientConfig.builder()
+                .bodyLimits(BodyLimitConfig.builder().maxInMemorySize(MAX_IN_MEMORY).build())
+                .retryPolicy(RetryPolicy.builder()
+                        .maxRetries(2)
+                        .retryableStatuses(503)
+                        .initialBackoff(Duration.ofMillis(10))
+                        .build())
+                .build();
+        injector = Guice.createInjector(new WebClientModule(config));
+    }
+
+    @AfterEach
+    void tearDown() {
+        injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        server.disposeNow();
+    }
+
+    private WebClientService service() {
+        return injector.getInstance(WebClientService.class);
+    }
+
+    private String uri(String path) {
+        return "http://127.0.0.1:" + server.port() + path;
+    }
+
+    private List<Path> listTempDir() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public record Item(String name, int count) {
+    }
+
+    @Test
+    void ndjsonIsDecodedOneElementPerLine() {
+        List<Item> items = service().streamJson(uri("/items"), HttpMethod.GET, headers -> {
+                }, Item.class)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(new Item("a", 1), new Item("b", 2)), items);
+    }
+
+    @Test
+    void serverSentEventsAreDecoded() {
+        List<ServerSentEvent<String>> events = service().streamEvents(uri("/events"), headers -> {
+                }, String.class)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(2, events.size());
+        assertEquals("1", events.get(0).id());
+        assertEquals("first", events.get(0).data());
+        assertEquals("second", events.get(1).data());
+    }
+
+    @Test
+    void streamPassesBodyLargerThanCodecLimitAndHandsOverBuffers() {
+        AtomicLong received = new AtomicLong();
+        AtomicInteger stillReferenced = new AtomicInteger();
+
+        service().stream(uri("/large"), HttpMethod.GET, headers -> {
+                })
+                .doOnNext(buffer -> {
+                    received.addAndGet(buffer.readableByteCount());
+                    // The caller holds the only reference, so releasing it frees the buffer
+                    if (buffer instanceof PooledDataBuffer pooled) {
+                        if (!pooled.release()) {
+                            stillReferenced.incrementAndGet();
+                        }
+                    } else {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .blockLast(Duration.ofSeconds(5));
+
+        assertEquals((long) CHUNKS * CHUNK.length, received.get());
+        assertEquals(0, stillReferenced.get());
+    }
+
+    @Test
+    void aggregatingCallStillHonoursCodecLimit() {
+        RuntimeException error = assertThrows(RuntimeException.class, () -> service()
+                .invokeApiForBytes(uri("/large"), HttpMethod.GET, headers -> {
+                })
+                .block(Duration.ofSeconds(5)));
+
+        assertTrue(hasCause(error, DataBufferLimitException.class), error.toString());
+    }
+
+    @Test
+    void downloadWritesBodyLargerThanCodecLimit() throws Exception {
+        Path target = tempDir.resolve("large.bin");
+
+        Path written = service().downloadTo(uri("/large"), HttpMethod.GET, headers -> {
+        }, target).block(Duration.ofSeconds(5));
+
+        assertEquals(target, written);
+        assertEquals((long) CHUNKS * CHUNK.length, Files.size(target));
+        assertEquals(List.of(target), listTempDir());
+    }
+
+    @Test
+    void downloadedFileFollowsTheUmask() throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path reference = Files.createFile(tempDir.resolve("reference.bin"));
+        Path target = tempDir.resolve("large.bin");
+
+        service().downloadTo(uri("/large"), HttpMethod.GET, headers -> {
+        }, target).block(Duration.ofSeconds(5));
+
+        assertEquals(Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(target));
+    }
+
+    @Test
+    void downloadKeepsThePermissionsOfTheTarget() throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Path target = Files.writeString(tempDir.resolve("kept.bin"), ORIGINAL);
+        Files.setPosixFilePermissions(target, permissions);
+
+        service().downloadTo(uri("/large"), HttpMethod.GET, headers -> {
+        }, target).block(Duration.ofSeconds(5));
+
+        assertEquals((long) CHUNKS * CHUNK.length, Files.size(target));
+        assertEquals(permissions, Files.getPosixFilePermissions(target));
+    }
+
+    @Test
+    void errorStatusIsMappedBeforeTheBody() {
+        ClientErrorException error = assertThrows(ClientErrorException.class, () -> service()
+                .stream(uri("/missing"), HttpMethod.GET, headers -> {
+                })
+                .blockLast(Duration.ofSeconds(5)));
+
+        assertEquals(404, error.getStatusCode());
+        assertEquals("no such file", error.getResponseBody());
+    }
+
+    @Test
+    void failedDownloadKeepsExistingTarget() throws Exception {
+        Path target = Files.writeString(tempDir.resolve("kept.txt"), ORIGINAL);
+
+        assertThrows(ClientErrorException.class, () -> service()
+                .downloadTo(uri("/missing"), HttpMethod.GET, headers -> {
+                }, target)
+                .block(Duration.ofSeconds(5)));
+        assertThrows(RuntimeException.class, () -> service()
+                .downloadTo(uri("/broken"), HttpMethod.GET, headers -> {
+                }, target)
+                .block(Duration.ofSeconds(5)));
+
+        assertEquals(ORIGINAL, Files.readString(target));
+        assertEquals(List.of(target), listTempDir());
+    }
+
+    @Test
+    void errorBeforeFirstByteIsRetried() {
+        String body = service().stream(uri("/flaky"), HttpMethod.GET, headers -> {
+                })
+                .map(buffer -> {
+                    String text = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return text;
+                })
+                .collect(Collectors.joining())
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("recovered", body);
+        assertEquals(2, flakyHits.get());
+    }
+
+    @Test
+    void errorAfterFirstByteIsNotRetried() {
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        assertThrows(RuntimeException.class, () -> service()
+                .stream(uri("/broken"), HttpMethod.GET, headers -> {
+                })
+                .doOnNext(buffer -> {
+                    received.add(buffer.toString(StandardCharsets.UTF_8));
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast(Duration.ofSeconds(5)));
+
+        assertEquals("first,", String.join("", received));
+        assertEquals(1, brokenHits.get());
+    }
+}
@@ -0,0 +1,148 @@
+package org.xiaofeng.webclient.service;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.xiaofeng.webclient.common.ClientErrorException;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TypedResponseTest {
+    private static final String ITEMS = "[{\"name\":\"a\",\"count\":1},{\"name\":\"b\",\"count\":2}]";
+
+    private DisposableServer server;
+
+    private Injector injector;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/items", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.just(ITEMS)))
+                        // Answers with the JSON body it received
+                        .post("/echo", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .send(request.receive().retain()))
+                        .get("/missing", (request, response) -> response
+                                .status(HttpStatus.NOT_FOUND.value())
+                                .sendString(Mono.just("no such item"))))
+                .bindNow();
+        injector = Guice.createInjector(new WebClientModule());
+    }
+
+    @AfterEach
+    void tearDown() {
+        injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        server.disposeNow();
+    }
+
+    private WebClientService service() {
+        return injector.getInstance(WebClientService.class);
+    }
+
+    private String uri(String path) {
+        return "http://127.0.0.1:" + server.port() + path;
+    }
+
+    public record Item(String name, int count) {
+    }
+
+    @Test
+    void bodyIsDecodedToClass() {
+        Item[] items = service().invokeApi(uri("/items"), HttpMethod.GET, Item[].class)
+                .block(Duration.ofSeconds(5));
+
+        assertArrayEquals(new Item[]{new Item("a", 1), new Item("b", 2)}, items);
+    }
+
+    @Test
+    void bodyIsDecodedToGenericType() {
+        List<Item> items = service()
+                .invokeApi(uri("/items"), HttpMethod.GET, new ParameterizedTypeReference<List<Item>>() {
+                })
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(new Item("a", 1), new Item("b", 2)), items);
+    }
+
+    @Test
+    void objectRequestIsEncodedAndAnswerDecoded() {
+        Item item = service().invokeApi(uri("/echo"), HttpMethod.POST, new Item("c", 3),
+                        headers -> headers.setContentType(MediaType.APPLICATION_JSON), Item.class)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(new Item("c", 3), item);
+    }
+
+    @Test
+    void asyncVariantDecodesToGenericType() throws Exception {
+        Map<String, Object> first = service()
+                .invokeApiAsync(uri("/items"), HttpMethod.GET, headers -> {
+                }, new ParameterizedTypeReference<List<Map<String, Object>>>() {
+                })
+                .get(5, TimeUnit.SECONDS)
+                .get(0);
+
+        assertEquals(Map.of("name", "a", "count", 1), first);
+    }
+
+    @Test
+    void asyncVariantEncodesAndDecodesToGenericType() throws Exception {
+        List<Item> items = service()
+                .invokeApiAsync(uri("/echo"), HttpMethod.POST, List.of(new Item("c", 3), new Item("d", 4)),
+                        headers -> headers.setContentType(MediaType.APPLICATION_JSON),
+                        new ParameterizedTypeReference<List<Item>>() {
+                        })
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(new Item("c", 3), new Item("d", 4)), items);
+    }
+
+    @Test
+    void rawBytesAndBufferAreReturned() {
+        byte[] bytes = service().invokeApiForBytes(uri("/items"), HttpMethod.GET, headers -> {
+        }).block(Duration.ofSeconds(5));
+        DataBuffer buffer = service().invokeApiForBuffer(uri("/items"), HttpMethod.GET, headers -> {
+        }).block(Duration.ofSeconds(5));
+
+        assertEquals(ITEMS, new String(bytes, StandardCharsets.UTF_8));
+        try {
+            assertEquals(ITEMS, buffer.toString(StandardCharsets.UTF_8));
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    @Test
+    void errorStatusIsMappedForTypedCalls() {
+        assertThrows(ClientErrorException.class, () -> service()
+                .invokeApi(uri("/missing"), HttpMethod.GET, Item.class)
+                .block(Duration.ofSeconds(5)));
+    }
+}
@@ -0,0 +1,133 @@
+package org.xiaofeng.webclient.service;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadTest {
+    // Larger than one 64 KiB upload chunk
+    private static final String CONTENT = "0123456789abcdef".repeat(10_000);
+
+    private DisposableServer server;
+
+    private Injector injector;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        // Answers with the framing of the request body and the body itself
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    request.requestHeaders().forEach(header -> headers.add(header.getKey(), header.getValue()));
+                    String framing = headers.getContentLength() >= 0
+                            ? "length=" + headers.getContentLength()
+                            : "chunked";
+                    return response.sendString(request.receive().aggregate().asString(StandardCharsets.UTF_8)
+                            .defaultIfEmpty("")
+                            .map(body -> framing + "|" + body));
+                })
+                .bindNow();
+        injector = Guice.createInjector(new WebClientModule());
+    }
+
+    @AfterEach
+    void tearDown() {
+        injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        server.disposeNow();
+    }
+
+    private WebClientService service() {
+        return injector.getInstance(WebClientService.class);
+    }
+
+    private String uri() {
+        return "http://127.0.0.1:" + server.port() + "/upload";
+    }
+
+    private static byte[] bytes() {
+        return CONTENT.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void fileIsSentWithItsLength() throws Exception {
+        Path file = Files.write(tempDir.resolve("upload.txt"), bytes());
+
+        String answer = service().invokeApi(uri(), HttpMethod.PUT, file, headers -> {
+        }).block(Duration.ofSeconds(5));
+
+        assertEquals("length=" + CONTENT.length() + "|" + CONTENT, answer);
+    }
+
+    @Test
+    void inputStreamIsSentChunked() {
+        InputStream in = new ByteArrayInputStream(bytes());
+
+        String answer = service().invokeApi(uri(), HttpMethod.POST, in, headers -> {
+        }).block(Duration.ofSeconds(5));
+
+        assertEquals("chunked|" + CONTENT, answer);
+    }
+
+    @Test
+    void inputStreamCannotBeSentTwice() {
+        Mono<String> call = service().invokeApi(uri(), HttpMethod.POST, new ByteArrayInputStream(bytes()),
+                headers -> {
+                });
+
+        assertEquals("chunked|" + CONTENT, call.block(Duration.ofSeconds(5)));
+        RuntimeException error = assertThrows(RuntimeException.class, () -> call.block(Duration.ofSeconds(5)));
+        boolean guarded = false;
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            guarded |= cause instanceof IllegalStateException && cause.getMessage().contains("twice");
+        }
+        assertTrue(guarded, error.toString());
+    }
+
+    @Test
+    void bufferStreamIsSentChunked() {
+        Flux<DataBuffer> body = Flux.just("first,", "second")
+                .map(part -> DefaultDataBufferFactory.sharedInstance.wrap(part.getBytes(StandardCharsets.UTF_8)));
+
+        String answer = service().invokeApi(uri(), HttpMethod.POST, body, headers -> {
+        }).block(Duration.ofSeconds(5));
+
+        assertEquals("chunked|first,second", answer);
+    }
+
+    @Test
+    void byteArrayIsSentAsIs() {
+        String answer = service().invokeApi(uri(), HttpMethod.POST, bytes(), headers -> {
+        }).block(Duration.ofSeconds(5));
+
+        assertEquals("length=" + CONTENT.length() + "|" + CONTENT, answer);
+    }
+}
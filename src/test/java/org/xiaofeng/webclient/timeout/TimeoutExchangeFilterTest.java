@@ -0,0 +1,186 @@
+package org.xiaofeng.webclient.timeout;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.xiaofeng.webclient.config.RequestOptions;
+import org.xiaofeng.webclient.config.TimeoutConfig;
+import org.xiaofeng.webclient.config.WebClientConfig;
+import org.xiaofeng.webclient.module.WebClientModule;
+import org.xiaofeng.webclient.retry.RetryPolicy;
+import org.xiaofeng.webclient.service.WebClientService;
+import org.xiaofeng.webclient.type.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeoutExchangeFilterTest {
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(300);
+
+    private static final Duration SLOW = Duration.ofMillis(800);
+
+    private volatile String deadlineHeader;
+
+    private DisposableServer server;
+
+    private Injector injector;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/slow-body", (request, response) -> response.sendString(
+                                Mono.delay(SLOW).thenReturn("ok")))
+                        .get("/slow-headers", (request, response) -> Mono.delay(SLOW)
+                                .then(response.sendString(Mono.just("ok")).then()))
+                        .get("/stream", (request, response) -> response.sendString(Flux.concat(
+                                Mono.just("first,"),
+                                Mono.delay(SLOW).thenReturn("second"))))
+                        .get("/deadline", (request, response) -> {
+                            deadlineHeader = request.requestHeaders().get("X-Request-Timeout");
+                            return response.sendString(Mono.just("ok"));
+                        }))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (injector != null) {
+            injector.getInstance(ConnectionProvider.class).disposeLater().block();
+        }
+        server.disposeNow();
+    }
+
+    private WebClientService service(TimeoutConfig.Builder timeouts) {
+        WebClientConfig config = WebClientConfig.builder()
+                .timeouts(timeouts.build())
+                .retryPolicy(RetryPolicy.none())
+                .build();
+        injector = Guice.createInjector(new WebClientModule(config));
+        return injector.getInstance(WebClientService.class);
+    }
+
+    private String uri(String path) {
+        return "http://127.0.0.1:" + server.port() + path;
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void readTimeoutFailsSilentResponse() {
+        WebClientService service = service(TimeoutConfig.builder().readTimeout(READ_TIMEOUT));
+
+        assertThrows(RuntimeException.class, () -> service.invokeApi(uri("/slow-body"), HttpMethod.GET)
+                .block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void streamOutlivesIdleGapLongerThanReadTimeout() {
+        WebClientService service = service(TimeoutConfig.builder().readTimeout(READ_TIMEOUT));
+
+        String body = DataBufferUtils.join(service.stream(uri("/stream"), HttpMethod.GET, headers -> {
+                }))
+                .map(buffer -> {
+                    String text = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return text;
+                })
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("first,second", body);
+    }
+
+    @Test
+    void hostReadTimeoutOverridesDefault() {
+        WebClientService service = service(TimeoutConfig.builder()
+                .readTimeout(READ_TIMEOUT)
+                .hostReadTimeout("127.0.0.1", Duration.ofSeconds(3)));
+
+        assertEquals("ok", service.invokeApi(uri("/slow-body"), HttpMethod.GET).block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void hostResponseTimeoutBoundsTheWaitForHeaders() {
+        WebClientService service = service(TimeoutConfig.builder()
+                .hostResponseTimeout("127.0.0.1", Duration.ofMillis(200)));
+
+        long start = System.nanoTime();
+        RuntimeException error = assertThrows(RuntimeException.class, () ->
+                service.invokeApi(uri("/slow-headers"), HttpMethod.GET).block(Duration.ofSeconds(5)));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(hasCause(error, TimeoutException.class), error.toString());
+        assertTrue(elapsed < SLOW.toMillis(), "elapsed " + elapsed);
+    }
+
+    @Test
+    void callTimeoutCanBeSetPerCall() {
+        WebClientService service = service(TimeoutConfig.builder().readTimeout(null))
+                .withOptions(RequestOptions.builder().timeout(Duration.ofMillis(200)).build());
+
+        long start = System.nanoTime();
+        RuntimeException error = assertThrows(RuntimeException.class, () ->
+                service.invokeApi(uri("/slow-headers"), HttpMethod.GET).block(Duration.ofSeconds(5)));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(hasCause(error, TimeoutException.class), error.toString());
+        assertTrue(elapsed < SLOW.toMillis(), "elapsed " + elapsed);
+    }
+
+    @Test
+    void remainingTimeIsSentInDeadlineHeader() {
+        WebClientService service = service(TimeoutConfig.builder()
+                .callTimeout(Duration.ofSeconds(2))
+                .deadlineHeader("X-Request-Timeout"));
+
+        service.invokeApi(uri("/deadline"), HttpMethod.GET).block(Duration.ofSeconds(5));
+
+        long remaining = Long.parseLong(deadlineHeader);
+        assertTrue(remaining > 0 && remaining <= 2000, "header " + deadlineHeader);
+    }
+
+    @Test
+    void expiredDeadlineIsNotSent() {
+        TimeoutExchangeFilter filter = new TimeoutExchangeFilter(TimeoutConfig.builder().build());
+        ClientRequest request = ClientRequest.create(org.springframework.http.HttpMethod.GET,
+                URI.create(uri("/deadline"))).build();
+        AtomicInteger sent = new AtomicInteger();
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> filter
+                .filter(request, next -> {
+                    sent.incrementAndGet();
+                    return Mono.empty();
+                })
+                .contextWrite(context -> Deadline.putIn(context, Deadline.after(Duration.ZERO)))
+                .block(Duration.ofSeconds(5)));
+
+        assertTrue(hasCause(error, TimeoutException.class), error.toString());
+        assertEquals(0, sent.get());
+    }
+}